@@ -2,11 +2,14 @@ package controller;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
@@ -31,8 +34,10 @@ import swp_compiler_ss13.fuc.errorLog.LogEntry;
 import swp_compiler_ss13.fuc.errorLog.ReportLogImpl;
 
 public class Controller {
-	// the input file, stdin by default
+	// stdin, if there is no input file
 	static InputStream input = System.in;
+	// the name of the input file, null for stdin
+	static String inputFile = null;
 
 	// variables which hold our components,
 	// initially "null", will be assigned if
@@ -48,6 +53,7 @@ public class Controller {
 	static String outname = null;
 	static String loglevel = null;
 	static boolean jit = false;
+	static boolean syntaxOnly = false;
 
 	// our error report log for the parser
 	static ReportLogImpl errlog = new ReportLogImpl();
@@ -176,6 +182,30 @@ public class Controller {
 		}
 	}
 
+	// let the lexer read the input file: lexers with a method
+	// setSourceFile(File) (like the table driven lexer, which maps the file
+	// into memory) get the file itself, all others a stream on it.
+	static void setSourceFile(Lexer lexer, String file) throws IOException {
+		Method setSourceFile;
+		try {
+			setSourceFile = lexer.getClass().getMethod("setSourceFile", File.class);
+		} catch (NoSuchMethodException e) {
+			lexer.setSourceStream(new FileInputStream(file));
+			return;
+		}
+
+		try {
+			setSourceFile.invoke(lexer, new File(file));
+		} catch (IllegalAccessException e) {
+			lexer.setSourceStream(new FileInputStream(file));
+		} catch (InvocationTargetException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
 	public static void main(String[] args) throws IOException, IntermediateCodeGeneratorException, BackendException,
 			InstantiationException, IllegalAccessException {
 		System.err.println("SWP Compiler v0.0\n");
@@ -207,14 +237,14 @@ public class Controller {
 			}
 			// set file
 			else if (!may_be_option || arg.charAt(0) != '-') {
-				if (input != System.in) { // already set!
+				if (inputFile != null) { // already set!
 					System.err.println("ERROR: only none or one input file allowed!");
 					System.exit(2);
 				} else {
 					if (arg.equals("-")) {
 						; // already set to stdin
 					} else {
-						input = new FileInputStream(arg);
+						inputFile = arg;
 					}
 				}
 				continue; // it's no option, so we should continue with next arg
@@ -228,6 +258,8 @@ public class Controller {
 				disableVisualization = true;
 			} else if (arg.equals("-j") || arg.equals("--jit")) {
 				jit = true;
+			} else if (arg.equals("-s") || arg.equals("--syntax-only")) {
+				syntaxOnly = true;
 			} else if (arg.equals("-o")) {
 				expect_outname = true;
 			} else if (arg.equals("-l") || arg.equals("--loglevel")) {
@@ -249,6 +281,7 @@ public class Controller {
 				System.out.println("     -h/-?/--help            emits this help message");
 				System.out.println("     -o <output>             output filename, only used by llvm");
 				System.out.println("     -j --jit                just in time compile (not yet supported)");
+				System.out.println("     -s --syntax-only        only checks the syntax of the input, no AST is built");
 				System.out.println("     -l --loglevel <level>   set the loglevel. allowed values are:");
 				System.out.println("                               ALL DEBUG ERROR FATAL INFO OFF TRACE WARN");
 				System.out
@@ -270,31 +303,51 @@ public class Controller {
 			}
 		}
 
+		// the parser plugin reads its mode when it is instantiated
+		if (syntaxOnly) {
+			System.setProperty("swp_compiler_ss13.fuc.parser.recognize", "true");
+		}
+
 		// try to find a lexer, parser and backend
 		// this call assigns the variables lexer,parser,backend
 		// or fails if any one components is missing.
 		loadPlugins();
 
-		// copy the input stream
-		ByteArrayOutputStream baos = new ByteArrayOutputStream();
-		byte[] buffer = new byte[1024];
-		int len;
-		while ((len = input.read(buffer)) > -1) {
-			baos.write(buffer, 0, len);
-		}
-		baos.flush();
+		// the lexer reads the input while the parser asks for tokens, so
+		// stdin is only kept in memory if the token visualizations need to
+		// read it once more
+		boolean visualizeTokens = !disableVisualization
+				&& tokenVisuService.iterator().hasNext();
+		byte[] source = null;
+		if (visualizeTokens && inputFile == null) {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			byte[] buffer = new byte[1024];
+			int len;
+			while ((len = input.read(buffer)) > -1) {
+				baos.write(buffer, 0, len);
+			}
+			baos.flush();
 
-		input = new ByteArrayInputStream(baos.toByteArray());
+			source = baos.toByteArray();
+			input = new ByteArrayInputStream(source);
+		}
 
 		// use the components now to compile our file
 		// lexer...
-		lexer.setSourceStream(input);
+		if (inputFile != null) {
+			setSourceFile(lexer, inputFile);
+		} else {
+			lexer.setSourceStream(input);
+		}
 
-		if (!disableVisualization) {
+		if (visualizeTokens) {
 			for (TokenStreamVisualization tokenvisu : tokenVisuService) {
-				input = new ByteArrayInputStream(baos.toByteArray());
 				Lexer vlexer = lexer.getClass().newInstance();
-				vlexer.setSourceStream(input);
+				if (inputFile != null) {
+					setSourceFile(vlexer, inputFile);
+				} else {
+					vlexer.setSourceStream(new ByteArrayInputStream(source));
+				}
 				tokenvisu.visualizeTokenStream(vlexer);
 			}
 		}
@@ -313,6 +366,12 @@ public class Controller {
 			System.exit(1);
 		}
 
+		// the parser did not build an AST, so there is nothing left to do
+		if (syntaxOnly) {
+			System.err.println("Syntax OK");
+			return;
+		}
+
 		if (!disableVisualization) {
 			for (ASTVisualization astvisu : ASTVisuService) {
 				astvisu.visualizeAST(ast);
@@ -0,0 +1,153 @@
+package swp_compiler_ss13.fuc.lexer.bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import swp_compiler_ss13.common.lexer.TokenType;
+import swp_compiler_ss13.fuc.lexer.KeywordTable;
+
+/**
+ * Measures how fast identifier-shaped lexemes are classified as keywords or
+ * identifiers: By the {@link KeywordTable}, which works on the characters of
+ * the source, by a {@link HashMap} lookup of a new {@link String}, and by
+ * the sequence of {@link String#matches(String)} calls the old lexer used.
+ * Half of the lexemes are keywords.<br/>
+ * Usage: <code>KeywordBenchmark [runs] [lexemes]</code>
+ *
+ * @author Gero
+ */
+public class KeywordBenchmark {
+	private static final String[] KEYWORDS = { "true", "false", "if", "else",
+			"while", "do", "break", "return", "print", "long", "double", "bool",
+			"string", "record" };
+	private static final TokenType[] TYPES = { TokenType.TRUE,
+			TokenType.FALSE, TokenType.IF, TokenType.ELSE, TokenType.WHILE,
+			TokenType.DO, TokenType.BREAK, TokenType.RETURN, TokenType.PRINT,
+			TokenType.LONG_SYMBOL, TokenType.DOUBLE_SYMBOL,
+			TokenType.BOOL_SYMBOL, TokenType.STRING_SYMBOL,
+			TokenType.RECORD_SYMBOL };
+	private static final String[] IDS = { "a", "b", "i", "counter", "tmp",
+			"result", "done", "bools", "lengthy", "x1", "sum_2", "iff" };
+
+	/** The regular expressions are slower by orders of magnitude */
+	private static final int MATCHES_DIVISOR = 100;
+
+	private static final Map<String, TokenType> MAP = new HashMap<>();
+
+	static {
+		for (int i = 0; i < KEYWORDS.length; i++) {
+			MAP.put(KEYWORDS[i], TYPES[i]);
+		}
+	}
+
+	private static char[] source;
+	private static int[] starts;
+	private static int[] lengths;
+	/** Keeps the JIT from removing the lookups */
+	private static int sink = 0;
+
+	public static void main(String[] args) {
+		int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+		int lexemes = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+		createSource(lexemes);
+
+		// Let the JIT see the lookups before we start measuring
+		for (int i = 0; i < 10; i++) {
+			lookupTable(lexemes);
+			lookupMap(lexemes);
+			lookupMatches(lexemes / MATCHES_DIVISOR);
+		}
+
+		measure("KeywordTable", 0, lexemes, runs);
+		measure("HashMap", 1, lexemes, runs);
+		measure("String.matches", 2, lexemes / MATCHES_DIVISOR, runs);
+		if (sink == 42) {
+			System.out.println();
+		}
+	}
+
+	private static void createSource(int lexemes) {
+		Random random = new Random(4711);
+		StringBuilder b = new StringBuilder();
+		starts = new int[lexemes];
+		lengths = new int[lexemes];
+		for (int i = 0; i < lexemes; i++) {
+			String lexeme = random.nextBoolean() ? KEYWORDS[random
+					.nextInt(KEYWORDS.length)] : IDS[random.nextInt(IDS.length)];
+			starts[i] = b.length();
+			lengths[i] = lexeme.length();
+			b.append(lexeme).append(' ');
+		}
+		source = b.toString().toCharArray();
+	}
+
+	private static void measure(String name, int method, int lexemes, int runs) {
+		long[] durations = new long[runs];
+		long allocated = getAllocatedBytes();
+		for (int i = 0; i < runs; i++) {
+			long start = System.nanoTime();
+			switch (method) {
+			case 0:
+				lookupTable(lexemes);
+				break;
+			case 1:
+				lookupMap(lexemes);
+				break;
+			default:
+				lookupMatches(lexemes);
+				break;
+			}
+			durations[i] = System.nanoTime() - start;
+		}
+		allocated = getAllocatedBytes() - allocated;
+		Arrays.sort(durations);
+		System.out.println(String.format(
+				"%s lexemes=%d: median=%.3fms, %.2f ns/lexeme (median), %s bytes/lexeme",
+				name, lexemes, durations[runs / 2] / 1e6,
+				(double) durations[runs / 2] / lexemes,
+				allocated < 0 ? "?" : String.valueOf(allocated / runs / lexemes)));
+	}
+
+	private static void lookupTable(int lexemes) {
+		for (int i = 0; i < lexemes; i++) {
+			sink += KeywordTable.lookup(source, starts[i], lengths[i]).ordinal();
+		}
+	}
+
+	private static void lookupMap(int lexemes) {
+		for (int i = 0; i < lexemes; i++) {
+			TokenType type = MAP.get(new String(source, starts[i], lengths[i]));
+			sink += type == null ? TokenType.ID.ordinal() : type.ordinal();
+		}
+	}
+
+	private static void lookupMatches(int lexemes) {
+		for (int i = 0; i < lexemes; i++) {
+			String lexeme = new String(source, starts[i], lengths[i]);
+			TokenType type = TokenType.ID;
+			for (int k = 0; k < KEYWORDS.length; k++) {
+				if (lexeme.matches(KEYWORDS[k])) {
+					type = TYPES[k];
+					break;
+				}
+			}
+			sink += type.ordinal();
+		}
+	}
+
+	/**
+	 * @return The number of bytes allocated by the current thread so far, or
+	 *         -1 if the JVM does not support measuring this
+	 */
+	private static long getAllocatedBytes() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(
+					Thread.currentThread().getId());
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,112 @@
+package swp_compiler_ss13.fuc.lexer;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import swp_compiler_ss13.common.lexer.TokenType;
+
+/**
+ * Recognizes the keywords of the language in identifier-shaped lexemes
+ * without creating a {@link String} first: The length, the first and the last
+ * character of a lexeme are hashed into a table of 32 slots. The hash is
+ * perfect for the keywords, so there is a single candidate for every lexeme,
+ * which is then compared character by character.
+ *
+ * @author Gero
+ */
+public final class KeywordTable {
+	// --------------------------------------------------------------------------
+	// --- variables and constants
+	// ----------------------------------------------
+	// --------------------------------------------------------------------------
+	private static final int MASK = 31;
+
+	private static final char[][] KEYWORDS = new char[MASK + 1][];
+	private static final TokenType[] TYPES = new TokenType[MASK + 1];
+	private static final Map<TokenType, String> VALUES = new EnumMap<>(TokenType.class);
+
+	private static int minLength = Integer.MAX_VALUE;
+	private static int maxLength = 0;
+
+	static {
+		add("true", TokenType.TRUE);
+		add("false", TokenType.FALSE);
+		add("if", TokenType.IF);
+		add("else", TokenType.ELSE);
+		add("while", TokenType.WHILE);
+		add("do", TokenType.DO);
+		add("break", TokenType.BREAK);
+		add("return", TokenType.RETURN);
+		add("print", TokenType.PRINT);
+		add("long", TokenType.LONG_SYMBOL);
+		add("double", TokenType.DOUBLE_SYMBOL);
+		add("bool", TokenType.BOOL_SYMBOL);
+		add("string", TokenType.STRING_SYMBOL);
+		add("record", TokenType.RECORD_SYMBOL);
+	}
+
+	// --------------------------------------------------------------------------
+	// --- constructors
+	// ---------------------------------------------------------
+	// --------------------------------------------------------------------------
+	private KeywordTable() {
+	}
+
+	// --------------------------------------------------------------------------
+	// --- methods
+	// --------------------------------------------------------------
+	// --------------------------------------------------------------------------
+	private static void add(String keyword, TokenType type) {
+		int length = keyword.length();
+		int slot = hash(length, keyword.charAt(0), keyword.charAt(length - 1));
+		if (KEYWORDS[slot] != null) {
+			throw new IllegalStateException("The hash of '" + keyword
+					+ "' collides with the one of '" + new String(KEYWORDS[slot])
+					+ "'!");
+		}
+		KEYWORDS[slot] = keyword.toCharArray();
+		TYPES[slot] = type;
+		VALUES.put(type, keyword);
+		minLength = Math.min(minLength, length);
+		maxLength = Math.max(maxLength, length);
+	}
+
+	private static int hash(int length, char first, char last) {
+		return (length + first + 3 * last) & MASK;
+	}
+
+	/**
+	 * @param chars
+	 * @param start
+	 *            The index of the first character of the lexeme
+	 * @param length
+	 *            The length of the lexeme
+	 * @return The {@link TokenType} of the keyword the given lexeme consists
+	 *         of, or {@link TokenType#ID} if it is no keyword
+	 */
+	public static TokenType lookup(char[] chars, int start, int length) {
+		if (length < minLength || length > maxLength) {
+			return TokenType.ID;
+		}
+		int slot = hash(length, chars[start], chars[start + length - 1]);
+		char[] keyword = KEYWORDS[slot];
+		if (keyword == null || keyword.length != length) {
+			return TokenType.ID;
+		}
+		for (int i = 0; i < length; i++) {
+			if (chars[start + i] != keyword[i]) {
+				return TokenType.ID;
+			}
+		}
+		return TYPES[slot];
+	}
+
+	/**
+	 * @param type
+	 * @return The keyword of the given {@link TokenType}, or <code>null</code>
+	 *         if it has none
+	 */
+	public static String getKeyword(TokenType type) {
+		return VALUES.get(type);
+	}
+}
@@ -0,0 +1,939 @@
+package swp_compiler_ss13.fuc.lexer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+import swp_compiler_ss13.common.lexer.Lexer;
+import swp_compiler_ss13.common.lexer.Token;
+import swp_compiler_ss13.common.lexer.TokenType;
+import swp_compiler_ss13.fuc.lexer.token.BoolTokenImpl;
+import swp_compiler_ss13.fuc.lexer.token.MappedNumTokenImpl;
+import swp_compiler_ss13.fuc.lexer.token.MappedRealTokenImpl;
+import swp_compiler_ss13.fuc.lexer.token.MappedSource;
+import swp_compiler_ss13.fuc.lexer.token.MappedTokenImpl;
+import swp_compiler_ss13.fuc.lexer.token.NumTokenImpl;
+import swp_compiler_ss13.fuc.lexer.token.RealTokenImpl;
+import swp_compiler_ss13.fuc.lexer.token.TokenImpl;
+
+/**
+ * Implementation of the interface {@link Lexer}, which returns the same
+ * tokens as {@link LexerImpl} (values, types, lines and columns), but scans
+ * the source in a single pass: A cursor moves over a window of the decoded
+ * input, which is refilled from the stream while the tokens are read, so the
+ * memory needed does not depend on the size of the source (only a single
+ * token which does not fit into the window makes it grow). The input is
+ * decoded like {@link java.io.InputStreamReader} does, but directly into the
+ * window. Every character is mapped to a character class by a table, and the
+ * type of a lexeme is determined by a DFA over these classes, so neither
+ * regular expressions nor copies of the rest of the line are needed. Keywords are found by the {@link KeywordTable}, and the tokens
+ * of keywords and operators share their (constant) values.<br/>
+ * A file can be read by {@link #setSourceFile(File)}, which maps it into
+ * memory instead of reading it: The window is decoded directly from the
+ * mapping, and the other tokens only keep the offsets of their bytes in it
+ * and decode their values on demand (see {@link MappedSource}).<br/>
+ * The only difference: For a string literal whose closing quote is escaped
+ * and which has no further quote in its line, {@link LexerImpl} fails with a
+ * {@link StringIndexOutOfBoundsException}, while this lexer returns the
+ * opening quote and everything up to the next separator as
+ * {@link TokenType#NOT_A_TOKEN}, like for any other unterminated string.
+ *
+ * @author Gero
+ */
+public class TableDrivenLexerImpl implements Lexer {
+	// --------------------------------------------------------------------------
+	// --- variables and constants
+	// ----------------------------------------------
+	// --------------------------------------------------------------------------
+	/** The number of characters the window holds by default */
+	public static final int DEFAULT_WINDOW_SIZE = 8192;
+	private static final int BYTES_SIZE = 8192;
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/* character classes */
+	private static final int C_OTHER = 0;
+	/** Whitespace inside of a line: ' ', \t, \x0B, \f */
+	private static final int C_SPACE = 1;
+	/** Line separators as recognized by {@link java.util.Scanner#nextLine()} */
+	private static final int C_LINE_END = 2;
+	private static final int C_DIGIT = 3;
+	/** 'e' and 'E', which are letters as well as exponent markers */
+	private static final int C_EXP = 4;
+	private static final int C_LETTER = 5;
+	private static final int C_UNDERSCORE = 6;
+	private static final int C_DOT = 7;
+	private static final int C_MINUS = 8;
+	/** All other characters which separate tokens on their own */
+	private static final int C_OPERATOR = 9;
+	private static final int C_AMP = 10;
+	private static final int C_PIPE = 11;
+	private static final int C_QUOTE = 12;
+	private static final int C_HASH = 13;
+	private static final int CLASSES_COUNT = 14;
+
+	private static final byte[] CHAR_CLASSES = new byte[128];
+	private static final char NEXT_LINE = (char) 0x85;
+	private static final char LINE_SEPARATOR = (char) 0x2028;
+	private static final char PARAGRAPH_SEPARATOR = (char) 0x2029;
+	/** What malformed input is replaced with, like by the default decoder */
+	private static final char REPLACEMENT = (char) 0xFFFD;
+
+	/* states of the DFA which determines the type of a lexeme */
+	private static final int S_START = 0;
+	private static final int S_ID = 1;
+	private static final int S_NUM = 2;
+	private static final int S_NUM_E = 3;
+	private static final int S_NUM_E_MINUS = 4;
+	private static final int S_NUM_EXP = 5;
+	private static final int S_DOT = 6;
+	private static final int S_REAL = 7;
+	private static final int S_REAL_E = 8;
+	private static final int S_REAL_E_MINUS = 9;
+	private static final int S_REAL_EXP = 10;
+	private static final int S_ERROR = 11;
+	private static final int STATES_COUNT = 12;
+
+	/** [state * {@link #CLASSES_COUNT} + class] -> next state */
+	private static final byte[] TRANSITIONS = new byte[STATES_COUNT * CLASSES_COUNT];
+	/** The type of a lexeme which ends in the given state */
+	private static final TokenType[] ACCEPTING = new TokenType[STATES_COUNT];
+
+	private static final Map<TokenType, String> OPERATORS = new EnumMap<>(TokenType.class);
+
+	static {
+		for (char c = '0'; c <= '9'; c++) {
+			CHAR_CLASSES[c] = C_DIGIT;
+		}
+		for (char c = 'a'; c <= 'z'; c++) {
+			CHAR_CLASSES[c] = C_LETTER;
+			CHAR_CLASSES[Character.toUpperCase(c)] = C_LETTER;
+		}
+		CHAR_CLASSES['e'] = C_EXP;
+		CHAR_CLASSES['E'] = C_EXP;
+		CHAR_CLASSES['_'] = C_UNDERSCORE;
+		for (char c : " \t\u000B\f".toCharArray()) {
+			CHAR_CLASSES[c] = C_SPACE;
+		}
+		CHAR_CLASSES['\n'] = C_LINE_END;
+		CHAR_CLASSES['\r'] = C_LINE_END;
+		CHAR_CLASSES['.'] = C_DOT;
+		CHAR_CLASSES['-'] = C_MINUS;
+		for (char c : "=<>+*/!;(){}[]".toCharArray()) {
+			CHAR_CLASSES[c] = C_OPERATOR;
+		}
+		CHAR_CLASSES['&'] = C_AMP;
+		CHAR_CLASSES['|'] = C_PIPE;
+		CHAR_CLASSES['"'] = C_QUOTE;
+		CHAR_CLASSES['#'] = C_HASH;
+
+		/*
+		 * [a-zA-Z]\w*, [0-9]+((e|E)(-)?[0-9]+)? and
+		 * [0-9]+\.[0-9]+((e|E)(-)?[0-9]+)?
+		 */
+		Arrays.fill(TRANSITIONS, (byte) S_ERROR);
+		transition(S_START, C_LETTER, S_ID);
+		transition(S_START, C_EXP, S_ID);
+		transition(S_START, C_DIGIT, S_NUM);
+		for (int c : new int[] { C_LETTER, C_EXP, C_DIGIT, C_UNDERSCORE }) {
+			transition(S_ID, c, S_ID);
+		}
+		transition(S_NUM, C_DIGIT, S_NUM);
+		transition(S_NUM, C_EXP, S_NUM_E);
+		transition(S_NUM, C_DOT, S_DOT);
+		transition(S_NUM_E, C_MINUS, S_NUM_E_MINUS);
+		transition(S_NUM_E, C_DIGIT, S_NUM_EXP);
+		transition(S_NUM_E_MINUS, C_DIGIT, S_NUM_EXP);
+		transition(S_NUM_EXP, C_DIGIT, S_NUM_EXP);
+		transition(S_DOT, C_DIGIT, S_REAL);
+		transition(S_REAL, C_DIGIT, S_REAL);
+		transition(S_REAL, C_EXP, S_REAL_E);
+		transition(S_REAL_E, C_MINUS, S_REAL_E_MINUS);
+		transition(S_REAL_E, C_DIGIT, S_REAL_EXP);
+		transition(S_REAL_E_MINUS, C_DIGIT, S_REAL_EXP);
+		transition(S_REAL_EXP, C_DIGIT, S_REAL_EXP);
+
+		Arrays.fill(ACCEPTING, TokenType.NOT_A_TOKEN);
+		ACCEPTING[S_ID] = TokenType.ID;
+		ACCEPTING[S_NUM] = TokenType.NUM;
+		ACCEPTING[S_NUM_EXP] = TokenType.NUM;
+		ACCEPTING[S_REAL] = TokenType.REAL;
+		ACCEPTING[S_REAL_EXP] = TokenType.REAL;
+
+		OPERATORS.put(TokenType.EQUALS, "==");
+		OPERATORS.put(TokenType.ASSIGNOP, "=");
+		OPERATORS.put(TokenType.NOT_EQUALS, "!=");
+		OPERATORS.put(TokenType.NOT, "!");
+		OPERATORS.put(TokenType.LESS_OR_EQUAL, "<=");
+		OPERATORS.put(TokenType.LESS, "<");
+		OPERATORS.put(TokenType.GREATER_EQUAL, ">=");
+		OPERATORS.put(TokenType.GREATER, ">");
+		OPERATORS.put(TokenType.AND, "&&");
+		OPERATORS.put(TokenType.OR, "||");
+		OPERATORS.put(TokenType.PLUS, "+");
+		OPERATORS.put(TokenType.MINUS, "-");
+		OPERATORS.put(TokenType.TIMES, "*");
+		OPERATORS.put(TokenType.DIVIDE, "/");
+		OPERATORS.put(TokenType.DOT, ".");
+		OPERATORS.put(TokenType.SEMICOLON, ";");
+		OPERATORS.put(TokenType.LEFT_PARAN, "(");
+		OPERATORS.put(TokenType.RIGHT_PARAN, ")");
+		OPERATORS.put(TokenType.LEFT_BRACE, "{");
+		OPERATORS.put(TokenType.RIGHT_BRACE, "}");
+		OPERATORS.put(TokenType.LEFT_BRACKET, "[");
+		OPERATORS.put(TokenType.RIGHT_BRACKET, "]");
+	}
+
+
+	/** The stream which is read */
+	private InputStream stream = null;
+	private CharsetDecoder decoder = null;
+	private final ByteBuffer streamBytes = ByteBuffer.allocate(BYTES_SIZE);
+	/**
+	 * Bytes which are not decoded yet: read from the stream into
+	 * {@link #streamBytes}, or the rest of a mapped file
+	 */
+	private ByteBuffer bytes = this.streamBytes;
+	/** Whether the stream has been read completely */
+	private boolean streamDone = true;
+	/** Whether the stream has been read and decoded completely */
+	private boolean inputDone = true;
+
+	/** The size of the window after {@link #setSourceStream(InputStream)} */
+	private final int windowSize;
+	/**
+	 * The part of the decoded source which is currently needed: From the
+	 * current token (or whitespace) on
+	 */
+	private char[] window;
+	/** The number of decoded characters in the window */
+	private int end = 0;
+
+	/** The cursor, an index into the window */
+	private int position = 0;
+	private int line = 1;
+	/** The index of the start of the current line, negative if it was dropped */
+	private int lineStart = 0;
+	/**
+	 * Whether the current line contains a character which is no
+	 * {@link Character#isWhitespace(char)}. The lines after the last such line
+	 * are ignored, like {@link LexerImpl} does.
+	 */
+	private boolean lineHasContent = false;
+	/** The last line which had content, or 0 */
+	private int lastContentLine = 0;
+	private int lastContentLength = 0;
+
+	/** The mapped file, <code>null</code> if a stream is read */
+	private MappedSource mappedSource = null;
+	/**
+	 * Whether the offsets of the characters in the mapped file are known, i.e.
+	 * there was no malformed input so far
+	 */
+	private boolean exactOffsets = false;
+	/** A position in the window, whose offset in the mapped file is known */
+	private int anchorPosition = 0;
+	private int anchorOffset = 0;
+
+	/* the token found by scan() */
+	private int tokenStart = 0;
+	private int tokenEnd = 0;
+	private int tokenColumn = 0;
+	/**
+	 * The constant value of the token, <code>null</code> if it has to be
+	 * taken from the window
+	 */
+	private String tokenValue = null;
+
+	/** The position of the EOF token, once the end has been reached */
+	private int eofLine = 0;
+	private int eofColumn = 0;
+
+	// --------------------------------------------------------------------------
+	// --- constructors
+	// ---------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * Creates a lexer with a window of {@link #DEFAULT_WINDOW_SIZE} characters
+	 */
+	public TableDrivenLexerImpl() {
+		this(DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * @param windowSize
+	 *            The number of decoded characters the lexer keeps in memory.
+	 *            The window only grows, if a single token does not fit into
+	 *            it.
+	 */
+	public TableDrivenLexerImpl(int windowSize) {
+		if (windowSize < 2) {
+			throw new IllegalArgumentException("The window has to hold at least 2 characters!");
+		}
+		this.windowSize = windowSize;
+		this.window = new char[windowSize];
+		this.bytes.flip();
+	}
+
+	// --------------------------------------------------------------------------
+	// --- methods
+	// --------------------------------------------------------------
+	// --------------------------------------------------------------------------
+	private static void transition(int state, int charClass, int next) {
+		TRANSITIONS[state * CLASSES_COUNT + charClass] = (byte) next;
+	}
+
+	private static int classOf(char c) {
+		if (c < 128) {
+			return CHAR_CLASSES[c];
+		}
+		return c == NEXT_LINE || c == LINE_SEPARATOR || c == PARAGRAPH_SEPARATOR ? C_LINE_END
+				: C_OTHER;
+	}
+
+	/**
+	 * Method sets the {@link InputStream} (UTF-8) the tokens are read from
+	 * and resets the cursor. The stream is not read before the first call of
+	 * {@link #getNextToken()}.
+	 */
+	@Override
+	public void setSourceStream(InputStream stream) {
+		this.reset();
+		this.stream = stream;
+		this.bytes = this.streamBytes;
+		this.bytes.clear();
+		this.bytes.flip();
+		this.streamDone = false;
+		this.mappedSource = null;
+	}
+
+	/**
+	 * Method maps the given file (UTF-8) into memory and resets the cursor.
+	 * The tokens are decoded from the mapping, and the values of the tokens
+	 * which are neither keywords nor operators are decoded on demand.
+	 *
+	 * @param file
+	 * @throws IOException
+	 *             If the file can not be opened or is larger than 2 GB
+	 */
+	public void setSourceFile(File file) throws IOException {
+		ByteBuffer mapping;
+		try (FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("'" + file + "' is too large to be mapped!");
+			}
+			mapping = channel.map(MapMode.READ_ONLY, 0, size);
+		}
+
+		this.reset();
+		this.stream = null;
+		this.bytes = mapping;
+		this.streamDone = true;
+		this.mappedSource = new MappedSource(mapping);
+		this.exactOffsets = true;
+	}
+
+	private void reset() {
+		// malformed input is replaced in fill(), so that it is noticed
+		this.decoder = UTF_8.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPORT)
+				.onUnmappableCharacter(CodingErrorAction.REPORT);
+		this.inputDone = false;
+		this.exactOffsets = false;
+
+		if (this.window.length != this.windowSize) {
+			this.window = new char[this.windowSize];
+		}
+		this.end = 0;
+		this.position = 0;
+		this.line = 1;
+		this.lineStart = 0;
+		this.lineHasContent = false;
+		this.lastContentLine = 0;
+		this.lastContentLength = 0;
+		this.anchorPosition = 0;
+		this.anchorOffset = 0;
+		this.eofLine = 0;
+		this.eofColumn = 0;
+	}
+
+	/**
+	 * Method decodes more characters of the stream into the window, after the
+	 * ones it holds. The window grows, if it is (nearly) full.
+	 *
+	 * @return Whether there are new characters
+	 */
+	private boolean fill() {
+		if (this.inputDone) {
+			return false;
+		}
+		if (this.window.length - this.end < 2) {
+			// a surrogate pair has to fit in
+			this.window = Arrays.copyOf(this.window, this.window.length * 2);
+		}
+
+		CharBuffer chars = CharBuffer.wrap(this.window, this.end,
+				this.window.length - this.end);
+		while (chars.position() == this.end && !this.inputDone) {
+			if (!this.streamDone) {
+				this.read();
+			}
+			CoderResult result = this.decoder.decode(this.bytes, chars,
+					this.streamDone);
+			if (result.isError() && chars.hasRemaining()) {
+				// like CodingErrorAction.REPLACE, else in the next call
+				chars.put(REPLACEMENT);
+				this.bytes.position(this.bytes.position() + result.length());
+				this.exactOffsets = false;
+			} else if (this.streamDone && result.isUnderflow()
+					&& this.decoder.flush(chars).isUnderflow()) {
+				this.inputDone = true;
+			}
+		}
+
+		boolean filled = chars.position() > this.end;
+		this.end = chars.position();
+		return filled;
+	}
+
+	/**
+	 * Method reads the next bytes of the stream after the ones which are not
+	 * decoded yet
+	 */
+	private void read() {
+		this.bytes.compact();
+		try {
+			int read = this.stream.read(this.bytes.array(),
+					this.bytes.arrayOffset() + this.bytes.position(),
+					this.bytes.remaining());
+			if (read == -1) {
+				this.streamDone = true;
+			} else {
+				this.bytes.position(this.bytes.position() + read);
+			}
+		} catch (IOException e) {
+			/*
+			 * like java.util.Scanner, treat an unreadable stream as the end of
+			 * the input
+			 */
+			this.streamDone = true;
+		}
+		this.bytes.flip();
+	}
+
+	/**
+	 * @return Whether there is a character at the given position of the
+	 *         window, after decoding more characters if necessary
+	 */
+	private boolean available(int pos) {
+		while (pos >= this.end) {
+			if (!this.fill()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Method drops the characters before the given position from the window
+	 */
+	private void compact(int from) {
+		if (this.exactOffsets) {
+			this.anchorOffset = this.offsetOf(from);
+			this.anchorPosition = 0;
+		}
+		System.arraycopy(this.window, from, this.window, 0, this.end - from);
+		this.end -= from;
+		this.lineStart -= from;
+	}
+
+	/**
+	 * Method determines the offset of the character at the given position in
+	 * the mapped file from the UTF-8 lengths of the characters since the
+	 * anchor, which is moved there
+	 */
+	private int offsetOf(int pos) {
+		char[] chars = this.window;
+		int offset = this.anchorOffset;
+		for (int i = this.anchorPosition; i < pos; i++) {
+			char c = chars[i];
+			if (c < 0x80) {
+				offset++;
+			} else if (c < 0x800 || Character.isSurrogate(c)) {
+				// 4 bytes for a surrogate pair
+				offset += 2;
+			} else {
+				offset += 3;
+			}
+		}
+		this.anchorPosition = pos;
+		this.anchorOffset = offset;
+		return offset;
+	}
+
+	/**
+	 * Method reads the next token from the source and returns it with its
+	 * value, type, line of code and column of code
+	 *
+	 * @see LexerImpl#getNextToken()
+	 */
+	@Override
+	public Token getNextToken() {
+		TokenType type = this.scan();
+		if (type == TokenType.EOF) {
+			return new TokenImpl(null, type, this.eofLine, this.eofColumn);
+		}
+
+		int column = this.tokenColumn;
+		String value = this.tokenValue;
+		if (value == null && this.exactOffsets) {
+			int offset = this.offsetOf(this.tokenStart);
+			int length = this.offsetOf(this.tokenEnd) - offset;
+			return this.createMappedToken(offset, length, type, column);
+		} else if (value == null) {
+			value = new String(this.window, this.tokenStart, this.tokenEnd
+					- this.tokenStart);
+		}
+
+		switch (type) {
+
+		case NUM:
+			return new NumTokenImpl(value, type, this.line, column);
+
+		case REAL:
+			return new RealTokenImpl(value, type, this.line, column);
+
+		case TRUE:
+		case FALSE:
+			return new BoolTokenImpl(value, type, this.line, column);
+
+		default:
+			return new TokenImpl(value, type, this.line, column);
+
+		}
+	}
+
+	/**
+	 * Method reads all remaining tokens of the source, including EOF, into
+	 * the given {@link TokenBuffer}, without creating a {@link Token} for
+	 * each of them
+	 *
+	 * @param tokens
+	 */
+	public void readTokens(TokenBuffer tokens) {
+		TokenType type;
+		do {
+			type = this.scan();
+			if (type == TokenType.EOF) {
+				tokens.add(type, this.eofLine, this.eofColumn, null);
+			} else if (this.tokenValue != null) {
+				tokens.add(type, this.line, this.tokenColumn, this.tokenValue);
+			} else {
+				tokens.add(type, this.line, this.tokenColumn, this.window,
+						this.tokenStart, this.tokenEnd - this.tokenStart);
+			}
+		} while (type != TokenType.EOF);
+	}
+
+	/**
+	 * Method finds the next token in the source: Its type is returned, its
+	 * position and value are stored in the fields, the line is the current
+	 * one (or the one of EOF)
+	 */
+	private TokenType scan() {
+		if (this.eofLine != 0) {
+			return TokenType.EOF;
+		}
+		int pos = this.position;
+
+		/*
+		 * skip whitespace and line separators (\r\n is a single one); the
+		 * window is emptied whenever all of its characters were skipped
+		 */
+		for (;;) {
+			if (pos == this.end) {
+				this.compact(pos);
+				pos = 0;
+				if (!this.fill()) {
+					return this.finish(pos);
+				}
+			}
+			char c = this.window[pos];
+			int charClass = classOf(c);
+			if (charClass == C_SPACE) {
+				pos++;
+			} else if (charClass == C_LINE_END) {
+				this.endLine(pos, c);
+				pos++;
+				if (c == '\r') {
+					if (pos == this.end) {
+						this.compact(pos);
+						pos = 0;
+						this.fill();
+					}
+					if (pos < this.end && this.window[pos] == '\n') {
+						pos++;
+					}
+				}
+				this.line++;
+				this.lineStart = pos;
+			} else {
+				break;
+			}
+		}
+
+		if (pos >= this.window.length / 2) {
+			// make room for the token
+			this.compact(pos);
+			pos = 0;
+		}
+
+		int column = pos - this.lineStart + 1;
+		int end;
+		TokenType type;
+		String value = null;
+
+		switch (classOf(this.window[pos])) {
+
+		case C_QUOTE:
+			end = this.findStringEnd(pos);
+			if (end != -1) {
+				type = TokenType.STRING;
+				break;
+			}
+			end = this.scanLexeme(pos);
+			type = this.classifyLexeme(pos, end);
+			break;
+
+		case C_HASH:
+			end = this.findLineEnd(pos);
+			type = TokenType.COMMENT;
+			break;
+
+		case C_OPERATOR:
+		case C_DOT:
+		case C_MINUS:
+		case C_AMP:
+		case C_PIPE:
+			type = this.matchOperator(pos);
+			if (type != null) {
+				value = OPERATORS.get(type);
+				end = pos + value.length();
+				break;
+			}
+			// a single '&' or '|' is part of a lexeme
+			end = this.scanLexeme(pos);
+			type = this.classifyLexeme(pos, end);
+			break;
+
+		default:
+			end = this.scanLexeme(pos);
+			type = this.classifyLexeme(pos, end);
+			break;
+
+		}
+
+		if (!this.lineHasContent) {
+			if (this.containsContent(pos, end)) {
+				this.lineHasContent = true;
+			} else if (!this.hasContentAfter(end)) {
+				// the token is part of the ignored lines at the end
+				this.position = end;
+				return this.finish(end);
+			}
+		}
+
+		if (value == null && type == TokenType.ID) {
+			type = KeywordTable.lookup(this.window, pos, end - pos);
+			value = KeywordTable.getKeyword(type);
+		}
+		this.position = end;
+		this.tokenStart = pos;
+		this.tokenEnd = end;
+		this.tokenColumn = column;
+		this.tokenValue = value;
+		return type;
+	}
+
+	private Token createMappedToken(int offset, int length, TokenType type,
+			int column) {
+		switch (type) {
+
+		case NUM:
+			return new MappedNumTokenImpl(this.mappedSource, offset, length,
+					type, this.line, column);
+
+		case REAL:
+			return new MappedRealTokenImpl(this.mappedSource, offset, length,
+					type, this.line, column);
+
+		default:
+			return new MappedTokenImpl(this.mappedSource, offset, length, type,
+					this.line, column);
+
+		}
+	}
+
+	/**
+	 * Method remembers the current line, if it has content, and starts the
+	 * next one
+	 *
+	 * @param pos
+	 *            The position of the line separator
+	 */
+	private void endLine(int pos, char separator) {
+		// NEL (U+0085) is no whitespace for java.util.Scanner
+		if (this.lineHasContent || separator == NEXT_LINE) {
+			this.lastContentLine = this.line;
+			this.lastContentLength = pos - this.lineStart;
+		}
+		this.lineHasContent = false;
+	}
+
+	/**
+	 * Method determines the position of EOF: After the last line with content
+	 *
+	 * @param pos
+	 *            The current position
+	 * @return {@link TokenType#EOF}
+	 */
+	private TokenType finish(int pos) {
+		this.position = pos;
+		if (this.lineHasContent) {
+			this.eofLine = this.line;
+			this.eofColumn = pos - this.lineStart + 1;
+		} else if (this.lastContentLine != 0) {
+			this.eofLine = this.lastContentLine;
+			this.eofColumn = this.lastContentLength + 1;
+		} else {
+			this.eofLine = 1;
+			this.eofColumn = 1;
+		}
+		return TokenType.EOF;
+	}
+
+	/**
+	 * @return Whether the characters between the given positions contain one
+	 *         which is no {@link Character#isWhitespace(char)}
+	 */
+	private boolean containsContent(int start, int end) {
+		for (int pos = start; pos < end; pos++) {
+			if (!Character.isWhitespace(this.window[pos])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Method looks ahead for a character which is no
+	 * {@link Character#isWhitespace(char)}. This is only necessary for lexemes
+	 * which consist of whitespace other than spaces and tabs.
+	 *
+	 * @return Whether there is such a character at or after the given position
+	 */
+	private boolean hasContentAfter(int pos) {
+		for (; this.available(pos); pos++) {
+			if (!Character.isWhitespace(this.window[pos])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return The index of the next line separator (or of the end of the
+	 *         input) after the given position
+	 */
+	private int findLineEnd(int pos) {
+		while (this.available(pos) && classOf(this.window[pos]) != C_LINE_END) {
+			pos++;
+		}
+		return pos;
+	}
+
+	/**
+	 * @return The index of the next quote in the line of the given position,
+	 *         or -1
+	 */
+	private int findQuote(int pos) {
+		for (; this.available(pos); pos++) {
+			char c = this.window[pos];
+			if (c == '"') {
+				return pos;
+			} else if (classOf(c) == C_LINE_END) {
+				break;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Method finds the end of the string literal which starts at the given
+	 * position: The next quote in the same line which is not preceded by a
+	 * backslash
+	 *
+	 * @return The index after the closing quote or -1, if there is none
+	 */
+	private int findStringEnd(int start) {
+		int quote = this.findQuote(start + 1);
+		while (quote != -1 && this.window[quote - 1] == '\\') {
+			quote = this.findQuote(quote + 1);
+		}
+		return quote == -1 ? -1 : quote + 1;
+	}
+
+	/**
+	 * @return The type of the operator at the given position or
+	 *         <code>null</code>, if there is a single '&' or '|'
+	 */
+	private TokenType matchOperator(int pos) {
+		char next = this.available(pos + 1) ? this.window[pos + 1] : '\0';
+
+		switch (this.window[pos]) {
+		case '=':
+			return next == '=' ? TokenType.EQUALS : TokenType.ASSIGNOP;
+		case '!':
+			return next == '=' ? TokenType.NOT_EQUALS : TokenType.NOT;
+		case '<':
+			return next == '=' ? TokenType.LESS_OR_EQUAL : TokenType.LESS;
+		case '>':
+			return next == '=' ? TokenType.GREATER_EQUAL : TokenType.GREATER;
+		case '&':
+			return next == '&' ? TokenType.AND : null;
+		case '|':
+			return next == '|' ? TokenType.OR : null;
+		case '+':
+			return TokenType.PLUS;
+		case '-':
+			return TokenType.MINUS;
+		case '*':
+			return TokenType.TIMES;
+		case '/':
+			return TokenType.DIVIDE;
+		case '.':
+			return TokenType.DOT;
+		case ';':
+			return TokenType.SEMICOLON;
+		case '(':
+			return TokenType.LEFT_PARAN;
+		case ')':
+			return TokenType.RIGHT_PARAN;
+		case '{':
+			return TokenType.LEFT_BRACE;
+		case '}':
+			return TokenType.RIGHT_BRACE;
+		case '[':
+			return TokenType.LEFT_BRACKET;
+		case ']':
+			return TokenType.RIGHT_BRACKET;
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Method finds the end of the lexeme which starts at the given position:
+	 * The next whitespace or operator in the same line. Like in
+	 * {@link LexerImpl}, dots do not end the lexemes of lines which start
+	 * with a digit, and minus signs do not end the lexemes of lines which
+	 * start with a number in exponential notation with a negative exponent.
+	 *
+	 * @return The index after the lexeme
+	 */
+	private int scanLexeme(int start) {
+		boolean numberLine = classOf(this.window[start]) == C_DIGIT;
+		int exponentLine = -1;
+		int pos = start + 1;
+
+		for (; this.available(pos); pos++) {
+			char c = this.window[pos];
+			switch (classOf(c)) {
+			case C_SPACE:
+			case C_LINE_END:
+			case C_OPERATOR:
+				return pos;
+			case C_AMP:
+			case C_PIPE:
+				if (this.available(pos + 1) && this.window[pos + 1] == c) {
+					return pos;
+				}
+				break;
+			case C_DOT:
+				if (!numberLine) {
+					return pos;
+				}
+				break;
+			case C_MINUS:
+				if (exponentLine == -1) {
+					exponentLine = this.startsWithNegativeExponent(start) ? 1 : 0;
+				}
+				if (exponentLine == 0) {
+					return pos;
+				}
+				break;
+			default:
+				break;
+			}
+		}
+		return pos;
+	}
+
+	/**
+	 * @return Whether the line starting at the given position matches
+	 *         <code>\d+(\.\d+)?(e|E)-.*</code>
+	 */
+	private boolean startsWithNegativeExponent(int pos) {
+		int digits = this.skipDigits(pos);
+		if (digits == pos) {
+			return false;
+		}
+		pos = digits;
+		if (this.available(pos) && this.window[pos] == '.') {
+			digits = this.skipDigits(pos + 1);
+			if (digits == pos + 1) {
+				return false;
+			}
+			pos = digits;
+		}
+		return this.available(pos + 1) && classOf(this.window[pos]) == C_EXP
+				&& this.window[pos + 1] == '-';
+	}
+
+	private int skipDigits(int pos) {
+		while (this.available(pos) && classOf(this.window[pos]) == C_DIGIT) {
+			pos++;
+		}
+		return pos;
+	}
+
+	/**
+	 * Method runs the DFA over the given lexeme
+	 *
+	 * @return {@link TokenType#ID} (for identifiers and keywords),
+	 *         {@link TokenType#NUM}, {@link TokenType#REAL} or
+	 *         {@link TokenType#NOT_A_TOKEN}
+	 */
+	private TokenType classifyLexeme(int start, int end) {
+		char[] chars = this.window;
+		int state = S_START;
+		for (int pos = start; pos < end && state != S_ERROR; pos++) {
+			state = TRANSITIONS[state * CLASSES_COUNT + classOf(chars[pos])];
+		}
+		return ACCEPTING[state];
+	}
+}
@@ -0,0 +1,342 @@
+package swp_compiler_ss13.fuc.lexer;
+
+import java.io.InputStream;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+import swp_compiler_ss13.common.lexer.BoolToken;
+import swp_compiler_ss13.common.lexer.Lexer;
+import swp_compiler_ss13.common.lexer.NumToken;
+import swp_compiler_ss13.common.lexer.RealToken;
+import swp_compiler_ss13.common.lexer.Token;
+import swp_compiler_ss13.common.lexer.TokenType;
+import swp_compiler_ss13.fuc.lexer.token.BoolTokenImpl;
+import swp_compiler_ss13.fuc.lexer.token.NumTokenImpl;
+import swp_compiler_ss13.fuc.lexer.token.RealTokenImpl;
+
+/**
+ * A compact list of tokens: Instead of an object per token, the type, line,
+ * column and the offset and length of the value of every token are stored in
+ * parallel arrays, which takes 20 bytes per token. The values of identifiers,
+ * literals and comments are copied into a shared char array, the values of
+ * all other tokens are the same for every token of a type and stored only
+ * once.<br/>
+ * {@link #get(int)} returns a flyweight view of a token, which implements
+ * {@link NumToken}, {@link RealToken} and {@link BoolToken} like the tokens
+ * of the lexers do. The accessors like {@link #getTokenType(int)} read a
+ * token without creating any object.<br/>
+ * A buffer is filled by {@link #readAll(Lexer)}, which does not create
+ * tokens at all for a {@link TableDrivenLexerImpl}. It can be passed to
+ * everything that takes a list of tokens, and {@link #getLexer()} replays
+ * it to everything that takes a {@link Lexer}, like the parser and the token
+ * stream visualizations.
+ *
+ * @author Gero
+ */
+public class TokenBuffer extends AbstractList<Token> implements RandomAccess {
+	// --------------------------------------------------------------------------
+	// --- variables and constants
+	// ----------------------------------------------
+	// --------------------------------------------------------------------------
+	private static final int INITIAL_CAPACITY = 256;
+	private static final TokenType[] TYPES = TokenType.values();
+	/** The types whose tokens have different values */
+	private static final boolean[] VARIABLE = new boolean[TYPES.length];
+
+	/** The offset of a token whose value is the constant of its type */
+	private static final int CONSTANT = -1;
+	/** The length of a token whose value is <code>null</code> */
+	private static final int NO_VALUE = -1;
+
+	static {
+		for (TokenType type : new TokenType[] { TokenType.ID, TokenType.NUM,
+				TokenType.REAL, TokenType.STRING, TokenType.COMMENT,
+				TokenType.NOT_A_TOKEN }) {
+			VARIABLE[type.ordinal()] = true;
+		}
+	}
+
+	private int size = 0;
+	private int[] types = new int[INITIAL_CAPACITY];
+	private int[] lines = new int[INITIAL_CAPACITY];
+	private int[] columns = new int[INITIAL_CAPACITY];
+	private int[] offsets = new int[INITIAL_CAPACITY];
+	private int[] lengths = new int[INITIAL_CAPACITY];
+
+	/** The values of identifiers, literals and comments */
+	private char[] text = new char[INITIAL_CAPACITY * 4];
+	private int textLength = 0;
+	/** The value of all tokens of a type, by its ordinal */
+	private final String[] constants = new String[TYPES.length];
+
+	// --------------------------------------------------------------------------
+	// --- methods
+	// --------------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * Method reads all tokens of the given lexer, including EOF, into this
+	 * buffer
+	 *
+	 * @param lexer
+	 *            A lexer whose source has been set
+	 */
+	public void readAll(Lexer lexer) {
+		if (lexer instanceof TableDrivenLexerImpl) {
+			((TableDrivenLexerImpl) lexer).readTokens(this);
+			return;
+		}
+		Token token;
+		do {
+			token = lexer.getNextToken();
+			this.add(token);
+		} while (token.getTokenType() != TokenType.EOF);
+	}
+
+	/**
+	 * Method appends a copy of the given token
+	 *
+	 * @return <code>true</code>
+	 */
+	@Override
+	public boolean add(Token token) {
+		this.add(token.getTokenType(), token.getLine(), token.getColumn(),
+				token.getValue());
+		return true;
+	}
+
+	/**
+	 * Method appends a token whose value is given as a {@link String}
+	 */
+	void add(TokenType type, int line, int column, String value) {
+		int index = this.append(type, line, column);
+		int ordinal = type.ordinal();
+		if (value == null) {
+			this.offsets[index] = CONSTANT;
+			this.lengths[index] = NO_VALUE;
+			return;
+		}
+		if (!VARIABLE[ordinal] && this.constants[ordinal] == null) {
+			this.constants[ordinal] = value;
+		}
+		if (value == this.constants[ordinal] || value.equals(this.constants[ordinal])) {
+			this.offsets[index] = CONSTANT;
+			this.lengths[index] = 0;
+		} else {
+			int length = value.length();
+			this.ensureText(length);
+			value.getChars(0, length, this.text, this.textLength);
+			this.offsets[index] = this.textLength;
+			this.lengths[index] = length;
+			this.textLength += length;
+		}
+	}
+
+	/**
+	 * Method appends a token whose value is given as part of a char array
+	 */
+	void add(TokenType type, int line, int column, char[] chars, int start,
+			int length) {
+		int index = this.append(type, line, column);
+		this.ensureText(length);
+		System.arraycopy(chars, start, this.text, this.textLength, length);
+		this.offsets[index] = this.textLength;
+		this.lengths[index] = length;
+		this.textLength += length;
+	}
+
+	private int append(TokenType type, int line, int column) {
+		if (this.size == this.types.length) {
+			int capacity = this.size * 2;
+			this.types = Arrays.copyOf(this.types, capacity);
+			this.lines = Arrays.copyOf(this.lines, capacity);
+			this.columns = Arrays.copyOf(this.columns, capacity);
+			this.offsets = Arrays.copyOf(this.offsets, capacity);
+			this.lengths = Arrays.copyOf(this.lengths, capacity);
+		}
+		int index = this.size++;
+		this.types[index] = type.ordinal();
+		this.lines[index] = line;
+		this.columns[index] = column;
+		return index;
+	}
+
+	private void ensureText(int length) {
+		if (this.textLength + length > this.text.length) {
+			this.text = Arrays.copyOf(this.text,
+					Math.max(this.text.length * 2, this.textLength + length));
+		}
+	}
+
+	/**
+	 * Method removes all tokens, the capacity is kept
+	 */
+	@Override
+	public void clear() {
+		this.size = 0;
+		this.textLength = 0;
+		this.modCount++;
+	}
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * @return A flyweight view of the token with the given index, which
+	 *         reads it from this buffer
+	 */
+	@Override
+	public Token get(int index) {
+		this.checkIndex(index);
+		switch (TYPES[this.types[index]]) {
+
+		case NUM:
+			return new NumTokenView(this, index);
+
+		case REAL:
+			return new RealTokenView(this, index);
+
+		case TRUE:
+		case FALSE:
+			return new BoolTokenView(this, index);
+
+		default:
+			return new TokenView(this, index);
+
+		}
+	}
+
+	public TokenType getTokenType(int index) {
+		this.checkIndex(index);
+		return TYPES[this.types[index]];
+	}
+
+	public int getLine(int index) {
+		this.checkIndex(index);
+		return this.lines[index];
+	}
+
+	public int getColumn(int index) {
+		this.checkIndex(index);
+		return this.columns[index];
+	}
+
+	/**
+	 * @return The value of the token with the given index, which is created
+	 *         for identifiers, literals and comments
+	 */
+	public String getValue(int index) {
+		this.checkIndex(index);
+		if (this.lengths[index] == NO_VALUE) {
+			return null;
+		} else if (this.offsets[index] == CONSTANT) {
+			return this.constants[this.types[index]];
+		}
+		return new String(this.text, this.offsets[index], this.lengths[index]);
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= this.size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: "
+					+ this.size);
+		}
+	}
+
+	/**
+	 * @return A {@link Lexer} which returns the tokens of this buffer, and
+	 *         its last token (EOF) again after the end. Its source can not be
+	 *         set.
+	 */
+	public Lexer getLexer() {
+		return new Lexer() {
+			private int next = 0;
+
+			@Override
+			public void setSourceStream(InputStream stream) {
+				throw new UnsupportedOperationException(
+						"The tokens of a TokenBuffer can not be changed!");
+			}
+
+			@Override
+			public Token getNextToken() {
+				Token token = TokenBuffer.this.get(this.next);
+				if (this.next < TokenBuffer.this.size - 1) {
+					this.next++;
+				}
+				return token;
+			}
+		};
+	}
+
+	// --------------------------------------------------------------------------
+	// --- views
+	// --------------------------------------------------------------
+	// --------------------------------------------------------------------------
+	private static class TokenView implements Token {
+		protected final TokenBuffer buffer;
+		protected final int index;
+
+		TokenView(TokenBuffer buffer, int index) {
+			this.buffer = buffer;
+			this.index = index;
+		}
+
+		@Override
+		public String getValue() {
+			return this.buffer.getValue(this.index);
+		}
+
+		@Override
+		public TokenType getTokenType() {
+			return this.buffer.getTokenType(this.index);
+		}
+
+		@Override
+		public Integer getLine() {
+			return this.buffer.getLine(this.index);
+		}
+
+		@Override
+		public Integer getColumn() {
+			return this.buffer.getColumn(this.index);
+		}
+	}
+
+	private static class NumTokenView extends TokenView implements NumToken {
+		NumTokenView(TokenBuffer buffer, int index) {
+			super(buffer, index);
+		}
+
+		@Override
+		public Long getLongValue() {
+			return new NumTokenImpl(this.getValue(), TokenType.NUM, null, null)
+					.getLongValue();
+		}
+	}
+
+	private static class RealTokenView extends TokenView implements RealToken {
+		RealTokenView(TokenBuffer buffer, int index) {
+			super(buffer, index);
+		}
+
+		@Override
+		public Double getDoubleValue() {
+			return new RealTokenImpl(this.getValue(), TokenType.REAL, null, null)
+					.getDoubleValue();
+		}
+	}
+
+	private static class BoolTokenView extends TokenView implements BoolToken {
+		BoolTokenView(TokenBuffer buffer, int index) {
+			super(buffer, index);
+		}
+
+		@Override
+		public Boolean getBooleanValue() {
+			return new BoolTokenImpl(this.getValue(), this.getTokenType(), null,
+					null).getBooleanValue();
+		}
+	}
+}
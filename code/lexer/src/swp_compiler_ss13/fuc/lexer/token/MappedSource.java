@@ -0,0 +1,51 @@
+package swp_compiler_ss13.fuc.lexer.token;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * A source file (UTF-8) which has been mapped into memory. Tokens of such a
+ * source only keep the offset and the length of their bytes and decode
+ * their value when it is requested for the first time.
+ *
+ * @author Gero
+ */
+public final class MappedSource {
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private final ByteBuffer bytes;
+
+	/**
+	 * @param bytes
+	 *            The content of the source, from position 0 on. The buffer
+	 *            itself is never modified.
+	 */
+	public MappedSource(ByteBuffer bytes) {
+		this.bytes = bytes;
+	}
+
+	/**
+	 * Method decodes the given bytes of the source, malformed input is
+	 * replaced
+	 *
+	 * @param offset
+	 * @param length
+	 * @return The decoded {@link String}
+	 */
+	public String decode(int offset, int length) {
+		// a duplicate, so that tokens may be decoded concurrently
+		ByteBuffer range = this.bytes.duplicate();
+		range.limit(offset + length);
+		range.position(offset);
+		byte[] b = new byte[length];
+		range.get(b);
+		return new String(b, UTF_8);
+	}
+
+	/**
+	 * @return The number of bytes of the source
+	 */
+	public int getLength() {
+		return this.bytes.limit();
+	}
+}
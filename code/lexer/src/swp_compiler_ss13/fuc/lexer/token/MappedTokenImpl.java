@@ -0,0 +1,60 @@
+package swp_compiler_ss13.fuc.lexer.token;
+
+import swp_compiler_ss13.common.lexer.TokenType;
+
+/**
+ * A {@link TokenImpl} of a {@link MappedSource}, whose value is decoded on
+ * demand
+ *
+ * @author Gero
+ */
+public class MappedTokenImpl extends TokenImpl {
+	private final MappedSource source;
+	private final int offset;
+	private final int length;
+	private String value = null;
+
+	/**
+	 * @param source
+	 *            The source of the token
+	 * @param offset
+	 *            The offset of the first byte of the token in the source
+	 * @param length
+	 *            The number of bytes of the token
+	 * @param type
+	 * @param line
+	 * @param column
+	 */
+	public MappedTokenImpl(MappedSource source, int offset, int length,
+			TokenType type, Integer line, Integer column) {
+		super(null, type, line, column);
+		this.source = source;
+		this.offset = offset;
+		this.length = length;
+	}
+
+	/**
+	 * @return The value of the token, which is decoded at the first call
+	 */
+	@Override
+	public String getValue() {
+		if (this.value == null) {
+			this.value = this.source.decode(this.offset, this.length);
+		}
+		return this.value;
+	}
+
+	/**
+	 * @return The offset of the first byte of the token in the source
+	 */
+	public int getOffset() {
+		return this.offset;
+	}
+
+	/**
+	 * @return The number of bytes of the token
+	 */
+	public int getLength() {
+		return this.length;
+	}
+}
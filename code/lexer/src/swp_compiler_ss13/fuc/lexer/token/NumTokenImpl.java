@@ -79,13 +79,14 @@ public class NumTokenImpl implements NumToken {
 	@Override
 	public Long getLongValue() {
 		Long longValue;
+		String value = this.getValue();
 		try {
-			if (this.value.contains("e") || this.value.contains("E")) {
-				String[] longValueParts = this.value.split("(e|E)");
+			if (value.contains("e") || value.contains("E")) {
+				String[] longValueParts = value.split("(e|E)");
 				longValue = Math.round(Double.parseDouble(longValueParts[0])
 						* Math.pow(10, Double.parseDouble(longValueParts[1])));
 			} else {
-				longValue = Long.parseLong(this.value);
+				longValue = Long.parseLong(value);
 			}
 		} catch (NumberFormatException nfe) {
 			longValue = null;
@@ -75,12 +75,13 @@ public class RealTokenImpl implements RealToken {
 	@Override
 	public Double getDoubleValue() {
 		Double doubleValue;
-		if (this.value.contains("e") || this.value.contains("E")) {
-			String[] doubleValueParts = this.value.split("(e|E)");
+		String value = this.getValue();
+		if (value.contains("e") || value.contains("E")) {
+			String[] doubleValueParts = value.split("(e|E)");
 			doubleValue = Double.parseDouble(doubleValueParts[0])
 					* Math.pow(10, Double.parseDouble(doubleValueParts[1]));
 		} else {
-			doubleValue = Double.parseDouble(this.value);
+			doubleValue = Double.parseDouble(value);
 		}
 
 		if (doubleValue < Double.MIN_VALUE || doubleValue > Double.MAX_VALUE) {
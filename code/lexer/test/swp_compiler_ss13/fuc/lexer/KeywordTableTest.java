@@ -0,0 +1,78 @@
+package swp_compiler_ss13.fuc.lexer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import swp_compiler_ss13.common.lexer.TokenType;
+import swp_compiler_ss13.fuc.lexer.util.Constants;
+
+/**
+ * Testclass for {@link KeywordTable}
+ *
+ * @author Gero
+ */
+public class KeywordTableTest {
+	private static final Object[][] KEYWORDS = {
+			{ Constants.TRUESTRING, TokenType.TRUE },
+			{ Constants.FALSESTRING, TokenType.FALSE },
+			{ Constants.IFSTRING, TokenType.IF },
+			{ Constants.ELSESTRING, TokenType.ELSE },
+			{ Constants.WHILESTRING, TokenType.WHILE },
+			{ Constants.DOSTRING, TokenType.DO },
+			{ Constants.BREAKSTRING, TokenType.BREAK },
+			{ Constants.RETURNSTRING, TokenType.RETURN },
+			{ Constants.PRINTSTRING, TokenType.PRINT },
+			{ "long", TokenType.LONG_SYMBOL },
+			{ "double", TokenType.DOUBLE_SYMBOL },
+			{ "bool", TokenType.BOOL_SYMBOL },
+			{ "string", TokenType.STRING_SYMBOL },
+			{ "record", TokenType.RECORD_SYMBOL } };
+
+	/**
+	 * Test for the keywords, also in the middle of a larger buffer
+	 */
+	@Test
+	public void keywordsTest() {
+		for (Object[] keyword : KEYWORDS) {
+			String value = (String) keyword[0];
+			assertEquals(keyword[1], lookup(value));
+
+			char[] chars = ("x " + value + ";").toCharArray();
+			assertEquals(keyword[1], KeywordTable.lookup(chars, 2, value.length()));
+			assertEquals(value, KeywordTable.getKeyword((TokenType) keyword[1]));
+		}
+	}
+
+	/**
+	 * Test for identifiers, which may have the length, first and last
+	 * character (and thus the hash) of a keyword
+	 */
+	@Test
+	public void identifiersTest() {
+		String[] ids = { "i", "t", "iff", "tru", "truee", "True", "IF", "tame",
+				"fa1se", "dp", "dao", "records", "record_", "_if", "whale",
+				"retvrn", "longer", "a", "abcdefghijklmnop" };
+		for (String id : ids) {
+			assertEquals(id, TokenType.ID, lookup(id));
+		}
+
+		// Parts of keywords
+		char[] chars = "doubles".toCharArray();
+		assertEquals(TokenType.DOUBLE_SYMBOL, KeywordTable.lookup(chars, 0, 6));
+		assertEquals(TokenType.ID, KeywordTable.lookup(chars, 1, 6));
+		assertEquals(TokenType.ID, KeywordTable.lookup(chars, 0, 7));
+		assertEquals(TokenType.DO, KeywordTable.lookup(chars, 0, 2));
+	}
+
+	@Test
+	public void getKeywordTest() {
+		assertNull(KeywordTable.getKeyword(TokenType.ID));
+		assertNull(KeywordTable.getKeyword(TokenType.PLUS));
+	}
+
+	private static TokenType lookup(String lexeme) {
+		return KeywordTable.lookup(lexeme.toCharArray(), 0, lexeme.length());
+	}
+}
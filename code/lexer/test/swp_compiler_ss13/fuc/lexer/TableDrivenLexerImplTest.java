@@ -0,0 +1,377 @@
+package swp_compiler_ss13.fuc.lexer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.extensions.PA;
+
+import org.junit.Test;
+
+import swp_compiler_ss13.common.lexer.Lexer;
+import swp_compiler_ss13.common.lexer.NumToken;
+import swp_compiler_ss13.common.lexer.RealToken;
+import swp_compiler_ss13.common.lexer.Token;
+import swp_compiler_ss13.common.lexer.TokenType;
+import swp_compiler_ss13.fuc.lexer.milestone.m1.AddProgTest;
+import swp_compiler_ss13.fuc.lexer.milestone.m1.EmptyProgTest;
+import swp_compiler_ss13.fuc.lexer.milestone.m1.Error_Double_DeclProgTest;
+import swp_compiler_ss13.fuc.lexer.milestone.m1.Error_Invalid_IdsProgTest;
+import swp_compiler_ss13.fuc.lexer.milestone.m1.Error_Multiple_Minus_E_NotationProgTest;
+import swp_compiler_ss13.fuc.lexer.milestone.m1.Error_Multiple_Pluses_in_expProgTest;
+import swp_compiler_ss13.fuc.lexer.milestone.m1.Error_Undef_ReturnProgTest;
+import swp_compiler_ss13.fuc.lexer.milestone.m1.ParanthesesProgTest;
+import swp_compiler_ss13.fuc.lexer.milestone.m1.Simple_AddProgTest;
+import swp_compiler_ss13.fuc.lexer.milestone.m1.Simple_MulProgTest;
+import swp_compiler_ss13.fuc.lexer.milestone.m2.AssignmentProgTest;
+import swp_compiler_ss13.fuc.lexer.milestone.m2.CondProgTest;
+import swp_compiler_ss13.fuc.lexer.milestone.m2.Multiline_String_PrintProgTest;
+import swp_compiler_ss13.fuc.lexer.milestone.m2.PrintProgTest;
+import swp_compiler_ss13.fuc.lexer.token.MappedRealTokenImpl;
+import swp_compiler_ss13.fuc.lexer.token.MappedTokenImpl;
+import swp_compiler_ss13.fuc.lexer.token.TokenImpl;
+import swp_compiler_ss13.fuc.lexer.util.Constants;
+
+/**
+ * Testclass for {@link TableDrivenLexerImpl}: It has to return exactly the
+ * same tokens as {@link LexerImpl}
+ *
+ * @author Gero
+ */
+public class TableDrivenLexerImplTest {
+	/** Characters (and words) the random inputs are made of */
+	private static final String[] PIECES = { "a", "b", "e", "E", "_", "0", "1",
+			"9", ".", "-", "+", "=", "&", "|", "!", "<", ">", "\"", ";", "#",
+			"\\", "(", ")", "{", "}", "[", "]", "*", "/", " ", " ", "\t",
+			"\n", "\n", "\r", "\r\n", "\u000B", "\f", "\u001F", "\u0085",
+			"\u2003", "\u2028", "\u00A0", "\u00E4", "true", "false", "if",
+			"while", "long", "record", "123", "1.5", "1e-2", "1.5E-3",
+			"\"a b\"", "# c", "==", "!=", "<=", ">=", "&&", "||" };
+
+	/**
+	 * Test for the programs of the milestone tests
+	 */
+	@Test
+	public void milestoneProgramsTest() throws Exception {
+		Object[] tests = { new AddProgTest(), new EmptyProgTest(),
+				new Error_Double_DeclProgTest(), new Error_Invalid_IdsProgTest(),
+				new Error_Multiple_Minus_E_NotationProgTest(),
+				new Error_Multiple_Pluses_in_expProgTest(),
+				new Error_Undef_ReturnProgTest(), new ParanthesesProgTest(),
+				new Simple_AddProgTest(), new Simple_MulProgTest(),
+				new AssignmentProgTest(), new CondProgTest(),
+				new Multiline_String_PrintProgTest(), new PrintProgTest() };
+		for (Object test : tests) {
+			assertSameTokens((String) PA.getValue(test, "prog"));
+		}
+	}
+
+	/**
+	 * Test for the symbols of the other lexer tests
+	 */
+	@Test
+	public void symbolsTest() throws Exception {
+		String[] symbols = { Constants.IFSTRING, Constants.ELSESTRING,
+				Constants.WHILESTRING, Constants.DOSTRING,
+				Constants.BREAKSTRING, Constants.RETURNSTRING,
+				Constants.PRINTSTRING, Constants.TRUESTRING,
+				Constants.FALSESTRING, Constants.LONGSTRING1,
+				Constants.LONGSTRING2, Constants.LONGSTRING3,
+				Constants.LONGSTRING4, Constants.LONGSTRING5,
+				Constants.LONGSTRING6, Constants.LONGSTRING7,
+				Constants.LONGSTRING8, Constants.LONGSTRING9,
+				Constants.DOUBLESTRING1, Constants.DOUBLESTRING2,
+				Constants.DOUBLESTRING3, Constants.DOUBLESTRING4,
+				Constants.DOUBLESTRING5, Constants.DOUBLESTRING6,
+				Constants.DOUBLESTRING7, Constants.DOUBLESTRING8,
+				Constants.DOUBLESTRING9, Constants.DOUBLESTRINGOUTOFRANGE1,
+				Constants.LEFT_PARAN, Constants.RIGHT_PARAN,
+				Constants.LEFT_BRACE, Constants.RIGHT_BRACE,
+				Constants.LEFT_BRACKET, Constants.RIGHT_BRACKET,
+				Constants.ASSIGNOPSTRING, Constants.ANDSTRING,
+				Constants.ORSTRING, Constants.EQUALSSTRING,
+				Constants.NOTEQUALSSTRING, Constants.LESSSTRING,
+				Constants.LESS_OR_EQUALSTRING, Constants.GREATERSTRING,
+				Constants.GREATER_EQUALSTRING, Constants.PLUSSTRING,
+				Constants.MINUSSTRING, Constants.TIMESSTRING,
+				Constants.DIVIDESTRING, Constants.NOTSTRING,
+				Constants.SEMICOLON, Constants.DOT,
+				Constants.COMMENT + Constants.COMMENT_EXAMPLE, "long",
+				"double", "bool", "string", "record", "\"a string\"",
+				"\"with \\\" quote\"", "id_1", "1.2.3", "1e-2-3", "a&b", "a|b" };
+
+		StringBuilder spaced = new StringBuilder();
+		StringBuilder joined = new StringBuilder();
+		StringBuilder lines = new StringBuilder();
+		for (String symbol : symbols) {
+			assertSameTokens(symbol);
+			spaced.append(symbol).append(' ');
+			joined.append(symbol);
+			lines.append("  ").append(symbol).append(";\r\n");
+		}
+		assertSameTokens(spaced.toString());
+		assertSameTokens(joined.toString());
+		assertSameTokens(lines.toString());
+	}
+
+	/**
+	 * Test for whitespace and empty lines around the tokens, which affect
+	 * lines and columns, especially the ones of EOF
+	 */
+	@Test
+	public void whitespaceTest() throws Exception {
+		String[] inputs = { "", " ", "\n\n", "a", "a\n", "a\n\n  \n",
+				"\n\n  a  \n\t", "a\r\nb\rc\nd", "a\u0085", "a\n\u0085\n ",
+				"a\n\u001F\n", "a\n\u00A0\n", "a\u2028b\u2029c", "\ta\u000Bb\fc" };
+		for (String input : inputs) {
+			assertSameTokens(input);
+		}
+	}
+
+	/**
+	 * Test for a string whose closing quote is escaped: {@link LexerImpl}
+	 * fails, {@link TableDrivenLexerImpl} returns an invalid token
+	 */
+	@Test
+	public void escapedClosingQuoteTest() throws Exception {
+		Lexer lexer = new TableDrivenLexerImpl();
+		lexer.setSourceStream(new ByteArrayInputStream("a \"b\\\";\n"
+				.getBytes("UTF-8")));
+		assertToken(new TokenImpl("a", TokenType.ID, 1, 1), lexer.getNextToken());
+		assertToken(new TokenImpl("\"b\\\"", TokenType.NOT_A_TOKEN, 1, 3),
+				lexer.getNextToken());
+		assertToken(new TokenImpl(";", TokenType.SEMICOLON, 1, 7),
+				lexer.getNextToken());
+		assertToken(new TokenImpl(null, TokenType.EOF, 1, 8), lexer.getNextToken());
+		assertToken(new TokenImpl(null, TokenType.EOF, 1, 8), lexer.getNextToken());
+	}
+
+	/**
+	 * Test for random sequences of tricky characters and words
+	 */
+	@Test
+	public void randomInputsTest() throws Exception {
+		Random random = new Random(4711);
+		for (int i = 0; i < 5000; i++) {
+			String input = randomInput(random);
+			List<Token> expected;
+			try {
+				expected = lex(new LexerImpl(), input);
+			} catch (StringIndexOutOfBoundsException e) {
+				// see escapedClosingQuoteTest()
+				continue;
+			}
+			assertTokens(input, expected, lex(new TableDrivenLexerImpl(), input));
+		}
+	}
+
+	/**
+	 * Test for windows which are smaller than the tokens and for a stream
+	 * which returns a single byte at a time, so that the lexer has to refill
+	 * (and grow) its window in the middle of tokens and characters
+	 */
+	@Test
+	public void smallWindowTest() throws Exception {
+		Random random = new Random(4711);
+		for (int i = 0; i < 2000; i++) {
+			String input = randomInput(random);
+			List<Token> expected;
+			try {
+				expected = lex(new LexerImpl(), input);
+			} catch (StringIndexOutOfBoundsException e) {
+				// see escapedClosingQuoteTest()
+				continue;
+			}
+
+			Lexer lexer = new TableDrivenLexerImpl(2 + i % 4);
+			final InputStream bytes = new ByteArrayInputStream(input.getBytes("UTF-8"));
+			lexer.setSourceStream(new InputStream() {
+				@Override
+				public int read() throws IOException {
+					return bytes.read();
+				}
+
+				@Override
+				public int read(byte[] b, int off, int len) throws IOException {
+					return bytes.read(b, off, Math.min(len, 1));
+				}
+			});
+			assertTokens(input, expected, lex(lexer));
+		}
+	}
+
+	/**
+	 * Test for mapped files, which have to result in the same tokens as
+	 * streams
+	 */
+	@Test
+	public void mappedFileTest() throws Exception {
+		File file = File.createTempFile("mapped", ".prog");
+		try {
+			Random random = new Random(4711);
+			for (int i = 0; i < 1000; i++) {
+				String input = randomInput(random);
+				List<Token> expected;
+				try {
+					expected = lex(new LexerImpl(), input);
+				} catch (StringIndexOutOfBoundsException e) {
+					// see escapedClosingQuoteTest()
+					continue;
+				}
+
+				Files.write(file.toPath(), input.getBytes("UTF-8"));
+				TableDrivenLexerImpl lexer = new TableDrivenLexerImpl(2 + i % 4);
+				lexer.setSourceFile(file);
+				List<Token> actual = lex(lexer);
+				assertEquals("Tokens of '" + input + "'", expected.size(),
+						actual.size());
+				for (int j = 0; j < expected.size(); j++) {
+					assertToken(expected.get(j), actual.get(j));
+					assertTrue(expected.get(j).getClass()
+							.isInstance(actual.get(j)));
+				}
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	/**
+	 * Test for the tokens of a mapped file: Only identifiers, literals and
+	 * comments refer to the file, their values are decoded on demand
+	 */
+	@Test
+	public void mappedTokensTest() throws Exception {
+		File file = File.createTempFile("mapped", ".prog");
+		try {
+			// "# \u00e4\u00f6\u00fc" takes 8 bytes
+			Files.write(file.toPath(), "long x;\n# \u00e4\u00f6\u00fc\nx = 15e-1 + 1.5;\n"
+					.getBytes("UTF-8"));
+			TableDrivenLexerImpl lexer = new TableDrivenLexerImpl();
+			lexer.setSourceFile(file);
+
+			Token token = lexer.getNextToken();
+			assertEquals(TokenImpl.class, token.getClass());
+			assertToken(new TokenImpl("long", TokenType.LONG_SYMBOL, 1, 1), token);
+			token = lexer.getNextToken();
+			assertEquals(MappedTokenImpl.class, token.getClass());
+			assertEquals(5, ((MappedTokenImpl) token).getOffset());
+			assertEquals(1, ((MappedTokenImpl) token).getLength());
+			assertToken(new TokenImpl("x", TokenType.ID, 1, 6), token);
+			assertToken(new TokenImpl(";", TokenType.SEMICOLON, 1, 7),
+					lexer.getNextToken());
+			token = lexer.getNextToken();
+			assertEquals(8, ((MappedTokenImpl) token).getLength());
+			assertToken(new TokenImpl("# \u00e4\u00f6\u00fc", TokenType.COMMENT, 2, 1),
+					token);
+			token = lexer.getNextToken();
+			assertEquals(17, ((MappedTokenImpl) token).getOffset());
+			assertToken(new TokenImpl("x", TokenType.ID, 3, 1), token);
+			lexer.getNextToken();
+			token = lexer.getNextToken();
+			assertTrue(token instanceof NumToken);
+			assertEquals(Long.valueOf(2), ((NumToken) token).getLongValue());
+			lexer.getNextToken();
+			token = lexer.getNextToken();
+			assertEquals(MappedRealTokenImpl.class, token.getClass());
+			assertEquals(Double.valueOf(1.5), ((RealToken) token).getDoubleValue());
+			assertToken(new TokenImpl(";", TokenType.SEMICOLON, 3, 16),
+					lexer.getNextToken());
+			assertToken(new TokenImpl(null, TokenType.EOF, 3, 17),
+					lexer.getNextToken());
+		} finally {
+			file.delete();
+		}
+	}
+
+	/**
+	 * Test for a mapped file with malformed input: The offsets of the
+	 * following tokens are unknown, so their values are decoded at once
+	 */
+	@Test
+	public void mappedMalformedFileTest() throws Exception {
+		File file = File.createTempFile("mapped", ".prog");
+		try {
+			Files.write(file.toPath(), new byte[] { 'a', ' ', (byte) 0xFF, 'b',
+					' ', 'c' });
+			TableDrivenLexerImpl lexer = new TableDrivenLexerImpl();
+			lexer.setSourceFile(file);
+
+			Token token = lexer.getNextToken();
+			assertToken(new TokenImpl("a", TokenType.ID, 1, 1), token);
+			token = lexer.getNextToken();
+			assertEquals(TokenImpl.class, token.getClass());
+			assertToken(new TokenImpl("\uFFFDb", TokenType.NOT_A_TOKEN, 1, 3),
+					token);
+			token = lexer.getNextToken();
+			assertEquals(TokenImpl.class, token.getClass());
+			assertToken(new TokenImpl("c", TokenType.ID, 1, 6), token);
+		} finally {
+			file.delete();
+		}
+	}
+
+	private static String randomInput(Random random) {
+		StringBuilder input = new StringBuilder();
+		int length = random.nextInt(30);
+		for (int j = 0; j < length; j++) {
+			input.append(PIECES[random.nextInt(PIECES.length)]);
+		}
+		return input.toString();
+	}
+
+	private static void assertSameTokens(String input)
+			throws UnsupportedEncodingException {
+		assertTokens(input, lex(new LexerImpl(), input),
+				lex(new TableDrivenLexerImpl(), input));
+	}
+
+	private static void assertTokens(String input, List<Token> expected,
+			List<Token> actual) {
+		assertEquals("Tokens of '" + input + "'", expected.size(),
+				actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertToken(expected.get(i), actual.get(i));
+			assertEquals(expected.get(i).getClass(), actual.get(i).getClass());
+		}
+	}
+
+	private static void assertToken(Token expected, Token actual) {
+		assertEquals(expected.getValue(), actual.getValue());
+		assertEquals(expected.getTokenType(), actual.getTokenType());
+		assertEquals(expected.getLine(), actual.getLine());
+		assertEquals(expected.getColumn(), actual.getColumn());
+	}
+
+	/**
+	 * @return All tokens of the input, including EOF, which is read twice
+	 */
+	private static List<Token> lex(Lexer lexer, String input)
+			throws UnsupportedEncodingException {
+		lexer.setSourceStream(new ByteArrayInputStream(input.getBytes("UTF-8")));
+		return lex(lexer);
+	}
+
+	/**
+	 * @return All tokens of the lexer, including EOF, which is read twice
+	 */
+	private static List<Token> lex(Lexer lexer) {
+		List<Token> tokens = new ArrayList<>();
+		Token token;
+		do {
+			token = lexer.getNextToken();
+			tokens.add(token);
+		} while (token.getTokenType() != TokenType.EOF);
+		tokens.add(lexer.getNextToken());
+		return tokens;
+	}
+}
@@ -0,0 +1,202 @@
+package swp_compiler_ss13.fuc.lexer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import swp_compiler_ss13.common.lexer.BoolToken;
+import swp_compiler_ss13.common.lexer.Lexer;
+import swp_compiler_ss13.common.lexer.NumToken;
+import swp_compiler_ss13.common.lexer.RealToken;
+import swp_compiler_ss13.common.lexer.Token;
+import swp_compiler_ss13.common.lexer.TokenType;
+import swp_compiler_ss13.fuc.lexer.token.TokenImpl;
+
+/**
+ * Testclass for {@link TokenBuffer}
+ *
+ * @author Gero
+ */
+public class TokenBufferTest {
+	private static final String PROG = "long l;\ndouble d;\nbool b;\n"
+			+ "string s;\n# comment\nl = 42;\nd = 1.5e-3;\nb = true && !false;\n"
+			+ "s = \"a \\\"b\\\"\";\nif (l >= 4) print s; else return 9223372036854775808;\n"
+			+ "x = 1.2.3 $ 0x;\n";
+
+	/**
+	 * Test for filling a buffer by both lexers: Every token has to be the
+	 * same as the one returned by the lexer
+	 */
+	@Test
+	public void readAllTest() throws Exception {
+		assertBuffer(PROG);
+
+		Random random = new Random(4711);
+		for (int i = 0; i < 2000; i++) {
+			StringBuilder input = new StringBuilder();
+			int length = random.nextInt(20);
+			for (int j = 0; j < length; j++) {
+				input.append(PROG.charAt(random.nextInt(PROG.length())));
+			}
+			try {
+				assertBuffer(input.toString());
+			} catch (StringIndexOutOfBoundsException e) {
+				// LexerImpl fails for a backslash before the closing quote
+			}
+		}
+	}
+
+	/**
+	 * Test for the views of literals, which have to implement the interfaces
+	 * of their types
+	 */
+	@Test
+	public void viewsTest() throws Exception {
+		TokenBuffer tokens = read(new TableDrivenLexerImpl(),
+				"42 1.5e-3 true false 9223372036854775808 \"s\"");
+		assertEquals(7, tokens.size());
+
+		assertTrue(tokens.get(0) instanceof NumToken);
+		assertEquals(Long.valueOf(42), ((NumToken) tokens.get(0)).getLongValue());
+		assertTrue(tokens.get(1) instanceof RealToken);
+		assertEquals(Double.valueOf(1.5e-3),
+				((RealToken) tokens.get(1)).getDoubleValue());
+		assertTrue(tokens.get(2) instanceof BoolToken);
+		assertEquals(Boolean.TRUE, ((BoolToken) tokens.get(2)).getBooleanValue());
+		assertTrue(tokens.get(3) instanceof BoolToken);
+		assertEquals(Boolean.FALSE, ((BoolToken) tokens.get(3)).getBooleanValue());
+		assertNull(((NumToken) tokens.get(4)).getLongValue());
+		assertFalse(tokens.get(5) instanceof NumToken);
+		assertEquals("\"s\"", tokens.get(5).getValue());
+		assertEquals(TokenType.EOF, tokens.getTokenType(6));
+	}
+
+	/**
+	 * Test for tokens added one by one, including a <code>null</code> value
+	 * and a value which differs from the usual one of its type
+	 */
+	@Test
+	public void addTest() {
+		TokenBuffer tokens = new TokenBuffer();
+		tokens.add(new TokenImpl("if", TokenType.IF, 1, 1));
+		tokens.add(new TokenImpl("foo", TokenType.IF, 1, 4));
+		tokens.add(new TokenImpl("if", TokenType.IF, 2, 1));
+		tokens.add(new TokenImpl(null, TokenType.EOF, 3, 1));
+
+		assertEquals(4, tokens.size());
+		assertEquals("if", tokens.getValue(0));
+		assertEquals("foo", tokens.getValue(1));
+		assertEquals("if", tokens.getValue(2));
+		assertNull(tokens.getValue(3));
+		assertEquals(2, tokens.getLine(2));
+		assertEquals(4, tokens.getColumn(1));
+		assertEquals(Integer.valueOf(3), tokens.get(3).getLine());
+	}
+
+	/**
+	 * Test for the lexer which replays a buffer: It has to return EOF again
+	 * after the end, and its source can not be set
+	 */
+	@Test
+	public void getLexerTest() throws Exception {
+		TokenBuffer tokens = read(new TableDrivenLexerImpl(), "a = 1;");
+		Lexer lexer = tokens.getLexer();
+		for (int i = 0; i < tokens.size(); i++) {
+			assertToken(tokens.get(i), lexer.getNextToken());
+		}
+		assertEquals(TokenType.EOF, lexer.getNextToken().getTokenType());
+		assertEquals(TokenType.EOF, lexer.getNextToken().getTokenType());
+
+		try {
+			lexer.setSourceStream(new ByteArrayInputStream(new byte[0]));
+			fail("The source of a replaying lexer must not be changed");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void clearTest() throws Exception {
+		TokenBuffer tokens = read(new TableDrivenLexerImpl(), "a = b;");
+		tokens.clear();
+		assertTrue(tokens.isEmpty());
+		try {
+			tokens.get(0);
+			fail("The buffer is empty");
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+
+		tokens.readAll(lexer(new TableDrivenLexerImpl(), "c"));
+		assertEquals(2, tokens.size());
+		assertEquals("c", tokens.getValue(0));
+		try {
+			tokens.getTokenType(-1);
+			fail("There is no token with a negative index");
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+	}
+
+	private static void assertBuffer(String input)
+			throws UnsupportedEncodingException {
+		List<Token> expected = lex(new LexerImpl(), input);
+		TokenBuffer[] buffers = { read(new TableDrivenLexerImpl(), input),
+				read(new LexerImpl(), input) };
+		for (TokenBuffer buffer : buffers) {
+			assertEquals("Tokens of '" + input + "'", expected.size(),
+					buffer.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertToken(expected.get(i), buffer.get(i));
+				assertEquals(expected.get(i).getTokenType(),
+						buffer.getTokenType(i));
+				assertEquals(expected.get(i).getValue(), buffer.getValue(i));
+			}
+		}
+	}
+
+	private static void assertToken(Token expected, Token actual) {
+		assertEquals(expected.getValue(), actual.getValue());
+		assertEquals(expected.getTokenType(), actual.getTokenType());
+		assertEquals(expected.getLine(), actual.getLine());
+		assertEquals(expected.getColumn(), actual.getColumn());
+	}
+
+	private static TokenBuffer read(Lexer lexer, String input)
+			throws UnsupportedEncodingException {
+		TokenBuffer tokens = new TokenBuffer();
+		tokens.readAll(lexer(lexer, input));
+		return tokens;
+	}
+
+	private static Lexer lexer(Lexer lexer, String input)
+			throws UnsupportedEncodingException {
+		lexer.setSourceStream(new ByteArrayInputStream(input.getBytes("UTF-8")));
+		return lexer;
+	}
+
+	/**
+	 * @return All tokens of the lexer, including EOF
+	 */
+	private static List<Token> lex(Lexer lexer, String input)
+			throws UnsupportedEncodingException {
+		lexer(lexer, input);
+		List<Token> tokens = new ArrayList<>();
+		Token token;
+		do {
+			token = lexer.getNextToken();
+			tokens.add(token);
+		} while (token.getTokenType() != TokenType.EOF);
+		return tokens;
+	}
+}
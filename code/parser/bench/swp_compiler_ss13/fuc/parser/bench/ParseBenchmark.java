@@ -0,0 +1,290 @@
+package swp_compiler_ss13.fuc.parser.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+
+import swp_compiler_ss13.common.ast.AST;
+import swp_compiler_ss13.common.lexer.Lexer;
+import swp_compiler_ss13.common.lexer.Token;
+import swp_compiler_ss13.common.lexer.TokenType;
+import swp_compiler_ss13.fuc.errorLog.ReportLogImpl;
+import swp_compiler_ss13.fuc.lexer.LexerImpl;
+import swp_compiler_ss13.fuc.lexer.TableDrivenLexerImpl;
+import swp_compiler_ss13.fuc.lexer.TokenBuffer;
+import swp_compiler_ss13.fuc.parser.ParserImpl;
+import swp_compiler_ss13.fuc.parser.generator.ParsingTableCache;
+import swp_compiler_ss13.fuc.parser.grammar.Grammar;
+import swp_compiler_ss13.fuc.parser.grammar.ProjectGrammar;
+import swp_compiler_ss13.fuc.parser.grammar.TokenEx;
+import swp_compiler_ss13.fuc.parser.parser.LRParser;
+import swp_compiler_ss13.fuc.parser.parser.LexerWrapper;
+
+/**
+ * Measures the throughput of {@link ParserImpl#getParsedAST()} (with a warm
+ * table cache) for large generated programs, and the one of
+ * {@link ParserImpl#recognize()}, which only checks the syntax. The programs
+ * are lexed once before measuring, so only the parser and the construction
+ * of the AST are timed. {@link ParserImpl} is additionally timed on the same
+ * tokens in a {@link TokenBuffer}, together with the memory a program's tokens
+ * take in a list of token objects and in a {@link TokenBuffer}. Finally,
+ * lexing and parsing the source are timed together, with the lexer on the
+ * parser thread and on a thread of its own (see
+ * {@link ParserImpl#setPipelined(boolean)}). As the lexer dominates these,
+ * they are run fewer times for programs with more than
+ * {@link #SOURCE_RUNS_TOKENS} tokens. The {@link LRParser} on its own and the
+ * allocations per token are measured by {@link LRParserBenchmark}.<br/>
+ * Usage: <code>ParseBenchmark [runs] [tokens...]</code>
+ *
+ * @author Gero
+ */
+public class ParseBenchmark {
+	/** The maximum number of statements in a generated block */
+	static final int MAX_BLOCK_SIZE = 16;
+	/** Programs up to this size are lexed and parsed [runs] times */
+	static final int SOURCE_RUNS_TOKENS = 100000;
+
+	/** Keeps the tokens reachable while their memory is measured */
+	private static Object retained;
+
+	public static void main(String[] args) throws Exception {
+		int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+		int[] sizes = new int[] { 1000, 100000, 1000000 };
+		if (args.length > 1) {
+			sizes = new int[args.length - 1];
+			for (int i = 1; i < args.length; i++) {
+				sizes[i - 1] = Integer.parseInt(args[i]);
+			}
+		}
+		// Debug logging of the parser would dominate the measurements
+		Logger.getRootLogger().setLevel(Level.WARN);
+		// Fill the table cache, which is measured by TableCacheBenchmark
+		ParsingTableCache.get(ProjectGrammar.Complete.class);
+
+		// Let the JIT see the parser before we start measuring
+		List<Token> warmUp = lex(createProgram(10000));
+		TokenBuffer warmUpBuffer = readBuffer(createProgram(10000));
+		String warmUpProgram = createProgram(10000);
+		for (int i = 0; i < 10; i++) {
+			parse(warmUp, false);
+			parse(warmUp, true);
+			parse(warmUpBuffer, false);
+			parseSource(warmUpProgram, false);
+			parseSource(warmUpProgram, true);
+		}
+
+		for (int size : sizes) {
+			String program = createProgram(size);
+			List<Token> tokens = lex(program);
+			measure("parse", tokens, runs, false);
+			measure("recognize", tokens, runs, true);
+			measure("parse TokenBuffer", readBuffer(program), runs, false);
+			measureMemory("List<Token>", program, tokens.size(), false);
+			measureMemory("TokenBuffer", program, tokens.size(), true);
+			int sourceRuns = tokens.size() <= SOURCE_RUNS_TOKENS ? runs : Math.max(3,
+					(int) ((long) runs * SOURCE_RUNS_TOKENS / tokens.size()));
+			measureSource("lex+parse", program, tokens.size(), sourceRuns, false);
+			measureSource("lex+parse pipelined", program, tokens.size(), sourceRuns, true);
+		}
+	}
+
+	private static void measureSource(String name, String program, int tokensCount, int runs,
+			boolean pipelined) {
+		long[] durations = new long[runs];
+		for (int i = 0; i < runs; i++) {
+			long start = System.nanoTime();
+			parseSource(program, pipelined);
+			durations[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(durations);
+		System.out.println(String.format(
+				"%s tokens=%d: median=%.3fms, min=%.3fms, %.2f Mtokens/s (median)",
+				name, tokensCount, durations[runs / 2] / 1e6, durations[0] / 1e6,
+				tokensCount / (durations[runs / 2] / 1e3)));
+	}
+
+	private static void measure(String name, List<Token> tokens, int runs,
+			boolean recognizeOnly) {
+		long[] durations = new long[runs];
+		for (int i = 0; i < runs; i++) {
+			long start = System.nanoTime();
+			parse(tokens, recognizeOnly);
+			durations[i] = System.nanoTime() - start;
+		}
+		print(name, tokens.size(), durations);
+	}
+
+	/**
+	 * Prints the heap the tokens of the program take, measured as the used
+	 * memory before and after lexing it, each after a garbage collection
+	 */
+	private static void measureMemory(String name, String program, int tokensCount,
+			boolean buffer) {
+		Runtime runtime = Runtime.getRuntime();
+		System.gc();
+		long used = runtime.totalMemory() - runtime.freeMemory();
+		retained = buffer ? readBuffer(program) : lex(program);
+		System.gc();
+		used = runtime.totalMemory() - runtime.freeMemory() - used;
+		retained = null;
+		System.out.println(String.format("%s tokens=%d: %d bytes/token (retained)", name,
+				tokensCount, used / tokensCount));
+	}
+
+	private static void print(String name, int tokensCount, long[] durations) {
+		int runs = durations.length;
+		Arrays.sort(durations);
+		System.out.println(String.format(
+				"%s tokens=%d: median=%.3fms, min=%.3fms, %.2f Mtokens/s (median)",
+				name, tokensCount, durations[runs / 2] / 1e6, durations[0] / 1e6,
+				tokensCount / (durations[runs / 2] / 1e3)));
+	}
+
+	/**
+	 * Creates a program with roughly the given number of tokens, consisting of
+	 * some declarations and blocks with assignments, branches, loops and
+	 * prints. The blocks are nested, so no block contains more than
+	 * {@link #MAX_BLOCK_SIZE} statements.
+	 *
+	 * @param tokens
+	 * @return The source code
+	 */
+	static String createProgram(int tokens) {
+		List<String> stmts = new ArrayList<>();
+		int length = 0;
+		for (int i = 0; length / 3 < tokens; i++) {	// ~3 characters per token
+			String block = "a = a - " + (i % 7) + ";\n"
+					+ "{\n"
+					+ "long t;\n"
+					+ "t = a * (b + " + (i % 97) + ") - arr[" + (i % 16) + "] / 2;\n"
+					+ "if (t > 3 && !f) {\n"
+					+ "a = a + 1;\n"
+					+ "} else {\n"
+					+ "b = b - 1;\n"
+					+ "}\n"
+					+ "while (a < 10) a = a + 1;\n"
+					+ "d = 1.5 * d;\n"
+					+ "s = \"text\";\n"
+					+ "print s;\n"
+					+ "}\n";
+			stmts.add(block);
+			length += block.length();
+		}
+		while (stmts.size() > MAX_BLOCK_SIZE) {
+			List<String> blocks = new ArrayList<>();
+			for (int i = 0; i < stmts.size(); i += MAX_BLOCK_SIZE) {
+				StringBuilder b = new StringBuilder("{\nb = b + 1;\n");
+				for (String stmt : stmts.subList(i, Math.min(i + MAX_BLOCK_SIZE, stmts.size()))) {
+					b.append(stmt);
+				}
+				blocks.add(b.append("}\n").toString());
+			}
+			stmts = blocks;
+		}
+
+		StringBuilder b = new StringBuilder();
+		b.append("long a;\nlong b;\ndouble d;\nbool f;\nstring s;\nlong[16] arr;\n");
+		b.append("a = 0;\nb = 1;\n");
+		for (String stmt : stmts) {
+			b.append(stmt);
+		}
+		b.append("return a;\n");
+		return b.toString();
+	}
+
+	static List<Token> lex(String program) {
+		Lexer lexer = new LexerImpl();
+		lexer.setSourceStream(new ByteArrayInputStream(program.getBytes()));
+		List<Token> tokens = new ArrayList<>();
+		Token token;
+		do {
+			token = lexer.getNextToken();
+			tokens.add(token);
+		} while (token.getTokenType() != TokenType.EOF);
+		return tokens;
+	}
+
+	static TokenBuffer readBuffer(String program) {
+		Lexer lexer = new TableDrivenLexerImpl();
+		lexer.setSourceStream(new ByteArrayInputStream(program.getBytes()));
+		TokenBuffer tokens = new TokenBuffer();
+		tokens.readAll(lexer);
+		return tokens;
+	}
+
+	private static void parse(List<Token> tokens, boolean recognizeOnly) {
+		ParserImpl parser = new ParserImpl();
+		parser.setLexer(new ReplayLexer(tokens));
+		parser.setReportLog(new ReportLogImpl());
+		parser.setRecognizeOnly(recognizeOnly);
+		AST ast = parser.getParsedAST();
+		if (ast == null) {
+			throw new IllegalStateException("Benchmark program could not be parsed!");
+		}
+	}
+
+	static List<TokenEx> wrap(List<Token> tokens, Grammar grammar) {
+		List<TokenEx> result = new ArrayList<>(tokens.size());
+		for (Token token : tokens) {
+			result.add(TokenEx.createFromToken(token, grammar));
+		}
+		return result;
+	}
+
+	private static void parseSource(String program, boolean pipelined) {
+		Lexer lexer = new LexerImpl();
+		lexer.setSourceStream(new ByteArrayInputStream(program.getBytes()));
+		ParserImpl parser = new ParserImpl();
+		parser.setLexer(lexer);
+		parser.setReportLog(new ReportLogImpl());
+		parser.setPipelined(pipelined);
+		if (parser.getParsedAST() == null) {
+			throw new IllegalStateException("Benchmark program could not be parsed!");
+		}
+	}
+
+	/**
+	 * Returns previously lexed tokens
+	 */
+	static class ReplayLexer implements Lexer {
+		private final List<Token> tokens;
+		private int next = 0;
+
+		ReplayLexer(List<Token> tokens) {
+			this.tokens = tokens;
+		}
+
+		@Override
+		public void setSourceStream(InputStream stream) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Token getNextToken() {
+			return tokens.get(next++);
+		}
+	}
+
+	/**
+	 * Returns previously wrapped tokens
+	 */
+	static class ReplayLexerWrapper extends LexerWrapper {
+		private final List<TokenEx> tokens;
+		private int next = 0;
+
+		ReplayLexerWrapper(List<TokenEx> tokens, Grammar grammar) {
+			super(null, grammar);
+			this.tokens = tokens;
+		}
+
+		@Override
+		public TokenEx getNextToken() {
+			return tokens.get(next++);
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package swp_compiler_ss13.fuc.parser.bench;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+
+import swp_compiler_ss13.common.ast.AST;
+import swp_compiler_ss13.common.lexer.Lexer;
+import swp_compiler_ss13.common.parser.Parser;
+import swp_compiler_ss13.fuc.errorLog.ReportLogImpl;
+import swp_compiler_ss13.fuc.lexer.LexerImpl;
+import swp_compiler_ss13.fuc.parser.ParserImpl;
+import swp_compiler_ss13.fuc.parser.generator.ParsingTableCache;
+import swp_compiler_ss13.fuc.parser.grammar.ProjectGrammar;
+import swp_compiler_ss13.fuc.parser.parser.tables.LRParsingTableSerializer;
+
+/**
+ * Compares the latency of {@link ParserImpl#getParsedAST()} with a cold
+ * {@link ParsingTableCache} (table has to be generated first, or loaded if
+ * there is a precompiled one on the classpath) and a warm one (table is shared
+ * from a previous parse) for a small program.<br/>
+ * Usage: <code>TableCacheBenchmark [coldRuns] [warmRuns]</code>
+ *
+ * @author Gero
+ */
+public class TableCacheBenchmark {
+	private static final String PROGRAM = "long[21] numbers;\n"
+			+ "long i;\n"
+			+ "i = 0;\n"
+			+ "{\n"
+			+ "long i;\n"
+			+ "i = 2;\n"
+			+ "numbers[0] = 0;\n"
+			+ "numbers[1] = 1;\n"
+			+ "while ( i < 21 ) {\n"
+			+ "numbers[i] = numbers[i - 1] + numbers[i - 2];\n"
+			+ "i = i + 1;\n"
+			+ "}\n"
+			+ "print numbers[20];\n"
+			+ "return numbers[15];\n"
+			+ "}\n";
+
+	public static void main(String[] args) {
+		int coldRuns = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+		int warmRuns = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+		// Debug logging of the parser would dominate the measurements
+		Logger.getRootLogger().setLevel(Level.WARN);
+
+		// Let the JIT see both code paths before we start measuring
+		for (int i = 0; i < 3; i++) {
+			ParsingTableCache.clear();
+			parse();
+		}
+
+		System.setProperty(ParsingTableCache.PRECOMPILED_PROPERTY, "false");
+		long[] cold = measureCold(coldRuns);
+		System.clearProperty(ParsingTableCache.PRECOMPILED_PROPERTY);
+		long[] precompiled = null;
+		if (ParserImpl.class.getResource("grammar/" + LRParsingTableSerializer
+				.getResourceName(ProjectGrammar.Complete.class)) != null) {
+			precompiled = measureCold(coldRuns);
+		}
+
+		ParserImpl.warmUp();
+		long[] warm = new long[warmRuns];
+		for (int i = 0; i < warmRuns; i++) {
+			long start = System.nanoTime();
+			parse();
+			warm[i] = System.nanoTime() - start;
+		}
+
+		report("cold (generated)", cold);
+		if (precompiled != null) {
+			report("cold (precompiled)", precompiled);
+		} else {
+			System.out.println("cold (precompiled): no precompiled table on the classpath");
+		}
+		report("warm", warm);
+		System.out.println(String.format("speedup warm vs. generated (median): %.1fx",
+				(double) median(cold) / median(warm)));
+	}
+
+	private static long[] measureCold(int runs) {
+		long[] durations = new long[runs];
+		for (int i = 0; i < runs; i++) {
+			ParsingTableCache.clear();
+			long start = System.nanoTime();
+			parse();
+			durations[i] = System.nanoTime() - start;
+		}
+		return durations;
+	}
+
+	private static void parse() {
+		Lexer lexer = new LexerImpl();
+		lexer.setSourceStream(new ByteArrayInputStream(PROGRAM.getBytes()));
+		Parser parser = new ParserImpl();
+		parser.setLexer(lexer);
+		parser.setReportLog(new ReportLogImpl());
+		AST ast = parser.getParsedAST();
+		if (ast == null) {
+			throw new IllegalStateException("Benchmark program could not be parsed!");
+		}
+	}
+
+	private static void report(String name, long[] durations) {
+		long sum = 0;
+		for (long d : durations) {
+			sum += d;
+		}
+		System.out.println(String.format("%s: runs=%d, median=%.3fms, mean=%.3fms",
+				name, durations.length, median(durations) / 1e6,
+				sum / (double) durations.length / 1e6));
+	}
+
+	private static long median(long[] durations) {
+		long[] sorted = Arrays.copyOf(durations, durations.length);
+		Arrays.sort(sorted);
+		return sorted[sorted.length / 2];
+	}
+}
@@ -0,0 +1,92 @@
+package swp_compiler_ss13.fuc.parser.bench;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+
+import swp_compiler_ss13.fuc.parser.generator.LR1Generator;
+import swp_compiler_ss13.fuc.parser.grammar.ProjectGrammar;
+import swp_compiler_ss13.fuc.parser.parser.tables.ALRCompiledTable;
+import swp_compiler_ss13.fuc.parser.parser.tables.LRCompressedTable;
+import swp_compiler_ss13.fuc.parser.parser.tables.LRParsingTable;
+
+/**
+ * Compares the memory footprint and the lookup speed of the dense and the
+ * compressed form of the parsing table for {@link ProjectGrammar.Complete}.
+ * Lookups are done in random order, as during parsing.<br/>
+ * Usage: <code>TableCompressionBenchmark [rounds] [lookupsPerRound]</code>
+ *
+ * @author Gero
+ */
+public class TableCompressionBenchmark {
+	public static void main(String[] args) throws Exception {
+		int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+		int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+		Logger.getRootLogger().setLevel(Level.WARN);
+
+		LRParsingTable table = new LR1Generator(new ProjectGrammar.Complete().getGrammar())
+				.getParsingTable();
+		table.freeze();
+		ALRCompiledTable dense = table.getCompiledTable();
+		long start = System.nanoTime();
+		ALRCompiledTable compressed = new LRCompressedTable(dense);
+		long compressTime = System.nanoTime() - start;
+
+		System.out.println(String.format("states=%d, terminals=%d, nonterminals=%d",
+				dense.getStatesCount(), dense.getTerminalsCount(), dense.getNonTerminalsCount()));
+		System.out.println(String.format("dense: %d bytes", dense.getCellsSize()));
+		System.out.println(String.format("compressed: %d bytes (%.1f%%), compressed in %.3fms",
+				compressed.getCellsSize(), 100.0 * compressed.getCellsSize() / dense.getCellsSize(),
+				compressTime / 1e6));
+
+		// Random cells, the same for both forms
+		Random random = new Random(42);
+		int[] states = new int[lookups];
+		int[] terminals = new int[lookups];
+		int[] nonTerminals = new int[lookups];
+		for (int i = 0; i < lookups; i++) {
+			states[i] = random.nextInt(dense.getStatesCount());
+			terminals[i] = random.nextInt(dense.getTerminalsCount());
+			nonTerminals[i] = random.nextInt(dense.getNonTerminalsCount());
+		}
+
+		long[] denseTimes = new long[rounds];
+		long[] compressedTimes = new long[rounds];
+		long checksum = 0;
+		for (int r = 0; r < rounds; r++) {
+			start = System.nanoTime();
+			checksum += lookup(dense, states, terminals, nonTerminals);
+			denseTimes[r] = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			checksum -= lookup(compressed, states, terminals, nonTerminals);
+			compressedTimes[r] = System.nanoTime() - start;
+		}
+		if (checksum != 0) {
+			throw new IllegalStateException("Dense and compressed lookups differ!");
+		}
+
+		report("dense", denseTimes, lookups);
+		report("compressed", compressedTimes, lookups);
+	}
+
+	private static long lookup(ALRCompiledTable table, int[] states, int[] terminals,
+			int[] nonTerminals) {
+		long sum = 0;
+		for (int i = 0; i < states.length; i++) {
+			sum += table.getAction(states[i], terminals[i]);
+			sum += table.getGoto(states[i], nonTerminals[i]);
+		}
+		return sum;
+	}
+
+	private static void report(String name, long[] durations, int lookups) {
+		long[] sorted = Arrays.copyOf(durations, durations.length);
+		Arrays.sort(sorted);
+		long median = sorted[sorted.length / 2];
+		System.out.println(String.format("%s lookups: median=%.3fms, %.2fns per action+goto lookup",
+				name, median / 1e6, median / (double) lookups));
+	}
+}
@@ -0,0 +1,56 @@
+package swp_compiler_ss13.fuc.parser.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import swp_compiler_ss13.fuc.parser.generator.FirstSets;
+import swp_compiler_ss13.fuc.parser.generator.FollowSets;
+import swp_compiler_ss13.fuc.parser.generator.NullableSet;
+import swp_compiler_ss13.fuc.parser.grammar.Grammar;
+
+/**
+ * Measures the computation of the nullable, FIRST and FOLLOW sets, which
+ * every generator does first, for the grammars of
+ * {@link TableGenerationBenchmark}. Like the generators, it works on the
+ * grammar extended by the auxiliary start production.
+ *
+ * @author Gero
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class FirstFollowBenchmark {
+	/** See {@link TableGenerationBenchmark#grammarName} */
+	@Param({ "project", "expr8", "expr16", "expr32", "expr64" })
+	public String grammarName;
+
+	private Grammar grammar;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		grammar = TableGenerationBenchmark.createGrammar(grammarName)
+				.extendByAuxStartProduction();
+	}
+
+	@Benchmark
+	public FollowSets computeSets() {
+		NullableSet nullableSet = new NullableSet(grammar.getProductions());
+		FirstSets firstSets = new FirstSets(grammar, nullableSet);
+		return new FollowSets(grammar, firstSets, nullableSet);
+	}
+}
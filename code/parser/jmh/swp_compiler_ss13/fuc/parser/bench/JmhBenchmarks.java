@@ -0,0 +1,50 @@
+package swp_compiler_ss13.fuc.parser.bench;
+
+import java.util.Collection;
+import java.util.Map.Entry;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks of the parser ({@link TableGenerationBenchmark},
+ * {@link FirstFollowBenchmark} and {@link LRParserBenchmark}) with the
+ * {@link GCProfiler}, which reports the bytes allocated per operation. For
+ * {@link LRParserBenchmark}, these are finally divided by the number of
+ * tokens of the program.<br/>
+ * Usage: <code>JmhBenchmarks [JMH options]</code>, e.g.
+ * <code>JmhBenchmarks LRParser -p tokens=1000</code>
+ *
+ * @author Gero
+ */
+public class JmhBenchmarks {
+	/** The suffix of the name of the allocations per operation */
+	private static final String ALLOCATIONS = "gc.alloc.rate.norm";
+
+	public static void main(String[] args) throws Exception {
+		Options options = new OptionsBuilder().parent(new CommandLineOptions(args))
+				.addProfiler(GCProfiler.class).build();
+		Collection<RunResult> results = new Runner(options).run();
+
+		System.out.println();
+		for (RunResult result : results) {
+			String tokens = result.getParams().getParam("tokens");
+			if (tokens == null) {
+				continue;
+			}
+			int count = LRParserBenchmark.countTokens(Integer.parseInt(tokens));
+			for (Entry<String, Result> secondary : result.getSecondaryResults().entrySet()) {
+				if (secondary.getKey().endsWith(ALLOCATIONS)) {
+					System.out.println(String.format("%s tokens=%d: %.1f bytes/token",
+							result.getParams().getBenchmark(), count,
+							secondary.getValue().getScore() / count));
+				}
+			}
+		}
+	}
+}
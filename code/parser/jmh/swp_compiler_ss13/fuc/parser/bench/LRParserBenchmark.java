@@ -0,0 +1,77 @@
+package swp_compiler_ss13.fuc.parser.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import swp_compiler_ss13.common.ast.AST;
+import swp_compiler_ss13.fuc.errorLog.ReportLogImpl;
+import swp_compiler_ss13.fuc.parser.generator.ParsingTableCache;
+import swp_compiler_ss13.fuc.parser.grammar.ProjectGrammar;
+import swp_compiler_ss13.fuc.parser.grammar.TokenEx;
+import swp_compiler_ss13.fuc.parser.parser.LRParser;
+
+/**
+ * Measures {@link LRParser#parse} with the cached table of
+ * {@link ProjectGrammar.Complete} on the programs of {@link ParseBenchmark}.
+ * They are lexed and wrapped into {@link TokenEx}s before, so only the parser
+ * and the construction of the AST are measured.
+ *
+ * @author Gero
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class LRParserBenchmark {
+	/**
+	 * The rough size of the program, see
+	 * {@link ParseBenchmark#createProgram(int)} and {@link #countTokens(int)}
+	 */
+	@Param({ "1000", "100000", "1000000" })
+	public int tokens;
+
+	private ParsingTableCache.Entry entry;
+	private List<TokenEx> wrapped;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		// Debug logging of the parser would dominate the measurements
+		Logger.getRootLogger().setLevel(org.apache.log4j.Level.WARN);
+		entry = ParsingTableCache.get(ProjectGrammar.Complete.class);
+		wrapped = ParseBenchmark.wrap(ParseBenchmark.lex(ParseBenchmark.createProgram(tokens)),
+				entry.getGrammar());
+	}
+
+	@Benchmark
+	public AST parse() throws Exception {
+		return new LRParser().parse(
+				new ParseBenchmark.ReplayLexerWrapper(wrapped, entry.getGrammar()),
+				new ReportLogImpl(), entry.getTable(), entry.getSpec().getGrammarImpl(),
+				entry.getReduceActions());
+	}
+
+	/**
+	 * @param tokens
+	 *            The value of {@link #tokens}
+	 * @return The exact number of tokens of the program, including EOF
+	 */
+	static int countTokens(int tokens) {
+		return ParseBenchmark.readBuffer(ParseBenchmark.createProgram(tokens)).size();
+	}
+}
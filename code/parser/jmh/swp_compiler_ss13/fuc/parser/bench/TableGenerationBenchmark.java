@@ -0,0 +1,123 @@
+package swp_compiler_ss13.fuc.parser.bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import swp_compiler_ss13.common.lexer.TokenType;
+import swp_compiler_ss13.fuc.parser.generator.ELRGeneratorType;
+import swp_compiler_ss13.fuc.parser.grammar.Grammar;
+import swp_compiler_ss13.fuc.parser.grammar.NonTerminal;
+import swp_compiler_ss13.fuc.parser.grammar.OpAssociativities;
+import swp_compiler_ss13.fuc.parser.grammar.Production;
+import swp_compiler_ss13.fuc.parser.grammar.ProjectGrammar;
+import swp_compiler_ss13.fuc.parser.grammar.Terminal;
+import swp_compiler_ss13.fuc.parser.parser.tables.LRParsingTable;
+
+/**
+ * Measures the generation of the parsing table for
+ * {@link ProjectGrammar.Complete} and for synthetic expression grammars with
+ * a growing number of precedence levels, using every
+ * {@link ELRGeneratorType}.
+ *
+ * @author Gero
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class TableGenerationBenchmark {
+	/**
+	 * <code>project</code> or <code>expr</code> followed by the number of
+	 * precedence levels (see {@link #createExpressionGrammar(int)})
+	 */
+	@Param({ "project", "expr8", "expr16", "expr32", "expr64" })
+	public String grammarName;
+
+	@Param({ "LR1", "LALR1" })
+	public ELRGeneratorType generator;
+
+	private Grammar grammar;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		// Debug logging of the generator would dominate the measurements
+		Logger.getRootLogger().setLevel(org.apache.log4j.Level.WARN);
+		grammar = createGrammar(grammarName);
+	}
+
+	@Benchmark
+	public LRParsingTable generate() throws Exception {
+		return generator.createGenerator(grammar).getParsingTable();
+	}
+
+	/**
+	 * @param name
+	 *            See {@link #grammarName}
+	 * @return The grammar with the given name
+	 */
+	static Grammar createGrammar(String name) {
+		if (name.equals("project")) {
+			return new ProjectGrammar.Complete().getGrammar();
+		} else if (name.startsWith("expr")) {
+			return createExpressionGrammar(Integer.parseInt(name.substring(4)));
+		}
+		throw new IllegalArgumentException("Unknown grammar: " + name);
+	}
+
+	/**
+	 * Creates an unambiguous expression grammar with the given number of binary
+	 * operator precedence levels:<br/>
+	 * E0 → E0 op0 E1 | E1, ..., En → ( E0 ) | id | num
+	 *
+	 * @param levels
+	 * @return The grammar
+	 */
+	static Grammar createExpressionGrammar(int levels) {
+		List<Terminal> terminals = new ArrayList<>();
+		List<NonTerminal> nonTerminals = new ArrayList<>();
+		List<Production> productions = new ArrayList<>();
+
+		Terminal lb = new Terminal("(", TokenType.LEFT_PARAN);
+		Terminal rb = new Terminal(")", TokenType.RIGHT_PARAN);
+		Terminal id = new Terminal("id", TokenType.ID);
+		Terminal num = new Terminal("num", TokenType.NUM);
+		terminals.addAll(Arrays.asList(lb, rb, id, num));
+
+		for (int i = 0; i <= levels; i++) {
+			nonTerminals.add(new NonTerminal("E" + i));
+		}
+		int productionId = 1;
+		for (int i = 0; i < levels; i++) {
+			Terminal op = new Terminal("op" + i, TokenType.PLUS);
+			terminals.add(op);
+			NonTerminal lhs = nonTerminals.get(i);
+			NonTerminal next = nonTerminals.get(i + 1);
+			productions.add(new Production(productionId++, lhs, lhs, op, next));
+			productions.add(new Production(productionId++, lhs, next));
+		}
+		NonTerminal last = nonTerminals.get(levels);
+		productions.add(new Production(productionId++, last, lb, nonTerminals.get(0), rb));
+		productions.add(new Production(productionId++, last, id));
+		productions.add(new Production(productionId++, last, num));
+
+		return new Grammar(terminals, nonTerminals, productions, new OpAssociativities());
+	}
+}
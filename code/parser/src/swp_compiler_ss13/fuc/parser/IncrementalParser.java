@@ -0,0 +1,578 @@
+package swp_compiler_ss13.fuc.parser;
+
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+
+import swp_compiler_ss13.common.ast.AST;
+import swp_compiler_ss13.common.ast.ASTNode;
+import swp_compiler_ss13.common.ast.nodes.StatementNode;
+import swp_compiler_ss13.common.ast.nodes.binary.LoopNode;
+import swp_compiler_ss13.common.ast.nodes.marynary.BlockNode;
+import swp_compiler_ss13.common.ast.nodes.ternary.BranchNode;
+import swp_compiler_ss13.common.ast.nodes.unary.DeclarationNode;
+import swp_compiler_ss13.common.lexer.Lexer;
+import swp_compiler_ss13.common.lexer.Token;
+import swp_compiler_ss13.common.lexer.TokenType;
+import swp_compiler_ss13.common.parser.SymbolTable;
+import swp_compiler_ss13.common.report.ReportLog;
+import swp_compiler_ss13.common.report.ReportType;
+import swp_compiler_ss13.fuc.ast.ASTImpl;
+import swp_compiler_ss13.fuc.parser.generator.ParsingTableCache;
+import swp_compiler_ss13.fuc.parser.grammar.TokenEx;
+import swp_compiler_ss13.fuc.parser.parser.LRParser;
+import swp_compiler_ss13.fuc.parser.parser.LexerWrapper;
+import swp_compiler_ss13.fuc.parser.parser.ParserException;
+import swp_compiler_ss13.fuc.symbolTable.SymbolTableImpl;
+
+/**
+ * Parses the successive versions of a program, e.g. while it is edited in the
+ * IDE, and reuses the unchanged parts of the last {@link AST}.<br/>
+ * The tokens of a new version are compared to the ones of the last version
+ * (ignoring comments and positions). Only the statements touched by the
+ * changed tokens are parsed again, as a program on their own, and replace the
+ * old statements in the innermost block whose statements enclose the change.
+ * All other nodes are kept, and their tokens are moved to their new positions
+ * (see {@link TokenEx#setToken(Token)}).<br/>
+ * The whole program is parsed again if there is no result to reuse, if the
+ * last version or the changed statements could not be parsed without errors
+ * or warnings, or if the change is not within the statements of a block (e.g.
+ * it touches declarations or braces). Either way, the resulting {@link AST}
+ * is the same as the one of {@link ParserImpl#getParsedAST()}.<br/>
+ * The later phases annotate the {@link AST} and add temporaries to its symbol
+ * tables, so before a reused {@link AST} is returned again, its nodes are
+ * reset to the state the parser left them in.
+ *
+ * @author Gero
+ */
+public class IncrementalParser {
+	// --------------------------------------------------------------------------
+	// --- variables and constants
+	// ----------------------------------------------
+	// --------------------------------------------------------------------------
+	private final ParsingTableCache.Entry entry;
+
+	/**
+	 * The tokens (without comments and EOF) covered by {@link #root}, or
+	 * <code>null</code> if there is no result to reuse
+	 */
+	private List<TokenEx> tokens = null;
+	private BlockNode root = null;
+
+	private int parsedTokensCount = 0;
+	private int maxErrors = LRParser.DEFAULT_MAX_ERRORS;
+
+	// --------------------------------------------------------------------------
+	// --- constructors
+	// ---------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * @see IncrementalParser
+	 * @param entry
+	 *            The grammar and parsing table to use
+	 */
+	public IncrementalParser(ParsingTableCache.Entry entry) {
+		this.entry = entry;
+	}
+
+	// --------------------------------------------------------------------------
+	// --- methods
+	// --------------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * Parses the tokens of the given lexer, reusing the result of the last
+	 * call where possible (see {@link IncrementalParser}).
+	 *
+	 * @param lexer
+	 * @param reportLog
+	 * @return The {@link AST} of the input, or <code>null</code> if the input
+	 *         could not be parsed
+	 */
+	public AST parse(Lexer lexer, ReportLog reportLog) {
+		LexerWrapper lexWrapper = new LexerWrapper(lexer, entry.getGrammar());
+		List<TokenEx> input = new ArrayList<>();
+		List<TokenEx> newTokens = new ArrayList<>();
+		TokenEx token;
+		do {
+			token = lexWrapper.getNextToken();
+			input.add(token);
+			if (token.getTokenType() != TokenType.COMMENT
+					&& token.getTokenType() != TokenType.EOF) {
+				newTokens.add(token);
+			}
+		} while (token.getTokenType() != TokenType.EOF);
+
+		if (root != null && reparse(newTokens, token)) {
+			return new ASTImpl(root);
+		}
+
+		// Parse the whole program
+		tokens = null;
+		root = null;
+		parsedTokensCount = newTokens.size();
+		CountingReportLog countingLog = new CountingReportLog(reportLog);
+		AST ast = parseTokens(input, countingLog, maxErrors);
+		if (ast != null && countingLog.getCount() == 0) {
+			tokens = newTokens;
+			root = ast.getRootNode();
+		}
+		return ast;
+	}
+
+	/**
+	 * @param newTokens
+	 *            The tokens of the new version without comments and EOF
+	 * @param eof
+	 * @return Whether the last result could be updated to the new version
+	 */
+	private boolean reparse(List<TokenEx> newTokens, TokenEx eof) {
+		int oldSize = tokens.size();
+		int newSize = newTokens.size();
+		int maxSize = Math.min(oldSize, newSize);
+		int prefix = 0;
+		while (prefix < maxSize && equal(tokens.get(prefix), newTokens.get(prefix))) {
+			prefix++;
+		}
+		int suffix = 0;
+		while (suffix < maxSize - prefix
+				&& equal(tokens.get(oldSize - 1 - suffix), newTokens.get(newSize - 1 - suffix))) {
+			suffix++;
+		}
+
+		// The old tokens [from, to) have been replaced
+		int from = prefix;
+		int to = oldSize - suffix;
+		if (from == to && oldSize == newSize) {
+			// Only whitespace or comments have changed
+			parsedTokensCount = 0;
+			moveTokens(newTokens, 0, oldSize, 0);
+			reset(root);
+			return true;
+		}
+
+		// Collect the blocks which enclose the change, outermost first
+		List<BlockNode> blocks = new ArrayList<>();
+		BlockNode block = root;
+		while (block != null) {
+			blocks.add(block);
+			BlockNode innerBlock = null;
+			for (StatementNode stmt : block.getStatementList()) {
+				if (first(stmt) < from && to <= last(stmt)) {
+					innerBlock = findBlock(stmt, from, to);
+					break;
+				}
+			}
+			block = innerBlock;
+		}
+
+		for (int i = blocks.size() - 1; i >= 0; i--) {
+			if (reparseStatements(blocks.get(i), from, to, newTokens, eof)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Parses the statements of the given block which are touched by the
+	 * change again and replaces them
+	 *
+	 * @return Whether the statements have been replaced
+	 */
+	private boolean reparseStatements(BlockNode block, int from, int to,
+			List<TokenEx> newTokens, TokenEx eof) {
+		// The statements lie between the declarations and the closing brace
+		int bodyStart;
+		List<DeclarationNode> decls = block.getDeclarationList();
+		if (!decls.isEmpty()) {
+			bodyStart = last(decls.get(decls.size() - 1)) + 1;
+		} else {
+			bodyStart = block == root ? 0 : first(block) + 1;
+		}
+		int bodyEnd = block == root ? tokens.size() : last(block);
+		if (from < bodyStart || to > bodyEnd) {
+			return false;
+		}
+
+		// Find the statements touched by the change. They cover the old
+		// tokens [regionStart, regionEnd).
+		List<StatementNode> stmts = block.getStatementList();
+		int firstTouched = -1;
+		int lastTouched = -1;
+		int insertAt = 0;
+		int regionStart = from;
+		int regionEnd = to;
+		int nextStart = bodyStart;
+		int index = 0;
+		for (StatementNode stmt : stmts) {
+			int first = first(stmt);
+			int last = last(stmt);
+			if (first != nextStart || last < first) {
+				return false;
+			}
+			nextStart = last + 1;
+
+			boolean touched = from < to ? first < to && from <= last : first < from
+					&& from <= last;
+			if (touched) {
+				if (firstTouched < 0) {
+					firstTouched = index;
+					regionStart = Math.min(regionStart, first);
+				}
+				lastTouched = index;
+				regionEnd = Math.max(regionEnd, last + 1);
+			} else if (last < from) {
+				insertAt = index + 1;
+			}
+			index++;
+		}
+		if (nextStart != bodyEnd) {
+			return false;
+		}
+
+		// Parse the new tokens of the region as a program
+		int delta = newTokens.size() - tokens.size();
+		List<TokenEx> region = newTokens.subList(regionStart, regionEnd + delta);
+		List<TokenEx> input = new ArrayList<>(region);
+		input.add(eof);
+		CountingReportLog regionLog = new CountingReportLog(null);
+		AST regionAst = parseTokens(input, regionLog, 1);
+		if (regionAst == null || regionLog.getCount() > 0
+				|| !regionAst.getRootNode().getDeclarationList().isEmpty()) {
+			return false;
+		}
+		BlockNode regionBlock = regionAst.getRootNode();
+		List<StatementNode> newStmts = new ArrayList<>(regionBlock.getStatementList());
+
+		// Locate the old tokens in the coverage of the block and its ancestors
+		List<ASTNode> ancestors = new ArrayList<>();
+		for (ASTNode node = block; node != null; node = node.getParentNode()) {
+			ancestors.add(node);
+		}
+		if (ancestors.get(ancestors.size() - 1) != root) {
+			return false;
+		}
+		int[] coverageIndices = new int[ancestors.size()];
+		for (int i = 0; i < ancestors.size(); i++) {
+			coverageIndices[i] = locate(ancestors.get(i).coverage(), regionStart, regionEnd);
+			if (coverageIndices[i] < 0) {
+				return false;
+			}
+		}
+
+		// Replace the statements...
+		ListIterator<StatementNode> stmtIt = stmts.listIterator(firstTouched >= 0 ? firstTouched
+				: insertAt);
+		for (int i = firstTouched; i >= 0 && i <= lastTouched; i++) {
+			stmtIt.next();
+			stmtIt.remove();
+		}
+		SymbolTable regionTable = regionBlock.getSymbolTable();
+		for (StatementNode stmt : newStmts) {
+			stmtIt.add(stmt);
+			stmt.setParentNode(block);
+			for (BlockNode nestedBlock : getNestedBlocks(stmt)) {
+				if (nestedBlock.getSymbolTable().getParentSymbolTable() == regionTable) {
+					((SymbolTableImpl) nestedBlock.getSymbolTable()).setParent(block
+							.getSymbolTable());
+				}
+			}
+		}
+
+		// ... their tokens...
+		for (int i = 0; i < ancestors.size(); i++) {
+			ListIterator<Token> coverageIt = ancestors.get(i).coverage()
+					.listIterator(coverageIndices[i]);
+			for (int j = regionStart; j < regionEnd; j++) {
+				coverageIt.next();
+				coverageIt.remove();
+			}
+			for (TokenEx token : region) {
+				coverageIt.add(token);
+			}
+		}
+
+		// ... and move all other tokens
+		moveTokens(newTokens, 0, regionStart, 0);
+		moveTokens(newTokens, regionEnd, tokens.size(), delta);
+		List<TokenEx> updatedTokens = new ArrayList<>(newTokens.size());
+		updatedTokens.addAll(tokens.subList(0, regionStart));
+		updatedTokens.addAll(region);
+		updatedTokens.addAll(tokens.subList(regionEnd, tokens.size()));
+		tokens = updatedTokens;
+		parsedTokensCount = region.size();
+		reset(root);
+		return true;
+	}
+
+	/**
+	 * @return The index in the given coverage at which the old tokens
+	 *         [regionStart, regionEnd) begin (or would have to be inserted),
+	 *         or <code>-1</code> if they are not covered
+	 */
+	private int locate(List<Token> coverage, int regionStart, int regionEnd) {
+		if (regionStart == tokens.size()) {
+			return coverage.size();
+		}
+		TokenEx start = tokens.get(regionStart);
+		int index = 0;
+		Iterator<Token> it = coverage.iterator();
+		while (it.hasNext()) {
+			if (it.next() == start) {
+				for (int i = regionStart + 1; i < regionEnd; i++) {
+					if (!it.hasNext() || it.next() != tokens.get(i)) {
+						return -1;
+					}
+				}
+				return index;
+			}
+			index++;
+		}
+		return -1;
+	}
+
+	/**
+	 * @return The outermost block in the given statement (or the statement
+	 *         itself) whose braces enclose the old tokens [from, to), or
+	 *         <code>null</code>
+	 */
+	private BlockNode findBlock(StatementNode stmt, int from, int to) {
+		if (stmt instanceof BlockNode) {
+			return first(stmt) < from && to <= last(stmt) ? (BlockNode) stmt : null;
+		} else if (stmt instanceof BranchNode) {
+			BranchNode branch = (BranchNode) stmt;
+			BlockNode block = findBlock(branch.getStatementNodeOnTrue(), from, to);
+			if (block == null && branch.getStatementNodeOnFalse() != null) {
+				block = findBlock(branch.getStatementNodeOnFalse(), from, to);
+			}
+			return block;
+		} else if (stmt instanceof LoopNode) {
+			return findBlock(((LoopNode) stmt).getLoopBody(), from, to);
+		}
+		return null;
+	}
+
+	/**
+	 * @return The given statement if it is a block, else the blocks which are
+	 *         directly its bodies. Their symbol tables are linked to the one of
+	 *         the enclosing block by the parser.
+	 */
+	private static List<BlockNode> getNestedBlocks(StatementNode stmt) {
+		List<StatementNode> candidates = new ArrayList<>(2);
+		if (stmt instanceof BranchNode) {
+			candidates.add(((BranchNode) stmt).getStatementNodeOnTrue());
+			candidates.add(((BranchNode) stmt).getStatementNodeOnFalse());
+		} else if (stmt instanceof LoopNode) {
+			candidates.add(((LoopNode) stmt).getLoopBody());
+		} else {
+			candidates.add(stmt);
+		}
+
+		List<BlockNode> blocks = new ArrayList<>(2);
+		for (StatementNode candidate : candidates) {
+			if (candidate instanceof BlockNode) {
+				blocks.add((BlockNode) candidate);
+			}
+		}
+		return blocks;
+	}
+
+	/**
+	 * Moves the old tokens [start, end) to the positions of the new tokens
+	 * [start + delta, end + delta)
+	 */
+	private void moveTokens(List<TokenEx> newTokens, int start, int end, int delta) {
+		for (int i = start; i < end; i++) {
+			tokens.get(i).setToken(newTokens.get(i + delta).getToken());
+		}
+	}
+
+	/**
+	 * Removes all attributes from the nodes of the given tree and replaces the
+	 * symbol tables of its blocks by new ones, which only contain the
+	 * declarations of the blocks (like the ones created by the parser).
+	 */
+	private static void reset(BlockNode root) {
+		Map<SymbolTable, SymbolTable> newTables = new IdentityHashMap<>();
+		Deque<ASTNode> nodes = new ArrayDeque<>();
+		nodes.push(root);
+		while (!nodes.isEmpty()) {
+			ASTNode node = nodes.pop();
+			node.getAttributeValues().clear();
+			if (node instanceof BlockNode) {
+				// Blocks are visited before the blocks nested in them
+				BlockNode block = (BlockNode) node;
+				SymbolTable oldTable = block.getSymbolTable();
+				SymbolTable parent = oldTable.getParentSymbolTable();
+				SymbolTable newParent = newTables.get(parent);
+				SymbolTableImpl newTable = new SymbolTableImpl(newParent != null ? newParent
+						: parent);
+				for (DeclarationNode decl : block.getDeclarationList()) {
+					newTable.insert(decl.getIdentifier(), decl.getType());
+				}
+				newTables.put(oldTable, newTable);
+				block.setSymbolTable(newTable);
+			}
+			for (ASTNode child : node.getChildren()) {
+				if (child != null) {
+					nodes.push(child);
+				}
+			}
+		}
+	}
+
+	private AST parseTokens(List<TokenEx> input, ReportLog reportLog, int maxErrors) {
+		LexerWrapper lexWrapper = new LexerWrapper(new TokenListLexer(input),
+				entry.getGrammar());
+		LRParser lrParser = new LRParser();
+		lrParser.setMaxErrors(maxErrors);
+		try {
+			return lrParser.parse(lexWrapper, reportLog, entry.getTable(), entry
+					.getSpec().getGrammarImpl(), entry.getReduceActions());
+		} catch (ParserException err) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return The index of the first old token covered by the given node
+	 */
+	private int first(ASTNode node) {
+		return indexOf(node.coverage().get(0));
+	}
+
+	/**
+	 * @return The index of the last old token covered by the given node
+	 */
+	private int last(ASTNode node) {
+		List<Token> coverage = node.coverage();
+		return indexOf(coverage.get(coverage.size() - 1));
+	}
+
+	/**
+	 * @return The index of the given token in {@link #tokens}. The tokens are
+	 *         ordered by their positions, so they are searched by position
+	 *         first.
+	 */
+	private int indexOf(Token token) {
+		int low = 0;
+		int high = tokens.size() - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			TokenEx midToken = tokens.get(mid);
+			int cmp = midToken.getLine().compareTo(token.getLine());
+			if (cmp == 0) {
+				cmp = midToken.getColumn().compareTo(token.getColumn());
+			}
+			if (cmp < 0) {
+				low = mid + 1;
+			} else if (cmp > 0) {
+				high = mid - 1;
+			} else {
+				if (midToken == token) {
+					return mid;
+				}
+				break;
+			}
+		}
+
+		// No distinct positions
+		for (int i = 0; i < tokens.size(); i++) {
+			if (tokens.get(i) == token) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static boolean equal(Token a, Token b) {
+		return a.getTokenType() == b.getTokenType() && a.getValue().equals(b.getValue());
+	}
+
+	// --------------------------------------------------------------------------
+	// --- getter/setter
+	// --------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * @return The number of tokens (without comments) the last call of
+	 *         {@link #parse(Lexer, ReportLog)} has actually parsed
+	 */
+	public int getParsedTokensCount() {
+		return parsedTokensCount;
+	}
+
+	/**
+	 * @param maxErrors
+	 *            The number of errors after which a full parse gives up (see
+	 *            {@link LRParser#setMaxErrors(int)})
+	 */
+	public void setMaxErrors(int maxErrors) {
+		this.maxErrors = maxErrors;
+	}
+
+	/**
+	 * @return The grammar and parsing table this parser uses
+	 */
+	public ParsingTableCache.Entry getEntry() {
+		return entry;
+	}
+
+	/**
+	 * Replays a list of tokens
+	 */
+	private static class TokenListLexer implements Lexer {
+		private final Iterator<TokenEx> tokens;
+
+		private TokenListLexer(List<TokenEx> tokens) {
+			this.tokens = tokens.iterator();
+		}
+
+		@Override
+		public void setSourceStream(InputStream stream) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Token getNextToken() {
+			return tokens.next();
+		}
+	}
+
+	/**
+	 * Counts the reported errors and warnings and passes them on
+	 */
+	private static class CountingReportLog implements ReportLog {
+		private final ReportLog reportLog;
+		private int count = 0;
+
+		private CountingReportLog(ReportLog reportLog) {
+			this.reportLog = reportLog;
+		}
+
+		@Override
+		public void reportError(ReportType type, List<Token> tokens, String message) {
+			count++;
+			if (reportLog != null) {
+				reportLog.reportError(type, tokens, message);
+			}
+		}
+
+		@Override
+		public void reportWarning(ReportType type, List<Token> tokens, String message) {
+			count++;
+			if (reportLog != null) {
+				reportLog.reportWarning(type, tokens, message);
+			}
+		}
+
+		private int getCount() {
+			return count;
+		}
+	}
+}
@@ -4,17 +4,17 @@ import swp_compiler_ss13.common.ast.AST;
 import swp_compiler_ss13.common.lexer.Lexer;
 import swp_compiler_ss13.common.parser.Parser;
 import swp_compiler_ss13.common.report.ReportLog;
-import swp_compiler_ss13.fuc.parser.generator.ALRGenerator;
+import swp_compiler_ss13.fuc.ast.ASTImpl;
+import swp_compiler_ss13.fuc.parser.generator.ELRGeneratorType;
 import swp_compiler_ss13.fuc.parser.generator.GeneratorException;
-import swp_compiler_ss13.fuc.parser.generator.LR1Generator;
-import swp_compiler_ss13.fuc.parser.generator.items.LR1Item;
-import swp_compiler_ss13.fuc.parser.generator.states.LR1State;
+import swp_compiler_ss13.fuc.parser.generator.ParsingTableCache;
 import swp_compiler_ss13.fuc.parser.grammar.AGrammarSpec;
 import swp_compiler_ss13.fuc.parser.grammar.Grammar;
 import swp_compiler_ss13.fuc.parser.grammar.ProjectGrammar;
 import swp_compiler_ss13.fuc.parser.parser.LRParser;
 import swp_compiler_ss13.fuc.parser.parser.LexerWrapper;
 import swp_compiler_ss13.fuc.parser.parser.ParserException;
+import swp_compiler_ss13.fuc.parser.parser.PipelinedLexerWrapper;
 import swp_compiler_ss13.fuc.parser.parser.tables.LRParsingTable;
 
 public class ParserImpl implements Parser {
@@ -22,8 +22,57 @@ public class ParserImpl implements Parser {
 	// --- variables and constants
 	// ----------------------------------------------
 	// --------------------------------------------------------------------------
+	/**
+	 * If this system property is set to <code>true</code>, the parsing table
+	 * is generated in the background as soon as this class is loaded
+	 */
+	public static final String WARM_UP_PROPERTY = "swp_compiler_ss13.fuc.parser.warmup";
+
+	/**
+	 * If this system property is set to <code>true</code>, new instances are
+	 * in recognizer mode (see {@link #setRecognizeOnly(boolean)})
+	 */
+	public static final String RECOGNIZE_PROPERTY = "swp_compiler_ss13.fuc.parser.recognize";
+
+	/**
+	 * If this system property is set to <code>true</code>, new instances are
+	 * incremental (see {@link #setIncremental(boolean)})
+	 */
+	public static final String INCREMENTAL_PROPERTY = "swp_compiler_ss13.fuc.parser.incremental";
+
+	/**
+	 * The initial value of {@link #setMaxErrors(int)} can be set with this
+	 * system property
+	 */
+	public static final String MAX_ERRORS_PROPERTY = "swp_compiler_ss13.fuc.parser.maxerrors";
+
+	/**
+	 * If this system property is set to <code>true</code>, new instances run
+	 * the lexer on a thread of its own (see {@link #setPipelined(boolean)})
+	 */
+	public static final String PIPELINED_PROPERTY = "swp_compiler_ss13.fuc.parser.pipelined";
+
+	static {
+		if (Boolean.getBoolean(WARM_UP_PROPERTY)) {
+			Thread warmUpThread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					warmUp();
+				}
+			}, "ParserImpl-warmup");
+			warmUpThread.setDaemon(true);
+			warmUpThread.start();
+		}
+	}
+
 	private Lexer lexer = null;
 	private ReportLog reportLog = null;
+	private ELRGeneratorType generatorType = ELRGeneratorType.LR1;
+	private boolean recognizeOnly = Boolean.getBoolean(RECOGNIZE_PROPERTY);
+	private boolean incremental = Boolean.getBoolean(INCREMENTAL_PROPERTY);
+	private IncrementalParser incrementalParser = null;
+	private int maxErrors = Integer.getInteger(MAX_ERRORS_PROPERTY, LRParser.DEFAULT_MAX_ERRORS);
+	private boolean pipelined = Boolean.getBoolean(PIPELINED_PROPERTY);
 
 	// --------------------------------------------------------------------------
 	// --- constructors
@@ -33,42 +82,127 @@ public class ParserImpl implements Parser {
 
 	}
 
+	/**
+	 * @see ParserImpl
+	 * @param generatorType
+	 *            The type of generator used to create the parsing table
+	 */
+	public ParserImpl(ELRGeneratorType generatorType) {
+		this.generatorType = generatorType;
+	}
+
 	// --------------------------------------------------------------------------
 	// --- methods
 	// --------------------------------------------------------------
 	// --------------------------------------------------------------------------
+	/**
+	 * Parses the input of the lexer. After a syntax error, the parser
+	 * resynchronizes and goes on, so all errors (up to
+	 * {@link #setMaxErrors(int)}) are reported and the {@link AST} of the
+	 * rest of the input is returned. In recognizer mode (see
+	 * {@link #setRecognizeOnly(boolean)}), only its syntax is checked and an
+	 * empty {@link AST} is returned if it is valid. In incremental mode (see
+	 * {@link #setIncremental(boolean)}), the unchanged parts of the result of
+	 * the last call are reused.
+	 * 
+	 * @return The {@link AST} of the input, or <code>null</code> if the input
+	 *         could not be parsed (or had too many errors)
+	 */
 	@Override
 	public AST getParsedAST() {
+		if (recognizeOnly) {
+			return recognize() ? new ASTImpl() : null;
+		}
+		
 		// Check preconditions
 		if (reportLog == null || lexer == null) {
 			throw new NullPointerException("ReportLog and Lexer must not be null!");
 		}
 		
-		// Generate parsing table
-		AGrammarSpec completeSpec = new ProjectGrammar.Complete();
-		Grammar grammar = completeSpec.getGrammar();
-		ALRGenerator<LR1Item, LR1State> generator = null;
-		try {
-			generator = new LR1Generator(grammar);
-		} catch (GeneratorException err) {
-			throw new RuntimeException("An unexpected parser generator exception occured: ", err);
+		// Get (shared) parsing table
+		ParsingTableCache.Entry entry = getTableEntry(generatorType);
+		AGrammarSpec completeSpec = entry.getSpec();
+		Grammar grammar = entry.getGrammar();
+		LRParsingTable table = entry.getTable();
+
+		if (incremental) {
+			if (incrementalParser == null || incrementalParser.getEntry() != entry) {
+				incrementalParser = new IncrementalParser(entry);
+			}
+			incrementalParser.setMaxErrors(maxErrors);
+			return incrementalParser.parse(this.lexer, this.reportLog);
 		}
-		LRParsingTable table = generator.getParsingTable();
 
 		// Run LR-parser with table
 		LRParser lrParser = new LRParser();
-		LexerWrapper lexWrapper = new LexerWrapper(this.lexer, grammar);
+		lrParser.setMaxErrors(maxErrors);
+		LexerWrapper lexWrapper = createLexerWrapper(grammar);
 		AST ast = null;
 		
 		try	{
-			ast = lrParser.parse(lexWrapper, this.reportLog, table, completeSpec.getGrammarImpl());
+			ast = lrParser.parse(lexWrapper, this.reportLog, table,
+					completeSpec.getGrammarImpl(), entry.getReduceActions());
 		} catch (ParserException e) {
 			return null;
+		} finally {
+			lexWrapper.close();
 		}
 
 		return ast;
 	}
 
+	/**
+	 * Only checks the syntax of the input of the lexer, without building an
+	 * {@link AST}. Syntax errors are reported to the {@link ReportLog} as by
+	 * {@link #getParsedAST()}.
+	 * 
+	 * @return Whether the input was accepted (possibly after recovering from
+	 *         errors, which have been reported then)
+	 * @see LRParser#recognize(LexerWrapper, ReportLog, LRParsingTable,
+	 *      swp_compiler_ss13.fuc.parser.parser.IGrammarImpl)
+	 */
+	public boolean recognize() {
+		// Check preconditions
+		if (reportLog == null || lexer == null) {
+			throw new NullPointerException("ReportLog and Lexer must not be null!");
+		}
+		
+		ParsingTableCache.Entry entry = getTableEntry(generatorType);
+		LexerWrapper lexWrapper = createLexerWrapper(entry.getGrammar());
+		LRParser lrParser = new LRParser();
+		lrParser.setMaxErrors(maxErrors);
+		try {
+			return lrParser.recognize(lexWrapper, this.reportLog, entry.getTable(),
+					entry.getSpec().getGrammarImpl());
+		} finally {
+			lexWrapper.close();
+		}
+	}
+
+	private LexerWrapper createLexerWrapper(Grammar grammar) {
+		if (pipelined) {
+			return new PipelinedLexerWrapper(this.lexer, grammar);
+		}
+		return new LexerWrapper(this.lexer, grammar);
+	}
+
+	/**
+	 * Generates the parsing table for the project grammar if this has not
+	 * been done yet, so the first call to {@link #getParsedAST()} does not have
+	 * to wait for it.
+	 */
+	public static void warmUp() {
+		getTableEntry(ELRGeneratorType.LR1);
+	}
+
+	private static ParsingTableCache.Entry getTableEntry(ELRGeneratorType generatorType) {
+		try {
+			return ParsingTableCache.get(ProjectGrammar.Complete.class, generatorType);
+		} catch (GeneratorException err) {
+			throw new RuntimeException("An unexpected parser generator exception occured: ", err);
+		}
+	}
+
 	// --------------------------------------------------------------------------
 	// --- getter/setter
 	// --------------------------------------------------------
@@ -82,4 +216,87 @@ public class ParserImpl implements Parser {
 	public void setReportLog(ReportLog reportLog) {
 		this.reportLog = reportLog;
 	}
+
+	/**
+	 * @param generatorType
+	 *            The type of generator used to create the parsing table,
+	 *            {@link ELRGeneratorType#LR1} by default
+	 */
+	public void setGeneratorType(ELRGeneratorType generatorType) {
+		this.generatorType = generatorType;
+	}
+
+	public ELRGeneratorType getGeneratorType() {
+		return generatorType;
+	}
+
+	/**
+	 * @param recognizeOnly
+	 *            Whether {@link #getParsedAST()} should only check the syntax
+	 *            of the input (see {@link #recognize()}). Initially
+	 *            <code>true</code> if {@link #RECOGNIZE_PROPERTY} is set.
+	 */
+	public void setRecognizeOnly(boolean recognizeOnly) {
+		this.recognizeOnly = recognizeOnly;
+	}
+
+	public boolean isRecognizeOnly() {
+		return recognizeOnly;
+	}
+
+	/**
+	 * @param incremental
+	 *            Whether {@link #getParsedAST()} should treat its inputs as
+	 *            successive versions of the same program and only parse the
+	 *            statements which have changed since the last call (see
+	 *            {@link IncrementalParser}). The incremental parser reads
+	 *            the lexer on its own, so {@link #setPipelined(boolean)} has no
+	 *            effect in this mode. Initially <code>true</code> if
+	 *            {@link #INCREMENTAL_PROPERTY} is set.
+	 */
+	public void setIncremental(boolean incremental) {
+		this.incremental = incremental;
+		if (!incremental) {
+			incrementalParser = null;
+		}
+	}
+
+	public boolean isIncremental() {
+		return incremental;
+	}
+
+	/**
+	 * @param maxErrors
+	 *            The number of errors after which the parser gives up (see
+	 *            {@link LRParser#setMaxErrors(int)}). Initially
+	 *            {@link LRParser#DEFAULT_MAX_ERRORS} or the value of
+	 *            {@link #MAX_ERRORS_PROPERTY}.
+	 */
+	public void setMaxErrors(int maxErrors) {
+		if (maxErrors < 1) {
+			throw new IllegalArgumentException("maxErrors must be positive!");
+		}
+		this.maxErrors = maxErrors;
+	}
+
+	public int getMaxErrors() {
+		return maxErrors;
+	}
+
+	/**
+	 * @param pipelined
+	 *            Whether the lexer should run on a thread of its own and read
+	 *            ahead of the parser (see {@link PipelinedLexerWrapper}). This
+	 *            only pays off for large inputs on machines with more than one
+	 *            core. It is ignored in incremental mode (see
+	 *            {@link #setIncremental(boolean)}). Initially <code>true</code>
+	 *            if {@link #PIPELINED_PROPERTY} is set.
+	 */
+	public void setPipelined(boolean pipelined) {
+		this.pipelined = pipelined;
+	}
+
+	public boolean isPipelined() {
+		return pipelined;
+	}
 }
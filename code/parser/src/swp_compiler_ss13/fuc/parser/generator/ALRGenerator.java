@@ -3,16 +3,17 @@ package swp_compiler_ss13.fuc.parser.generator;
 import static swp_compiler_ss13.fuc.parser.parser.tables.actions.ALRAction.ELRActionType.REDUCE;
 import static swp_compiler_ss13.fuc.parser.parser.tables.actions.ALRAction.ELRActionType.SHIFT;
 
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.Map;
+import java.util.Set;
 
 import swp_compiler_ss13.fuc.parser.generator.automaton.Dfa;
 import swp_compiler_ss13.fuc.parser.generator.automaton.DfaEdge;
 import swp_compiler_ss13.fuc.parser.generator.items.Item;
 import swp_compiler_ss13.fuc.parser.generator.states.ALRState;
 import swp_compiler_ss13.fuc.parser.generator.states.AState;
-import swp_compiler_ss13.fuc.parser.generator.states.LR0State;
 import swp_compiler_ss13.fuc.parser.grammar.Grammar;
 import swp_compiler_ss13.fuc.parser.grammar.NonTerminal;
 import swp_compiler_ss13.fuc.parser.grammar.OpAssociativities;
@@ -163,7 +164,7 @@ public abstract class ALRGenerator<I extends Item, S extends ALRState<I>> {
 			} else if (action.getType() == REDUCE) {
 				// Reduce-Reduce-Conflict.
 				Reduce reduce1 = (Reduce) action;
-				throw new ReduceReduceConflict(reduce1, reduce);
+				throw new ReduceReduceConflict(reduce1, reduce, curTerminal);
 			}
 		}
 	}
@@ -179,7 +180,7 @@ public abstract class ALRGenerator<I extends Item, S extends ALRState<I>> {
 	 * 
 	 * @return
 	 */
-	Dfa<I, S> createDFA() {
+	protected Dfa<I, S> createDFA() {
 		// Init
 		S startState = createStartState();
 		Dfa<I, S> dfa = createLrDFA(startState);
@@ -192,8 +193,10 @@ public abstract class ALRGenerator<I extends Item, S extends ALRState<I>> {
 			S kernel = todo.removeFirst();
 			ALRState<I> state = kernel.closure(grammarInfo); // unpack!
 
+			// goTo covers all items with the same next symbol at once
+			Set<Symbol> done = new HashSet<>();
 			for (I item : state.getItems()) {
-				if (item.isShiftable()) {
+				if (item.isShiftable() && done.add(item.getNextSymbol())) {
 					Symbol symbol = item.getNextSymbol();
 					if (symbol.equals(Terminal.EOF)) {
 						// $: We accept! Simple AND sufficient! ;-)
@@ -204,7 +207,7 @@ public abstract class ALRGenerator<I extends Item, S extends ALRState<I>> {
 						S nextState = (S) state.goTo(symbol);
 
 						// Is it new?
-						S oldState = contains(dfa, nextState);
+						S oldState = dfa.getState(nextState);
 						if (oldState == null) {
 							dfa.getStates().add(nextState);
 							todo.add(nextState);
@@ -237,19 +240,6 @@ public abstract class ALRGenerator<I extends Item, S extends ALRState<I>> {
 	 */
 	protected abstract Dfa<I, S> createLrDFA(S startState);
 
-	/**
-	 * @return The equivalent {@link LR0State} if there is one contained in the
-	 *         DFA; else <code>null</code>
-	 */
-	private S contains(Dfa<I, S> dfa, S newState) {
-		for (S oldState : dfa.getStates()) {
-			if (oldState.equals(newState)) {
-				return oldState;
-			}
-		}
-		return null;
-	}
-
 	// --------------------------------------------------------------------------
 	// --- getter/setter
 	// --------------------------------------------------------
@@ -0,0 +1,259 @@
+package swp_compiler_ss13.fuc.parser.generator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import swp_compiler_ss13.fuc.parser.generator.items.LR0Item;
+import swp_compiler_ss13.fuc.parser.generator.items.LR1Item;
+import swp_compiler_ss13.fuc.parser.generator.terminals.EfficientTerminalSet;
+import swp_compiler_ss13.fuc.parser.generator.terminals.MutableTerminalSet;
+import swp_compiler_ss13.fuc.parser.grammar.NonTerminal;
+import swp_compiler_ss13.fuc.parser.grammar.Symbol;
+
+
+
+
+/**
+ * Calculates and caches the LR(1) closure templates for the non-terminals of
+ * a grammar.<br/>
+ * The items added to the closure for an item "A → α.Xβ" with lookahead z only
+ * depend on X, and their lookaheads are always the union of some lookaheads
+ * that are generated spontaneously (by the grammar, see
+ * {@link Template#getSpontaneousLookaheads(int)}) and, if
+ * {@link Template#propagates(int)}, FIRST(βz). Thus the closure of a state is
+ * the union of the templates for the next symbols of its kernel items.
+ *
+ * @author Gero
+ */
+public final class ClosureTemplates {
+
+   // --------------------------------------------------------------------------
+   // --- variables and constants ----------------------------------------------
+   // --------------------------------------------------------------------------
+   private final GrammarInfo grammarInfo;
+   private final Map<NonTerminal, Template> templates = new HashMap<>();
+   
+   // FIRST(η) for the items "B → δ.Yη", by item id
+   private final EfficientTerminalSet[] firstOfRest;
+   private final BitSet restNullable = new BitSet();
+
+
+   // --------------------------------------------------------------------------
+   // --- constructors ---------------------------------------------------------
+   // --------------------------------------------------------------------------
+   /**
+    * Creates the (initially empty) cache for the templates of the grammar of
+    * the given {@link GrammarInfo}, which has to provide the FIRST and
+    * NULLABLE sets and the interned items.
+    */
+   public ClosureTemplates(GrammarInfo grammarInfo) {
+      this.grammarInfo = grammarInfo;
+      this.firstOfRest = new EfficientTerminalSet[grammarInfo.getItemFactory().getIdsCount()];
+   }
+
+
+   // --------------------------------------------------------------------------
+   // --- methods --------------------------------------------------------------
+   // --------------------------------------------------------------------------
+   /**
+    * Computes the template for the given non-terminal X, starting with
+    * all items "X → .γ", which get the lookaheads propagated from the
+    * item the closure is computed for. Instead of iterating over a worklist
+    * until no lookaheads change (see LR1State#closure), this is done in three
+    * steps:<br/>
+    * 1. Collect all items reachable from "X → .γ" (the LR(0) closure)<br/>
+    * 2. For each of these items "B → δ.Yη", add FIRST(η) to all "Y → .ρ"<br/>
+    * 3. For each of these items with nullable η, add its lookaheads (and
+    * propagation flag) to all "Y → .ρ" until nothing changes any more. Usually
+    * two passes suffice, as the items are visited in the order they were
+    * found in.
+    */
+   private Template computeTemplate(NonTerminal nonTerminal) {
+      // Items are interned, so they are indexed by their ids
+      int[] indices = new int[grammarInfo.getItemFactory().getIdsCount()];
+      Arrays.fill(indices, -1);
+      List<LR0Item> items = new ArrayList<>();
+      List<MutableTerminalSet> spontaneous = new ArrayList<>();
+      BitSet propagates = new BitSet();
+
+      // 1. LR(0) closure
+      for (LR0Item item : grammarInfo.getStartItemsFrom(nonTerminal)) {
+         if (indices[item.getId()] < 0) {
+            propagates.set(add(item, items, spontaneous, indices));
+         }
+      }
+      for (int i = 0; i < items.size(); i++) {
+         Symbol nextSymbol = items.get(i).getNextSymbol(); // item is B → δ.Yη
+         if (nextSymbol != null && nextSymbol.isNonTerminal()) {
+            for (LR0Item newItem : grammarInfo.getStartItemsFrom((NonTerminal) nextSymbol)) {
+               if (indices[newItem.getId()] < 0) {
+                  add(newItem, items, spontaneous, indices);
+               }
+            }
+         }
+      }
+
+      // 2. FIRST(η) for all "Y → .ρ", and collect the edges to propagate along
+      // (pairs of indices of "B → δ.Yη" with nullable η and "Y → .ρ")
+      int[] edges = new int[16];
+      int edgesCount = 0;
+      for (int i = 0; i < items.size(); i++) {
+         LR0Item item = items.get(i);
+         Symbol nextSymbol = item.getNextSymbol();
+         if (nextSymbol != null && nextSymbol.isNonTerminal()) {
+            EfficientTerminalSet first = getFirstOfRest(item);
+            boolean nullable = isRestNullable(item);
+            for (LR0Item newItem : grammarInfo.getStartItemsFrom((NonTerminal) nextSymbol)) {
+               int j = indices[newItem.getId()];
+               spontaneous.get(j).addAll(first);
+               if (nullable && i != j) {
+                  if (edgesCount + 2 > edges.length) {
+                     edges = Arrays.copyOf(edges, edges.length * 2);
+                  }
+                  edges[edgesCount++] = i;
+                  edges[edgesCount++] = j;
+               }
+            }
+         }
+      }
+
+      // 3. Propagate lookaheads and flags along nullable η
+      boolean changed;
+      do {
+         changed = false;
+         for (int e = 0; e < edgesCount; e += 2) {
+            int i = edges[e];
+            int j = edges[e + 1];
+            changed |= spontaneous.get(j).addAll(spontaneous.get(i));
+            if (propagates.get(i) && !propagates.get(j)) {
+               propagates.set(j);
+               changed = true;
+            }
+         }
+      } while (changed);
+
+      // Store immutable snapshots
+      int count = items.size();
+      EfficientTerminalSet[] spontaneousSnapshots = new EfficientTerminalSet[count];
+      boolean[] propagatesArray = new boolean[count];
+      for (int i = 0; i < count; i++) {
+         spontaneousSnapshots[i] = spontaneous.get(i).freeze();
+         propagatesArray[i] = propagates.get(i);
+      }
+      return new Template(items.toArray(new LR0Item[count]), spontaneousSnapshots,
+            propagatesArray);
+   }
+
+
+   private int add(LR0Item item, List<LR0Item> items, List<MutableTerminalSet> spontaneous,
+         int[] indices) {
+      int index = items.size();
+      indices[item.getId()] = index;
+      items.add(item);
+      spontaneous.add(grammarInfo.getEmptyTerminalSet().toMutable());
+      return index;
+   }
+
+
+   /**
+    * Returns FIRST(η) for the given item "B → δ.Yη", which is cached
+    * together with the information whether η is nullable.
+    */
+   private EfficientTerminalSet getFirstOfRest(LR0Item item) {
+      EfficientTerminalSet first = firstOfRest[item.getId()];
+      if (first == null) {
+         MutableTerminalSet result = grammarInfo.getEmptyTerminalSet().toMutable();
+         if (LR1Item.addFirstOfRest(item, grammarInfo.getFirstSets(),
+               grammarInfo.getNullableSet(), result)) {
+            restNullable.set(item.getId());
+         }
+         first = result.freeze();
+         firstOfRest[item.getId()] = first;
+      }
+      return first;
+   }
+
+
+   /**
+    * Returns true, if η is nullable for the given item "B → δ.Yη"
+    */
+   private boolean isRestNullable(LR0Item item) {
+      getFirstOfRest(item);
+      return restNullable.get(item.getId());
+   }
+
+
+   // --------------------------------------------------------------------------
+   // --- getter/setter --------------------------------------------------------
+   // --------------------------------------------------------------------------
+   /**
+    * Gets the closure template for the given non-terminal, which is computed
+    * on the first call.
+    */
+   public Template get(NonTerminal nonTerminal) {
+      Template template = templates.get(nonTerminal);
+      if (template == null) {
+         template = computeTemplate(nonTerminal);
+         templates.put(nonTerminal, template);
+      }
+      return template;
+   }
+
+
+   /**
+    * The items added to the closure for a non-terminal X, with their
+    * lookaheads
+    */
+   public static final class Template {
+      private final LR0Item[] items;
+      private final EfficientTerminalSet[] spontaneousLookaheads;
+      private final boolean[] propagates;
+
+
+      private Template(LR0Item[] items, EfficientTerminalSet[] spontaneousLookaheads,
+            boolean[] propagates) {
+         this.items = items;
+         this.spontaneousLookaheads = spontaneousLookaheads;
+         this.propagates = propagates;
+      }
+
+
+      /**
+       * @return the number of items in this template
+       */
+      public int getItemsCount() {
+         return items.length;
+      }
+
+
+      /**
+       * @return the item with the given index, in the order in which the
+       *         closure algorithm finds them
+       */
+      public LR0Item getItem(int index) {
+         return items[index];
+      }
+
+
+      /**
+       * @return the lookaheads of the item with the given index which are
+       *         independent of the item the closure is computed for
+       */
+      public EfficientTerminalSet getSpontaneousLookaheads(int index) {
+         return spontaneousLookaheads[index];
+      }
+
+
+      /**
+       * @return true, if the item with the given index gets FIRST(βz) of the
+       *         item "A → α.Xβ" with lookahead z the closure is computed for
+       */
+      public boolean propagates(int index) {
+         return propagates[index];
+      }
+   }
+}
@@ -0,0 +1,36 @@
+package swp_compiler_ss13.fuc.parser.generator;
+
+import swp_compiler_ss13.fuc.parser.grammar.Grammar;
+
+/**
+ * The kinds of parser generators that may be used to create the parsing table
+ * for a grammar
+ *
+ * @author Gero
+ */
+public enum ELRGeneratorType {
+	/** Canonical LR(1), see {@link LR1Generator} */
+	LR1 {
+		@Override
+		public ALRGenerator<?, ?> createGenerator(Grammar grammar) throws GeneratorException {
+			return new LR1Generator(grammar);
+		}
+	},
+
+	/** LALR(1): Much less states than LR(1), see {@link LALR1Generator} */
+	LALR1 {
+		@Override
+		public ALRGenerator<?, ?> createGenerator(Grammar grammar) throws GeneratorException {
+			return new LALR1Generator(grammar);
+		}
+	};
+
+	/**
+	 * @param grammar
+	 * @return A new generator of this type for the given grammar, which
+	 *         already created its parsing table
+	 * @throws GeneratorException
+	 */
+	public abstract ALRGenerator<?, ?> createGenerator(Grammar grammar)
+			throws GeneratorException;
+}
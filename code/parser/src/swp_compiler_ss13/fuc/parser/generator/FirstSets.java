@@ -6,6 +6,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import swp_compiler_ss13.fuc.parser.generator.terminals.EfficientTerminalSet;
+import swp_compiler_ss13.fuc.parser.generator.terminals.MutableTerminalSet;
 import swp_compiler_ss13.fuc.parser.grammar.Grammar;
 import swp_compiler_ss13.fuc.parser.grammar.NonTerminal;
 import swp_compiler_ss13.fuc.parser.grammar.Production;
@@ -37,26 +38,29 @@ public final class FirstSets {
     * This algorithm is inspired by ASU99, page 230 (german edition) (rules).
     */
    public FirstSets(Grammar grammar, NullableSet nullableSet) {
-      Map<Symbol, EfficientTerminalSet> data = new HashMap<>();
+      // the sets are changed in place during the computation
+      Map<Symbol, MutableTerminalSet> sets = new HashMap<>();
       
       // initialize map for all symbols
-      EfficientTerminalSet emptySet = new EfficientTerminalSet(grammar.getTerminals());
+      MutableTerminalSet emptySet = new EfficientTerminalSet(grammar.getTerminals()).toMutable();
       for (Terminal terminal : grammar.getTerminals()) {
-         data.put(terminal, emptySet);
+         sets.put(terminal, emptySet.empty());
       }
       for (NonTerminal nonTerminal : grammar.getNonTerminals()) {
-         data.put(nonTerminal, emptySet);
+         sets.put(nonTerminal, emptySet.empty());
       }
       
       // rule 1: if X is a terminal, then FIRST(X) = {X}
       for (Terminal terminal : grammar.getTerminals()) {
-         data.put(terminal, data.get(terminal).plus(terminal));
+         sets.get(terminal).add(terminal);
       }
-      data.put(Epsilon, emptySet.plus(Epsilon));
+      MutableTerminalSet epsilonSet = emptySet.empty();
+      epsilonSet.add(Epsilon);
+      sets.put(Epsilon, epsilonSet);
       
       // rule 2: if X → ɛ is a production, add ɛ to FIRST(X)
       for (NonTerminal nullableNonTerminal : nullableSet) {
-         data.put(nullableNonTerminal, data.get(nullableNonTerminal).plus(Epsilon));
+         sets.get(nullableNonTerminal).add(Epsilon);
       }
       
       // rule 3: if X is a non-terminal and X → Y1 Y2 ... Yk is
@@ -81,30 +85,24 @@ public final class FirstSets {
                } else {
                   // epsilon or nullable non-terminal, so go on, but
                   // add their FIRST values
-                  EfficientTerminalSet to = data.get(lhs);
-                  EfficientTerminalSet from = data.get(symbol);
-                  EfficientTerminalSet merged = to.plusAllExceptEpsilon(from);
-                  data.put(lhs, merged);
-                  changed |= (!merged.equals(to));
+                  changed |= sets.get(lhs).addAllExceptEpsilon(sets.get(symbol));
                }
             }
             // first not nullable symbol found? than add its FIRST values.
             // otherwise add epsilon
             if (firstNotNullableSymbol != null) {
-               EfficientTerminalSet to = data.get(lhs);
-               EfficientTerminalSet from = data.get(firstNotNullableSymbol);
-               EfficientTerminalSet merged = to.plusAllExceptEpsilon(from);
-               data.put(lhs, merged);
-               changed |= (!merged.equals(to));
+               changed |= sets.get(lhs).addAllExceptEpsilon(sets.get(firstNotNullableSymbol));
             } else {
-               EfficientTerminalSet before = data.get(lhs);
-               EfficientTerminalSet after = before.plus(Epsilon);
-               data.put(lhs, after);
-               changed |= (!before.equals(after));
+               changed |= sets.get(lhs).add(Epsilon);
             }
          }
       } while (changed);
       
+      // store immutable snapshots
+      Map<Symbol, EfficientTerminalSet> data = new HashMap<>();
+      for (Map.Entry<Symbol, MutableTerminalSet> entry : sets.entrySet()) {
+         data.put(entry.getKey(), entry.getValue().freeze());
+      }
       this.data = data;
    }
    
@@ -5,6 +5,7 @@ import java.util.ListIterator;
 import java.util.Map;
 
 import swp_compiler_ss13.fuc.parser.generator.terminals.EfficientTerminalSet;
+import swp_compiler_ss13.fuc.parser.generator.terminals.MutableTerminalSet;
 import swp_compiler_ss13.fuc.parser.grammar.Grammar;
 import swp_compiler_ss13.fuc.parser.grammar.NonTerminal;
 import swp_compiler_ss13.fuc.parser.grammar.Production;
@@ -21,7 +22,6 @@ public class FollowSets {
 	// --- variables and constants
 	// ----------------------------------------------
 	// --------------------------------------------------------------------------
-	private final Grammar grammar;
 	private final Map<NonTerminal, EfficientTerminalSet> followSets = new HashMap<>();
 
 	// --------------------------------------------------------------------------
@@ -30,7 +30,11 @@ public class FollowSets {
 	// --------------------------------------------------------------------------
 	public FollowSets(Grammar grammar, FirstSets firstSets,
 			NullableSet nullableSet) {
-		this.grammar = grammar;
+		// The sets are changed in place during the computation
+		Map<NonTerminal, MutableTerminalSet> sets = new HashMap<>();
+		MutableTerminalSet emptySet = new EfficientTerminalSet(
+				grammar.getTerminals()).toMutable();
+		MutableTerminalSet FOLLOWToAdd = emptySet.empty();
 
 		// Use fix point iteration to determine all follow sets
 		boolean changed = false;
@@ -43,15 +47,19 @@ public class FollowSets {
 				// now iterate through the right side from right to left:
 				ListIterator<Symbol> itRight = prod.getRHS().listIterator(
 						prod.getRHS().size());
-				EfficientTerminalSet FOLLOWToAdd = getFollowSet(lhs);
+				FOLLOWToAdd.clear();
+				MutableTerminalSet lhsFollow = sets.get(lhs);
+				if (lhsFollow != null) {
+					FOLLOWToAdd.addAll(lhsFollow);
+				}
 
 				while (itRight.hasPrevious()) { // right (step through right
 												// side of the production)
 					Symbol right = itRight.previous();
 					if (right.isTerminal()) {
 						// TERMINAL: Clear FOLLOW, add it as only element
-						FOLLOWToAdd = FOLLOWToAdd.empty()
-								.plus((Terminal) right);
+						FOLLOWToAdd.clear();
+						FOLLOWToAdd.add((Terminal) right);
 						// FOLLOWToAdd.clear(); FOLLOWToAdd.add((Terminal
 						// )right);
 					} else {
@@ -60,16 +68,18 @@ public class FollowSets {
 
 						// 1. add FOLLOWToAdd to varRight.getFOLLOW():
 						// varRight.getFOLLOW().addAll(FOLLOWToAdd);
-						EfficientTerminalSet rightFollowOld = getFollowSet(varRight);
-						EfficientTerminalSet rightFollowNew = addToFollow(
-								varRight, FOLLOWToAdd);
+						MutableTerminalSet rightFollow = sets.get(varRight);
+						if (rightFollow == null) {
+							rightFollow = emptySet.empty();
+							sets.put(varRight, rightFollow);
+						}
 						// iCard += (varRight.getFOLLOW().size() - oldSize);
-						changed |= (!rightFollowNew.equals(rightFollowOld)); // Changed
-																				// anything?
+						changed |= rightFollow.addAll(FOLLOWToAdd); // Changed
+																	// anything?
 
 						// 2. prepare new FOLLOWToAdd:
 						if (!nullableSet.contains(varRight)) {
-							FOLLOWToAdd = FOLLOWToAdd.empty();
+							FOLLOWToAdd.clear();
 						} else {
 							// If varRight can produce EPSILON (= isNullable()),
 							// we keep our follow-set and try to add it to
@@ -78,12 +88,9 @@ public class FollowSets {
 
 						// Set<Terminal> currentFIRST = new
 						// HashSet<Terminal>(varRight.getFIRST());
-						EfficientTerminalSet curFirst = firstSets.get(varRight);
 						// currentFIRST.remove(eps);
-						curFirst = curFirst.empty().plusAllExceptEpsilon(
-								curFirst);
 						// FOLLOWToAdd.addAll(currentFIRST);
-						FOLLOWToAdd = FOLLOWToAdd.plusAll(curFirst);
+						FOLLOWToAdd.addAllExceptEpsilon(firstSets.get(varRight));
 						// if (varRight.getFIRST().contains(eps)) {
 						// FOLLOWToAdd.addAll(varRight.getFOLLOW());
 						// } ==> see above!
@@ -91,23 +98,11 @@ public class FollowSets {
 				}
 			}
 		} while (changed);
-	}
-
-	private EfficientTerminalSet addToFollow(NonTerminal key,
-			EfficientTerminalSet terminalSet) {
-		EfficientTerminalSet set = getFollowSet(key);
-		set = set.plusAll(terminalSet);
-		followSets.put(key, set); // Needed, as TerminalSets are immutable and
-									// plus(..) creates new instance
-		return set;
-	}
 
-	private EfficientTerminalSet getFollowSet(NonTerminal key) {
-		EfficientTerminalSet set = followSets.get(key);
-		if (set == null) {
-			set = new EfficientTerminalSet(grammar.getTerminals());
+		// Store immutable snapshots
+		for (Map.Entry<NonTerminal, MutableTerminalSet> entry : sets.entrySet()) {
+			followSets.put(entry.getKey(), entry.getValue().freeze());
 		}
-		return set;
 	}
 
 	// --------------------------------------------------------------------------
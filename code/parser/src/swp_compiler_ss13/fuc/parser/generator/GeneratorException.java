@@ -6,6 +6,10 @@ public class GeneratorException extends Exception {
 	public GeneratorException(String msg) {
 		super(msg);
 	}
+
+	public GeneratorException(String msg, Throwable cause) {
+		super(msg, cause);
+	}
 	
 	public GeneratorException() {
 		super();
@@ -1,11 +1,14 @@
 package swp_compiler_ss13.fuc.parser.generator;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
+import swp_compiler_ss13.fuc.parser.generator.items.LR0Item;
+import swp_compiler_ss13.fuc.parser.generator.items.LR0ItemFactory;
 import swp_compiler_ss13.fuc.parser.generator.terminals.EfficientTerminalSet;
 import swp_compiler_ss13.fuc.parser.grammar.Grammar;
 import swp_compiler_ss13.fuc.parser.grammar.NonTerminal;
@@ -33,6 +36,10 @@ public class GrammarInfo {
    private final HashMap<NonTerminal, List<Production>> productionsStartingWith;
    private final Map<NonTerminal, List<Production>> constProductionsStartingWith;
    
+   private final LR0ItemFactory itemFactory;
+   private final Map<NonTerminal, List<LR0Item>> startItems;
+   private final ClosureTemplates closureTemplates;
+   
    private final EfficientTerminalSet emptyTerminalsSet;
    
    
@@ -60,6 +67,15 @@ public class GrammarInfo {
       }
       this.constProductionsStartingWith = Collections.unmodifiableMap(this.productionsStartingWith);
       
+      // Interned items
+      this.itemFactory = new LR0ItemFactory(grammar);
+      this.startItems = new HashMap<>();
+      for (NonTerminal nonTerminal : grammar.getNonTerminals()) {
+         LR0Item[] items = itemFactory.getStartItems(productionsStartingWith.get(nonTerminal));
+         this.startItems.put(nonTerminal, Collections.unmodifiableList(Arrays.asList(items)));
+      }
+      this.closureTemplates = new ClosureTemplates(this);
+      
       // Empty set of terminals
       this.emptyTerminalsSet = new EfficientTerminalSet(grammar.getTerminals());
    }
@@ -93,6 +109,31 @@ public class GrammarInfo {
    }
    
    
+   /**
+    * @return The factory for the interned {@link LR0Item}s of the grammar
+    */
+   public LR0ItemFactory getItemFactory() {
+      return itemFactory;
+   }
+   
+   
+   /**
+    * @return the interned {@link LR0Item}s "X → .γ" for all productions
+    *         beginning with the given {@link NonTerminal} X
+    */
+   public List<LR0Item> getStartItemsFrom(NonTerminal lhs) {
+      return startItems.get(lhs);
+   }
+   
+   
+   /**
+    * @return the LR(1) closure templates for the non-terminals of the grammar
+    */
+   public ClosureTemplates getClosureTemplates() {
+      return closureTemplates;
+   }
+   
+   
    /**
     * Gets the set of all nullable non-terminals, that means the
     * non-terminals that can derive the empty string.
@@ -0,0 +1,132 @@
+package swp_compiler_ss13.fuc.parser.generator;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+
+import swp_compiler_ss13.fuc.parser.generator.automaton.Dfa;
+import swp_compiler_ss13.fuc.parser.generator.automaton.DfaEdge;
+import swp_compiler_ss13.fuc.parser.generator.items.LR1Item;
+import swp_compiler_ss13.fuc.parser.generator.states.LR0State;
+import swp_compiler_ss13.fuc.parser.generator.states.LR1State;
+import swp_compiler_ss13.fuc.parser.grammar.Grammar;
+import swp_compiler_ss13.fuc.parser.grammar.Symbol;
+import swp_compiler_ss13.fuc.parser.grammar.Terminal;
+
+/**
+ * Generates LALR(1) parsing tables. The states are the same as those of
+ * {@link LR1Generator}, except that all LR(1) states with the same
+ * {@link LR1State#getKernel()} are merged into one state (with the union of
+ * their lookaheads). This is done while the {@link Dfa} is created: If a goto
+ * leads to a state whose kernel is already known, its lookaheads are merged
+ * into the existing state, which is then processed again to propagate the new
+ * lookaheads. Thus there are as many states as for {@link LR0Generator}.<br/>
+ * Merging may introduce reduce/reduce conflicts that canonical LR(1) would not
+ * have; these are reported as {@link ReduceReduceConflict}.
+ *
+ * @author Gero
+ */
+public class LALR1Generator extends LR1Generator {
+	// --------------------------------------------------------------------------
+	// --- variables and constants
+	// ----------------------------------------------
+	// --------------------------------------------------------------------------
+
+	// --------------------------------------------------------------------------
+	// --- constructors
+	// ---------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * @see LALR1Generator
+	 * @param grammar
+	 * @throws GeneratorException
+	 */
+	public LALR1Generator(Grammar grammar) throws GeneratorException {
+		super(grammar);
+	}
+
+	// --------------------------------------------------------------------------
+	// --- methods
+	// --------------------------------------------------------------
+	// --------------------------------------------------------------------------
+	@Override
+	protected Dfa<LR1Item, LR1State> createDFA() {
+		// Init: States are identified by their kernel until we are done, as
+		// their lookaheads may still change
+		LR1State startState = createStartState();
+		Map<LR0State, LR1State> states = new LinkedHashMap<>();
+		states.put(startState.getKernel(), startState);
+		Set<DfaEdge<LR0State>> edges = new LinkedHashSet<>();
+
+		LinkedList<LR0State> todo = new LinkedList<>();
+		Set<LR0State> queued = new HashSet<>();
+		todo.add(startState.getKernel());
+		queued.add(startState.getKernel());
+
+		// For all state, find edges to (possibly) new states
+		while (!todo.isEmpty()) {
+			LR0State kernel = todo.removeFirst();
+			queued.remove(kernel);
+			LR1State state = states.get(kernel).closure(grammarInfo); // unpack!
+
+			// goTo covers all items with the same next symbol at once
+			Set<Symbol> done = new HashSet<>();
+			for (LR1Item item : state.getItems()) {
+				if (item.isShiftable() && done.add(item.getNextSymbol())) {
+					Symbol symbol = item.getNextSymbol();
+					if (symbol.equals(Terminal.EOF)) {
+						// $: We accept!
+						edges.add(DfaEdge.createAcceptEdge(kernel, symbol));
+					} else {
+						LR1State nextState = state.goTo(symbol);
+						LR0State nextKernel = nextState.getKernel();
+
+						// Is it new?
+						LR1State oldState = states.get(nextKernel);
+						if (oldState == null) {
+							states.put(nextKernel, nextState);
+							todo.add(nextKernel);
+							queued.add(nextKernel);
+						} else {
+							// Same core: Merge lookaheads. If this added any,
+							// they have to be propagated to its successors
+							LR1State mergedState = oldState.merge(nextState);
+							if (!mergedState.equals(oldState)) {
+								states.put(nextKernel, mergedState);
+								if (queued.add(nextKernel)) {
+									todo.add(nextKernel);
+								}
+							}
+						}
+
+						// Add edge to automaton
+						edges.add(new DfaEdge<LR0State>(kernel, symbol, nextKernel,
+								item.getLR0Kernel()));
+					}
+				}
+			}
+		}
+
+		// Create the automaton from the final states
+		Dfa<LR1Item, LR1State> dfa = createLrDFA(states.get(startState.getKernel()));
+		dfa.getStates().addAll(states.values());
+		for (DfaEdge<LR0State> edge : edges) {
+			LR1State src = states.get(edge.getSrc());
+			if (edge.isDestAccepting()) {
+				dfa.getEdges().add(DfaEdge.createAcceptEdge(src, edge.getSymbol()));
+			} else {
+				dfa.getEdges().add(new DfaEdge<LR1State>(src, edge.getSymbol(),
+						states.get(edge.getDst()), edge.getSrcItem()));
+			}
+		}
+		return dfa;
+	}
+
+	// --------------------------------------------------------------------------
+	// --- getter/setter
+	// --------------------------------------------------------
+	// --------------------------------------------------------------------------
+}
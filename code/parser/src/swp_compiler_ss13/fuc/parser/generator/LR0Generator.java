@@ -46,7 +46,8 @@ public class LR0Generator extends ALRGenerator<LR0Item, LR0State> {
 	@Override
 	protected LR0State createStartState() {
 		Grammar grammar = grammarInfo.getGrammar();
-		return new LR0State(new LR0Item(grammar.getStartProduction(), 0));
+		return new LR0State(grammarInfo.getItemFactory().getItem(
+				grammar.getStartProduction(), 0));
 	}
 	
 	@Override
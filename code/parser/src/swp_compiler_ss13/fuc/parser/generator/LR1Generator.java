@@ -1,6 +1,7 @@
 package swp_compiler_ss13.fuc.parser.generator;
 
 import swp_compiler_ss13.fuc.parser.generator.automaton.Dfa;
+import swp_compiler_ss13.fuc.parser.generator.items.LR0Item;
 import swp_compiler_ss13.fuc.parser.generator.items.LR1Item;
 import swp_compiler_ss13.fuc.parser.generator.states.LR1State;
 import swp_compiler_ss13.fuc.parser.generator.terminals.ITerminalSet;
@@ -38,7 +39,9 @@ public class LR1Generator extends ALRGenerator<LR1Item, LR1State> {
 	protected LR1State createStartState() {
 		Grammar grammar = grammarInfo.getGrammar();
 		ITerminalSet empty = grammarInfo.getEmptyTerminalSet();
-		return new LR1State(new LR1Item(grammar.getStartProduction(), 0, empty));
+		LR0Item startItem = grammarInfo.getItemFactory().getItem(
+				grammar.getStartProduction(), 0);
+		return new LR1State(new LR1Item(startItem, empty));
 	}
 	
 	@Override
@@ -0,0 +1,390 @@
+package swp_compiler_ss13.fuc.parser.generator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.apache.log4j.Logger;
+
+import swp_compiler_ss13.fuc.parser.grammar.AGrammarSpec;
+import swp_compiler_ss13.fuc.parser.grammar.Grammar;
+import swp_compiler_ss13.fuc.parser.parser.ReduceActions;
+import swp_compiler_ss13.fuc.parser.parser.tables.LRParsingTable;
+import swp_compiler_ss13.fuc.parser.parser.tables.LRParsingTableSerializer;
+
+/**
+ * Process-wide cache for generated {@link LRParsingTable}s. Generating the
+ * LR(1) table for a grammar (NULLABLE, FIRST, FOLLOW and the canonical DFA) is
+ * by far the most expensive part of parsing small programs, but its result
+ * only depends on the grammar. So every table is generated lazily once per
+ * {@link AGrammarSpec} class and {@link ELRGeneratorType} and then shared by
+ * all parser instances.<br/>
+ * If the build put a precompiled table for the spec on the classpath (see
+ * {@link LRParsingTableSerializer}), it is loaded instead of generated, as
+ * long as it matches the spec's grammar. Precompiled tables are always
+ * canonical LR(1) tables, so they are only used for
+ * {@link ELRGeneratorType#LR1}.<br/>
+ * The cached tables are frozen (see {@link LRParsingTable#freeze()}), so they
+ * may be used by several threads concurrently. Generation itself is
+ * guaranteed to happen at most once per grammar, even if multiple threads
+ * request the same table at the same time.
+ *
+ * @author Gero
+ */
+public final class ParsingTableCache {
+	// --------------------------------------------------------------------------
+	// --- variables and constants
+	// ----------------------------------------------
+	// --------------------------------------------------------------------------
+	private static final Logger log = Logger.getLogger(ParsingTableCache.class);
+
+	/**
+	 * If this system property is set to <code>false</code>, precompiled tables
+	 * are ignored and all tables are generated
+	 */
+	public static final String PRECOMPILED_PROPERTY = "swp_compiler_ss13.fuc.parser.precompiled";
+
+	/**
+	 * If this system property is set to <code>true</code>, the cached tables
+	 * are compressed (see {@link LRParsingTable#compress()})
+	 */
+	public static final String COMPRESSED_PROPERTY = "swp_compiler_ss13.fuc.parser.compressed";
+
+	private static final ConcurrentMap<Key, FutureTask<Entry>> cache = new ConcurrentHashMap<>();
+
+	// --------------------------------------------------------------------------
+	// --- constructors
+	// ---------------------------------------------------------
+	// --------------------------------------------------------------------------
+	private ParsingTableCache() {
+
+	}
+
+	// --------------------------------------------------------------------------
+	// --- methods
+	// --------------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * Returns the cached LR(1) {@link Entry} for the class of the given
+	 * {@link AGrammarSpec}. If there is none yet, it is generated from the
+	 * given spec and stored for all subsequent calls.
+	 *
+	 * @param spec
+	 * @return The shared {@link Entry} for the given grammar spec
+	 * @throws GeneratorException
+	 *             If the table could not be generated
+	 */
+	public static Entry get(AGrammarSpec spec) throws GeneratorException {
+		return get(spec, ELRGeneratorType.LR1);
+	}
+
+	/**
+	 * Like {@link #get(AGrammarSpec)}, but for the given type of generator
+	 *
+	 * @param spec
+	 * @param type
+	 * @return The shared {@link Entry} for the given grammar spec and
+	 *         generator
+	 * @throws GeneratorException
+	 *             If the table could not be generated
+	 */
+	public static Entry get(final AGrammarSpec spec, final ELRGeneratorType type)
+			throws GeneratorException {
+		return get(new Key(spec.getClass(), type), new Callable<Entry>() {
+			@Override
+			public Entry call() throws GeneratorException {
+				return generate(spec, type);
+			}
+		});
+	}
+
+	/**
+	 * Returns the cached {@link Entry} for the given {@link AGrammarSpec}
+	 * class. Only if there is none yet, the spec is instantiated (using its
+	 * default constructor) and the table is generated.
+	 *
+	 * @param specClass
+	 * @return The shared LR(1) {@link Entry} for the given grammar spec class
+	 * @throws GeneratorException
+	 *             If the spec could not be instantiated or the table could
+	 *             not be generated
+	 */
+	public static Entry get(Class<? extends AGrammarSpec> specClass)
+			throws GeneratorException {
+		return get(specClass, ELRGeneratorType.LR1);
+	}
+
+	/**
+	 * Like {@link #get(Class)}, but for the given type of generator
+	 *
+	 * @param specClass
+	 * @param type
+	 * @return The shared {@link Entry} for the given grammar spec class and
+	 *         generator
+	 * @throws GeneratorException
+	 *             If the spec could not be instantiated or the table could
+	 *             not be generated
+	 */
+	public static Entry get(final Class<? extends AGrammarSpec> specClass,
+			final ELRGeneratorType type) throws GeneratorException {
+		return get(new Key(specClass, type), new Callable<Entry>() {
+			@Override
+			public Entry call() throws GeneratorException {
+				AGrammarSpec spec;
+				try {
+					spec = specClass.getDeclaredConstructor().newInstance();
+				} catch (ReflectiveOperationException err) {
+					throw new GeneratorException("Unable to instantiate grammar spec "
+							+ specClass.getName() + ": " + err.getMessage(), err);
+				}
+				return generate(spec, type);
+			}
+		});
+	}
+
+	private static Entry get(Key key,
+			Callable<Entry> generation) throws GeneratorException {
+		FutureTask<Entry> task = cache.get(key);
+		if (task == null) {
+			FutureTask<Entry> newTask = new FutureTask<>(generation);
+			task = cache.putIfAbsent(key, newTask);
+			if (task == null) {
+				// We won the race: generate the table in this thread
+				task = newTask;
+				task.run();
+			}
+		}
+
+		try {
+			return task.get();
+		} catch (ExecutionException err) {
+			// Do not cache failures, the next call should try again
+			cache.remove(key, task);
+			Throwable cause = err.getCause();
+			if (cause instanceof GeneratorException) {
+				throw (GeneratorException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof java.lang.Error) {
+				throw (java.lang.Error) cause;
+			}
+			throw new RuntimeException(cause);
+		} catch (InterruptedException err) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while waiting for parsing table of "
+					+ key, err);
+		}
+	}
+
+	/**
+	 * Eagerly generates and caches the table for the given grammar spec class, so
+	 * that the first parser using it does not have to pay for the generation.
+	 *
+	 * @param specClass
+	 * @throws GeneratorException
+	 */
+	public static void warmUp(Class<? extends AGrammarSpec> specClass)
+			throws GeneratorException {
+		get(specClass);
+	}
+
+	/**
+	 * @param specClass
+	 * @return Whether there already is a LR(1) table for the given grammar spec
+	 *         class (or one is being generated)
+	 */
+	public static boolean contains(Class<? extends AGrammarSpec> specClass) {
+		return contains(specClass, ELRGeneratorType.LR1);
+	}
+
+	/**
+	 * @param specClass
+	 * @param type
+	 * @return Whether there already is a table of the given type for the given
+	 *         grammar spec class (or one is being generated)
+	 */
+	public static boolean contains(Class<? extends AGrammarSpec> specClass,
+			ELRGeneratorType type) {
+		return cache.containsKey(new Key(specClass, type));
+	}
+
+	/**
+	 * Drops all cached tables. Subsequent calls to {@link #get(AGrammarSpec)}
+	 * generate them again.
+	 */
+	public static void clear() {
+		cache.clear();
+	}
+
+	private static Entry generate(AGrammarSpec spec, ELRGeneratorType type)
+			throws GeneratorException {
+		long start = System.nanoTime();
+		if (type == ELRGeneratorType.LR1
+				&& !"false".equals(System.getProperty(PRECOMPILED_PROPERTY))) {
+			LRParsingTable table = loadPrecompiled(spec);
+			if (table != null) {
+				log.debug("Loaded precompiled parsing table for " + spec.getClass().getName()
+						+ " in " + (System.nanoTime() - start) / 1000000 + "ms");
+				return new Entry(spec, type, null, share(table));
+			}
+		}
+
+		ALRGenerator<?, ?> generator = type.createGenerator(spec.getGrammar());
+		LRParsingTable table = share(generator.getParsingTable());
+		log.debug("Generated " + type + " parsing table for " + spec.getClass().getName()
+				+ " with " + table.getStatesCount() + " states in "
+				+ (System.nanoTime() - start) / 1000000 + "ms");
+		return new Entry(spec, type, generator.getGrammarInfo(), table);
+	}
+
+	/**
+	 * Freezes the given table and compresses it, if requested by
+	 * {@link #COMPRESSED_PROPERTY}
+	 *
+	 * @param table
+	 * @return The given table
+	 */
+	private static LRParsingTable share(LRParsingTable table) {
+		table.freeze();
+		if (Boolean.getBoolean(COMPRESSED_PROPERTY)) {
+			table.compress();
+		}
+		return table;
+	}
+
+	/**
+	 * @param spec
+	 * @return The precompiled table for the given spec, or <code>null</code>
+	 *         if there is none or it does not match the spec's grammar
+	 */
+	private static LRParsingTable loadPrecompiled(AGrammarSpec spec) {
+		Class<? extends AGrammarSpec> specClass = spec.getClass();
+		String name = LRParsingTableSerializer.getResourceName(specClass);
+		try (InputStream in = specClass.getResourceAsStream(name)) {
+			if (in == null) {
+				return null;
+			}
+			LRParsingTable table = LRParsingTableSerializer.read(spec.getGrammar(), in);
+			if (table == null) {
+				log.warn("Precompiled parsing table " + name
+						+ " does not match the grammar, generating it instead");
+			}
+			return table;
+		} catch (IOException err) {
+			log.warn("Unable to read precompiled parsing table " + name + ": "
+					+ err.getMessage());
+			return null;
+		}
+	}
+
+	// --------------------------------------------------------------------------
+	// --- inner classes
+	// --------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * Identifies a cached table by grammar spec class and generator type
+	 */
+	private static final class Key {
+		private final Class<? extends AGrammarSpec> specClass;
+		private final ELRGeneratorType type;
+
+		private Key(Class<? extends AGrammarSpec> specClass, ELRGeneratorType type) {
+			this.specClass = specClass;
+			this.type = type;
+		}
+
+		@Override
+		public int hashCode() {
+			return specClass.hashCode() * 31 + type.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return specClass == other.specClass && type == other.type;
+		}
+
+		@Override
+		public String toString() {
+			return specClass.getName() + " (" + type + ")";
+		}
+	}
+
+	/**
+	 * Holder for everything that was computed for one grammar spec
+	 */
+	public static final class Entry {
+		private final AGrammarSpec spec;
+		private final ELRGeneratorType type;
+		private GrammarInfo grammarInfo;
+		private final LRParsingTable table;
+		private ReduceActions reduceActions;
+
+		private Entry(AGrammarSpec spec, ELRGeneratorType type,
+				GrammarInfo grammarInfo, LRParsingTable table) {
+			this.spec = spec;
+			this.type = type;
+			this.grammarInfo = grammarInfo;
+			this.table = table;
+		}
+
+		/**
+		 * @return The spec the table was generated from
+		 */
+		public AGrammarSpec getSpec() {
+			return spec;
+		}
+
+		/**
+		 * @return The type of generator the table was generated by
+		 */
+		public ELRGeneratorType getGeneratorType() {
+			return type;
+		}
+
+		/**
+		 * @return The grammar as defined by the spec (without auxiliary start
+		 *         production)
+		 */
+		public Grammar getGrammar() {
+			return spec.getGrammar();
+		}
+
+		/**
+		 * @return The {@link GrammarInfo} of the extended grammar the table was
+		 *         generated from (computed on demand for precompiled tables)
+		 */
+		public synchronized GrammarInfo getGrammarInfo() {
+			if (grammarInfo == null) {
+				grammarInfo = new GrammarInfo(spec.getGrammar().extendByAuxStartProduction());
+			}
+			return grammarInfo;
+		}
+
+		/**
+		 * @return The frozen parsing table
+		 */
+		public LRParsingTable getTable() {
+			return table;
+		}
+
+		/**
+		 * @return The {@link ReduceActions} of the spec's
+		 *         {@link AGrammarSpec#getGrammarImpl()} for the productions of
+		 *         the table (built on demand)
+		 */
+		public synchronized ReduceActions getReduceActions() {
+			if (reduceActions == null) {
+				reduceActions = new ReduceActions(table.getCompiledTable(), spec.getGrammarImpl());
+			}
+			return reduceActions;
+		}
+	}
+}
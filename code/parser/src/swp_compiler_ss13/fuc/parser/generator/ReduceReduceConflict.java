@@ -1,5 +1,6 @@
 package swp_compiler_ss13.fuc.parser.generator;
 
+import swp_compiler_ss13.fuc.parser.grammar.Terminal;
 import swp_compiler_ss13.fuc.parser.parser.tables.actions.Reduce;
 
 public class ReduceReduceConflict extends GeneratorException {
@@ -7,11 +8,17 @@ public class ReduceReduceConflict extends GeneratorException {
 	
 	private final Reduce reduce1;
 	private final Reduce reduce2;
+	private final Terminal terminal;
 	
 	public ReduceReduceConflict(Reduce reduce1, Reduce reduce2) {
+		this(reduce1, reduce2, null);
+	}
+	
+	public ReduceReduceConflict(Reduce reduce1, Reduce reduce2, Terminal terminal) {
 		super();
 		this.reduce1 = reduce1;
 		this.reduce2 = reduce2;
+		this.terminal = terminal;
 	}
 	
 	public Reduce getReduce1() {
@@ -21,4 +28,19 @@ public class ReduceReduceConflict extends GeneratorException {
 	public Reduce getReduce2() {
 		return reduce2;
 	}
+	
+	/**
+	 * @return The lookahead both reductions are possible for, may be
+	 *         <code>null</code>
+	 */
+	public Terminal getTerminal() {
+		return terminal;
+	}
+
+	@Override
+	public String toString() {
+		return "Reduce-Reduce conflict with terminal '" + terminal
+				+ "' between: \n" + reduce1.toString() + "\n and \n"
+				+ reduce2.toString();
+	}
 }
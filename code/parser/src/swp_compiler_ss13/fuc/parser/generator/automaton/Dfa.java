@@ -1,8 +1,14 @@
 package swp_compiler_ss13.fuc.parser.generator.automaton;
 
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import swp_compiler_ss13.fuc.parser.generator.items.Item;
@@ -12,7 +18,11 @@ import swp_compiler_ss13.fuc.parser.generator.states.AState;
 /**
  * A deterministic finite automaton (DFA) as a interim step for the generation
  * of parsing tables. Generators create DFAs first from the grammar, which are
- * then converted to actions by moving along their edges.
+ * then converted to actions by moving along their edges.<br/>
+ * States are indexed by their hash code, and every state knows its incoming
+ * and outgoing edges, so neither {@link #getState(AState)} nor
+ * {@link #getEdgesFrom(AState)} or {@link #getEdgesTo(AState)} have to scan
+ * the whole automaton.
  * 
  * @author Gero
  * 
@@ -23,10 +33,17 @@ public class Dfa<I extends Item, S extends AState<I>> {
    // --------------------------------------------------------------------------
    // --- variables and constants ----------------------------------------------
    // --------------------------------------------------------------------------
-   private final Set<S> states = new LinkedHashSet<>();
+   private final Map<S, S> states = new LinkedHashMap<>();
    private final Set<DfaEdge<S>> edges = new LinkedHashSet<>();
    private final S startState;
    
+   private final Map<S, List<DfaEdge<S>>> edgesFrom = new HashMap<>();
+   private final Map<S, List<DfaEdge<S>>> edgesTo = new HashMap<>();
+   
+   // views that keep the indexes up to date
+   private final Set<S> statesView = new StateSet();
+   private final Set<DfaEdge<S>> edgesView = new EdgeSet();
+   
    // --------------------------------------------------------------------------
    // --- constructors ---------------------------------------------------------
    // --------------------------------------------------------------------------
@@ -35,25 +52,28 @@ public class Dfa<I extends Item, S extends AState<I>> {
     * @param startState
     */
    public Dfa(S startState) {
-      states.add(startState);
+      states.put(startState, startState);
       this.startState = startState;
    }
    
    // --------------------------------------------------------------------------
    // --- methods --------------------------------------------------------------
    // --------------------------------------------------------------------------
+   /**
+    * @param state
+    * @return The state of this automaton that equals the given one, or
+    *         <code>null</code> if there is none
+    */
+   public S getState(S state) {
+      return states.get(state);
+   }
+   
    /**
     * @param state
     * @return All edges that start form the given state
     */
    public List<DfaEdge<S>> getEdgesFrom(S state) {
-      LinkedList<DfaEdge<S>> result = new LinkedList<>();
-      for (DfaEdge<S> edge : edges) {
-         if (edge.getSrc().equals(state)) {
-            result.add(edge);
-         }
-      }
-      return result;
+      return copy(edgesFrom.get(state));
    }
 
    /**
@@ -61,13 +81,30 @@ public class Dfa<I extends Item, S extends AState<I>> {
     * @return All edges that end in the given state
     */
    public List<DfaEdge<S>> getEdgesTo(S state) {
-      LinkedList<DfaEdge<S>> result = new LinkedList<>();
-      for (DfaEdge<S> edge : edges) {
-         if (edge.getDst().equals(state)) {
-            result.add(edge);
-         }
+      return copy(edgesTo.get(state));
+   }
+   
+   private static <S> List<DfaEdge<S>> copy(List<DfaEdge<S>> edges) {
+      return edges == null ? new LinkedList<DfaEdge<S>>() : new LinkedList<>(edges);
+   }
+   
+   private static <S> void index(Map<S, List<DfaEdge<S>>> index, S state, DfaEdge<S> edge) {
+      if (state == null) {
+         return;  // Accept edge
+      }
+      List<DfaEdge<S>> list = index.get(state);
+      if (list == null) {
+         list = new LinkedList<>();
+         index.put(state, list);
+      }
+      list.add(edge);
+   }
+   
+   private static <S> void unindex(Map<S, List<DfaEdge<S>>> index, S state, DfaEdge<S> edge) {
+      List<DfaEdge<S>> list = index.get(state);
+      if (list != null) {
+         list.remove(edge);
       }
-      return result;
    }
    
    // --------------------------------------------------------------------------
@@ -77,14 +114,14 @@ public class Dfa<I extends Item, S extends AState<I>> {
     * @return All states this automaton consists of
     */
    public Set<S> getStates() {
-      return states;
+      return statesView;
    }
 
    /**
     * @return All edges this automaton consists of
     */
    public Set<DfaEdge<S>> getEdges() {
-      return edges;
+      return edgesView;
    }
 
    /**
@@ -93,4 +130,88 @@ public class Dfa<I extends Item, S extends AState<I>> {
    public S getStartState() {
       return startState;
    }
+   
+   // --------------------------------------------------------------------------
+   // --- inner classes --------------------------------------------------------
+   // --------------------------------------------------------------------------
+   /**
+    * The states of this automaton, in the order they were added
+    */
+   private class StateSet extends AbstractSet<S> {
+      @Override
+      public boolean add(S state) {
+         if (states.containsKey(state)) {
+            return false;
+         }
+         states.put(state, state);
+         return true;
+      }
+      
+      @Override
+      public boolean contains(Object state) {
+         return states.containsKey(state);
+      }
+      
+      @Override
+      public Iterator<S> iterator() {
+         return Collections.unmodifiableSet(states.keySet()).iterator();
+      }
+      
+      @Override
+      public int size() {
+         return states.size();
+      }
+   }
+   
+   /**
+    * The edges of this automaton, in the order they were added. Updates the
+    * per-state edge lists.
+    */
+   private class EdgeSet extends AbstractSet<DfaEdge<S>> {
+      @Override
+      public boolean add(DfaEdge<S> edge) {
+         if (!edges.add(edge)) {
+            return false;
+         }
+         index(edgesFrom, edge.getSrc(), edge);
+         index(edgesTo, edge.getDst(), edge);
+         return true;
+      }
+      
+      @Override
+      public boolean contains(Object edge) {
+         return edges.contains(edge);
+      }
+      
+      @Override
+      public Iterator<DfaEdge<S>> iterator() {
+         final Iterator<DfaEdge<S>> it = edges.iterator();
+         return new Iterator<DfaEdge<S>>() {
+            private DfaEdge<S> last = null;
+            
+            @Override
+            public boolean hasNext() {
+               return it.hasNext();
+            }
+            
+            @Override
+            public DfaEdge<S> next() {
+               last = it.next();
+               return last;
+            }
+            
+            @Override
+            public void remove() {
+               it.remove();
+               unindex(edgesFrom, last.getSrc(), last);
+               unindex(edgesTo, last.getDst(), last);
+            }
+         };
+      }
+      
+      @Override
+      public int size() {
+         return edges.size();
+      }
+   }
 }
@@ -8,7 +8,9 @@ import swp_compiler_ss13.fuc.parser.grammar.Terminal;
 
 /**
  * An LR(0)-Item is a {@link Production} combined with a position in its right
- * hand side. E.g.: "E → (.B)", where the dot denotes the position.
+ * hand side. E.g.: "E → (.B)", where the dot denotes the position.<br/>
+ * Items created by a {@link LR0ItemFactory} are interned and have an
+ * {@link #getId()}, which makes comparing them cheap.
  */
 public class LR0Item implements Item {
 	// --------------------------------------------------------------------------
@@ -18,6 +20,10 @@ public class LR0Item implements Item {
 	protected final Production production;
 	protected final int position;
 
+	// interning
+	private final LR0ItemFactory factory;
+	private final int id;
+
 	// cache
 	protected final Symbol nextSymbol;
 	protected final int hashCode;
@@ -28,7 +34,23 @@ public class LR0Item implements Item {
 	// ---------------------------------------------------------
 	// --------------------------------------------------------------------------
 	public LR0Item(Production production, int position) {
+		this(production, position, null, -1);
+	}
+
+	/**
+	 * @see LR0ItemFactory
+	 * @param production
+	 * @param position
+	 * @param factory
+	 *            The factory that interns this item, may be <code>null</code>
+	 * @param id
+	 *            The id of this item within the factory
+	 */
+	LR0Item(Production production, int position, LR0ItemFactory factory,
+			int id) {
 		this.production = production;
+		this.factory = factory;
+		this.id = id;
 
 		// correct position if epsilons are following
 		List<Symbol> rhs = production.getRHS();
@@ -92,6 +114,8 @@ public class LR0Item implements Item {
 					"Shifting not possible: Item already closed: " + this);
 
 		// return shifted item
+		if (factory != null)
+			return factory.moveTo(this, position + 1);
 		return new LR0Item(production, position + 1);
 	}
 
@@ -102,6 +126,8 @@ public class LR0Item implements Item {
 	public LR0Item complete() {
 		if (isComplete()) {
 			return this;
+		} else if (factory != null) {
+			return factory.moveTo(this, production.getRHS().size());
 		} else {
 			return new LR0Item(production, production.getRHS().size());
 		}
@@ -111,6 +137,14 @@ public class LR0Item implements Item {
 	// --- getter/setter
 	// --------------------------------------------------------
 	// --------------------------------------------------------------------------
+	/**
+	 * @return The id of this item if it was created by a
+	 *         {@link LR0ItemFactory}, otherwise <code>-1</code>
+	 */
+	public int getId() {
+		return id;
+	}
+
 	@Override
 	public String toString() {
 		return production.toString(position);
@@ -118,8 +152,12 @@ public class LR0Item implements Item {
 
 	@Override
 	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
 		if (obj instanceof LR0Item) {
 			LR0Item l = (LR0Item) obj;
+			if (factory != null && factory == l.factory)
+				return false; // Interned: Equal items are the same instance
 			if (!production.equals(l.production))
 				return false;
 			if (position != l.position)
@@ -0,0 +1,119 @@
+package swp_compiler_ss13.fuc.parser.generator.items;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import swp_compiler_ss13.fuc.parser.grammar.Grammar;
+import swp_compiler_ss13.fuc.parser.grammar.Production;
+import swp_compiler_ss13.fuc.parser.grammar.Terminal;
+
+/**
+ * Interns the {@link LR0Item}s of a {@link Grammar}: There is exactly one
+ * instance per {@link Production} and position, identified by a dense integer
+ * id (the position plus the sum of the sizes of all preceding productions).
+ * Interned items are compared by their id, and {@link LR0Item#shift()} stays
+ * within the interned items.
+ *
+ * @author Gero
+ */
+public class LR0ItemFactory {
+	// --------------------------------------------------------------------------
+	// --- variables and constants
+	// ----------------------------------------------
+	// --------------------------------------------------------------------------
+	private final Map<Production, Integer> offsets = new HashMap<>();
+	private final LR0Item[] items;
+
+	// --------------------------------------------------------------------------
+	// --- constructors
+	// ---------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * @see LR0ItemFactory
+	 * @param grammar
+	 */
+	public LR0ItemFactory(Grammar grammar) {
+		int offset = 0;
+		for (Production production : grammar.getProductions()) {
+			if (!offsets.containsKey(production)) {
+				offsets.put(production, offset);
+				offset += production.getRHS().size() + 1;
+			}
+		}
+		items = new LR0Item[offset];
+	}
+
+	// --------------------------------------------------------------------------
+	// --- methods
+	// --------------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * @param production
+	 * @param position
+	 * @return The interned {@link LR0Item} for the given production and
+	 *         position
+	 * @throws IllegalArgumentException
+	 *             If the production is not part of the grammar
+	 */
+	public LR0Item getItem(Production production, int position) {
+		Integer offset = offsets.get(production);
+		if (offset == null) {
+			throw new IllegalArgumentException("Unknown production: "
+					+ production);
+		}
+		// See LR0Item: epsilon is shifted immediately
+		if (position == 0 && production.getRHS().get(0) == Terminal.Epsilon) {
+			position = 1;
+		}
+		return getItem(production, position, offset + position);
+	}
+
+	/**
+	 * @param item
+	 *            An item interned by this factory
+	 * @param position
+	 *            The new position
+	 * @return The interned {@link LR0Item} for the production of the given
+	 *         item and the given position
+	 */
+	LR0Item moveTo(LR0Item item, int position) {
+		return getItem(item.production, position, item.getId() - item.position
+				+ position);
+	}
+
+	private LR0Item getItem(Production production, int position, int id) {
+		LR0Item item = items[id];
+		if (item == null) {
+			item = new LR0Item(production, position, this, id);
+			items[id] = item;
+		}
+		return item;
+	}
+
+	/**
+	 * @param productions
+	 * @return The interned {@link LR0Item}s with position 0 for the given
+	 *         productions
+	 */
+	public LR0Item[] getStartItems(List<Production> productions) {
+		LR0Item[] result = new LR0Item[productions.size()];
+		int i = 0;
+		for (Production production : productions) {
+			result[i++] = getItem(production, 0);
+		}
+		return result;
+	}
+
+	// --------------------------------------------------------------------------
+	// --- getter/setter
+	// --------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * @return The number of possible item ids, which are all in
+	 *         <code>[0, getIdsCount())</code>
+	 */
+	public int getIdsCount() {
+		return items.length;
+	}
+}
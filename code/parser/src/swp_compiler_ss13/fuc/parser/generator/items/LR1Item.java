@@ -7,6 +7,7 @@ import java.util.List;
 import swp_compiler_ss13.fuc.parser.generator.FirstSets;
 import swp_compiler_ss13.fuc.parser.generator.NullableSet;
 import swp_compiler_ss13.fuc.parser.generator.terminals.ITerminalSet;
+import swp_compiler_ss13.fuc.parser.generator.terminals.MutableTerminalSet;
 import swp_compiler_ss13.fuc.parser.grammar.Production;
 import swp_compiler_ss13.fuc.parser.grammar.Symbol;
 
@@ -60,7 +61,7 @@ public class LR1Item implements Item {
 			throw new RuntimeException(
 					"Shifting not possible: Item already closed: "
 							+ kernel.production.toString(kernel.position));
-		return new LR1Item(kernel.production, kernel.position + 1, lookaheads);
+		return new LR1Item(kernel.shift(), lookaheads);
 	}
 
 	/**
@@ -78,24 +79,36 @@ public class LR1Item implements Item {
 
 	private ITerminalSet computeNextLookaheadSymbols(FirstSets firstSets,
 			NullableSet nullableSet) {
-		ITerminalSet result = lookaheads.empty();
+		MutableTerminalSet result = lookaheads.empty().toMutable();
+		if (addFirstOfRest(kernel, firstSets, nullableSet, result)) {
+			// All symbols of β (if any) were nullable, so we add all our
+			// lookaheads to the result
+			result.addAll(lookaheads);
+		}
+		return result.freeze();
+	}
 
+	/**
+	 * Adds the FIRST set of β to the given set (where the given item has the
+	 * form "A → α.Xβ" with X being the next symbol), using the given
+	 * precomputed nullable set and FIRST sets for all symbols.
+	 * 
+	 * @return <code>true</code>, if β is nullable, which means the lookaheads
+	 *         of the item belong to FIRST(βa), too
+	 */
+	public static boolean addFirstOfRest(LR0Item item, FirstSets firstSets,
+			NullableSet nullableSet, MutableTerminalSet result) {
 		// While the symbols of β (if any) are nullable, collect their FIRST
 		// sets. When not nullable, collect the symbols and stop.
-		List<Symbol> rhs = kernel.getProduction().getRHS();
-		for (int i = kernel.position + 1; i < rhs.size(); i++) {
+		List<Symbol> rhs = item.getProduction().getRHS();
+		for (int i = item.position + 1; i < rhs.size(); i++) {
 			Symbol symbol = rhs.get(i);
-			result = result.plusAll(firstSets.get(symbol));
+			result.addAll(firstSets.get(symbol));
 			if (!(symbol == Epsilon || nullableSet.contains(symbol))) {
-				return result;
+				return false;
 			}
 		}
-
-		// Since we still did not return, all symbols of β (if any) were
-		// nullable,
-		// so we add all our lookaheads to the result
-		result = result.plusAll(lookaheads);
-		return result;
+		return true;
 	}
 
 	/**
@@ -105,8 +118,7 @@ public class LR1Item implements Item {
 		if (!kernel.equals(item.kernel))
 			throw new IllegalArgumentException(
 					"Only items with equal LR(0) kernel can be merged!");
-		return new LR1Item(kernel.production, kernel.position,
-				lookaheads.plusAll(item.lookaheads));
+		return new LR1Item(kernel, lookaheads.plusAll(item.lookaheads));
 	}
 
 	// --------------------------------------------------------------------------
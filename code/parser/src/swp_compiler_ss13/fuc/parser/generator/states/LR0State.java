@@ -1,5 +1,6 @@
 package swp_compiler_ss13.fuc.parser.generator.states;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
@@ -7,12 +8,13 @@ import java.util.LinkedList;
 import swp_compiler_ss13.fuc.parser.generator.GrammarInfo;
 import swp_compiler_ss13.fuc.parser.generator.items.LR0Item;
 import swp_compiler_ss13.fuc.parser.grammar.NonTerminal;
-import swp_compiler_ss13.fuc.parser.grammar.Production;
 import swp_compiler_ss13.fuc.parser.grammar.Symbol;
 
 /**
  * Implements {@link #goTo(Symbol)} and {@link #closure(GrammarInfo)} from
- * {@link ALRState} for LR0 grammar generation.
+ * {@link ALRState} for LR0 grammar generation. If all items are interned (see
+ * {@link LR0Item#getId()}), the state is identified by the sorted array of
+ * their ids, which makes comparing states cheap.
  * 
  * @author Gero
  */
@@ -22,6 +24,8 @@ public class LR0State extends ALRState<LR0Item> {
 	// ----------------------------------------------
 	// --------------------------------------------------------------------------
 	// cache
+	private int[] ids = null;
+	private boolean idsCalculated = false;
 	private LR0State closureCache = null;
 
 	// --------------------------------------------------------------------------
@@ -44,6 +48,23 @@ public class LR0State extends ALRState<LR0Item> {
 		super(items);
 	}
 
+	/**
+	 * @return The sorted ids of all items, or <code>null</code> if not all
+	 *         of them are interned
+	 */
+	private int[] calcIds() {
+		int[] result = new int[items.size()];
+		int i = 0;
+		for (LR0Item item : items) {
+			if (item.getId() < 0) {
+				return null;
+			}
+			result[i++] = item.getId();
+		}
+		Arrays.sort(result);
+		return result;
+	}
+
 	// --------------------------------------------------------------------------
 	// --- methods
 	// --------------------------------------------------------------
@@ -85,9 +106,8 @@ public class LR0State extends ALRState<LR0Item> {
 			LR0Item it = queue.removeFirst();
 			Symbol nextSymbol = it.getNextSymbol();
 			if (it.isShiftable() && nextSymbol.isNonTerminal()) {
-				for (Production p : grammarInfo
-						.getProductionsFrom((NonTerminal) nextSymbol)) {
-					LR0Item newItem = new LR0Item(p, 0);
+				for (LR0Item newItem : grammarInfo
+						.getStartItemsFrom((NonTerminal) nextSymbol)) {
 					if (!result.contains(newItem)) {
 						result.add(newItem);
 						queue.addLast(newItem);
@@ -102,4 +122,35 @@ public class LR0State extends ALRState<LR0Item> {
 	// --- getter/setter
 	// --------------------------------------------------------
 	// --------------------------------------------------------------------------
+	/**
+	 * @return The sorted ids of the items of this state, or <code>null</code>
+	 *         if not all of them are interned
+	 */
+	public int[] getIds() {
+		if (!idsCalculated) {
+			ids = calcIds();
+			idsCalculated = true;
+		}
+		return ids;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj instanceof LR0State) {
+			LR0State other = (LR0State) obj;
+			if (hashCode() != other.hashCode())
+				return false;
+			if (getIds() != null && other.getIds() != null) {
+				return Arrays.equals(ids, other.ids);
+			}
+		}
+		return super.equals(obj);
+	}
+
+	@Override
+	public int hashCode() {
+		return super.hashCode();
+	}
 }
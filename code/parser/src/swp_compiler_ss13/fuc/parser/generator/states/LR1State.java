@@ -1,17 +1,20 @@
 package swp_compiler_ss13.fuc.parser.generator.states;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
 
+import swp_compiler_ss13.fuc.parser.generator.ClosureTemplates;
+import swp_compiler_ss13.fuc.parser.generator.ClosureTemplates.Template;
 import swp_compiler_ss13.fuc.parser.generator.FirstSets;
 import swp_compiler_ss13.fuc.parser.generator.GrammarInfo;
 import swp_compiler_ss13.fuc.parser.generator.NullableSet;
 import swp_compiler_ss13.fuc.parser.generator.items.LR0Item;
 import swp_compiler_ss13.fuc.parser.generator.items.LR1Item;
 import swp_compiler_ss13.fuc.parser.generator.terminals.ITerminalSet;
+import swp_compiler_ss13.fuc.parser.generator.terminals.MutableTerminalSet;
 import swp_compiler_ss13.fuc.parser.grammar.NonTerminal;
-import swp_compiler_ss13.fuc.parser.grammar.Production;
 import swp_compiler_ss13.fuc.parser.grammar.Symbol;
 
 /**
@@ -19,18 +22,22 @@ import swp_compiler_ss13.fuc.parser.grammar.Symbol;
  * furthermore holds the {@link #kernel} (LR(0)) state and a map {@link #itemsWithKernels}, which allows to identify
  * the LR(1)-items of this set by their LR(0)-kernels, which is good for speed up, as LR(1)-items change their identity
  * while their {@link LR1Item#getLookaheads()} are constructed. Finally, it has it own implementations of
- * {@link #goTo(Symbol)} and {@link #closure(GrammarInfo)}
+ * {@link #goTo(Symbol)} and {@link #closure(GrammarInfo)}.<br/>
+ * If the items are interned (see {@link LR0State#getIds()}), states are compared by the ids of their kernel and the
+ * lookaheads in the same order.
  */
 public class LR1State extends ALRState<LR1Item> {
 	// --------------------------------------------------------------------------
 	// --- variables and constants
 	// ----------------------------------------------
 	// --------------------------------------------------------------------------
-	private final LR0State kernel;
-	private final LinkedHashMap<LR0Item, LR1Item> itemsWithKernels;
+	private LR0State kernel = null;
+	private LinkedHashMap<LR0Item, LR1Item> itemsWithKernels = null;
 
 	// cache
 	private final int hashCode;
+	private ITerminalSet[] sortedLookaheads = null;
+	private boolean sortedLookaheadsCalculated = false;
 	private LR1State closureCache = null;
 
 	// --------------------------------------------------------------------------
@@ -44,14 +51,11 @@ public class LR1State extends ALRState<LR1Item> {
 	public LR1State(LinkedHashSet<LR1Item> items) {
 		super(items);
 
-		// Extract kernel and calc hash once
+		// Calc hash once, the kernel is extracted on demand
 		int tmpHashCode = 0;
-		itemsWithKernels = new LinkedHashMap<>();
 		for (LR1Item item : items) {
-			itemsWithKernels.put(item.getLR0Kernel(), item);
 			tmpHashCode += item.hashCode();
 		}
-		kernel = new LR0State(itemsWithKernels.keySet());
 		hashCode = tmpHashCode;
 	}
 	
@@ -62,16 +66,56 @@ public class LR1State extends ALRState<LR1Item> {
 	public LR1State(LR1Item... items) {
 		super(items);
 
-		// Extract kernel and calc hash once
+		// Calc hash once, the kernel is extracted on demand
 		int tmpHashCode = 0;
-		itemsWithKernels = new LinkedHashMap<>();
 		for (LR1Item item : items) {
-			itemsWithKernels.put(item.getLR0Kernel(), item);
 			tmpHashCode += item.hashCode();
 		}
-		kernel = new LR0State(itemsWithKernels.keySet());
 		hashCode = tmpHashCode;
 	}
+
+	private LinkedHashMap<LR0Item, LR1Item> getItemsWithKernels() {
+		if (itemsWithKernels == null) {
+			itemsWithKernels = new LinkedHashMap<>();
+			for (LR1Item item : items) {
+				itemsWithKernels.put(item.getLR0Kernel(), item);
+			}
+		}
+		return itemsWithKernels;
+	}
+
+	/**
+	 * @return The lookaheads of all items in the order of
+	 *         {@link LR0State#getIds()}, or <code>null</code> if the items are
+	 *         not interned or there are several items with the same kernel
+	 */
+	private ITerminalSet[] getSortedLookaheads() {
+		if (!sortedLookaheadsCalculated) {
+			sortedLookaheads = sortLookaheads();
+			sortedLookaheadsCalculated = true;
+		}
+		return sortedLookaheads;
+	}
+
+	private ITerminalSet[] sortLookaheads() {
+		if (getKernel().getIds() == null
+				|| getItemsWithKernels().size() != items.size()) {
+			return null;
+		}
+		LR1Item[] sorted = items.toArray(new LR1Item[items.size()]);
+		Arrays.sort(sorted, new Comparator<LR1Item>() {
+			@Override
+			public int compare(LR1Item o1, LR1Item o2) {
+				return Integer.compare(o1.getLR0Kernel().getId(), o2
+						.getLR0Kernel().getId());
+			}
+		});
+		ITerminalSet[] result = new ITerminalSet[sorted.length];
+		for (int i = 0; i < sorted.length; i++) {
+			result[i] = sorted[i].getLookaheads();
+		}
+		return result;
+	}
 	
 
 	// --------------------------------------------------------------------------
@@ -99,73 +143,80 @@ public class LR1State extends ALRState<LR1Item> {
 		return closureCache;
 	}
 
+	/**
+	 * Merges the lookaheads of this state with those of the given one and
+	 * returns the result. Both states have to have the same {@link #kernel}.
+	 */
+	public LR1State merge(LR1State state) {
+		if (!getKernel().equals(state.getKernel()))
+			throw new IllegalArgumentException(
+					"Only states with equal LR(0) kernel can be merged!");
+		LinkedHashSet<LR1Item> ret = new LinkedHashSet<>();
+		for (LR1Item item : items) {
+			ret.add(item.merge(state.getItemsWithKernels().get(item.getLR0Kernel())));
+		}
+		return new LR1State(ret);
+	}
+
 	/**
 	 * Returns the closure of the {@link LR1Item}s of this state as set of
 	 * {@link LR1Item}s. For a description of this algorithm, see Modern
-	 * Compiler Implementation for Java, page 63.
+	 * Compiler Implementation for Java, page 63:
+	 * 
+	 * <pre>
+	 * Closure(I)=
+	 * 	repeat
+	 * 		forany item(A → α.Xβ,z)in I
+	 * 			forany production X → γ
+	 * 				forany w ϵ FIRST(βz)
+	 * 					I ← I join {(X → .γ , w)}
+	 * 	until I does not change
+	 * return I
+	 * </pre>
+	 * 
+	 * As the items added for X do not depend on the state, this iteration is
+	 * done only once per X (see {@link ClosureTemplates}); here, the templates
+	 * for the kernel items are merged.
 	 */
 	private LinkedHashSet<LR1Item> closureItems(GrammarInfo grammarInfo) {
 		// The closure contains all items of the source...
-		LinkedHashMap<LR0Item, ITerminalSet> items = new LinkedHashMap<>();
+		LinkedHashMap<LR0Item, MutableTerminalSet> items = new LinkedHashMap<>();
 		for (LR1Item item : this.items) {
-			items.put(item.getLR0Kernel(), item.getLookaheads());
+			items.put(item.getLR0Kernel(), item.getLookaheads().toMutable());
 		}
 
-		/*
-		 * Closure(I)=
-		 * 	repeat
-		 * 		forany item(A → α.Xβ,z)in I
-		 * 			forany production X → γ
-		 * 				forany w ϵ FIRST(βz)
-		 * 					I ← I join {(X → .γ , w)}
-		 * 	until I does not change
-		 * return I
-		 */
-		LinkedList<LR1Item> queue = new LinkedList<LR1Item>();
-		queue.addAll(this.items);
+		// ... and the items of the templates for all "A → α.Xβ" with
+		// lookahead z
+		ClosureTemplates templates = grammarInfo.getClosureTemplates();
 		FirstSets firstSets = grammarInfo.getFirstSets();
 		NullableSet nullableSet = grammarInfo.getNullableSet();
-		while (!queue.isEmpty()) {
-			LR1Item item = queue.removeFirst(); // item is A → α.Xβ with
-												// lookahead z"
+		for (LR1Item item : this.items) {
 			Symbol nextSymbol = item.getNextSymbol();
 			if (nextSymbol != null && nextSymbol.isNonTerminal()) { // nextSymbol is "X"
 				ITerminalSet firstSet = item.getNextLookaheads(firstSets,
 						nullableSet); // all "w"s
-				for (Production p : grammarInfo
-						.getProductionsFrom((NonTerminal) nextSymbol)) // p is
-																		// "X → γ"
-				{
-					LR0Item newItemLR0 = new LR0Item(p, 0);
-					// look, if there is already a LR(1) item with that LR(0)
-					// kernel. if so, add the
-					// new lookahead symbols there. If not, add the LR(1) item
-					// to the result set.
-					ITerminalSet sameKernelItemLookaheads = items
-							.get(newItemLR0);
-					if (sameKernelItemLookaheads != null) {
-						// add to existing LR1Item
-						ITerminalSet newLookaheads = sameKernelItemLookaheads
-								.plusAll(firstSet);
-						// if new lookahead was found, add again to queue
-						if (!newLookaheads.equals(sameKernelItemLookaheads)) {
-							items.put(newItemLR0, newLookaheads);
-							queue.add(new LR1Item(newItemLR0, newLookaheads));
-						}
+				Template template = templates.get((NonTerminal) nextSymbol);
+				for (int i = 0; i < template.getItemsCount(); i++) {
+					LR0Item newItemLR0 = template.getItem(i); // "X → .γ"
+					MutableTerminalSet lookaheads = items.get(newItemLR0);
+					if (lookaheads == null) {
+						lookaheads = template.getSpontaneousLookaheads(i)
+								.toMutable();
+						items.put(newItemLR0, lookaheads);
 					} else {
-						// new item
-						items.put(newItemLR0, firstSet);
-						queue.add(new LR1Item(newItemLR0, firstSet));
+						lookaheads.addAll(template.getSpontaneousLookaheads(i));
+					}
+					if (template.propagates(i)) {
+						lookaheads.addAll(firstSet);
 					}
 				}
 			}
 		}
-		
+
 		// Collect resulting LR(1) items
 		LinkedHashSet<LR1Item> result = new LinkedHashSet<LR1Item>();
 		for (LR0Item lr0Item : items.keySet()) {
-			result.add(new LR1Item(lr0Item.getProduction(), lr0Item.getPosition(),
-					items.get(lr0Item)));
+			result.add(new LR1Item(lr0Item, items.get(lr0Item).freeze()));
 		}
 		return result;
 	}
@@ -182,8 +233,22 @@ public class LR1State extends ALRState<LR1Item> {
 
 	@Override
 	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
 		if (obj instanceof LR1State) {
 			LR1State s = (LR1State) obj;
+			if (hashCode != s.hashCode)
+				return false;
+			if (getSortedLookaheads() != null && s.getSortedLookaheads() != null) {
+				// Interned: Compare ids and lookaheads
+				if (!getKernel().equals(s.getKernel()))
+					return false;
+				for (int i = 0; i < sortedLookaheads.length; i++) {
+					if (!sortedLookaheads[i].equals(s.sortedLookaheads[i]))
+						return false;
+				}
+				return true;
+			}
 			if (items.size() != s.items.size())
 				return false;
 			for (LR1Item item : items) {
@@ -196,6 +261,9 @@ public class LR1State extends ALRState<LR1Item> {
 	}
 
 	public LR0State getKernel() {
+		if (kernel == null) {
+			kernel = new LR0State(getItemsWithKernels().keySet());
+		}
 		return kernel;
 	}
 }
@@ -15,19 +15,21 @@ import swp_compiler_ss13.fuc.parser.grammar.Terminal.SpecialTerminal;
 
 /**
  * Implementation of a {@link ITerminalSet}, which is highly
- * optimized by using a bit array.
+ * optimized by using a bit array of 64 bit words.
+ * Instances are immutable; use {@link #toMutable()} to get a
+ * {@link MutableTerminalSet} for computations with many unions.
  * 
  * @author Andreas Wenger
  */
 public final class EfficientTerminalSet implements ITerminalSet {
    
-   private final int[] data;
+   final long[] data;
    
-   private final Map<Terminal, Integer> indices;
-   private final Collection<Terminal> terminals;
+   final Map<Terminal, Integer> indices;
+   final Collection<Terminal> terminals;
    
    // cache
-   private final int indexEpsilon;
+   final int indexEpsilon;
    
    
    /**
@@ -47,8 +49,7 @@ public final class EfficientTerminalSet implements ITerminalSet {
          indices.put(terminal, count);
          count++;
       }
-      int dataCount = (count - 1) / 32 + 1;
-      this.data = new int[dataCount];
+      this.data = new long[wordsCount(count)];
       // cache
       this.indexEpsilon = indices.get(Epsilon);
    }
@@ -60,7 +61,7 @@ public final class EfficientTerminalSet implements ITerminalSet {
     * @param indices the mapping of terminals to bit indices
     * @param data the bit array
     */
-   private EfficientTerminalSet(Collection<Terminal> terminals, Map<Terminal, Integer> indices, int[] data) {
+   EfficientTerminalSet(Collection<Terminal> terminals, Map<Terminal, Integer> indices, long[] data) {
       this.terminals = terminals;
       this.indices = indices;
       this.data = data;
@@ -73,7 +74,17 @@ public final class EfficientTerminalSet implements ITerminalSet {
     * Returns an empty EfficientTerminalSet for the same terminals as this one.
     */
    public EfficientTerminalSet empty() {
-      return new EfficientTerminalSet(terminals, indices, new int[data.length]);
+      return new EfficientTerminalSet(terminals, indices, new long[data.length]);
+   }
+   
+   
+   /**
+    * Returns a new {@link MutableTerminalSet} for the same terminals,
+    * containing the terminals of this set.
+    */
+   @Override
+   public MutableTerminalSet toMutable() {
+      return new MutableTerminalSet(terminals, indices, data.clone());
    }
    
    
@@ -95,7 +106,7 @@ public final class EfficientTerminalSet implements ITerminalSet {
    public EfficientTerminalSet plusAll(EfficientTerminalSet terminals) {
       if (this.terminals != terminals.terminals)
          throw new IllegalArgumentException("The two sets were initialized with different terminal arrays");
-      int[] newData = new int[data.length];
+      long[] newData = new long[data.length];
       for (int i = 0; i < data.length; i++) {
          newData[i] = data[i] | terminals.data[i];
       }
@@ -154,9 +165,7 @@ public final class EfficientTerminalSet implements ITerminalSet {
     * Gets the bit with the given index.
     */
    private boolean getBit(int index) {
-      int blockIndex = index / 32;
-      int bitIndex = index % 32;
-      return (data[blockIndex] & (1 << bitIndex)) != 0;
+      return (data[index >>> 6] & (1L << index)) != 0;
    }
    
    
@@ -164,13 +173,11 @@ public final class EfficientTerminalSet implements ITerminalSet {
     * Sets the bit with the given index.
     */
    private EfficientTerminalSet setBit(int index, boolean value) {
-      int[] newData = data.clone();
-      int blockIndex = index / 32;
-      int bitIndex = index % 32;
+      long[] newData = data.clone();
       if (value)
-         newData[blockIndex] |= 1 << bitIndex;
+         newData[index >>> 6] |= 1L << index;
       else
-         newData[blockIndex] &= ~(1 << bitIndex);
+         newData[index >>> 6] &= ~(1L << index);
       return new EfficientTerminalSet(terminals, indices, newData);
    }
    
@@ -240,10 +247,26 @@ public final class EfficientTerminalSet implements ITerminalSet {
    
    @Override
    public int hashCode() {
-      int ret = 0;
-      for (int d : data)
+      return hashCode(data);
+   }
+   
+   
+   /**
+    * Returns the number of 64 bit words needed for the given number of bits.
+    */
+   static int wordsCount(int bits) {
+      return (bits + 63) >>> 6;
+   }
+   
+   
+   /**
+    * Returns the hash code of the given bit array.
+    */
+   static int hashCode(long[] data) {
+      long ret = 0;
+      for (long d : data)
          ret ^= d;
-      return ret;
+      return (int) (ret ^ (ret >>> 32));
    }
    
    
@@ -35,6 +35,12 @@ public interface ITerminalSet {
 	 */
 	public ITerminalSet plusAllExceptEpsilon(ITerminalSet terminals);
 
+	/**
+	 * @return New {@link MutableTerminalSet} with indexes for the same grammar,
+	 *         containing the terminals of this set
+	 */
+	public MutableTerminalSet toMutable();
+
 	public boolean contains(Terminal terminal);
 
 	public Set<Terminal> getTerminals();
@@ -0,0 +1,248 @@
+package swp_compiler_ss13.fuc.parser.generator.terminals;
+
+import static swp_compiler_ss13.fuc.parser.grammar.Terminal.Epsilon;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import swp_compiler_ss13.fuc.parser.grammar.Terminal;
+
+
+
+/**
+ * Mutable counterpart of {@link EfficientTerminalSet}, using the same bit
+ * array of 64 bit words. All unions are done in place and report whether
+ * they changed anything, which is exactly what the fixed point iterations of
+ * the closure, FIRST and FOLLOW algorithms need. Use {@link #freeze()} to get
+ * an immutable snapshot which may be stored (e.g. in an LR1Item).
+ *
+ * @author Gero
+ */
+public final class MutableTerminalSet {
+
+   private final long[] data;
+
+   private final Map<Terminal, Integer> indices;
+   private final Collection<Terminal> terminals;
+
+   // cache
+   private final int indexEpsilon;
+   private EfficientTerminalSet frozen = null;
+
+
+   /**
+    * Creates a new {@link MutableTerminalSet}.
+    * @param terminals the list of possible terminals (without {@link SpecialTerminals}).
+    * @param indices the mapping of terminals to bit indices
+    * @param data the bit array, which is used (not copied) by this set
+    */
+   MutableTerminalSet(Collection<Terminal> terminals, Map<Terminal, Integer> indices, long[] data) {
+      this.terminals = terminals;
+      this.indices = indices;
+      this.data = data;
+      // cache
+      this.indexEpsilon = indices.get(Epsilon);
+   }
+
+
+   /**
+    * Returns a new, empty {@link MutableTerminalSet} for the same terminals
+    * as this one.
+    */
+   public MutableTerminalSet empty() {
+      return new MutableTerminalSet(terminals, indices, new long[data.length]);
+   }
+
+
+   /**
+    * Returns a new {@link MutableTerminalSet} with the same content as this one.
+    */
+   public MutableTerminalSet copy() {
+      return new MutableTerminalSet(terminals, indices, data.clone());
+   }
+
+
+   /**
+    * Returns an immutable snapshot of this set. As long as this set is not
+    * changed, the same instance is returned.
+    */
+   public EfficientTerminalSet freeze() {
+      if (frozen == null)
+         frozen = new EfficientTerminalSet(terminals, indices, data.clone());
+      return frozen;
+   }
+
+
+   /**
+    * Removes all terminals from this set.
+    */
+   public void clear() {
+      for (int i = 0; i < data.length; i++) {
+         data[i] = 0;
+      }
+      frozen = null;
+   }
+
+
+   /**
+    * Adds the given terminal to this set.
+    * @return true, if this set changed
+    */
+   public boolean add(Terminal terminal) {
+      Integer index = indices.get(terminal);
+      if (index == null)
+         throw new IllegalArgumentException("Unregistered terminal: " + terminal);
+      return setBit(index);
+   }
+
+
+   /**
+    * Adds all terminals of the given set to this set.
+    * @return true, if this set changed
+    */
+   public boolean addAll(MutableTerminalSet terminals) {
+      checkCompatible(terminals.terminals);
+      return or(terminals.data, false);
+   }
+
+
+   /**
+    * Adds all terminals of the given set to this set.
+    * Optimized implementation for {@link EfficientTerminalSet}.
+    * @return true, if this set changed
+    */
+   public boolean addAll(ITerminalSet terminals) {
+      if (terminals instanceof EfficientTerminalSet) {
+         EfficientTerminalSet efficient = (EfficientTerminalSet) terminals;
+         checkCompatible(efficient.terminals);
+         return or(efficient.data, false);
+      } else {
+         boolean changed = false;
+         for (Terminal terminal : terminals.getTerminals()) {
+            changed |= add(terminal);
+         }
+         return changed;
+      }
+   }
+
+
+   /**
+    * Adds all terminals of the given set to this set
+    * (but {@link SpecialTerminals#Epsilon} is ignored).
+    * @return true, if this set changed
+    */
+   public boolean addAllExceptEpsilon(MutableTerminalSet terminals) {
+      checkCompatible(terminals.terminals);
+      return or(terminals.data, true);
+   }
+
+
+   /**
+    * Adds all terminals of the given set to this set
+    * (but {@link SpecialTerminals#Epsilon} is ignored).
+    * Optimized implementation for {@link EfficientTerminalSet}.
+    * @return true, if this set changed
+    */
+   public boolean addAllExceptEpsilon(ITerminalSet terminals) {
+      if (terminals instanceof EfficientTerminalSet) {
+         EfficientTerminalSet efficient = (EfficientTerminalSet) terminals;
+         checkCompatible(efficient.terminals);
+         return or(efficient.data, true);
+      } else {
+         boolean changed = false;
+         for (Terminal terminal : terminals.getTerminals()) {
+            if (terminal != Epsilon)
+               changed |= add(terminal);
+         }
+         return changed;
+      }
+   }
+
+
+   /**
+    * Returns true, if the given terminal is element of this set,
+    * otherwise false.
+    */
+   public boolean contains(Terminal terminal) {
+      Integer index = indices.get(terminal);
+      if (index == null)
+         throw new IllegalArgumentException("Unregistered terminal: " + terminal);
+      return (data[index >>> 6] & (1L << index)) != 0;
+   }
+
+
+   /**
+    * Returns true, if this set contains no terminals.
+    */
+   public boolean isEmpty() {
+      for (long d : data) {
+         if (d != 0)
+            return false;
+      }
+      return true;
+   }
+
+
+   /**
+    * Merges the given bit array into this one, optionally without the bit
+    * for {@link SpecialTerminals#Epsilon}.
+    */
+   private boolean or(long[] other, boolean exceptEpsilon) {
+      long changed = 0;
+      for (int i = 0; i < data.length; i++) {
+         long merged = data[i] | other[i];
+         if (exceptEpsilon && i == indexEpsilon >>> 6)
+            merged = (merged & ~(1L << indexEpsilon)) | (data[i] & (1L << indexEpsilon));
+         changed |= merged ^ data[i];
+         data[i] = merged;
+      }
+      if (changed != 0) {
+         frozen = null;
+         return true;
+      }
+      return false;
+   }
+
+
+   /**
+    * Sets the bit with the given index.
+    */
+   private boolean setBit(int index) {
+      long before = data[index >>> 6];
+      long after = before | (1L << index);
+      if (before == after)
+         return false;
+      data[index >>> 6] = after;
+      frozen = null;
+      return true;
+   }
+
+
+   private void checkCompatible(Collection<Terminal> otherTerminals) {
+      if (terminals != otherTerminals)
+         throw new IllegalArgumentException("The two sets were initialized with different terminal arrays");
+   }
+
+
+   /**
+    * Gets the set of terminals.
+    * This method is not efficient (linear time), so use it only at the end
+    * of the computing or for debugging purposes.
+    */
+   public Set<Terminal> getTerminals() {
+      Set<Terminal> ret = new HashSet<>();
+      for (Terminal terminal : indices.keySet()) {
+         if (contains(terminal))
+            ret.add(terminal);
+      }
+      return ret;
+   }
+
+
+   @Override
+   public String toString() {
+      return "" + getTerminals();
+   }
+}
@@ -3,8 +3,12 @@ package swp_compiler_ss13.fuc.parser.grammar;
 import static swp_compiler_ss13.fuc.parser.grammar.NonTerminal.StartLHS;
 import static swp_compiler_ss13.fuc.parser.grammar.Terminal.EOF;
 
+import java.util.EnumMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+
+import swp_compiler_ss13.common.lexer.TokenType;
 
 
 /**
@@ -19,12 +23,24 @@ public class Grammar {
    private final List<Production> productions;
    private final OpAssociativities associativities;
    
+   /** The {@link Terminal} for each {@link TokenType}, see {@link #getTerminalFor(TokenType)} */
+   private final Map<TokenType, Terminal> terminalsByType = new EnumMap<>(TokenType.class);
+   
    
    public Grammar(List<Terminal> terminals, List<NonTerminal> nonTerminals, List<Production> productions, OpAssociativities associativities) {
       this.terminals = terminals;
       this.nonTerminals = nonTerminals;
       this.productions = productions;
       this.associativities = associativities;
+      
+      for (Terminal terminal : terminals) {
+         for (TokenType type : terminal.getTokenTypes()) {
+            // Like a search through the list: the first terminal wins
+            if (!terminalsByType.containsKey(type)) {
+               terminalsByType.put(type, terminal);
+            }
+         }
+      }
    }
    
    
@@ -66,6 +82,17 @@ public class Grammar {
    }
    
    
+   /**
+    * @param type
+    * @return The first {@link Terminal} of this grammar which
+    *         {@link Terminal#isTerminalFor(TokenType)} the given type, or
+    *         <code>null</code> if there is none
+    */
+   public Terminal getTerminalFor(TokenType type) {
+      return terminalsByType.get(type);
+   }
+   
+   
    public List<NonTerminal> getNonTerminals() {
       return nonTerminals;
    }
@@ -22,7 +22,7 @@ public class TokenEx implements Token {
 	// --------------------------------------------------------------------------
 	private static final Logger log = Logger.getLogger(TokenEx.class);
 
-	protected final Token token;
+	protected Token token;
 	private final Terminal terminal;
 
 	// --------------------------------------------------------------------------
@@ -56,27 +56,30 @@ public class TokenEx implements Token {
 
 	/**
 	 * Associates the given {@link Token} with a {@link Terminal} as specified
-	 * in the {@link Grammar}
+	 * in the {@link Grammar}. A {@link TokenEx} which already carries its
+	 * {@link Terminal} (or is a comment) is returned as it is, so lexers may
+	 * emit {@link TokenEx} for the grammar directly and avoid the wrapping.
 	 * 
 	 * @param token
 	 * @param grammar
 	 * @return
 	 */
 	public static TokenEx createFromToken(Token token, Grammar grammar) {
+		if (token instanceof TokenEx) {
+			TokenEx tokenEx = (TokenEx) token;
+			if (tokenEx.getTerminal() != null
+					|| tokenEx.getTokenType() == TokenType.COMMENT) {
+				return tokenEx;
+			}
+		}
+		
 		// Handle SpecialTerminals first!
 		if (token.getTokenType() == TokenType.EOF) {
 			return new TokenEx(token, Terminal.EOF);
 		} else if (token.getTokenType() == TokenType.COMMENT) {
 			return new TokenEx(token, null);
 		} else {
-			Terminal terminal = null;
-			TokenType newType = token.getTokenType();
-			for (Terminal t : grammar.getTerminals()) {
-				if (t.isTerminalFor(newType)) {
-					terminal = t;
-					break;
-				}
-			}
+			Terminal terminal = grammar.getTerminalFor(token.getTokenType());
 
 			if (terminal == null) {
 				log.warn("Unable to find a terminal for token: "
@@ -108,6 +111,19 @@ public class TokenEx implements Token {
 		return token;
 	}
 
+	/**
+	 * Replaces the base token by an equal one (same type and value) from
+	 * another run of the lexer, e.g. to move a token which is covered by a
+	 * reused part of an {@link swp_compiler_ss13.common.ast.AST} to its new
+	 * position.
+	 * 
+	 * @param token
+	 *            The new base token
+	 */
+	public void setToken(Token token) {
+		this.token = token;
+	}
+
 	/**
 	 * @return The {@link Terminal} this token represents
 	 */
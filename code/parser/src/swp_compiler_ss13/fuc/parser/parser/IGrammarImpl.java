@@ -2,7 +2,6 @@ package swp_compiler_ss13.fuc.parser.parser;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.Stack;
 
 import swp_compiler_ss13.common.report.ReportLog;
 import swp_compiler_ss13.fuc.parser.grammar.Production;
@@ -16,8 +15,15 @@ import swp_compiler_ss13.fuc.parser.parser.tables.actions.Reduce;
  */
 public interface IGrammarImpl {
 	/**
+	 * Called once per production when building the {@link ReduceActions}
+	 * for a parsing table. As these may be shared by several parsers (see
+	 * {@link swp_compiler_ss13.fuc.parser.generator.ParsingTableCache}), the
+	 * returned actions must not depend on the state of this instance (like the
+	 * {@link ReportLog} set by {@link #setReportLog(ReportLog)}).
+	 * 
 	 * @param prod The {@link Production} which should be performed reduced
-	 * @return The {@link ReduceAction} for the given {@link Reduce}
+	 * @return The {@link ReduceAction} for the given {@link Reduce}, or
+	 * 		<code>null</code> if there is nothing to do on the value stack
 	 */
 	public ReduceAction getReduceAction(Production prod);
 	
@@ -25,16 +31,29 @@ public interface IGrammarImpl {
 	 * Tries to put the parser into a state from where it can recover
 	 * itself
 	 * 
-	 * @param possibleTerminals The terminals that the parser expected
+	 * @param possibleTerminals The read-only list of terminals that the
+	 * 		parser expected (see
+	 * 		{@link swp_compiler_ss13.fuc.parser.parser.tables.ExpectedTerminals}),
+	 * 		whose <code>contains</code> is cheap
 	 * @param curToken The Token that the parser received instead
 	 * @param lastToken The Token that the parser receiven before
-	 * @param valueStack The current value stack
+	 * @param valueStack The current value stack, from the bottom to the top
 	 * @return A new instance of {@link RecoveryResult} which tells the
 	 * 		parser how to change its state
 	 */
 	public RecoveryResult tryErrorRecovery(List<Terminal> possibleTerminals,
 			TokenEx curToken, TokenEx lastToken,
-			Stack<Object> valueStack);
+			List<Object> valueStack);
+	
+	/**
+	 * Used by the parser if {@link #tryErrorRecovery(List, TokenEx, TokenEx, List)}
+	 * fails: It skips the input up to the next of these terminals and
+	 * continues behind the construct they terminate (panic mode).
+	 * 
+	 * @return The terminals which end statements or similar constructs of the
+	 * 		grammar, like <code>;</code> or <code>}</code>
+	 */
+	public List<Terminal> getSynchronizingTerminals();
 	
 	/**
 	 * @param reportLog The parsers {@link ReportLog}
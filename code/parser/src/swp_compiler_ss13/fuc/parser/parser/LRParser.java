@@ -1,10 +1,9 @@
 package swp_compiler_ss13.fuc.parser.parser;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Stack;
 
 import org.apache.log4j.Logger;
 
@@ -17,13 +16,14 @@ import swp_compiler_ss13.common.report.ReportLog;
 import swp_compiler_ss13.common.report.ReportType;
 import swp_compiler_ss13.fuc.ast.ASTImpl;
 import swp_compiler_ss13.fuc.parser.grammar.Production;
+import swp_compiler_ss13.fuc.parser.grammar.Symbol;
 import swp_compiler_ss13.fuc.parser.grammar.Terminal;
 import swp_compiler_ss13.fuc.parser.grammar.TokenEx;
 import swp_compiler_ss13.fuc.parser.parser.IGrammarImpl.RecoveryResult;
 import swp_compiler_ss13.fuc.parser.parser.ReduceAction.ReduceException;
-import swp_compiler_ss13.fuc.parser.parser.states.LRParserState;
+import swp_compiler_ss13.fuc.parser.parser.tables.ALRCompiledTable;
+import swp_compiler_ss13.fuc.parser.parser.tables.ExpectedTerminals;
 import swp_compiler_ss13.fuc.parser.parser.tables.LRParsingTable;
-import swp_compiler_ss13.fuc.parser.parser.tables.actions.ALRAction;
 import swp_compiler_ss13.fuc.parser.parser.tables.actions.Reduce;
 import swp_compiler_ss13.fuc.parser.parser.tables.actions.Shift;
 
@@ -34,12 +34,27 @@ public class LRParser {
 	// --------------------------------------------------------------------------
 	public static final Long STRING_LENGTH = 255L;
 
+	/** Stands for the value of every reduced production when recognizing */
+	private static final Object NO_VALUE = new String("NoValue");
+
+	/** The default for {@link #setMaxErrors(int)} */
+	public static final int DEFAULT_MAX_ERRORS = 100;
+
+	/**
+	 * The number of tokens that have to be shifted after resynchronizing
+	 * before the next syntax error is reported. Errors before are caused by
+	 * the recovery itself.
+	 */
+	private static final int SHIFTS_TO_RECOVER = 1;
+
 	private final Logger log = Logger.getLogger(getClass());
 	
 	/** Used to store Tokens that are (re-)inserted into the token stream */
-	private final LinkedList<TokenEx> errorTokenStream = new LinkedList<>();
+	private final ArrayDeque<TokenEx> errorTokenStream = new ArrayDeque<>();
 	private TokenEx lastToken = new TokenEx("", TokenType.NOT_A_TOKEN, 0, 0, null);
 
+	private int maxErrors = DEFAULT_MAX_ERRORS;
+
 	// --------------------------------------------------------------------------
 	// --- constructors
 	// ---------------------------------------------------------
@@ -49,24 +64,104 @@ public class LRParser {
 	// --- methods
 	// --------------------------------------------------------------
 	// --------------------------------------------------------------------------
-	@SuppressWarnings("incomplete-switch")
+	/**
+	 * Parses the tokens of the given lexer using the given table and the
+	 * {@link ReduceAction}s of the given {@link IGrammarImpl}, which are
+	 * looked up once for this call.
+	 * 
+	 * @see #parse(LexerWrapper, ReportLog, LRParsingTable, IGrammarImpl, ReduceActions)
+	 */
 	public AST parse(LexerWrapper lexer, ReportLog reportLog,
 			LRParsingTable table, IGrammarImpl grammarImpl) throws ParserException{
+		ALRCompiledTable compiled = table.getCompiledTable();
+		return parse(lexer, reportLog, table, compiled, grammarImpl,
+				new ReduceActions(compiled, grammarImpl));
+	}
+
+	/**
+	 * Like {@link #parse(LexerWrapper, ReportLog, LRParsingTable, IGrammarImpl)},
+	 * but with {@link ReduceActions} that have already been built for the
+	 * given (frozen) table, e.g. by
+	 * {@link swp_compiler_ss13.fuc.parser.generator.ParsingTableCache.Entry#getReduceActions()}
+	 * 
+	 * @param lexer
+	 * @param reportLog
+	 * @param table
+	 * @param grammarImpl
+	 *            Used for error recovery
+	 * @param reduceActions
+	 * @return The parsed {@link AST}
+	 * @throws ParserException
+	 */
+	public AST parse(LexerWrapper lexer, ReportLog reportLog,
+			LRParsingTable table, IGrammarImpl grammarImpl,
+			ReduceActions reduceActions) throws ParserException{
+		ALRCompiledTable compiled = table.getCompiledTable();
+		if (reduceActions.getProductionsCount() != compiled.getProductionsCount()) {
+			throw new IllegalArgumentException("The reduce actions do not match the parsing table!");
+		}
+		return parse(lexer, reportLog, table, compiled, grammarImpl, reduceActions);
+	}
+
+	/**
+	 * Runs the parser on the tokens of the given lexer in recognizer mode: It
+	 * uses the same table and error recovery as
+	 * {@link #parse(LexerWrapper, ReportLog, LRParsingTable, IGrammarImpl)},
+	 * but does not call any {@link ReduceAction}, so neither AST nodes nor
+	 * symbol tables are built. Syntax errors are reported to the given
+	 * {@link ReportLog}, errors detected by the reduce actions are not.
+	 * 
+	 * @param lexer
+	 * @param reportLog
+	 * @param table
+	 * @param grammarImpl
+	 *            Used for error recovery
+	 * @return Whether the input was accepted. If the parser recovered from
+	 *         errors, it has reported them to the {@link ReportLog}.
+	 */
+	public boolean recognize(LexerWrapper lexer, ReportLog reportLog,
+			LRParsingTable table, IGrammarImpl grammarImpl) {
+		try {
+			parse(lexer, reportLog, table, table.getCompiledTable(), grammarImpl, null);
+			return true;
+		} catch (ParserException err) {
+			return false;
+		}
+	}
+
+	/**
+	 * @param reduceActions
+	 *            <code>null</code> to only recognize the input, see
+	 *            {@link #recognize(LexerWrapper, ReportLog, LRParsingTable, IGrammarImpl)}
+	 */
+	@SuppressWarnings("incomplete-switch")
+	private AST parse(LexerWrapper lexer, ReportLog reportLog,
+			LRParsingTable table, ALRCompiledTable compiled,
+			IGrammarImpl grammarImpl, ReduceActions reduceActions) throws ParserException{
 		grammarImpl.setReportLog(reportLog);
 		
-		Stack<LRParserState> parserStack = new Stack<>();
+		// All lookups are done on the int rows of the compiled table, so the
+		// parser stack only holds state ids
+		int[] parserStack = new int[64];
+		int parserStackSize = 0;
 
 		AST ast = new ASTImpl();
-		Stack<Object> valueStack = new Stack<>();
+		ValueStack valueStack = new ValueStack();
+		ExpectedTerminals expectedTerminals = null;	// Only needed on errors
+		Synchronization sync = null;	// Only needed on errors
+		int errorsCount = 0;
+		int shiftsSinceRecovery = SHIFTS_TO_RECOVER;
+		TokenEx recoveryToken = null;
 
 		// Initialization
-		ALRAction action = null;
 		TokenEx token = getNextToken(lexer);
-		parserStack.add(table.getStartState());
+		parserStack[parserStackSize++] = compiled.getStartState();
 
 		WHILE: while (true) {
-			LRParserState state = parserStack.peek();
-			log.debug("current token: " + token);
+			int state = parserStack[parserStackSize - 1];
+			if (log.isDebugEnabled()) {
+				log.debug("current token: " + token);
+			}
 
 			TokenType tokenType = token.getTokenType();
 			switch (tokenType) {
@@ -75,7 +170,14 @@ public class LRParser {
 				list.add(token);
 				reportLog.reportError(ReportType.UNRECOGNIZED_TOKEN, list,
 						"Found undefined token '" + token.getValue() + "'!");
-				throw new ParserException("Found undefined token");
+				if (++errorsCount >= maxErrors) {
+					throw new ParserException("Found undefined token");
+				}
+				
+				// Skip it. The errors it causes are not reported.
+				token = getNextToken(lexer);
+				shiftsSinceRecovery = 0;
+				continue WHILE;
 
 			case COMMENT:
 				// Skip it silently
@@ -84,63 +186,66 @@ public class LRParser {
 				continue WHILE;
 			}
 
-			Terminal terminal = token.getTerminal();
-			if (terminal == null)
+			if (token.getTerminal() == null)
 				throw new ParserException("No Terminal associated with token: " + token);
-			action = table.getActionTable().get(state, terminal);
-			if (action == null) {
-				log.error("Error in Parsetable occured!");
-				throw new ParserException("An Error in Parsetable occured");
-			}
+			int action = compiled.getAction(state, compiled.getTerminalOrdinal(token));
 
-			switch (action.getType()) {
-			case SHIFT: {
+			switch (ALRCompiledTable.kindOf(action)) {
+			case ALRCompiledTable.SHIFT: {
 				// Shift state
-				Shift shift = (Shift) action;
+				int newState = ALRCompiledTable.targetOf(action);
 				
 				TokenEx newToken = getNextToken(lexer);
-				log.debug(shift.toString() + " : " + newToken);
+				if (log.isDebugEnabled()) {
+					log.debug(new Shift(compiled.getState(newState)).toString() + " : " + newToken);
+				}
 				
-				parserStack.push(shift.getNewState());
+				if (parserStackSize == parserStack.length) {
+					parserStack = Arrays.copyOf(parserStack, parserStackSize * 2);
+				}
+				parserStack[parserStackSize++] = newState;
 				valueStack.push(token);
+				shiftsSinceRecovery++;
 				
 				lastToken = token;
 				token = newToken;
 			}
 			break;
 
-			case REDUCE: {
+			case ALRCompiledTable.REDUCE: {
 				// Print current value stack
-				log.debug(printStack(valueStack));
+				if (log.isDebugEnabled()) {
+					log.debug(printStack(valueStack));
+				}
 				
 				// pop reduced states from stack
-				Reduce reduce = (Reduce) action;
-				for (int i = 1; i <= reduce.getPopCount(); i++) {
-					parserStack.pop();
-				}
+				int prodOrd = ALRCompiledTable.targetOf(action);
+				int popCount = compiled.getPopCount(prodOrd);
+				parserStackSize -= popCount;
 
 				// +++++++++++++++++++++++++++++++++++
 				// get action for reduced production
-				Production prod = reduce.getProduction();
-				log.debug(reduce.toString());
-				
-				ReduceAction reduceAction = grammarImpl.getReduceAction(prod);
+				if (log.isDebugEnabled()) {
+					log.debug(compiled.getReduce(prodOrd).toString());
+				}
 
 				// If there is anything to do on the value stack
 				// (There might be no reduce-action for Productions like unary
 				// -> factor, e.g.)
-				if (reduceAction != null) {
+				if (reduceActions == null) {
+					// Recognizer: Only keep the shifted tokens for error recovery
+					valueStack.drop(popCount);
+					valueStack.push(NO_VALUE);
+				} else if (reduceActions.hasAction(prodOrd)) {
+					ReduceAction reduceAction = reduceActions.get(prodOrd);
+					Reduce reduce = compiled.getReduce(prodOrd);
 					// Pop all values reduced by this production
-					int nrOfValuesReduced = reduce.getPopCount();
-					LinkedList<Object> valueHandle = new LinkedList<>();
-					for (int i = 0; i < nrOfValuesReduced; i++) {
-						valueHandle.addFirst(valueStack.pop());
-					}
+					Object[] values = valueStack.popSlice(popCount);
 					
 					// (Safely) execute reduceAction and push onto the stack
 					Object newValue = null;
 					try {
-						newValue = reduceAction.create(arr(valueHandle));
+						newValue = reduceAction.create(values);
 					} catch (ReduceException err) {
 						String errMsg = writeReportError(reportLog, reduce, err);
 						throw new ParserException("An error occured during " + reduce + ": " + errMsg, err);
@@ -158,24 +263,29 @@ public class LRParser {
 				}
 
 				// check where to go-to... and push next state on stack
-				LRParserState newState = table.getGotoTable().get(parserStack.peek(),
-						prod.getLHS());
-				if (newState.isErrorState()) {
+				int newState = compiled.getGoto(parserStack[parserStackSize - 1],
+						compiled.getLHSOrdinal(prodOrd));
+				if (newState == ALRCompiledTable.NO_STATE) {
 					List<Token> list = new ArrayList<Token>();
 					list.add(token);
 					reportLog.reportError(ReportType.UNDEFINED, list, "");
 					throw new ParserException("Error state occurred");
 				}
-				parserStack.push(newState);
+				if (parserStackSize == parserStack.length) {
+					parserStack = Arrays.copyOf(parserStack, parserStackSize * 2);
+				}
+				parserStack[parserStackSize++] = newState;
 			}
 			break;
 
-			case ACCEPT: {
+			case ALRCompiledTable.ACCEPT: {
 				if (tokenType != TokenType.EOF) {
 					List<Token> list = new ArrayList<Token>();
 					list.add(token);
 					reportLog.reportError(ReportType.UNRECOGNIZED_TOKEN, list,"");
 					throw new ParserException("End of File expected!");
+				} else if (reduceActions == null) {
+					return ast;
 				} else {
 					BlockNode programBlock = (BlockNode) valueStack.pop();
 					ast.setRootNode(programBlock);
@@ -183,11 +293,19 @@ public class LRParser {
 				}
 			}
 
-			case ERROR: {
+			default: {
 				// Try to recover from misjump
-				List<Terminal> possibleTerminals = table.getActionTable().getPossibleTerminalsFor(state);
+				if (expectedTerminals == null) {
+					expectedTerminals = table.isFrozen() ? table.getExpectedTerminals()
+							: new ExpectedTerminals(compiled);
+				}
+				List<Terminal> possibleTerminals = expectedTerminals.get(state);
 				RecoveryResult result = grammarImpl.tryErrorRecovery(possibleTerminals, token, lastToken, valueStack);
 				if (result != null) {
+					if (++errorsCount >= maxErrors) {
+						throw new ParserException("Too many errors");
+					}
+					
 					// Apply the new state
 					token = result.getNewCurToken();
 					errorTokenStream.addAll(result.getNextTokens());
@@ -198,16 +316,91 @@ public class LRParser {
 				
 				// No chance. Print 
 //				Error error = (Error) action;
-				List<Token> list = new ArrayList<Token>();
-				list.add(token);
-				reportLog.reportError(ReportType.WORD_NOT_IN_GRAMMAR,list,
-						"An error occurred: Expected one of " + possibleTerminals.toString() + ", but got: '" + token.getTerminal() + "'");
+				if (shiftsSinceRecovery >= SHIFTS_TO_RECOVER) {
+					List<Token> list = new ArrayList<Token>();
+					list.add(token);
+					reportLog.reportError(ReportType.WORD_NOT_IN_GRAMMAR,list,
+							"An error occurred: Expected one of " + possibleTerminals.toString() + ", but got: '" + token.getTerminal() + "'");
+					if (++errorsCount >= maxErrors) {
 						throw new ParserException("Got Error State from Actiontable");
+					}
+				}
+				
+				// Panic mode: Skip the input up to a synchronizing terminal
+				// and drop the unfinished constructs from the stack until the
+				// parser can go on with it (or the token after it)
+				if (sync == null) {
+					sync = new Synchronization(compiled, grammarImpl.getSynchronizingTerminals());
+				}
+				// If the last recovery did not get the parser any further, the
+				// token it stopped at has to be skipped
+				boolean skip = token == recoveryToken && shiftsSinceRecovery == 0;
+				boolean afterSync = false;
+				int newStackSize = -1;
+				while (true) {
+					if (!skip && (afterSync || sync.isSynchronizing(token)
+							|| token.getTokenType() == TokenType.EOF)) {
+						newStackSize = findRecoveryState(compiled, sync, parserStack,
+								parserStackSize, token);
+						if (newStackSize >= 0) {
+							break;
+						}
+					}
+					skip = false;
+					afterSync = sync.isSynchronizing(token);
+					token = skipToken(lexer, token);
+				}
+				valueStack.drop(parserStackSize - newStackSize);
+				parserStackSize = newStackSize;
+				shiftsSinceRecovery = 0;
+				recoveryToken = token;
+				continue WHILE;
 			}
 			}
 		}
 	}
 	
+	/**
+	 * @return The size of the parser stack with which the parser can go on
+	 *         with the given token: Its topmost state which lies between two
+	 *         constructs (see {@link Synchronization}) and has an action for
+	 *         the token. <code>-1</code> if there is none.
+	 */
+	private static int findRecoveryState(ALRCompiledTable compiled, Synchronization sync,
+			int[] parserStack, int parserStackSize, TokenEx token) {
+		int terminal = compiled.getTerminalOrdinal(token);
+		for (int i = parserStackSize - 1; i >= 0; i--) {
+			int state = parserStack[i];
+			if (sync.isBoundary(state)
+					&& compiled.getAction(state, terminal) != ALRCompiledTable.ERROR) {
+				return i + 1;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * @return The token after the given one, which is skipped by the error
+	 *         recovery
+	 * @throws ParserException
+	 *             If the given token is the end of the input
+	 */
+	private TokenEx skipToken(LexerWrapper lexer, TokenEx token) throws ParserException {
+		if (token.getTokenType() == TokenType.EOF) {
+			throw new ParserException("Unable to recover from syntax error");
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("Error recovery skipped " + token);
+		}
+		lastToken = token;
+		TokenEx next = getNextToken(lexer);
+		while (next.getTerminal() == null && next.getTokenType() != TokenType.EOF) {
+			// Comments and undefined tokens
+			next = getNextToken(lexer);
+		}
+		return next;
+	}
+	
 	
 	private TokenEx getNextToken(LexerWrapper lexer) {
 		if (!errorTokenStream.isEmpty()) {
@@ -246,15 +439,85 @@ public class LRParser {
 		return result;
 	}
 
-	private static Object[] arr(List<Object> objs) {
-		return objs.toArray(new Object[objs.size()]);
+	// --------------------------------------------------------------------------
+	// --- getter/setter
+	// --------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * @param maxErrors
+	 *            The number of errors after which the parser gives up,
+	 *            {@link #DEFAULT_MAX_ERRORS} by default. With <code>1</code>
+	 *            it stops at the first error.
+	 */
+	public void setMaxErrors(int maxErrors) {
+		if (maxErrors < 1) {
+			throw new IllegalArgumentException("maxErrors must be positive!");
+		}
+		this.maxErrors = maxErrors;
 	}
 
-	private static String printStack(Stack<Object> stack) {
+	public int getMaxErrors() {
+		return maxErrors;
+	}
+
+	private static String printStack(List<Object> stack) {
 		StringBuilder b = new StringBuilder("Stack:");
 		for (Object obj : stack) {
 			b.append(" ").append(obj.toString());
 		}
 		return b.toString();
 	}
+
+	/**
+	 * The synchronizing terminals of a grammar (see
+	 * {@link IGrammarImpl#getSynchronizingTerminals()}) and the states in which
+	 * the constructs they terminate begin, i.e. which have a goto on the
+	 * left-hand side of a production ending with one of them.
+	 */
+	private static class Synchronization {
+		private final ALRCompiledTable compiled;
+		private final boolean[] terminals;
+		private final boolean[] boundaries;
+
+		Synchronization(ALRCompiledTable compiled, List<Terminal> syncTerminals) {
+			this.compiled = compiled;
+			terminals = new boolean[compiled.getTerminalsCount()];
+			for (Terminal terminal : syncTerminals) {
+				int ordinal = compiled.getTerminalOrdinal(terminal);
+				if (ordinal >= 0) {
+					terminals[ordinal] = true;
+				}
+			}
+
+			boolean[] nonTerminals = new boolean[compiled.getNonTerminalsCount()];
+			for (int prod = 0; prod < compiled.getProductionsCount(); prod++) {
+				Production production = compiled.getReduce(prod).getProduction();
+				List<Symbol> rhs = production.getRHS();
+				Symbol last = rhs.isEmpty() ? null : rhs.get(rhs.size() - 1);
+				if (last instanceof Terminal && syncTerminals.contains(last)) {
+					nonTerminals[compiled.getLHSOrdinal(prod)] = true;
+				}
+			}
+
+			boundaries = new boolean[compiled.getStatesCount()];
+			for (int state = 0; state < boundaries.length; state++) {
+				for (int nt = 0; nt < nonTerminals.length; nt++) {
+					if (nonTerminals[nt]
+							&& compiled.getGoto(state, nt) != ALRCompiledTable.NO_STATE) {
+						boundaries[state] = true;
+						break;
+					}
+				}
+			}
+		}
+
+		boolean isSynchronizing(TokenEx token) {
+			int ordinal = compiled.getTerminalOrdinal(token);
+			return ordinal >= 0 && terminals[ordinal];
+		}
+
+		boolean isBoundary(int state) {
+			return boundaries[state];
+		}
+	}
 }
@@ -3,12 +3,17 @@ package swp_compiler_ss13.fuc.parser.parser;
 import swp_compiler_ss13.common.lexer.Lexer;
 import swp_compiler_ss13.common.lexer.Token;
 import swp_compiler_ss13.fuc.parser.grammar.Grammar;
+import swp_compiler_ss13.fuc.parser.grammar.Terminal;
 import swp_compiler_ss13.fuc.parser.grammar.TokenEx;
 
 /**
  * Used to wrap the stream of {@link Token}s from the {@link Lexer} with our
  * {@link TokenEx} class, so the {@link LRParser} receives {@link TokenEx}
- * instead.
+ * instead.<br/>
+ * A {@link Lexer} which already emits {@link TokenEx} with the
+ * {@link Terminal}s of the {@link Grammar} is passed through without
+ * allocating a wrapper per token (see
+ * {@link TokenEx#createFromToken(Token, Grammar)}).
  * 
  * @author Gero
  */
@@ -38,4 +43,12 @@ public class LexerWrapper {
 		// System.out.println(TokenEx.tokenToString(nextToken) + "\n");
 		return TokenEx.createFromToken(nextToken, grammar);
 	}
+
+	/**
+	 * Called by the parser when it does not need any more tokens. There is
+	 * nothing to release here, but see {@link PipelinedLexerWrapper#close()}.
+	 */
+	public void close() {
+
+	}
 }
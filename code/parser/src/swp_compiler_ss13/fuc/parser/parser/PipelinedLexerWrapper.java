@@ -0,0 +1,133 @@
+package swp_compiler_ss13.fuc.parser.parser;
+
+import swp_compiler_ss13.common.lexer.Lexer;
+import swp_compiler_ss13.common.lexer.TokenType;
+import swp_compiler_ss13.fuc.parser.grammar.Grammar;
+import swp_compiler_ss13.fuc.parser.grammar.TokenEx;
+
+/**
+ * A {@link LexerWrapper} which runs the {@link Lexer} on a thread of its own:
+ * It reads and wraps the tokens up to EOF ahead of the {@link LRParser} and
+ * hands them over through a {@link TokenRingBuffer}, so reading the input,
+ * lexing and parsing overlap on machines with more than one core.<br/>
+ * Once the EOF token has been returned, it is returned by all further calls.
+ * If the lexer fails, its exception is rethrown by
+ * {@link #getNextToken()}. If the parser stops before EOF, it has to
+ * {@link #close()} the wrapper to stop the lexer thread.
+ *
+ * @author Gero
+ */
+public class PipelinedLexerWrapper extends LexerWrapper {
+	// --------------------------------------------------------------------------
+	// --- variables and constants
+	// ----------------------------------------------
+	// --------------------------------------------------------------------------
+	/** Put into the buffer by the lexer thread if the lexer failed */
+	private static final TokenEx FAILED = new TokenEx("", TokenType.NOT_A_TOKEN, 0, 0, null);
+
+	private final TokenRingBuffer buffer;
+	private final Thread lexerThread;
+	private volatile Throwable lexerError = null;
+	private TokenEx eof = null;
+
+	// --------------------------------------------------------------------------
+	// --- constructors
+	// ---------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * Starts a lexer thread with a buffer of
+	 * {@link TokenRingBuffer#DEFAULT_CAPACITY} tokens
+	 *
+	 * @see PipelinedLexerWrapper
+	 * @param lexer
+	 * @param grammar
+	 */
+	public PipelinedLexerWrapper(Lexer lexer, Grammar grammar) {
+		this(lexer, grammar, TokenRingBuffer.DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @see PipelinedLexerWrapper
+	 * @param lexer
+	 * @param grammar
+	 * @param capacity
+	 *            The minimum number of tokens the lexer may read ahead
+	 */
+	public PipelinedLexerWrapper(Lexer lexer, Grammar grammar, int capacity) {
+		super(lexer, grammar);
+		this.buffer = new TokenRingBuffer(capacity);
+		this.lexerThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				lex();
+			}
+		}, "PipelinedLexer");
+		this.lexerThread.setDaemon(true);
+		this.lexerThread.start();
+	}
+
+	// --------------------------------------------------------------------------
+	// --- methods
+	// --------------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * The lexer thread: Puts all tokens up to EOF into the buffer
+	 */
+	private void lex() {
+		try {
+			TokenEx token;
+			do {
+				token = super.getNextToken();
+				buffer.put(token);
+			} while (token.getTokenType() != TokenType.EOF);
+		} catch (InterruptedException err) {
+			// Closed by the parser
+		} catch (RuntimeException | Error err) {
+			lexerError = err;
+			try {
+				buffer.put(FAILED);
+			} catch (InterruptedException err2) {
+				// Closed by the parser
+			}
+		}
+	}
+
+	/**
+	 * @return The next token read by the lexer thread, waiting for it if
+	 *         necessary
+	 * @throws IllegalStateException
+	 *             If the calling thread is interrupted while waiting
+	 */
+	@Override
+	public TokenEx getNextToken() {
+		if (eof != null) {
+			return eof;
+		}
+
+		TokenEx token;
+		try {
+			token = buffer.take();
+		} catch (InterruptedException err) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the lexer", err);
+		}
+		if (token == FAILED) {
+			if (lexerError instanceof Error) {
+				throw (Error) lexerError;
+			}
+			throw (RuntimeException) lexerError;
+		}
+		if (token.getTokenType() == TokenType.EOF) {
+			eof = token;
+		}
+		return token;
+	}
+
+	/**
+	 * Stops the lexer thread if it has not read all tokens yet
+	 */
+	@Override
+	public void close() {
+		lexerThread.interrupt();
+	}
+}
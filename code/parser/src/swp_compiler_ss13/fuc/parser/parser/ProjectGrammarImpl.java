@@ -1,10 +1,9 @@
 package swp_compiler_ss13.fuc.parser.parser;
 
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Stack;
 
 import org.apache.log4j.Logger;
 
@@ -63,7 +62,7 @@ import swp_compiler_ss13.fuc.symbolTable.SymbolTableImpl;
  * This class implements everything necessary for the correct parsing process of the grammar
  * defined in {@link ProjectGrammar.Complete}. {@link #getReduceAction(Production)}
  * implements the LR value reductions (which construct the AST), whereas
- * {@link #tryErrorRecovery(List, TokenEx, TokenEx, Stack)} implements a basic error
+ * {@link #tryErrorRecovery(List, TokenEx, TokenEx, List)} implements a basic error
  * recovery for this grammar.
  * @see Complete#getGrammarImpl()
  */
@@ -74,6 +73,19 @@ public class ProjectGrammarImpl implements IGrammarImpl {
 	// --------------------------------------------------------------------------
 	private static final Object NO_VALUE = new String("NoValue");
 	
+	/**
+	 * Tokens which are followed by a semicolon: assignments, print and return
+	 * statements and declarations (unreduced type symbols)
+	 */
+	private static final EnumSet<TokenType> SEMICOLON_STATEMENTS = EnumSet.of(
+			TokenType.ASSIGNOP, TokenType.PRINT, TokenType.RETURN,
+			TokenType.BOOL_SYMBOL, TokenType.LONG_SYMBOL, TokenType.DOUBLE_SYMBOL,
+			TokenType.STRING_SYMBOL);
+	
+	/** The parser resynchronizes on the ends of statements and blocks */
+	private static final List<Terminal> SYNCHRONIZING_TERMINALS = Arrays.asList(
+			ProjectGrammar.Complete.sem, ProjectGrammar.Complete.rcb);
+	
 	private final Logger log = Logger.getLogger(getClass());
 	
 	private ReportLog reportLog = null;
@@ -126,37 +138,27 @@ public class ProjectGrammarImpl implements IGrammarImpl {
 			return new ReduceAction() {
 				@Override
 				public Object create(Object... objs) throws ReduceException  {
-					Object left = objs[0]; // Should be NO_VALUE, BlockNode or DeclarationNode
+					Object left = objs[0]; // Should be NO_VALUE, BlockBuilder or DeclarationNode
 					Object right = objs[1]; // Should be DeclarationNode or
-											// BlockNode
+											// BlockBuilder
 
-					LinkedList<DeclarationNode> declList = new LinkedList<>();
-					// Handle left
-					if (!left.equals(NO_VALUE)) {
-						if (left instanceof BlockNode) {
-							BlockNode leftBlock = (BlockNode) left;
-							declList.addAll(leftBlock.getDeclarationList());
-						} else {
-							DeclarationNode declLeft = unpack(left, DeclarationNode.class);
-							declList.add(declLeft);
+					BlockBuilder block = toBuilder(left);
+					if (block == null) {
+						block = new BlockBuilder();
+						block.setSymbolTable(new SymbolTableImpl());
+						if (!left.equals(NO_VALUE)) {
+							block.addDecl(unpack(left, DeclarationNode.class));
 						}
 					}
 
 					// Handle right
-					if (right instanceof BlockNode) {
-						BlockNode tmpBlock = (BlockNode) right;
-						declList.addAll(tmpBlock.getDeclarationList());
+					BlockBuilder rightBlock = toBuilder(right);
+					if (rightBlock != null) {
+						for (DeclarationNode decl : rightBlock.getDeclarationList()) {
+							block.addDecl(decl);
+						}
 					} else {
-						DeclarationNode declRight = unpack(right, DeclarationNode.class);
-						declList.add(declRight);
-					}
-
-					// Create new BlockNode
-					BlockNodeImpl block = new BlockNodeImpl();
-					block.setSymbolTable(new SymbolTableImpl());
-					for (DeclarationNode decl : declList) {
-						insertDecl(block, decl);
-						block.setCoverage(decl.coverage());
+						block.addDecl(unpack(right, DeclarationNode.class));
 					}
 					return block;
 				}
@@ -198,55 +200,27 @@ public class ProjectGrammarImpl implements IGrammarImpl {
 			return new ReduceAction() {
 				@Override
 				public Object create(Object... objs) throws ReduceException  {
-					Object left = objs[0]; // Should be NO_VALUE or BlockNode or other
+					Object left = objs[0]; // Should be NO_VALUE, BlockBuilder or
 					// StatementNode
-					Object right = objs[1]; // Should be StatementNode or
-					// BlockNode
-
-					LinkedList<StatementNode> stmtList = new LinkedList<>();
-					// Handle left
-					if (!left.equals(NO_VALUE)) {
-						// there are just 0ne statement
-						if (left instanceof BlockNode) {
-
-							//looks for real Blocknode with own scope, coverage begins and end with { }
-							BlockNode block = (BlockNode) left;
-							if(block.coverage().get(0).getValue().equalsIgnoreCase("{") &&
-									block.coverage().get(block.coverage().size()-1).getValue().equalsIgnoreCase("}")){
-								stmtList.add((StatementNode)block);
-							}else{
-								stmtList.addAll(block.getStatementList());
-							}
+					Object right = objs[1]; // Should be StatementNode (a real
+					// BlockNode, too) or BlockBuilder
 
-						} else {
-							StatementNode leftStmt = unpack(left, StatementNode.class);
-							stmtList.add(leftStmt);
+					BlockBuilder block = toBuilder(left);
+					if (block == null) {
+						block = new BlockBuilder();
+						if (!left.equals(NO_VALUE)) {
+							block.addStmt(unpack(left, StatementNode.class));
 						}
 					}
 
 					// Handle right
-					if (right instanceof BlockNode) {
-						
-						//looks for real Blocknode with own scope, coverage begins and end with { }
-						BlockNode block = (BlockNode) right;
-						if(block.coverage().get(0).getValue().equalsIgnoreCase("{") &&
-								block.coverage().get(block.coverage().size()-1).getValue().equalsIgnoreCase("}")){
-							stmtList.add((StatementNode)block);
-							
-						} else {
-							stmtList.addAll(block.getStatementList());
+					BlockBuilder rightBlock = toBuilder(right);
+					if (rightBlock != null) {
+						for (StatementNode stmt : rightBlock.getStatementList()) {
+							block.addStmt(stmt);
 						}
 					} else {
-						StatementNode rightStmt = unpack(right, StatementNode.class);
-						stmtList.add(rightStmt);
-					}
-
-					// Create new BlockNode
-					BlockNodeImpl block = new BlockNodeImpl();
-					for (StatementNode stmt : stmtList) {
-						block.addStatement(stmt);
-						stmt.setParentNode(block);
-						block.setCoverage(stmt.coverage());
+						block.addStmt(unpack(right, StatementNode.class));
 					}
 					return block;
 				}
@@ -554,7 +528,7 @@ public class ProjectGrammarImpl implements IGrammarImpl {
 			return new ReduceAction() {
 				@Override
 				public Object create(Object... objs) throws ReduceException  {
-					return createBinaryExpr(reportLog, BinaryOperator.LOGICAL_OR, "||", objs);
+					return createBinaryExpr(BinaryOperator.LOGICAL_OR, "||", objs);
 				}
 			};
 		case "bool -> join":
@@ -563,7 +537,7 @@ public class ProjectGrammarImpl implements IGrammarImpl {
 			return new ReduceAction() {
 				@Override
 				public Object create(Object... objs) throws ReduceException  {
-					return createBinaryExpr(reportLog, BinaryOperator.LOGICAL_AND, "&&", objs);
+					return createBinaryExpr(BinaryOperator.LOGICAL_AND, "&&", objs);
 				}
 			};
 		case "join -> equality":
@@ -573,14 +547,14 @@ public class ProjectGrammarImpl implements IGrammarImpl {
 			return new ReduceAction() {
 				@Override
 				public Object create(Object... objs) throws ReduceException  {
-					return createBinaryExpr(reportLog, BinaryOperator.EQUAL, "==", objs);
+					return createBinaryExpr(BinaryOperator.EQUAL, "==", objs);
 				}
 			};
 		case "equality -> equality != rel":
 			return new ReduceAction() {
 				@Override
 				public Object create(Object... objs) throws ReduceException  {
-					return createBinaryExpr(reportLog, BinaryOperator.INEQUAL, "!=", objs);
+					return createBinaryExpr(BinaryOperator.INEQUAL, "!=", objs);
 				}
 			};
 		case "equality -> rel":
@@ -589,28 +563,28 @@ public class ProjectGrammarImpl implements IGrammarImpl {
 			return new ReduceAction() {
 				@Override
 				public Object create(Object... objs) throws ReduceException  {
-					return createBinaryExpr(reportLog, BinaryOperator.LESSTHAN, "<", objs);
+					return createBinaryExpr(BinaryOperator.LESSTHAN, "<", objs);
 				}
 			};
 		case "rel -> expr > expr":
 			return new ReduceAction() {
 				@Override
 				public Object create(Object... objs) throws ReduceException  {
-					return createBinaryExpr(reportLog, BinaryOperator.GREATERTHAN, "<", objs);
+					return createBinaryExpr(BinaryOperator.GREATERTHAN, "<", objs);
 				}
 			};
 		case "rel -> expr >= expr":
 			return new ReduceAction() {
 				@Override
 				public Object create(Object... objs) throws ReduceException  {
-					return createBinaryExpr(reportLog, BinaryOperator.GREATERTHANEQUAL, ">=", objs);
+					return createBinaryExpr(BinaryOperator.GREATERTHANEQUAL, ">=", objs);
 				}
 			};
 		case "rel -> expr <= expr":
 			return new ReduceAction() {
 				@Override
 				public Object create(Object... objs) throws ReduceException  {
-					return createBinaryExpr(reportLog, BinaryOperator.LESSTHANEQUAL, "<=", objs);
+					return createBinaryExpr(BinaryOperator.LESSTHANEQUAL, "<=", objs);
 				}
 			};
 		case "rel -> expr":
@@ -619,14 +593,14 @@ public class ProjectGrammarImpl implements IGrammarImpl {
 			return new ReduceAction() {
 				@Override
 				public Object create(Object... objs) throws ReduceException  {
-					return createBinaryExpr(reportLog, BinaryOperator.ADDITION, "+", objs);
+					return createBinaryExpr(BinaryOperator.ADDITION, "+", objs);
 				}
 			};
 		case "expr -> expr - term":
 			return new ReduceAction() {
 				@Override
 				public Object create(Object... objs) throws ReduceException  {
-					return createBinaryExpr(reportLog, BinaryOperator.SUBSTRACTION, "-", objs);
+					return createBinaryExpr(BinaryOperator.SUBSTRACTION, "-", objs);
 				}
 			};
 		case "expr -> term":
@@ -635,14 +609,14 @@ public class ProjectGrammarImpl implements IGrammarImpl {
 			return new ReduceAction() {
 				@Override
 				public Object create(Object... objs) throws ReduceException  {
-					return createBinaryExpr(reportLog, BinaryOperator.MULTIPLICATION, "*", objs);
+					return createBinaryExpr(BinaryOperator.MULTIPLICATION, "*", objs);
 				}
 			};
 		case "term -> term / unary":
 			return new ReduceAction() {
 				@Override
 				public Object create(Object... objs) throws ReduceException  {
-					return createBinaryExpr(reportLog, BinaryOperator.DIVISION, "/", objs);
+					return createBinaryExpr(BinaryOperator.DIVISION, "/", objs);
 				}
 			};
 		case "term -> unary":
@@ -889,6 +863,26 @@ public class ProjectGrammarImpl implements IGrammarImpl {
 		
 	}
 
+	/**
+	 * @param obj
+	 * @return The given object, if it is a {@link BlockBuilder}, else
+	 *         <code>null</code>
+	 */
+	private static BlockBuilder toBuilder(Object obj) {
+		return obj instanceof BlockBuilder ? (BlockBuilder) obj : null;
+	}
+
+	/**
+	 * Finalizes the lists of declarations and statements accumulated by the
+	 * {@link BlockBuilder}s for "decls" and "stmts" (or {@link #NO_VALUE}) into
+	 * a new {@link BlockNodeImpl} with its own {@link SymbolTable}, which is
+	 * the parent of the symbol tables of all nested blocks.
+	 * 
+	 * @param left The declarations
+	 * @param right The statements
+	 * @return The new block
+	 * @throws ReduceException
+	 */
 	private BlockNodeImpl joinBlocks(Object left, Object right) throws ReduceException {
 		BlockNodeImpl newBlock = new BlockNodeImpl();
 		newBlock.setSymbolTable(new SymbolTableImpl());
@@ -950,13 +944,13 @@ public class ProjectGrammarImpl implements IGrammarImpl {
 	}
 	
 	/**
-	 * @param reportLog
+	 * @param op
+	 * @param opStr
 	 * @param objs
 	 * @return
 	 * @throws ReduceException 
 	 */
-	private Object createBinaryExpr(final ReportLog reportLog,  
-			final BinaryOperator op, String opStr,
+	private Object createBinaryExpr(final BinaryOperator op, String opStr,
 			Object... objs) throws ReduceException {
 		ExpressionNode leftExpr = unpack(objs[0], ExpressionNode.class);
 		Token opToken = unpack(objs[1], Token.class);
@@ -1020,6 +1014,25 @@ public class ProjectGrammarImpl implements IGrammarImpl {
 		}
 	}
 
+	/**
+	 * The value of "decls" and "stmts": Accumulates the declarations or
+	 * statements of a block, which are appended in place by the reduce actions
+	 * for "decls -> decls decl" and "stmts -> stmts stmt" instead of copying
+	 * the lists on every reduction. Thus it is not a block of its own, but is
+	 * finalized by {@link ProjectGrammarImpl#joinBlocks(Object, Object)}.
+	 */
+	private class BlockBuilder extends BlockNodeImpl {
+		private void addDecl(DeclarationNode decl) throws ReduceException {
+			insertDecl(this, decl);
+			setCoverage(decl.coverage());
+		}
+
+		private void addStmt(StatementNode stmt) {
+			addStatement(stmt);
+			setCoverage(stmt.coverage());
+		}
+	}
+
 	private static class ReduceStringType extends Type {
 		/**
 		 * its not possible to create a StringType without the length, so
@@ -1046,7 +1059,7 @@ public class ProjectGrammarImpl implements IGrammarImpl {
 	// --------------------------------------------------------------------------
 	@Override
 	public RecoveryResult tryErrorRecovery(List<Terminal> possibleTerminals, TokenEx curToken,
-			TokenEx lastToken, Stack<Object> valueStack) {
+			TokenEx lastToken, List<Object> valueStack) {
 		if (possibleTerminals.size() == 1) {
 			// Easy! Only one option, do it.
 			Terminal terminal = possibleTerminals.get(0);
@@ -1059,13 +1072,7 @@ public class ProjectGrammarImpl implements IGrammarImpl {
 			return insertTerminal(curToken, lastToken, ProjectGrammar.Complete.rb,
 					")", TokenType.RIGHT_PARAN);
 		} else if (possibleTerminals.contains(ProjectGrammar.Complete.sem) &&
-				(containsTokensOfType(valueStack, TokenType.ASSIGNOP) ||
-				containsTokensOfType(valueStack, TokenType.PRINT) ||
-				containsTokensOfType(valueStack, TokenType.RETURN) ||
-				containsTokensOfType(valueStack, TokenType.BOOL_SYMBOL) ||
-				containsTokensOfType(valueStack, TokenType.LONG_SYMBOL) ||
-				containsTokensOfType(valueStack, TokenType.DOUBLE_SYMBOL) ||
-				containsTokensOfType(valueStack, TokenType.STRING_SYMBOL))) {
+				containsTokenOfType(valueStack, SEMICOLON_STATEMENTS)) {
 			// Next symbol might be a semicolon and we are either:
 			// - on the rhs of an assignment
 			// - on the rhs of a print or return statement
@@ -1082,6 +1089,11 @@ public class ProjectGrammarImpl implements IGrammarImpl {
 		return null;
 	}
 	
+	@Override
+	public List<Terminal> getSynchronizingTerminals() {
+		return SYNCHRONIZING_TERMINALS;
+	}
+	
 	/**
 	 * Inserts a fresh token into the token stream just before the one that was
 	 * currently read
@@ -1111,13 +1123,28 @@ public class ProjectGrammarImpl implements IGrammarImpl {
 		return new RecoveryResult(newToken, curToken);	// Re-insert curToken into token stream
 	}
 	
+	/**
+	 * @param valueStack The parsers current value stack
+	 * @param types The types which the method should search for
+	 * @return Whether there is a token of one of the given types on the
+	 * 		stack
+	 */
+	private static boolean containsTokenOfType(List<Object> valueStack, EnumSet<TokenType> types) {
+		for (Object obj : valueStack) {
+			if (obj instanceof Token && types.contains(((Token) obj).getTokenType())) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
 	/**
 	 * @param valueStack The parsers current value stack
 	 * @param types The type-sequence which the method should search for
 	 * @return Whether there are one or more occurrences of the given
 	 * 		types-sequence
 	 */
-	private static boolean containsTokensOfType(Stack<Object> valueStack, TokenType... types) {
+	private static boolean containsTokensOfType(List<Object> valueStack, TokenType... types) {
 		return countTokensOfType(valueStack, types) > 0;
 	}
 	
@@ -1127,7 +1154,7 @@ public class ProjectGrammarImpl implements IGrammarImpl {
 	 * @return How much occurrences of the given types-sequence there are on
 	 * 		the stack
 	 */
-	private static int countTokensOfType(Stack<Object> valueStack, TokenType... types) {
+	private static int countTokensOfType(List<Object> valueStack, TokenType... types) {
 		int occurrences = 0;
 		Iterator<Object> it = valueStack.iterator();
 		while (it.hasNext()) {
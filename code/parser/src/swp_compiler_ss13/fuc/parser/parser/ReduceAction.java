@@ -7,7 +7,8 @@ public interface ReduceAction {
 	/**
 	 * Reduce the given Objects in Array of ASTnodes and Tokens to a
 	 * new ASTNode and return this
-	 * @param objs
+	 * @param objs The values reduced by the production. The array is reused by
+	 * 		the {@link LRParser} for the next reduction, so it must not be kept.
 	 * @return The result of the reduction
 	 * @throws ReduceException If there was an error which has been reported to
 	 * 		{@link ReportLog} and needs no cancellation
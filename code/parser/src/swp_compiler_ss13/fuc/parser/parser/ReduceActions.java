@@ -0,0 +1,78 @@
+package swp_compiler_ss13.fuc.parser.parser;
+
+import swp_compiler_ss13.fuc.parser.grammar.Production;
+import swp_compiler_ss13.fuc.parser.parser.tables.ALRCompiledTable;
+
+/**
+ * The {@link ReduceAction}s of an {@link IGrammarImpl} for all productions
+ * reduced by an {@link ALRCompiledTable}, indexed by their ordinals (see
+ * {@link ALRCompiledTable#getReduce(int)}). They are looked up once when this
+ * table is built, so {@link LRParser} does not have to call
+ * {@link IGrammarImpl#getReduceAction(Production)} on every reduction.
+ * Productions without an action (like "expr -> term") are flagged, so the
+ * parser can leave the value stack untouched when reducing them.<br/>
+ * The ordinals are only stable for frozen tables (see
+ * {@link swp_compiler_ss13.fuc.parser.parser.tables.LRParsingTable#freeze()}),
+ * which is why {@link swp_compiler_ss13.fuc.parser.generator.ParsingTableCache}
+ * builds them once per cached table.
+ *
+ * @author Gero
+ */
+public final class ReduceActions {
+	// --------------------------------------------------------------------------
+	// --- variables and constants
+	// ----------------------------------------------
+	// --------------------------------------------------------------------------
+	private final ReduceAction[] actions;
+	private final boolean[] hasAction;
+
+	// --------------------------------------------------------------------------
+	// --- constructors
+	// ---------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * @see ReduceActions
+	 * @param table
+	 * @param grammarImpl
+	 */
+	public ReduceActions(ALRCompiledTable table, IGrammarImpl grammarImpl) {
+		int count = table.getProductionsCount();
+		this.actions = new ReduceAction[count];
+		this.hasAction = new boolean[count];
+		for (int i = 0; i < count; i++) {
+			actions[i] = grammarImpl.getReduceAction(table.getReduce(i).getProduction());
+			hasAction[i] = actions[i] != null;
+		}
+	}
+
+	// --------------------------------------------------------------------------
+	// --- getter/setter
+	// --------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * @param production
+	 *            The ordinal of a production
+	 * @return The {@link ReduceAction} for the given production, or
+	 *         <code>null</code> if there is nothing to do on the value stack
+	 */
+	public ReduceAction get(int production) {
+		return actions[production];
+	}
+
+	/**
+	 * @param production
+	 *            The ordinal of a production
+	 * @return Whether there is a {@link ReduceAction} for the given production
+	 */
+	public boolean hasAction(int production) {
+		return hasAction[production];
+	}
+
+	/**
+	 * @return The number of productions, which are all in
+	 *         <code>[0, getProductionsCount())</code>
+	 */
+	public int getProductionsCount() {
+		return actions.length;
+	}
+}
@@ -0,0 +1,172 @@
+package swp_compiler_ss13.fuc.parser.parser;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import swp_compiler_ss13.fuc.parser.grammar.TokenEx;
+
+/**
+ * A bounded, lock-free ring buffer which passes {@link TokenEx}s from exactly
+ * one producer thread to exactly one consumer thread (see
+ * {@link PipelinedLexerWrapper}).<br/>
+ * Both sides only write their own index and publish it with an ordered store,
+ * and each caches the index of the other side, so the volatile index of the
+ * other side is only read when the buffer seems full (or empty). Blocking
+ * calls spin briefly, then yield and finally park for a short time, so a
+ * waiting side does not steal the CPU from the other one on small machines.
+ *
+ * @author Gero
+ */
+public class TokenRingBuffer {
+	// --------------------------------------------------------------------------
+	// --- variables and constants
+	// ----------------------------------------------
+	// --------------------------------------------------------------------------
+	/** The default for {@link #TokenRingBuffer(int)} */
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	private static final int SPINS = 64;
+	private static final int YIELDS = 64;
+	private static final long PARK_NANOS = 50000L;
+
+	private final TokenEx[] tokens;
+	private final int mask;
+
+	/** The index of the next token to take, only written by the consumer */
+	private final AtomicLong head = new AtomicLong();
+	/** The index of the next token to put, only written by the producer */
+	private final AtomicLong tail = new AtomicLong();
+
+	/** The producer's copy of {@link #head} */
+	private long cachedHead = 0;
+	/** The consumer's copy of {@link #tail} */
+	private long cachedTail = 0;
+
+	// --------------------------------------------------------------------------
+	// --- constructors
+	// ---------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * @see TokenRingBuffer
+	 * @param capacity
+	 *            The minimum number of tokens the buffer can hold. It is
+	 *            rounded up to the next power of two.
+	 */
+	public TokenRingBuffer(int capacity) {
+		if (capacity < 1 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("Invalid capacity: " + capacity);
+		}
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity) {
+			size <<= 1;
+		}
+		tokens = new TokenEx[size];
+		mask = size - 1;
+	}
+
+	// --------------------------------------------------------------------------
+	// --- methods
+	// --------------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * Producer side: Appends the given token if there is space left
+	 *
+	 * @param token
+	 * @return Whether the token has been appended
+	 */
+	public boolean offer(TokenEx token) {
+		long t = tail.get();
+		if (t - cachedHead == tokens.length) {
+			cachedHead = head.get();
+			if (t - cachedHead == tokens.length) {
+				return false;
+			}
+		}
+		tokens[(int) t & mask] = token;
+		tail.lazySet(t + 1);
+		return true;
+	}
+
+	/**
+	 * Producer side: Appends the given token, waiting for space if the buffer
+	 * is full
+	 *
+	 * @param token
+	 * @throws InterruptedException
+	 *             If the producer thread has been interrupted while waiting
+	 */
+	public void put(TokenEx token) throws InterruptedException {
+		int waits = 0;
+		while (!offer(token)) {
+			waits = backOff(waits);
+		}
+	}
+
+	/**
+	 * Consumer side: Removes the next token if there is one
+	 *
+	 * @return The next token, or <code>null</code> if the buffer is empty
+	 */
+	public TokenEx poll() {
+		long h = head.get();
+		if (h == cachedTail) {
+			cachedTail = tail.get();
+			if (h == cachedTail) {
+				return null;
+			}
+		}
+		int index = (int) h & mask;
+		TokenEx token = tokens[index];
+		tokens[index] = null;
+		head.lazySet(h + 1);
+		return token;
+	}
+
+	/**
+	 * Consumer side: Removes the next token, waiting for the producer if the
+	 * buffer is empty
+	 *
+	 * @return The next token
+	 * @throws InterruptedException
+	 *             If the consumer thread has been interrupted while waiting
+	 */
+	public TokenEx take() throws InterruptedException {
+		int waits = 0;
+		TokenEx token;
+		while ((token = poll()) == null) {
+			waits = backOff(waits);
+		}
+		return token;
+	}
+
+	private static int backOff(int waits) throws InterruptedException {
+		if (Thread.interrupted()) {
+			throw new InterruptedException();
+		}
+		if (waits >= SPINS + YIELDS) {
+			LockSupport.parkNanos(PARK_NANOS);
+		} else if (waits >= SPINS) {
+			Thread.yield();
+		}
+		return Math.min(waits + 1, SPINS + YIELDS);
+	}
+
+	// --------------------------------------------------------------------------
+	// --- getter/setter
+	// --------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * @return The number of tokens the buffer can hold
+	 */
+	public int getCapacity() {
+		return tokens.length;
+	}
+
+	/**
+	 * @return The number of tokens in the buffer. Only a snapshot if called
+	 *         while the other side is active.
+	 */
+	public int size() {
+		return (int) (tail.get() - head.get());
+	}
+}
@@ -0,0 +1,122 @@
+package swp_compiler_ss13.fuc.parser.parser;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * The unsynchronized value stack of the {@link LRParser}, backed by a growable
+ * array. As a {@link java.util.List} it is ordered from the bottom to the top
+ * of the stack, like {@link java.util.Stack}.<br/>
+ * The values reduced by a production are the slice of the <code>count</code>
+ * topmost values, starting at index <code>size() - count</code>. They are
+ * handed to the {@link ReduceAction} in an array that is reused for all
+ * reductions of the same length (see {@link #popSlice(int)}).
+ *
+ * @author Gero
+ */
+final class ValueStack extends AbstractList<Object> implements RandomAccess {
+	// --------------------------------------------------------------------------
+	// --- variables and constants
+	// ----------------------------------------------
+	// --------------------------------------------------------------------------
+	private static final Object[] EMPTY = new Object[0];
+
+	private Object[] values = new Object[64];
+	private int size = 0;
+
+	/** The reused slice arrays, by length */
+	private Object[][] slices = new Object[8][];
+
+	// --------------------------------------------------------------------------
+	// --- methods
+	// --------------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * @param value
+	 */
+	public void push(Object value) {
+		if (size == values.length) {
+			values = Arrays.copyOf(values, size * 2);
+		}
+		values[size++] = value;
+	}
+
+	/**
+	 * @return The topmost value, which is removed from the stack
+	 * @throws IndexOutOfBoundsException
+	 *             If the stack is empty
+	 */
+	public Object pop() {
+		if (size == 0) {
+			throw new IndexOutOfBoundsException("The value stack is empty!");
+		}
+		Object value = values[--size];
+		values[size] = null;
+		return value;
+	}
+
+	/**
+	 * Removes the given number of topmost values from the stack and returns
+	 * them, from the bottom to the top. The returned array is owned by this
+	 * stack and is overwritten by the next call with the same count, so it must
+	 * not be kept.
+	 *
+	 * @param count
+	 * @return The slice of the <code>count</code> topmost values
+	 * @throws IndexOutOfBoundsException
+	 *             If there are less than <code>count</code> values on the stack
+	 */
+	public Object[] popSlice(int count) {
+		if (count > size) {
+			throw new IndexOutOfBoundsException("Cannot pop " + count + " of " + size
+					+ " values!");
+		}
+		if (count == 0) {
+			return EMPTY;
+		}
+		if (count >= slices.length) {
+			slices = Arrays.copyOf(slices, count * 2);
+		}
+		Object[] slice = slices[count];
+		if (slice == null) {
+			slice = new Object[count];
+			slices[count] = slice;
+		}
+		int base = size - count;
+		System.arraycopy(values, base, slice, 0, count);
+		Arrays.fill(values, base, size, null);
+		size = base;
+		return slice;
+	}
+
+	/**
+	 * Removes the given number of topmost values from the stack
+	 *
+	 * @param count
+	 * @throws IndexOutOfBoundsException
+	 *             If there are less than <code>count</code> values on the stack
+	 */
+	public void drop(int count) {
+		if (count > size) {
+			throw new IndexOutOfBoundsException("Cannot drop " + count + " of " + size
+					+ " values!");
+		}
+		int base = size - count;
+		Arrays.fill(values, base, size, null);
+		size = base;
+	}
+
+	@Override
+	public Object get(int index) {
+		if (index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+		}
+		return values[index];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+}
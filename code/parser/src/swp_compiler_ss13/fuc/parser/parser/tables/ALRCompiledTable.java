@@ -0,0 +1,462 @@
+package swp_compiler_ss13.fuc.parser.parser.tables;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import swp_compiler_ss13.common.lexer.TokenType;
+import swp_compiler_ss13.fuc.parser.grammar.NonTerminal;
+import swp_compiler_ss13.fuc.parser.grammar.Production;
+import swp_compiler_ss13.fuc.parser.grammar.Terminal;
+import swp_compiler_ss13.fuc.parser.grammar.TokenEx;
+import swp_compiler_ss13.fuc.parser.parser.states.LRParserState;
+import swp_compiler_ss13.fuc.parser.parser.tables.actions.ALRAction;
+import swp_compiler_ss13.fuc.parser.parser.tables.actions.Accept;
+import swp_compiler_ss13.fuc.parser.parser.tables.actions.Error;
+import swp_compiler_ss13.fuc.parser.parser.tables.actions.Reduce;
+import swp_compiler_ss13.fuc.parser.parser.tables.actions.Shift;
+
+/**
+ * The compiled form of a frozen {@link LRParsingTable}: states, terminals,
+ * nonterminals and productions are numbered densely, so that the
+ * {@link swp_compiler_ss13.fuc.parser.parser.LRParser} can run without any
+ * allocations or hashing for table lookups. How the action and goto cells are
+ * stored is up to the subclasses ({@link LRDenseTable},
+ * {@link LRCompressedTable}). The terminal ordinal of a token is looked up by
+ * its {@link TokenType} (see {@link #getTerminalOrdinal(TokenEx)}).<br/>
+ * An action is packed into a single <code>int</code>: the lowest two bits
+ * hold its kind ({@link #ERROR}, {@link #SHIFT}, {@link #REDUCE} or
+ * {@link #ACCEPT}), the remaining bits the target (the new state for
+ * {@link #SHIFT}, the production for {@link #REDUCE}). Empty cells are
+ * <code>0</code>, which is an {@link #ERROR} without further information.
+ *
+ * @author Gero
+ */
+public abstract class ALRCompiledTable {
+	// --------------------------------------------------------------------------
+	// --- variables and constants ----------------------------------------------
+	// --------------------------------------------------------------------------
+	public static final int ERROR = 0;
+	public static final int SHIFT = 1;
+	public static final int REDUCE = 2;
+	public static final int ACCEPT = 3;
+
+	private static final int KIND_BITS = 2;
+	private static final int KIND_MASK = (1 << KIND_BITS) - 1;
+
+	/** Value of empty goto cells */
+	public static final int NO_STATE = -1;
+
+	private final int startState;
+	private final LRParserState[] states;
+
+	private final Map<Terminal, Integer> terminalOrdinals;
+	private final Terminal[] terminals;
+	/** The terminal ordinals by {@link TokenType#ordinal()}, or <code>-1</code> */
+	private final int[] tokenTypeOrdinals;
+	private final Map<NonTerminal, Integer> nonTerminalOrdinals;
+	private final NonTerminal[] nonTerminals;
+
+	private final Map<Production, Integer> productionOrdinals;
+	private final Reduce[] reduces;
+	private final int[] popCounts;
+	private final int[] lhsOrdinals;
+
+	private final String[] errorMessages;
+	private final Accept accept = new Accept();
+
+	// --------------------------------------------------------------------------
+	// --- constructors ---------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * Numbers all states, symbols and productions used by the given action and
+	 * goto entries
+	 *
+	 * @see ALRCompiledTable
+	 * @param startState
+	 * @param genStates
+	 *            All states of the table
+	 * @param actionEntries
+	 * @param gotoEntries
+	 */
+	protected ALRCompiledTable(LRParserState startState, Iterable<LRParserState> genStates,
+			Map<LRTableKey, ALRAction> actionEntries,
+			Map<LRTableKey, LRParserState> gotoEntries) {
+		// States: Use the given objects wherever possible
+		Map<Integer, LRParserState> stateObjs = new HashMap<>();
+		for (LRParserState state : genStates) {
+			stateObjs.put(state.getId(), state);
+		}
+		for (Entry<LRTableKey, ALRAction> entry : actionEntries.entrySet()) {
+			addState(stateObjs, entry.getKey().getState());
+			if (entry.getValue() instanceof Shift) {
+				addState(stateObjs, ((Shift) entry.getValue()).getNewState());
+			}
+		}
+		for (Entry<LRTableKey, LRParserState> entry : gotoEntries.entrySet()) {
+			addState(stateObjs, entry.getKey().getState());
+			addState(stateObjs, entry.getValue());
+		}
+		int maxId = startState.getId();
+		for (Integer id : stateObjs.keySet()) {
+			maxId = Math.max(maxId, id);
+		}
+		this.states = new LRParserState[maxId + 1];
+		for (int i = 0; i < states.length; i++) {
+			LRParserState state = stateObjs.get(i);
+			states[i] = state == null ? new LRParserState(i) : state;
+		}
+		this.startState = startState.getId();
+
+		// Symbols, productions and error messages. The entries are numbered in
+		// a fixed order, so the numbering does not depend on hash codes and is
+		// the same in every run
+		LinkedHashMap<Terminal, Integer> terminalOrds = new LinkedHashMap<>();
+		LinkedHashMap<NonTerminal, Integer> nonTerminalOrds = new LinkedHashMap<>();
+		LinkedHashMap<Production, Integer> productionOrds = new LinkedHashMap<>();
+		List<Reduce> reduceList = new ArrayList<>();
+		List<String> errorList = new ArrayList<>();
+		for (Entry<LRTableKey, ALRAction> entry : sorted(actionEntries)) {
+			ordinal(terminalOrds, (Terminal) entry.getKey().getSymbol());
+			if (entry.getValue() instanceof Reduce) {
+				Reduce reduce = (Reduce) entry.getValue();
+				if (!productionOrds.containsKey(reduce.getProduction())) {
+					productionOrds.put(reduce.getProduction(), reduceList.size());
+					reduceList.add(reduce);
+				}
+				ordinal(nonTerminalOrds, reduce.getProduction().getLHS());
+			} else if (entry.getValue() instanceof Error) {
+				String msg = ((Error) entry.getValue()).getMsg();
+				if (!errorList.contains(msg)) {
+					errorList.add(msg);
+				}
+			}
+		}
+		for (Entry<LRTableKey, LRParserState> entry : sorted(gotoEntries)) {
+			ordinal(nonTerminalOrds, (NonTerminal) entry.getKey().getSymbol());
+		}
+		this.terminalOrdinals = terminalOrds;
+		this.terminals = terminalOrds.keySet().toArray(new Terminal[terminalOrds.size()]);
+		this.tokenTypeOrdinals = new int[TokenType.values().length];
+		Arrays.fill(tokenTypeOrdinals, -1);
+		for (int i = 0; i < terminals.length; i++) {
+			if (terminals[i] == Terminal.EOF) {
+				tokenTypeOrdinals[TokenType.EOF.ordinal()] = i;
+			}
+			for (TokenType tokenType : terminals[i].getTokenTypes()) {
+				tokenTypeOrdinals[tokenType.ordinal()] = i;
+			}
+		}
+		this.nonTerminalOrdinals = nonTerminalOrds;
+		this.nonTerminals = nonTerminalOrds.keySet().toArray(new NonTerminal[nonTerminalOrds.size()]);
+		this.productionOrdinals = productionOrds;
+		this.reduces = reduceList.toArray(new Reduce[reduceList.size()]);
+		this.popCounts = new int[reduces.length];
+		this.lhsOrdinals = new int[reduces.length];
+		for (int i = 0; i < reduces.length; i++) {
+			popCounts[i] = reduces[i].getPopCount();
+			lhsOrdinals[i] = nonTerminalOrds.get(reduces[i].getProduction().getLHS());
+		}
+		this.errorMessages = errorList.toArray(new String[errorList.size()]);
+	}
+
+	/**
+	 * Shares all numberings of the given table
+	 *
+	 * @see ALRCompiledTable
+	 * @param other
+	 */
+	protected ALRCompiledTable(ALRCompiledTable other) {
+		this.startState = other.startState;
+		this.states = other.states;
+		this.terminalOrdinals = other.terminalOrdinals;
+		this.terminals = other.terminals;
+		this.tokenTypeOrdinals = other.tokenTypeOrdinals;
+		this.nonTerminalOrdinals = other.nonTerminalOrdinals;
+		this.nonTerminals = other.nonTerminals;
+		this.productionOrdinals = other.productionOrdinals;
+		this.reduces = other.reduces;
+		this.popCounts = other.popCounts;
+		this.lhsOrdinals = other.lhsOrdinals;
+		this.errorMessages = other.errorMessages;
+	}
+
+	// --------------------------------------------------------------------------
+	// --- methods --------------------------------------------------------------
+	// --------------------------------------------------------------------------
+	private static void addState(Map<Integer, LRParserState> states, LRParserState state) {
+		if (!states.containsKey(state.getId())) {
+			states.put(state.getId(), state);
+		}
+	}
+
+	/**
+	 * @param entries
+	 * @return The given entries, ordered by state id and symbol id
+	 */
+	private static <V> List<Entry<LRTableKey, V>> sorted(Map<LRTableKey, V> entries) {
+		List<Entry<LRTableKey, V>> result = new ArrayList<>(entries.entrySet());
+		Collections.sort(result, new Comparator<Entry<LRTableKey, V>>() {
+			@Override
+			public int compare(Entry<LRTableKey, V> e1, Entry<LRTableKey, V> e2) {
+				LRTableKey k1 = e1.getKey();
+				LRTableKey k2 = e2.getKey();
+				int cmp = Integer.compare(k1.getState().getId(), k2.getState().getId());
+				return cmp != 0 ? cmp : k1.getSymbol().getId().compareTo(k2.getSymbol().getId());
+			}
+		});
+		return result;
+	}
+
+	private static <T> void ordinal(Map<T, Integer> ordinals, T symbol) {
+		if (!ordinals.containsKey(symbol)) {
+			ordinals.put(symbol, ordinals.size());
+		}
+	}
+
+	private static int pack(int kind, int target) {
+		return (target << KIND_BITS) | kind;
+	}
+
+	/**
+	 * @param action
+	 *            An action of the entries this table was created from
+	 * @return The packed form of the given action
+	 */
+	protected int pack(ALRAction action) {
+		switch (action.getType()) {
+		case SHIFT:
+			return pack(SHIFT, ((Shift) action).getNewState().getId());
+		case REDUCE:
+			return pack(REDUCE, productionOrdinals.get(((Reduce) action).getProduction()));
+		case ACCEPT:
+			return pack(ACCEPT, 0);
+		default:
+			// Explicit error entry: remember its message (0 means "none")
+			String msg = ((Error) action).getMsg();
+			for (int i = 0; i < errorMessages.length; i++) {
+				if (errorMessages[i].equals(msg)) {
+					return pack(ERROR, i + 1);
+				}
+			}
+			return ERROR;
+		}
+	}
+
+	/**
+	 * @param action
+	 *            A packed action as returned by {@link #getAction(int, int)}
+	 * @return The kind of the given action
+	 */
+	public static int kindOf(int action) {
+		return action & KIND_MASK;
+	}
+
+	/**
+	 * @param action
+	 *            A packed action as returned by {@link #getAction(int, int)}
+	 * @return The new state of a {@link #SHIFT} or the production ordinal of a
+	 *         {@link #REDUCE}
+	 */
+	public static int targetOf(int action) {
+		return action >>> KIND_BITS;
+	}
+
+	/**
+	 * @param state
+	 * @param terminal
+	 *            The ordinal of the terminal, may be <code>-1</code>
+	 * @return The packed action for the given state and terminal
+	 */
+	public abstract int getAction(int state, int terminal);
+
+	/**
+	 * @param state
+	 * @param nonTerminal
+	 *            The ordinal of the nonterminal, may be <code>-1</code>
+	 * @return The new state for the given state and nonterminal, or
+	 *         {@link #NO_STATE}
+	 */
+	public abstract int getGoto(int state, int nonTerminal);
+
+	/**
+	 * @return The number of bytes used by the arrays that store the action and
+	 *         goto cells
+	 */
+	public abstract long getCellsSize();
+
+	/**
+	 * Decodes the given packed action into the object representation
+	 *
+	 * @param action
+	 * @return The {@link ALRAction} for the given packed action. For empty
+	 *         cells, <code>null</code> is returned.
+	 */
+	public ALRAction decode(int action) {
+		switch (kindOf(action)) {
+		case SHIFT:
+			return new Shift(states[targetOf(action)]);
+		case REDUCE:
+			return reduces[targetOf(action)];
+		case ACCEPT:
+			return accept;
+		default:
+			int msg = targetOf(action);
+			return msg == 0 ? null : new Error(errorMessages[msg - 1]);
+		}
+	}
+
+	/**
+	 * @param state
+	 * @param terminal
+	 * @return Whether the given indices are inside of the action table
+	 */
+	protected boolean isActionCell(int state, int terminal) {
+		return terminal >= 0 && terminal < terminals.length && state >= 0
+				&& state < states.length;
+	}
+
+	/**
+	 * @param state
+	 * @param nonTerminal
+	 * @return Whether the given indices are inside of the goto table
+	 */
+	protected boolean isGotoCell(int state, int nonTerminal) {
+		return nonTerminal >= 0 && nonTerminal < nonTerminals.length && state >= 0
+				&& state < states.length;
+	}
+
+	// --------------------------------------------------------------------------
+	// --- getter/setter --------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * @return The id of the start state
+	 */
+	public int getStartState() {
+		return startState;
+	}
+
+	/**
+	 * @return The number of states (rows) of this table
+	 */
+	public int getStatesCount() {
+		return states.length;
+	}
+
+	/**
+	 * @param id
+	 * @return The {@link LRParserState} with the given id
+	 */
+	public LRParserState getState(int id) {
+		return states[id];
+	}
+
+	/**
+	 * @param terminal
+	 * @return The ordinal of the given {@link Terminal}, or <code>-1</code> if
+	 *         there is no action for it at all
+	 */
+	public int getTerminalOrdinal(Terminal terminal) {
+		Integer ordinal = terminalOrdinals.get(terminal);
+		return ordinal == null ? -1 : ordinal;
+	}
+
+	/**
+	 * Looks up the ordinal of the {@link Terminal} of the given token by its
+	 * {@link TokenType}. Only tokens which carry another terminal than the one
+	 * of their type (e.g. inserted by the error recovery) are looked up by
+	 * {@link #getTerminalOrdinal(Terminal)}.
+	 *
+	 * @param token
+	 * @return The ordinal of the {@link Terminal} of the given token, or
+	 *         <code>-1</code> if there is no action for it at all
+	 */
+	public int getTerminalOrdinal(TokenEx token) {
+		Terminal terminal = token.getTerminal();
+		int ordinal = tokenTypeOrdinals[token.getTokenType().ordinal()];
+		if (ordinal >= 0 && terminals[ordinal] == terminal) {
+			return ordinal;
+		}
+		return getTerminalOrdinal(terminal);
+	}
+
+	/**
+	 * @return The number of terminals (columns of the action table)
+	 */
+	public int getTerminalsCount() {
+		return terminals.length;
+	}
+
+	/**
+	 * @param ordinal
+	 * @return The {@link Terminal} with the given ordinal
+	 */
+	public Terminal getTerminal(int ordinal) {
+		return terminals[ordinal];
+	}
+
+	/**
+	 * @param nonTerminal
+	 * @return The ordinal of the given {@link NonTerminal}, or <code>-1</code>
+	 *         if it does not occur in this table
+	 */
+	public int getNonTerminalOrdinal(NonTerminal nonTerminal) {
+		Integer ordinal = nonTerminalOrdinals.get(nonTerminal);
+		return ordinal == null ? -1 : ordinal;
+	}
+
+	/**
+	 * @return The number of nonterminals (columns of the goto table)
+	 */
+	public int getNonTerminalsCount() {
+		return nonTerminals.length;
+	}
+
+	/**
+	 * @param ordinal
+	 * @return The {@link NonTerminal} with the given ordinal
+	 */
+	public NonTerminal getNonTerminal(int ordinal) {
+		return nonTerminals[ordinal];
+	}
+
+	/**
+	 * @return The number of productions that are reduced by this table
+	 */
+	public int getProductionsCount() {
+		return reduces.length;
+	}
+
+	/**
+	 * @param production
+	 *            The ordinal of a production
+	 * @return The {@link Reduce} action for the given production
+	 */
+	public Reduce getReduce(int production) {
+		return reduces[production];
+	}
+
+	/**
+	 * @param production
+	 *            The ordinal of a production
+	 * @return The number of states to pop when reducing the given production
+	 */
+	public int getPopCount(int production) {
+		return popCounts[production];
+	}
+
+	/**
+	 * @param production
+	 *            The ordinal of a production
+	 * @return The ordinal of the LHS of the given production
+	 */
+	public int getLHSOrdinal(int production) {
+		return lhsOrdinals[production];
+	}
+}
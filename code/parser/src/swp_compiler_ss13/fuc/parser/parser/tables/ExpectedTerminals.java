@@ -0,0 +1,120 @@
+package swp_compiler_ss13.fuc.parser.parser.tables;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import swp_compiler_ss13.fuc.parser.grammar.Terminal;
+
+/**
+ * The {@link Terminal}s expected by each state of an {@link ALRCompiledTable},
+ * i.e. those with a non-empty action. They are computed once per table (see
+ * {@link LRParsingTable#getExpectedTerminals()}), so reporting and recovering
+ * from syntax errors does not need to scan the action table.<br/>
+ * Per state there is a bitset over the terminal ordinals and a read-only
+ * {@link List} of the terminals (ordered by ordinal), whose
+ * {@link List#contains(Object)} is answered by the bitset.
+ *
+ * @author Gero
+ */
+public class ExpectedTerminals {
+	// --------------------------------------------------------------------------
+	// --- variables and constants ----------------------------------------------
+	// --------------------------------------------------------------------------
+	private final ALRCompiledTable table;
+
+	private final int wordsPerState;
+	private final long[] expected;
+	private final TerminalList[] lists;
+
+	// --------------------------------------------------------------------------
+	// --- constructors ---------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * Collects the expected terminals of all states of the given table
+	 *
+	 * @see ExpectedTerminals
+	 * @param table
+	 */
+	public ExpectedTerminals(ALRCompiledTable table) {
+		this.table = table;
+		int statesCount = table.getStatesCount();
+		int terminalsCount = table.getTerminalsCount();
+
+		this.wordsPerState = (terminalsCount + 63) >>> 6;
+		this.expected = new long[statesCount * wordsPerState];
+		this.lists = new TerminalList[statesCount];
+		Terminal[] row = new Terminal[terminalsCount];
+		for (int state = 0; state < statesCount; state++) {
+			int size = 0;
+			for (int t = 0; t < terminalsCount; t++) {
+				if (table.getAction(state, t) != ALRCompiledTable.ERROR) {
+					expected[state * wordsPerState + (t >>> 6)] |= 1L << t;
+					row[size++] = table.getTerminal(t);
+				}
+			}
+			Terminal[] terminals = new Terminal[size];
+			System.arraycopy(row, 0, terminals, 0, size);
+			lists[state] = new TerminalList(state, terminals);
+		}
+	}
+
+	// --------------------------------------------------------------------------
+	// --- methods --------------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * @param state
+	 * @param terminal
+	 *            The ordinal of the terminal, may be <code>-1</code>
+	 * @return Whether the given state has an action for the given terminal
+	 */
+	public boolean isExpected(int state, int terminal) {
+		return table.isActionCell(state, terminal)
+				&& (expected[state * wordsPerState + (terminal >>> 6)] & (1L << terminal)) != 0;
+	}
+
+	/**
+	 * @param state
+	 * @return The read-only list of terminals the given state has an action
+	 *         for, ordered by their ordinals
+	 */
+	public List<Terminal> get(int state) {
+		return lists[state];
+	}
+
+	/**
+	 * @return The number of states
+	 */
+	public int getStatesCount() {
+		return lists.length;
+	}
+
+	/**
+	 * The expected terminals of one state
+	 */
+	private class TerminalList extends AbstractList<Terminal> implements RandomAccess {
+		private final int state;
+		private final Terminal[] terminals;
+
+		private TerminalList(int state, Terminal[] terminals) {
+			this.state = state;
+			this.terminals = terminals;
+		}
+
+		@Override
+		public Terminal get(int index) {
+			return terminals[index];
+		}
+
+		@Override
+		public int size() {
+			return terminals.length;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return o instanceof Terminal
+					&& isExpected(state, table.getTerminalOrdinal((Terminal) o));
+		}
+	}
+}
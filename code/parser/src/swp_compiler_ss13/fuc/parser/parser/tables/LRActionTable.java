@@ -13,13 +13,18 @@ import swp_compiler_ss13.fuc.parser.parser.tables.actions.Error;
 
 /**
  * This class stores associations of the form (current {@link LRParserState},
- * current {@link Terminal}) -> next {@link ALRAction}.
+ * current {@link Terminal}) -> next {@link ALRAction}. Once the
+ * {@link LRParsingTable} it belongs to is frozen, this class is only a view on
+ * the rows of its {@link ALRCompiledTable}.
  */
 public class LRActionTable {
 	// --------------------------------------------------------------------------
 	// --- variables and constants ----------------------------------------------
 	// --------------------------------------------------------------------------
-	private final Map<LRTableKey, ALRAction> table = new HashMap<>();
+	private Map<LRTableKey, ALRAction> table = new HashMap<>();
+	private boolean frozen = false;
+	private ALRCompiledTable dense = null;
+	private ExpectedTerminals expected = null;
 
 	// --------------------------------------------------------------------------
 	// --- constructors ---------------------------------------------------------
@@ -43,10 +48,9 @@ public class LRActionTable {
 	 * @see #getWithNull(LRParserState, Terminal)
 	 */
 	public ALRAction get(LRParserState curState, Terminal curTerminal) {
-		LRTableKey key = new LRTableKey(curState, curTerminal);
-		ALRAction result = table.get(key);
+		ALRAction result = getWithNull(curState, curTerminal);
 		if (result == null) {
-			return new Error("No entry for " + key.getSymbol() + " in parsetable!");
+			return new Error("No entry for " + curTerminal + " in parsetable!");
 		} else {
 			return result;
 		}
@@ -60,6 +64,10 @@ public class LRActionTable {
 	 *         <code>null</code> is returned!
 	 */
 	public ALRAction getWithNull(LRParserState curState, Terminal curTerminal) {
+		if (dense != null) {
+			return dense.decode(dense.getAction(curState.getId(),
+					dense.getTerminalOrdinal(curTerminal)));
+		}
 		LRTableKey key = new LRTableKey(curState, curTerminal);
 		return table.get(key);
 	}
@@ -76,6 +84,7 @@ public class LRActionTable {
 	 */
 	public void set(ALRAction action, LRParserState curState,
 			Terminal curTerminal) throws DoubleEntryException {
+		checkNotFrozen();
 		LRTableKey key = new LRTableKey(curState, curTerminal);
 		if (table.containsKey(key)) {
 			ALRAction oldAction = table.get(key);
@@ -97,15 +106,21 @@ public class LRActionTable {
 	 */
 	public void setHard(ALRAction action, LRParserState curState,
 			Terminal curTerminal) {
+		checkNotFrozen();
 		LRTableKey key = new LRTableKey(curState, curTerminal);
 		table.put(key, action);
 	}
 	
 	/**
 	 * @param state
-	 * @return A list of all terminals which this table expects for the given state
+	 * @return A list of all terminals which this table expects for the given
+	 *         state. Once this table is compiled, this is the read-only list
+	 *         of {@link ExpectedTerminals#get(int)}.
 	 */
 	public List<Terminal> getPossibleTerminalsFor(LRParserState state) {
+		if (expected != null) {
+			return expected.get(state.getId());
+		}
 		List<Terminal> possibleTerminals = new LinkedList<>();
 		for (Entry<LRTableKey, ALRAction> entry : table.entrySet()) {
 			LRTableKey key = entry.getKey();
@@ -115,4 +130,48 @@ public class LRActionTable {
 		}
 		return possibleTerminals;
 	}
+
+	/**
+	 * Makes this table read-only: all further calls to
+	 * {@link #set(ALRAction, LRParserState, Terminal)} and
+	 * {@link #setHard(ALRAction, LRParserState, Terminal)} fail.
+	 */
+	public void freeze() {
+		frozen = true;
+	}
+
+	/**
+	 * @return Whether this table has been made read-only by {@link #freeze()}
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * Called by {@link LRParsingTable#freeze()}: From now on this table is
+	 * read-only and backed by the given {@link ALRCompiledTable}.
+	 *
+	 * @param dense
+	 * @param expected
+	 *            The expected terminals of the given table
+	 */
+	void compiled(ALRCompiledTable dense, ExpectedTerminals expected) {
+		this.dense = dense;
+		this.expected = expected;
+		this.frozen = true;
+		this.table = null;
+	}
+
+	/**
+	 * @return The entries of this (not yet compiled) table
+	 */
+	Map<LRTableKey, ALRAction> getEntries() {
+		return table;
+	}
+
+	private void checkNotFrozen() {
+		if (frozen) {
+			throw new IllegalStateException("This action table is frozen and must not be modified!");
+		}
+	}
 }
@@ -0,0 +1,232 @@
+package swp_compiler_ss13.fuc.parser.parser.tables;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * A compressed form of an {@link ALRCompiledTable} for grammars with many
+ * states, where most cells of the action and goto tables are empty:
+ * <ul>
+ * <li>Every state gets a <i>default reduction</i>, its most frequent
+ * {@link #REDUCE} action. These cells are not stored any more.</li>
+ * <li>The remaining cells of all rows are packed into one array (
+ * <i>row displacement</i>): Each row gets a base offset so that its cells fall
+ * into slots not used by any other row. A check array stores the row each slot
+ * belongs to.</li>
+ * <li>A bitset per state remembers which terminals have a non-empty action,
+ * so lookups of empty cells still return {@link #ERROR} (and not the default
+ * reduction) and the lookup results are exactly the same as with a
+ * {@link LRDenseTable}.</li>
+ * </ul>
+ * Lookups are slightly slower than with a {@link LRDenseTable} (see
+ * <code>TableCompressionBenchmark</code>).
+ *
+ * @author Gero
+ */
+public class LRCompressedTable extends ALRCompiledTable {
+	// --------------------------------------------------------------------------
+	// --- variables and constants ----------------------------------------------
+	// --------------------------------------------------------------------------
+	private static final int FREE = -1;
+
+	private final int wordsPerState;
+	private final long[] nonEmptyActions;
+	private final int[] defaultActions;
+
+	private final int[] actionBase;
+	private final int[] actionCheck;
+	private final int[] actionValues;
+
+	private final int[] gotoBase;
+	private final int[] gotoCheck;
+	private final int[] gotoValues;
+
+	// --------------------------------------------------------------------------
+	// --- constructors ---------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * Compresses the given table
+	 *
+	 * @see LRCompressedTable
+	 * @param table
+	 */
+	public LRCompressedTable(ALRCompiledTable table) {
+		super(table);
+		int statesCount = table.getStatesCount();
+		int terminalsCount = table.getTerminalsCount();
+		int nonTerminalsCount = table.getNonTerminalsCount();
+
+		// Non-empty cells and default reductions
+		this.wordsPerState = (terminalsCount + 63) >>> 6;
+		this.nonEmptyActions = new long[statesCount * wordsPerState];
+		this.defaultActions = new int[statesCount];
+		List<int[]> actionRows = new ArrayList<>(statesCount);
+		for (int state = 0; state < statesCount; state++) {
+			Map<Integer, Integer> reduceCounts = new HashMap<>();
+			for (int t = 0; t < terminalsCount; t++) {
+				int action = table.getAction(state, t);
+				if (action != ERROR) {
+					nonEmptyActions[state * wordsPerState + (t >>> 6)] |= 1L << t;
+				}
+				if (kindOf(action) == REDUCE) {
+					Integer count = reduceCounts.get(action);
+					reduceCounts.put(action, count == null ? 1 : count + 1);
+				}
+			}
+			int defaultAction = ERROR;
+			int defaultCount = 0;
+			for (Entry<Integer, Integer> entry : reduceCounts.entrySet()) {
+				if (entry.getValue() > defaultCount) {
+					defaultAction = entry.getKey();
+					defaultCount = entry.getValue();
+				}
+			}
+			defaultActions[state] = defaultAction;
+
+			int[] row = new int[terminalsCount];
+			for (int t = 0; t < terminalsCount; t++) {
+				int action = table.getAction(state, t);
+				row[t] = action == defaultAction ? ERROR : action;
+			}
+			actionRows.add(row);
+		}
+		Packing actionPacking = new Packing(actionRows, ERROR);
+		this.actionBase = actionPacking.base;
+		this.actionCheck = actionPacking.check;
+		this.actionValues = actionPacking.values;
+
+		// Gotos are sparse anyway, so they are just packed
+		List<int[]> gotoRows = new ArrayList<>(statesCount);
+		for (int state = 0; state < statesCount; state++) {
+			int[] row = new int[nonTerminalsCount];
+			for (int nt = 0; nt < nonTerminalsCount; nt++) {
+				row[nt] = table.getGoto(state, nt);
+			}
+			gotoRows.add(row);
+		}
+		Packing gotoPacking = new Packing(gotoRows, NO_STATE);
+		this.gotoBase = gotoPacking.base;
+		this.gotoCheck = gotoPacking.check;
+		this.gotoValues = gotoPacking.values;
+	}
+
+	// --------------------------------------------------------------------------
+	// --- methods --------------------------------------------------------------
+	// --------------------------------------------------------------------------
+	@Override
+	public int getAction(int state, int terminal) {
+		if (!isActionCell(state, terminal)
+				|| (nonEmptyActions[state * wordsPerState + (terminal >>> 6)] & (1L << terminal)) == 0) {
+			return ERROR;
+		}
+		int index = actionBase[state] + terminal;
+		return actionCheck[index] == state ? actionValues[index] : defaultActions[state];
+	}
+
+	@Override
+	public int getGoto(int state, int nonTerminal) {
+		if (!isGotoCell(state, nonTerminal)) {
+			return NO_STATE;
+		}
+		int index = gotoBase[state] + nonTerminal;
+		return gotoCheck[index] == state ? gotoValues[index] : NO_STATE;
+	}
+
+	@Override
+	public long getCellsSize() {
+		return 8L * nonEmptyActions.length
+				+ 4L * (defaultActions.length + actionBase.length + actionCheck.length
+						+ actionValues.length + gotoBase.length + gotoCheck.length + gotoValues.length);
+	}
+
+	/**
+	 * Packs rows into one array by first-fit row displacement. Rows with more
+	 * entries are placed first, as they are harder to fit.
+	 */
+	private static class Packing {
+		private final int[] base;
+		private final int[] check;
+		private final int[] values;
+
+		private Packing(final List<int[]> rows, int empty) {
+			int width = rows.isEmpty() ? 0 : rows.get(0).length;
+
+			// Columns of the non-empty cells per row
+			final int[][] columns = new int[rows.size()][];
+			List<Integer> order = new ArrayList<>(rows.size());
+			for (int r = 0; r < rows.size(); r++) {
+				int[] row = rows.get(r);
+				int count = 0;
+				for (int c = 0; c < width; c++) {
+					if (row[c] != empty) {
+						count++;
+					}
+				}
+				columns[r] = new int[count];
+				count = 0;
+				for (int c = 0; c < width; c++) {
+					if (row[c] != empty) {
+						columns[r][count++] = c;
+					}
+				}
+				order.add(r);
+			}
+			Collections.sort(order, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer r1, Integer r2) {
+					return columns[r2].length - columns[r1].length;
+				}
+			});
+
+			// First fit
+			base = new int[rows.size()];
+			int[] owner = new int[Math.max(width, 16)];
+			Arrays.fill(owner, FREE);
+			int maxBase = 0;
+			for (int r : order) {
+				int[] cols = columns[r];
+				if (cols.length == 0) {
+					continue;
+				}
+				int b = 0;
+				SEARCH: while (true) {
+					for (int c : cols) {
+						if (b + c < owner.length && owner[b + c] != FREE) {
+							b++;
+							continue SEARCH;
+						}
+					}
+					break;
+				}
+				if (b + width > owner.length) {
+					int oldLength = owner.length;
+					owner = Arrays.copyOf(owner, Math.max(b + width, oldLength * 2));
+					Arrays.fill(owner, oldLength, owner.length, FREE);
+				}
+				for (int c : cols) {
+					owner[b + c] = r;
+				}
+				base[r] = b;
+				maxBase = Math.max(maxBase, b);
+			}
+
+			// Every base + column has to be a valid index
+			int length = maxBase + width;
+			check = new int[length];
+			values = new int[length];
+			Arrays.fill(check, FREE);
+			for (int r = 0; r < rows.size(); r++) {
+				for (int c : columns[r]) {
+					check[base[r] + c] = r;
+					values[base[r] + c] = rows.get(r)[c];
+				}
+			}
+		}
+	}
+}
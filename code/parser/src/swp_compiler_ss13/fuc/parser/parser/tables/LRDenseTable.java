@@ -0,0 +1,90 @@
+package swp_compiler_ss13.fuc.parser.parser.tables;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import swp_compiler_ss13.fuc.parser.grammar.NonTerminal;
+import swp_compiler_ss13.fuc.parser.grammar.Terminal;
+import swp_compiler_ss13.fuc.parser.parser.states.LRParserState;
+import swp_compiler_ss13.fuc.parser.parser.tables.actions.ALRAction;
+
+/**
+ * The default form of an {@link ALRCompiledTable}: The action and goto tables
+ * are stored as one <code>int[]</code> row per state, so every lookup is a
+ * single array access.
+ *
+ * @author Gero
+ */
+public class LRDenseTable extends ALRCompiledTable {
+	// --------------------------------------------------------------------------
+	// --- variables and constants ----------------------------------------------
+	// --------------------------------------------------------------------------
+	private final int terminalsCount;
+	private final int nonTerminalsCount;
+
+	private final int[] actions;
+	private final int[] gotos;
+
+	// --------------------------------------------------------------------------
+	// --- constructors ---------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * Compiles the given action and goto entries
+	 *
+	 * @see LRDenseTable
+	 * @param startState
+	 * @param genStates
+	 *            All states of the table
+	 * @param actionEntries
+	 * @param gotoEntries
+	 */
+	LRDenseTable(LRParserState startState, Iterable<LRParserState> genStates,
+			Map<LRTableKey, ALRAction> actionEntries,
+			Map<LRTableKey, LRParserState> gotoEntries) {
+		super(startState, genStates, actionEntries, gotoEntries);
+		this.terminalsCount = getTerminalsCount();
+		this.nonTerminalsCount = getNonTerminalsCount();
+
+		// Action rows
+		this.actions = new int[getStatesCount() * terminalsCount];
+		for (Entry<LRTableKey, ALRAction> entry : actionEntries.entrySet()) {
+			int state = entry.getKey().getState().getId();
+			int terminal = getTerminalOrdinal((Terminal) entry.getKey().getSymbol());
+			actions[state * terminalsCount + terminal] = pack(entry.getValue());
+		}
+
+		// Goto rows
+		this.gotos = new int[getStatesCount() * nonTerminalsCount];
+		Arrays.fill(gotos, NO_STATE);
+		for (Entry<LRTableKey, LRParserState> entry : gotoEntries.entrySet()) {
+			int state = entry.getKey().getState().getId();
+			int nonTerminal = getNonTerminalOrdinal((NonTerminal) entry.getKey().getSymbol());
+			gotos[state * nonTerminalsCount + nonTerminal] = entry.getValue().getId();
+		}
+	}
+
+	// --------------------------------------------------------------------------
+	// --- methods --------------------------------------------------------------
+	// --------------------------------------------------------------------------
+	@Override
+	public int getAction(int state, int terminal) {
+		if (!isActionCell(state, terminal)) {
+			return ERROR;
+		}
+		return actions[state * terminalsCount + terminal];
+	}
+
+	@Override
+	public int getGoto(int state, int nonTerminal) {
+		if (!isGotoCell(state, nonTerminal)) {
+			return NO_STATE;
+		}
+		return gotos[state * nonTerminalsCount + nonTerminal];
+	}
+
+	@Override
+	public long getCellsSize() {
+		return 4L * (actions.length + gotos.length);
+	}
+}
@@ -9,13 +9,17 @@ import swp_compiler_ss13.fuc.parser.parser.states.LRParserState;
 
 /**
  * Stores the association [(current {@link LRParserState}, current
- * {@link NonTerminal}) -> next {@link LRParserState}]
+ * {@link NonTerminal}) -> next {@link LRParserState}]. Once the
+ * {@link LRParsingTable} it belongs to is frozen, this class is only a view on
+ * the rows of its {@link ALRCompiledTable}.
  */
 public class LRGotoTable {
 	// --------------------------------------------------------------------------
 	// --- variables and constants ----------------------------------------------
 	// --------------------------------------------------------------------------
-	private final Map<LRTableKey, LRParserState> table = new HashMap<>();
+	private Map<LRTableKey, LRParserState> table = new HashMap<>();
+	private boolean frozen = false;
+	private ALRCompiledTable dense = null;
 
 	// --------------------------------------------------------------------------
 	// --- constructors ---------------------------------------------------------
@@ -37,8 +41,7 @@ public class LRGotoTable {
 	 * {@link NonTerminal}
 	 */
 	public LRParserState get(LRParserState curState, NonTerminal curNonTerminal) {
-		LRParserState result = table.get(new LRTableKey(curState,
-				curNonTerminal));
+		LRParserState result = getWithNull(curState, curNonTerminal);
 		if (result == null) {
 			return new LRErrorState("An Error occurred: No transition from "
 					+ curState + " with NonTerminal " + curNonTerminal);
@@ -47,6 +50,22 @@ public class LRGotoTable {
 		}
 	}
 
+	/**
+	 * @param curState
+	 * @param curNonTerminal
+	 * @return The new {@link LRParserState} which is identified by the given
+	 *         {@link LRParserState} and {@link NonTerminal}. If there is no
+	 *         entry, <code>null</code> is returned!
+	 */
+	public LRParserState getWithNull(LRParserState curState, NonTerminal curNonTerminal) {
+		if (dense != null) {
+			int newState = dense.getGoto(curState.getId(),
+					dense.getNonTerminalOrdinal(curNonTerminal));
+			return newState == ALRCompiledTable.NO_STATE ? null : dense.getState(newState);
+		}
+		return table.get(new LRTableKey(curState, curNonTerminal));
+	}
+
 	/**
 	 * Sets the given new state for the combination of given (curState, curNonTerminal)
 	 * 
@@ -57,6 +76,9 @@ public class LRGotoTable {
 	 */
 	public void set(LRParserState newState, LRParserState curState,
 			NonTerminal curNonTerminal) throws DoubleEntryException {
+		if (frozen) {
+			throw new IllegalStateException("This goto table is frozen and must not be modified!");
+		}
 		LRTableKey key = new LRTableKey(curState, curNonTerminal);
 		if (table.containsKey(key)) {
 			LRParserState oldState = table.get(key);
@@ -66,4 +88,38 @@ public class LRGotoTable {
 		}
 		table.put(key, newState);
 	}
+
+	/**
+	 * Makes this table read-only: all further calls to
+	 * {@link #set(LRParserState, LRParserState, NonTerminal)} fail.
+	 */
+	public void freeze() {
+		frozen = true;
+	}
+
+	/**
+	 * @return Whether this table has been made read-only by {@link #freeze()}
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * Called by {@link LRParsingTable#freeze()}: From now on this table is
+	 * read-only and backed by the given {@link ALRCompiledTable}.
+	 *
+	 * @param dense
+	 */
+	void compiled(ALRCompiledTable dense) {
+		this.dense = dense;
+		this.frozen = true;
+		this.table = null;
+	}
+
+	/**
+	 * @return The entries of this (not yet compiled) table
+	 */
+	Map<LRTableKey, LRParserState> getEntries() {
+		return table;
+	}
 }
@@ -22,6 +22,9 @@ public class LRParsingTable {
 
 	private final LinkedHashMap<LRParserState, AState<?>> states;
 
+	private ALRCompiledTable compiledTable = null;
+	private ExpectedTerminals expectedTerminals = null;
+
 	// --------------------------------------------------------------------------
 	// --- constructors ---------------------------------------------------------
 	// --------------------------------------------------------------------------
@@ -37,6 +40,62 @@ public class LRParsingTable {
 		gotoTable = new LRGotoTable();
 	}
 
+	// --------------------------------------------------------------------------
+	// --- methods --------------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * Makes the action and the goto table read-only and compiles them into a
+	 * {@link LRDenseTable}, which backs them from now on. A frozen
+	 * {@link LRParsingTable} is not modified by parsing and thus may be shared
+	 * by several parsers and threads.
+	 */
+	public void freeze() {
+		if (compiledTable == null) {
+			setCompiledTable(compile());
+		}
+	}
+
+	/**
+	 * Freezes this table (see {@link #freeze()}) and replaces its
+	 * {@link LRDenseTable} by a {@link LRCompressedTable}, which needs less
+	 * memory but is slightly slower.
+	 */
+	public void compress() {
+		freeze();
+		if (!isCompressed()) {
+			setCompiledTable(new LRCompressedTable(compiledTable));
+		}
+	}
+
+	/**
+	 * @return Whether this table has been made read-only by {@link #freeze()}
+	 */
+	public boolean isFrozen() {
+		return compiledTable != null;
+	}
+
+	/**
+	 * @return Whether this table has been compressed by {@link #compress()}
+	 */
+	public boolean isCompressed() {
+		return compiledTable instanceof LRCompressedTable;
+	}
+
+	private void setCompiledTable(ALRCompiledTable compiledTable) {
+		this.compiledTable = compiledTable;
+		if (expectedTerminals == null) {
+			// Compression does not change the rows, so they stay valid
+			expectedTerminals = new ExpectedTerminals(compiledTable);
+		}
+		actionTable.compiled(compiledTable, expectedTerminals);
+		gotoTable.compiled(compiledTable);
+	}
+
+	private LRDenseTable compile() {
+		return new LRDenseTable(getStartState(), states.keySet(),
+				actionTable.getEntries(), gotoTable.getEntries());
+	}
+
 	// --------------------------------------------------------------------------
 	// --- getter/setter --------------------------------------------------------
 	// --------------------------------------------------------------------------
@@ -79,6 +138,26 @@ public class LRParsingTable {
 		return states.get(parserState);
 	}
 
+	/**
+	 * @return The compiled form of this table: a {@link LRCompressedTable} if
+	 *         it has been compressed, a {@link LRDenseTable} otherwise. If this
+	 *         table is not frozen yet, it is compiled on every call, so later
+	 *         modifications are not reflected by the result.
+	 */
+	public ALRCompiledTable getCompiledTable() {
+		return compiledTable != null ? compiledTable : compile();
+	}
+
+	/**
+	 * @return The terminals expected by each state of this table. They are
+	 *         computed once when the table is frozen; if it is not frozen
+	 *         yet, they are computed on every call.
+	 */
+	public ExpectedTerminals getExpectedTerminals() {
+		return expectedTerminals != null ? expectedTerminals
+				: new ExpectedTerminals(compile());
+	}
+
 	/**
 	 * @return The action part of this parsing table
 	 */
@@ -0,0 +1,374 @@
+package swp_compiler_ss13.fuc.parser.parser.tables;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import swp_compiler_ss13.common.lexer.TokenType;
+import swp_compiler_ss13.fuc.parser.generator.GeneratorException;
+import swp_compiler_ss13.fuc.parser.generator.LR1Generator;
+import swp_compiler_ss13.fuc.parser.generator.states.AState;
+import swp_compiler_ss13.fuc.parser.grammar.AGrammarSpec;
+import swp_compiler_ss13.fuc.parser.grammar.Grammar;
+import swp_compiler_ss13.fuc.parser.grammar.NonTerminal;
+import swp_compiler_ss13.fuc.parser.grammar.Production;
+import swp_compiler_ss13.fuc.parser.grammar.ProjectGrammar;
+import swp_compiler_ss13.fuc.parser.grammar.Symbol;
+import swp_compiler_ss13.fuc.parser.grammar.Terminal;
+import swp_compiler_ss13.fuc.parser.parser.states.LRParserState;
+import swp_compiler_ss13.fuc.parser.parser.tables.actions.ALRAction;
+import swp_compiler_ss13.fuc.parser.parser.tables.actions.Accept;
+import swp_compiler_ss13.fuc.parser.parser.tables.actions.Error;
+import swp_compiler_ss13.fuc.parser.parser.tables.actions.Reduce;
+import swp_compiler_ss13.fuc.parser.parser.tables.actions.Shift;
+
+/**
+ * Writes {@link LRParsingTable}s to a compact binary format and reads them
+ * back. This allows to generate the table of a grammar at build time and ship
+ * it as resource, so short-lived compiler runs do not have to pay for the
+ * LR(1) generation.<br/>
+ * Symbols and productions are stored as indices into the lists of the
+ * (extended) {@link Grammar}. To detect stale tables, every table carries a
+ * fingerprint of the grammar it was generated from; if it does not match the
+ * grammar given to {@link #read(Grammar, InputStream)}, <code>null</code> is
+ * returned and the caller has to generate the table itself.<br/>
+ * The tables read by this class do not contain the generator states, so
+ * {@link LRParsingTable#getGenState(LRParserState)} returns <code>null</code>
+ * for them.
+ *
+ * @author Gero
+ */
+public class LRParsingTableSerializer {
+	// --------------------------------------------------------------------------
+	// --- variables and constants
+	// ----------------------------------------------
+	// --------------------------------------------------------------------------
+	/** "LRTB" */
+	private static final int MAGIC = 0x4C525442;
+	private static final int VERSION = 1;
+
+	/** The file extension of precompiled table resources */
+	public static final String RESOURCE_EXTENSION = ".lrtable";
+
+	private static final byte SHIFT = 1;
+	private static final byte REDUCE = 2;
+	private static final byte ACCEPT = 3;
+	private static final byte ERROR = 4;
+
+	// --------------------------------------------------------------------------
+	// --- constructors
+	// ---------------------------------------------------------
+	// --------------------------------------------------------------------------
+	private LRParsingTableSerializer() {
+
+	}
+
+	// --------------------------------------------------------------------------
+	// --- methods
+	// --------------------------------------------------------------
+	// --------------------------------------------------------------------------
+	/**
+	 * Writes the given table to the given stream. The stream is not closed.
+	 *
+	 * @param table
+	 * @param grammar
+	 *            The grammar the table was generated from
+	 * @param out
+	 * @throws IOException
+	 */
+	public static void write(LRParsingTable table, Grammar grammar,
+			OutputStream out) throws IOException {
+		grammar = grammar.extendByAuxStartProduction();
+		List<Terminal> terminals = new ArrayList<>(grammar.getTerminals());
+		List<NonTerminal> nonTerminals = new ArrayList<>(grammar.getNonTerminals());
+		List<Production> productions = new ArrayList<>(grammar.getProductions());
+
+		DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+		data.writeInt(MAGIC);
+		data.writeInt(VERSION);
+		byte[] fingerprint = fingerprint(grammar);
+		data.writeInt(fingerprint.length);
+		data.write(fingerprint);
+
+		// States
+		int statesCount = table.getStatesCount();
+		data.writeInt(statesCount);
+		for (LRParserState state : table.getGenStates()) {
+			if (state.getId() < 0 || state.getId() >= statesCount) {
+				throw new IOException("Unable to write table with non-dense state id "
+						+ state.getId() + "!");
+			}
+		}
+
+		// Production metadata
+		data.writeInt(productions.size());
+		for (Production production : productions) {
+			data.writeInt(nonTerminals.indexOf(production.getLHS()));
+			data.writeInt(production.getRHSSize());
+		}
+
+		// Action table
+		LRActionTable actionTable = table.getActionTable();
+		List<Object[]> actions = new ArrayList<>();
+		for (LRParserState state : table.getGenStates()) {
+			for (Terminal terminal : terminals) {
+				ALRAction action = actionTable.getWithNull(state, terminal);
+				if (action != null) {
+					actions.add(new Object[] { state, terminal, action });
+				}
+			}
+		}
+		data.writeInt(actions.size());
+		for (Object[] entry : actions) {
+			ALRAction action = (ALRAction) entry[2];
+			data.writeInt(((LRParserState) entry[0]).getId());
+			data.writeInt(terminals.indexOf(entry[1]));
+			switch (action.getType()) {
+			case SHIFT:
+				data.writeByte(SHIFT);
+				data.writeInt(((Shift) action).getNewState().getId());
+				break;
+			case REDUCE:
+				Production production = ((Reduce) action).getProduction();
+				int index = productions.indexOf(production);
+				if (index < 0) {
+					throw new IOException("Unknown production " + production + "!");
+				}
+				data.writeByte(REDUCE);
+				data.writeInt(index);
+				break;
+			case ACCEPT:
+				data.writeByte(ACCEPT);
+				break;
+			case ERROR:
+				data.writeByte(ERROR);
+				data.writeUTF(((Error) action).getMsg());
+				break;
+			}
+		}
+
+		// Goto table
+		LRGotoTable gotoTable = table.getGotoTable();
+		List<int[]> gotos = new ArrayList<>();
+		for (LRParserState state : table.getGenStates()) {
+			for (int i = 0; i < nonTerminals.size(); i++) {
+				LRParserState newState = gotoTable.getWithNull(state, nonTerminals.get(i));
+				if (newState != null) {
+					gotos.add(new int[] { state.getId(), i, newState.getId() });
+				}
+			}
+		}
+		data.writeInt(gotos.size());
+		for (int[] entry : gotos) {
+			data.writeInt(entry[0]);
+			data.writeInt(entry[1]);
+			data.writeInt(entry[2]);
+		}
+		data.flush();
+	}
+
+	/**
+	 * Reads a table formerly written by
+	 * {@link #write(LRParsingTable, Grammar, OutputStream)}. The stream is not
+	 * closed.
+	 *
+	 * @param grammar
+	 *            The grammar the table is expected to be generated from
+	 * @param in
+	 * @return The frozen table, or <code>null</code> if it was generated from
+	 *         a different grammar
+	 * @throws IOException
+	 *             If the stream is not a valid table
+	 */
+	public static LRParsingTable read(Grammar grammar, InputStream in)
+			throws IOException {
+		grammar = grammar.extendByAuxStartProduction();
+		List<Terminal> terminals = new ArrayList<>(grammar.getTerminals());
+		List<NonTerminal> nonTerminals = new ArrayList<>(grammar.getNonTerminals());
+		List<Production> productions = new ArrayList<>(grammar.getProductions());
+
+		DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+		if (data.readInt() != MAGIC) {
+			throw new IOException("Not a parsing table!");
+		}
+		if (data.readInt() != VERSION) {
+			// Different format: treat like a different grammar
+			return null;
+		}
+		byte[] fingerprint = new byte[data.readInt()];
+		data.readFully(fingerprint);
+		if (!Arrays.equals(fingerprint, fingerprint(grammar))) {
+			return null;
+		}
+
+		// States
+		int statesCount = data.readInt();
+		LRParserState[] states = new LRParserState[statesCount];
+		LinkedHashMap<LRParserState, AState<?>> statesMap = new LinkedHashMap<>();
+		for (int i = 0; i < statesCount; i++) {
+			states[i] = new LRParserState(i);
+			statesMap.put(states[i], null);
+		}
+		LRParsingTable table = new LRParsingTable(statesMap);
+
+		// Production metadata
+		int productionsCount = data.readInt();
+		if (productionsCount != productions.size()) {
+			throw new IOException("Production count does not match!");
+		}
+		for (Production production : productions) {
+			int lhs = data.readInt();
+			int rhsSize = data.readInt();
+			if (lhs != nonTerminals.indexOf(production.getLHS())
+					|| rhsSize != production.getRHSSize()) {
+				throw new IOException("Production " + production + " does not match!");
+			}
+		}
+
+		// Action table
+		LRActionTable actionTable = table.getActionTable();
+		int actionsCount = data.readInt();
+		for (int i = 0; i < actionsCount; i++) {
+			LRParserState state = states[data.readInt()];
+			Terminal terminal = terminals.get(data.readInt());
+			byte type = data.readByte();
+			switch (type) {
+			case SHIFT:
+				actionTable.setHard(new Shift(states[data.readInt()]), state, terminal);
+				break;
+			case REDUCE:
+				actionTable.setHard(new Reduce(productions.get(data.readInt())), state, terminal);
+				break;
+			case ACCEPT:
+				actionTable.setHard(new Accept(), state, terminal);
+				break;
+			case ERROR:
+				actionTable.setHard(new Error(data.readUTF()), state, terminal);
+				break;
+			default:
+				throw new IOException("Unknown action type " + type + "!");
+			}
+		}
+
+		// Goto table
+		LRGotoTable gotoTable = table.getGotoTable();
+		int gotosCount = data.readInt();
+		for (int i = 0; i < gotosCount; i++) {
+			LRParserState state = states[data.readInt()];
+			NonTerminal nonTerminal = nonTerminals.get(data.readInt());
+			try {
+				gotoTable.set(states[data.readInt()], state, nonTerminal);
+			} catch (DoubleEntryException err) {
+				throw new IOException(err.getMessage());
+			}
+		}
+
+		table.freeze();
+		return table;
+	}
+
+	/**
+	 * @param grammar
+	 * @return A hash over all symbols, productions and associativities of the
+	 *         given grammar
+	 */
+	public static byte[] fingerprint(Grammar grammar) {
+		StringBuilder b = new StringBuilder();
+		for (Terminal terminal : grammar.getTerminals()) {
+			b.append("T ").append(terminal.getId());
+			for (TokenType tokenType : terminal.getTokenTypes()) {
+				b.append(' ').append(tokenType.name());
+			}
+			if (grammar.getAssociativities().isRightAssociative(terminal)) {
+				b.append(" RIGHT");
+			}
+			b.append('\n');
+		}
+		for (NonTerminal nonTerminal : grammar.getNonTerminals()) {
+			b.append("N ").append(nonTerminal.getId()).append('\n');
+		}
+		for (Production production : grammar.getProductions()) {
+			b.append("P ").append(production.getLHS().getId()).append(" ->");
+			for (Symbol symbol : production.getRHS()) {
+				b.append(' ').append(symbol.getId());
+			}
+			b.append('\n');
+		}
+
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			return digest.digest(b.toString().getBytes(Charset.forName("UTF-8")));
+		} catch (NoSuchAlgorithmException err) {
+			// Every JRE has to support SHA-1
+			throw new RuntimeException(err);
+		}
+	}
+
+	/**
+	 * @param specClass
+	 * @return The name of the resource (relative to the given class) the
+	 *         precompiled table of the given grammar spec is stored in
+	 */
+	public static String getResourceName(Class<? extends AGrammarSpec> specClass) {
+		String name = specClass.getName();
+		return name.substring(name.lastIndexOf('.') + 1) + RESOURCE_EXTENSION;
+	}
+
+	/**
+	 * Build step: Generates the parsing tables of the given grammar specs (or
+	 * {@link ProjectGrammar.Complete} if none is given) and stores them as
+	 * resources below the given output directory.<br/>
+	 * Usage: <code>LRParsingTableSerializer outputDir [specClass...]</code>
+	 *
+	 * @param args
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 1) {
+			System.err.println("Usage: LRParsingTableSerializer outputDir [specClass...]");
+			System.exit(1);
+		}
+
+		List<Class<? extends AGrammarSpec>> specClasses = new ArrayList<>();
+		if (args.length == 1) {
+			specClasses.add(ProjectGrammar.Complete.class);
+		}
+		for (int i = 1; i < args.length; i++) {
+			specClasses.add(Class.forName(args[i]).asSubclass(AGrammarSpec.class));
+		}
+
+		for (Class<? extends AGrammarSpec> specClass : specClasses) {
+			Grammar grammar = specClass.getDeclaredConstructor().newInstance().getGrammar();
+			LRParsingTable table;
+			try {
+				table = new LR1Generator(grammar).getParsingTable();
+			} catch (GeneratorException err) {
+				throw new RuntimeException("Unable to generate table for "
+						+ specClass.getName(), err);
+			}
+
+			String packagePath = specClass.getPackage().getName().replace('.', File.separatorChar);
+			File dir = new File(args[0], packagePath);
+			dir.mkdirs();
+			File file = new File(dir, getResourceName(specClass));
+			try (OutputStream out = new FileOutputStream(file)) {
+				write(table, grammar, out);
+			}
+			System.out.println("Wrote parsing table (" + table.getStatesCount()
+					+ " states) of " + specClass.getName() + " to " + file);
+		}
+	}
+}
@@ -36,12 +36,9 @@ public class LRTableKey {
       this.state = state;
       this.symbol = symbol;
       
-      // Precompute hash
-      final int prime = 31;
-      int result = 1;
-      result = prime * result + ((state == null) ? 0 : state.hashCode());
-      result = prime * result + ((symbol == null) ? 0 : symbol.hashCode());
-      this.hashCode = result;
+      // Precompute hash. State ids are dense, and so are the hashes of similar
+      // symbols ("op1", "op2", ...), so spread the state hash to avoid collisions
+      this.hashCode = state.hashCode() * 0x9E3779B9 + symbol.hashCode();
    }
    
    
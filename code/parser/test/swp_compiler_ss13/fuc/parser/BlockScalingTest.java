@@ -0,0 +1,46 @@
+package swp_compiler_ss13.fuc.parser;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import swp_compiler_ss13.common.ast.nodes.marynary.BlockNode;
+import swp_compiler_ss13.common.types.primitive.LongType;
+import swp_compiler_ss13.fuc.ast.BreakNodeImpl;
+import swp_compiler_ss13.fuc.ast.DeclarationNodeImpl;
+import swp_compiler_ss13.fuc.parser.grammar.ProjectGrammar;
+import swp_compiler_ss13.fuc.parser.parser.ProjectGrammarImpl;
+import swp_compiler_ss13.fuc.parser.parser.ReduceAction;
+
+/**
+ * Checks that the lists of statements and declarations of a block are built
+ * in linear time
+ */
+public class BlockScalingTest {
+	@Test
+	public void testReductionsAppendInPlace() {
+		ProjectGrammarImpl grammarImpl = new ProjectGrammarImpl();
+		ReduceAction stmts = grammarImpl.getReduceAction(ProjectGrammar.Complete.stmts1);
+		Object block = grammarImpl.getReduceAction(ProjectGrammar.Complete.stmts2).create();
+		block = stmts.create(block, new BreakNodeImpl());
+		for (int i = 0; i < 1000; i++) {
+			assertSame(block, stmts.create(block, new BreakNodeImpl()));
+		}
+		assertEquals(1001, ((BlockNode) block).getNumberOfStatements().intValue());
+
+		ReduceAction decls = grammarImpl.getReduceAction(ProjectGrammar.Complete.decls1);
+		block = grammarImpl.getReduceAction(ProjectGrammar.Complete.decls2).create();
+		for (int i = 0; i < 1000; i++) {
+			DeclarationNodeImpl decl = new DeclarationNodeImpl();
+			decl.setIdentifier("v" + i);
+			decl.setType(new LongType());
+			Object newBlock = decls.create(block, decl);
+			if (i > 0) {
+				assertSame(block, newBlock);
+			}
+			block = newBlock;
+		}
+		assertEquals(1000, ((BlockNode) block).getNumberOfDeclarations().intValue());
+		assertTrue(((BlockNode) block).getSymbolTable().isDeclared("v999"));
+	}
+}
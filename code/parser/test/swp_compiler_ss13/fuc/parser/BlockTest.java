@@ -114,4 +114,29 @@ public class BlockTest {
 		AST expected = factory.getAST();
 		ASTComparator.compareAST(expected, actual);
 	}
+	
+	@Test
+	public void testSiblingBlocks() {
+		String input = "long a;\n"
+				+ "{\n"
+				+ "a = 1;\n"
+				+ "}\n"
+				+ "{\n"
+				+ "a = 2;\n"
+				+ "}\n";
+		
+		AST actual = GrammarTestHelper.parseToAst(input);
+		
+		ASTFactory factory = new ASTFactory();
+		factory.addDeclaration("a", new LongType());
+		factory.addBlock();
+		factory.addAssignment(factory.newBasicIdentifier("a"), factory.newLiteral("1", new LongType()));
+		factory.goToParent();
+		factory.addBlock();
+		factory.addAssignment(factory.newBasicIdentifier("a"), factory.newLiteral("2", new LongType()));
+		factory.goToParent();
+		
+		AST expected = factory.getAST();
+		ASTComparator.compareAST(expected, actual);
+	}
 }
@@ -0,0 +1,227 @@
+package swp_compiler_ss13.fuc.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import swp_compiler_ss13.common.ast.AST;
+import swp_compiler_ss13.common.ast.ASTNode;
+import swp_compiler_ss13.common.ast.nodes.StatementNode;
+import swp_compiler_ss13.common.ast.nodes.marynary.BlockNode;
+import swp_compiler_ss13.common.ast.nodes.ternary.BranchNode;
+import swp_compiler_ss13.common.lexer.Lexer;
+import swp_compiler_ss13.common.lexer.Token;
+import swp_compiler_ss13.common.types.primitive.LongType;
+import swp_compiler_ss13.fuc.errorLog.ReportLogImpl;
+import swp_compiler_ss13.fuc.lexer.LexerImpl;
+import swp_compiler_ss13.fuc.parser.generator.ParsingTableCache;
+import swp_compiler_ss13.fuc.parser.grammar.ProjectGrammar;
+
+public class IncrementalParserTest {
+	private static final String PROGRAM = "# the original version\n"
+			+ "long a;\n"
+			+ "long b;\n"
+			+ "bool c;\n"
+			+ "a = 1;\n"
+			+ "b = 2;\n"
+			+ "c = a < b;\n"
+			+ "if (c) {\n"
+			+ "  long d;\n"
+			+ "  d = a + b;\n"
+			+ "  while (d < 10) {\n"
+			+ "    d = d + 1;\n"
+			+ "    print d;\n"
+			+ "  }\n"
+			+ "} else {\n"
+			+ "  a = 3;\n"
+			+ "}\n"
+			+ "return a;\n";
+
+	private IncrementalParser parser;
+
+	@Before
+	public void setUp() throws Exception {
+		parser = new IncrementalParser(ParsingTableCache.get(ProjectGrammar.Complete.class));
+	}
+
+	@Test
+	public void testEditInNestedBlock() {
+		AST ast = parse(PROGRAM);
+		assertEquals(tokenCount(PROGRAM), parser.getParsedTokensCount());
+		List<StatementNode> stmts = ast.getRootNode().getStatementList();
+
+		AST newAst = parse(PROGRAM.replace("d = d + 1;", "d = d * 2 + 1;"));
+		assertEquals(8, parser.getParsedTokensCount());
+		assertSame(ast.getRootNode(), newAst.getRootNode());
+		List<StatementNode> newStmts = newAst.getRootNode().getStatementList();
+		for (int i = 0; i < stmts.size(); i++) {
+			assertSame(stmts.get(i), newStmts.get(i));
+		}
+	}
+
+	@Test
+	public void testInsertAndRemoveStatements() {
+		String program = PROGRAM.replace("b = 2;\n", "b = 2;\nb = b + 40;\nprint b;\n");
+		parse(PROGRAM);
+		parse(program);
+		assertEquals(9, parser.getParsedTokensCount());
+		// The token diff cannot tell which "b =" has been removed
+		parse(program.replace("b = 2;\n", ""));
+		assertEquals(6, parser.getParsedTokensCount());
+		parse(PROGRAM.replace("b = 2;\n", ""));
+		assertEquals(0, parser.getParsedTokensCount());
+		// Two changes: Everything in between is parsed again
+		parse(PROGRAM.replace("return a;\n", ""));
+		assertEquals(tokenCount(PROGRAM) - 3 - 13, parser.getParsedTokensCount());
+		parse(PROGRAM);
+		assertEquals(3, parser.getParsedTokensCount());
+		parse(PROGRAM.replace("  a = 3;\n", "  a = 3;\n  if (c) a = 4; else { b = a; }\n"));
+		assertEquals(15, parser.getParsedTokensCount());
+	}
+
+	@Test
+	public void testWhitespaceAndComments() {
+		parse(PROGRAM);
+		AST ast = parse("\n\n# a comment\n" + PROGRAM.replace("a = 1;", "a   =\n1;"));
+		assertEquals(0, parser.getParsedTokensCount());
+
+		// The reused tokens have been moved
+		Token returnToken = ast.getRootNode().getStatementList().get(4).coverage().get(0);
+		assertEquals("return", returnToken.getValue());
+		assertEquals(22, returnToken.getLine().intValue());
+		assertEquals(1, returnToken.getColumn().intValue());
+	}
+
+	@Test
+	public void testFullParse() {
+		parse(PROGRAM);
+
+		// Declarations
+		parse(PROGRAM.replace("long b;", "long b;\nlong e;"));
+		assertEquals(tokenCount(PROGRAM) + 3, parser.getParsedTokensCount());
+		parse(PROGRAM.replace("  long d;", "  double d;"));
+		assertEquals(tokenCount(PROGRAM), parser.getParsedTokensCount());
+
+		// Braces: Only the statements around them are parsed again
+		parse(PROGRAM.replace("  }\n} else {", "  }\n}\nif (c) {"));
+		assertEquals(39 - 1 + 4, parser.getParsedTokensCount());
+		parse(PROGRAM.replace("if (c) {", "{\nif (c) {").replace("return a;", "}\nreturn a;"));
+		assertEquals(39 + 2, parser.getParsedTokensCount());
+	}
+
+	@Test
+	public void testErrors() {
+		parse(PROGRAM);
+
+		ReportLogImpl reportLog = new ReportLogImpl();
+		String invalid = PROGRAM.replace("d = a + b;", "d = a + * b;");
+		AST ast = parser.parse(lex(invalid), reportLog);
+		ReportLogImpl expectedLog = new ReportLogImpl();
+		ASTComparator.compareAST(createParser(invalid, expectedLog).getParsedAST(), ast);
+		assertTrue(reportLog.hasErrors());
+		GrammarTestHelper.compareReportLogEntries(expectedLog.getEntries(),
+				reportLog.getEntries());
+
+		// There is nothing to reuse after an error
+		parse(PROGRAM);
+		assertEquals(tokenCount(PROGRAM), parser.getParsedTokensCount());
+
+		parser.setMaxErrors(1);
+		assertNull(parser.parse(lex(invalid), new ReportLogImpl()));
+	}
+
+	@Test
+	public void testLaterPhasesReset() {
+		AST ast = parse(PROGRAM);
+		BlockNode block = (BlockNode) ((BranchNode) ast.getRootNode().getStatementList().get(3))
+				.getStatementNodeOnTrue();
+		block.setAttributeValue("type", "long");
+		block.getSymbolTable().putTemporary("tmp0", new LongType());
+
+		AST newAst = parse(PROGRAM.replace("b = 2;", "b = 3;"));
+		assertSame(block, ((BranchNode) newAst.getRootNode().getStatementList().get(3))
+				.getStatementNodeOnTrue());
+		assertTrue(block.getAttributeValues().isEmpty());
+		assertFalse(block.getSymbolTable().isDeclared("tmp0"));
+		assertTrue(block.getSymbolTable().isDeclaredInCurrentScope("d"));
+		assertSame(newAst.getRootNode().getSymbolTable(), block.getSymbolTable()
+				.getParentSymbolTable());
+	}
+
+	@Test
+	public void testParserImpl() {
+		ParserImpl parserImpl = new ParserImpl();
+		assertFalse(parserImpl.isIncremental());
+		parserImpl.setIncremental(true);
+		parserImpl.setReportLog(new ReportLogImpl());
+
+		parserImpl.setLexer(lex(PROGRAM));
+		AST ast = parserImpl.getParsedAST();
+		String program = PROGRAM.replace("print d;", "print d;\nprint a;");
+		parserImpl.setLexer(lex(program));
+		AST newAst = parserImpl.getParsedAST();
+		assertSame(ast.getRootNode(), newAst.getRootNode());
+		ASTComparator.compareAST(createParser(program, new ReportLogImpl()).getParsedAST(),
+				newAst);
+	}
+
+	/**
+	 * Parses the given program incrementally and checks that the result is
+	 * the same as the one of a full parse
+	 */
+	private AST parse(String program) {
+		ReportLogImpl reportLog = new ReportLogImpl();
+		AST ast = parser.parse(lex(program), reportLog);
+		assertFalse(reportLog.hasErrors());
+		AST expected = createParser(program, new ReportLogImpl()).getParsedAST();
+		ASTComparator.compareAST(expected, ast);
+
+		Iterator<ASTNode> expectedIt = expected.getDFSLTRIterator();
+		Iterator<ASTNode> actualIt = ast.getDFSLTRIterator();
+		while (expectedIt.hasNext() && actualIt.hasNext()) {
+			compareCoverage(expectedIt.next(), actualIt.next());
+		}
+		compareCoverage(expected.getRootNode(), ast.getRootNode());
+		return ast;
+	}
+
+	private static void compareCoverage(ASTNode expected, ASTNode actual) {
+		assertEquals(expected.coverage().size(), actual.coverage().size());
+		Iterator<Token> actualIt = actual.coverage().iterator();
+		for (Token expectedToken : expected.coverage()) {
+			Token actualToken = actualIt.next();
+			assertEquals(expectedToken.getValue(), actualToken.getValue());
+			assertEquals(expectedToken.getLine(), actualToken.getLine());
+			assertEquals(expectedToken.getColumn(), actualToken.getColumn());
+		}
+	}
+
+	private int tokenCount(String program) {
+		AST ast = createParser(program, new ReportLogImpl()).getParsedAST();
+		assertNotNull(ast);
+		return ast.getRootNode().coverage().size();
+	}
+
+	private static ParserImpl createParser(String program, ReportLogImpl reportLog) {
+		ParserImpl parser = new ParserImpl();
+		parser.setLexer(lex(program));
+		parser.setReportLog(reportLog);
+		return parser;
+	}
+
+	private static Lexer lex(String program) {
+		Lexer lexer = new LexerImpl();
+		lexer.setSourceStream(new ByteArrayInputStream(program.getBytes()));
+		return lexer;
+	}
+}
@@ -1,6 +1,6 @@
 package swp_compiler_ss13.fuc.parser;
 
-import static org.junit.Assert.fail;
+import static org.junit.Assert.assertNotNull;
 import static swp_compiler_ss13.fuc.parser.GrammarTestHelper.tokens;
 
 import java.util.LinkedList;
@@ -14,7 +14,6 @@ import swp_compiler_ss13.fuc.errorLog.LogEntry;
 import swp_compiler_ss13.fuc.errorLog.LogEntry.Type;
 import swp_compiler_ss13.fuc.errorLog.ReportLogImpl;
 import swp_compiler_ss13.fuc.lexer.token.TokenImpl;
-import swp_compiler_ss13.fuc.parser.parser.ParserException;
 
 public class M1ErrorInvalidIdsTest {
 //	@Test
@@ -54,24 +53,24 @@ public class M1ErrorInvalidIdsTest {
 				 + "long string;\n"
 				 + "long bool;\n"
 				 + "long fü_berlin;\n";
-		// TODO One test for each line!!!
 		
 		ReportLogImpl reportLog = new ReportLogImpl();
 		
-		// Check output
-		try {
-			GrammarTestHelper.parseToAst(input, reportLog);
-			fail("Expected not-a-token error!");
-		} catch (ParserException err) {
-			// Check for correct error
-			GrammarTestHelper.compareReportLogEntries(createExpectedEntries(), reportLog.getEntries());
-		}
+		// Check output: The parser recovers from each error, so there is one
+		// for each line
+		assertNotNull(GrammarTestHelper.parseToAst(input, reportLog));
+		GrammarTestHelper.compareReportLogEntries(createExpectedEntries(), reportLog.getEntries());
 	}
 	
 	private static List<LogEntry> createExpectedEntries() {
 		// Expected entries
 		List<LogEntry> expected = new LinkedList<>();
 		expected.add(new LogEntry(Type.ERROR, ReportType.UNRECOGNIZED_TOKEN, tokens(new TokenImpl("foo$bar", TokenType.NOT_A_TOKEN, 2, 6)), ""));
+		expected.add(new LogEntry(Type.ERROR, ReportType.UNRECOGNIZED_TOKEN, tokens(new TokenImpl("2fooly", TokenType.NOT_A_TOKEN, 4, 6)), ""));
+		expected.add(new LogEntry(Type.ERROR, ReportType.WORD_NOT_IN_GRAMMAR, tokens(new TokenImpl("return", TokenType.RETURN, 5, 6)), ""));
+		expected.add(new LogEntry(Type.ERROR, ReportType.WORD_NOT_IN_GRAMMAR, tokens(new TokenImpl("string", TokenType.STRING_SYMBOL, 6, 6)), ""));
+		expected.add(new LogEntry(Type.ERROR, ReportType.WORD_NOT_IN_GRAMMAR, tokens(new TokenImpl("bool", TokenType.BOOL_SYMBOL, 7, 6)), ""));
+		expected.add(new LogEntry(Type.ERROR, ReportType.UNRECOGNIZED_TOKEN, tokens(new TokenImpl("fü_berlin", TokenType.NOT_A_TOKEN, 8, 6)), ""));
 		return expected;
 	}
 }
\ No newline at end of file
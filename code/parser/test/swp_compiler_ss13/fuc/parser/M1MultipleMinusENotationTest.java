@@ -1,6 +1,6 @@
 package swp_compiler_ss13.fuc.parser;
 
-import static org.junit.Assert.fail;
+import static org.junit.Assert.assertNotNull;
 import static swp_compiler_ss13.fuc.parser.GrammarTestHelper.tokens;
 
 import java.util.LinkedList;
@@ -14,7 +14,6 @@ import swp_compiler_ss13.fuc.errorLog.LogEntry;
 import swp_compiler_ss13.fuc.errorLog.LogEntry.Type;
 import swp_compiler_ss13.fuc.errorLog.ReportLogImpl;
 import swp_compiler_ss13.fuc.lexer.token.TokenImpl;
-import swp_compiler_ss13.fuc.parser.parser.ParserException;
 
 public class M1MultipleMinusENotationTest {
 //	@Test
@@ -52,14 +51,10 @@ public class M1MultipleMinusENotationTest {
 		
 		ReportLogImpl reportLog = new ReportLogImpl();
 
-		// Check output
-		try {
-			GrammarTestHelper.parseToAst(input, reportLog);
-			fail("Expected not-a-token error!");
-		} catch (ParserException err) {
-			// Check for correct error
-			GrammarTestHelper.compareReportLogEntries(createExpectedEntries(), reportLog.getEntries());
-		}
+		// Check output: The parser skips the token and the rest of the
+		// statement, which it makes invalid
+		assertNotNull(GrammarTestHelper.parseToAst(input, reportLog));
+		GrammarTestHelper.compareReportLogEntries(createExpectedEntries(), reportLog.getEntries());
 	}
 	
 	private static List<LogEntry> createExpectedEntries() {
@@ -1,6 +1,6 @@
 package swp_compiler_ss13.fuc.parser;
 
-import static org.junit.Assert.fail;
+import static org.junit.Assert.assertNotNull;
 import static swp_compiler_ss13.fuc.parser.GrammarTestHelper.tokens;
 
 import java.util.LinkedList;
@@ -14,7 +14,6 @@ import swp_compiler_ss13.fuc.errorLog.LogEntry;
 import swp_compiler_ss13.fuc.errorLog.LogEntry.Type;
 import swp_compiler_ss13.fuc.errorLog.ReportLogImpl;
 import swp_compiler_ss13.fuc.lexer.token.TokenImpl;
-import swp_compiler_ss13.fuc.parser.parser.ParserException;
 
 public class M1MultiplePlusesInExpTest {
 //	@Test
@@ -66,14 +65,9 @@ public class M1MultiplePlusesInExpTest {
 		
 		ReportLogImpl reportLog = new ReportLogImpl();
 
-		// Check output
-		try {
-			GrammarTestHelper.parseToAst(input, reportLog);
-			fail("Expected invalid ids error!");
-		} catch (ParserException err) {
-			// Check for correct error
-			GrammarTestHelper.compareReportLogEntries(createExpectedEntries(), reportLog.getEntries());
-		}
+		// Check output: The parser skips the rest of the statement
+		assertNotNull(GrammarTestHelper.parseToAst(input, reportLog));
+		GrammarTestHelper.compareReportLogEntries(createExpectedEntries(), reportLog.getEntries());
 	}
 	
 	private static List<LogEntry> createExpectedEntries() {
@@ -0,0 +1,89 @@
+package swp_compiler_ss13.fuc.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+
+import org.junit.Test;
+
+import swp_compiler_ss13.common.ast.AST;
+import swp_compiler_ss13.common.lexer.Lexer;
+import swp_compiler_ss13.fuc.errorLog.ReportLogImpl;
+import swp_compiler_ss13.fuc.lexer.LexerImpl;
+
+public class RecognizerTest {
+	@Test
+	public void testValidProgram() {
+		String input = "long a;\n"
+				+ "bool b;\n"
+				+ "a = 3 * (4 + 5);\n"
+				+ "if (a > 10 && !b) { print a; } else { a = 0; }\n"
+				+ "while (a < 100) a = a * 2;\n"
+				+ "return a;\n";
+		ReportLogImpl reportLog = new ReportLogImpl();
+		assertTrue(createParser(input, reportLog).recognize());
+		assertFalse(reportLog.hasErrors());
+	}
+
+	@Test
+	public void testSyntaxError() {
+		// The recognizer recovers like the parser...
+		ReportLogImpl reportLog = new ReportLogImpl();
+		assertTrue(createParser("long a;\na = 3 + * 4;\n", reportLog).recognize());
+		assertTrue(reportLog.hasErrors());
+
+		// ... unless it has to give up
+		reportLog = new ReportLogImpl();
+		ParserImpl parser = createParser("long a;\na = 3 + * 4;\n", reportLog);
+		parser.setMaxErrors(1);
+		assertFalse(parser.recognize());
+		assertTrue(reportLog.hasErrors());
+	}
+
+	@Test
+	public void testSameErrorsAsParser() {
+		// Missing semicolon: the parser recovers and reports it
+		String input = "long a;\na = 3\nreturn a;\n";
+		ReportLogImpl parseLog = new ReportLogImpl();
+		assertNotNull(createParser(input, parseLog).getParsedAST());
+		ReportLogImpl recognizeLog = new ReportLogImpl();
+		assertTrue(createParser(input, recognizeLog).recognize());
+
+		assertTrue(parseLog.hasErrors());
+		assertEquals(parseLog.getEntries().size(), recognizeLog.getEntries().size());
+		for (int i = 0; i < parseLog.getEntries().size(); i++) {
+			assertEquals(parseLog.getEntries().get(i).getMessage(),
+					recognizeLog.getEntries().get(i).getMessage());
+		}
+	}
+
+	@Test
+	public void testRecognizeOnlyMode() {
+		ReportLogImpl reportLog = new ReportLogImpl();
+		ParserImpl parser = createParser("long a;\nreturn a;\n", reportLog);
+		assertFalse(parser.isRecognizeOnly());
+		parser.setRecognizeOnly(true);
+		AST ast = parser.getParsedAST();
+		assertNotNull(ast);
+		assertEquals(0, ast.getRootNode().getNumberOfStatements().intValue());
+		assertEquals(0, ast.getRootNode().getNumberOfDeclarations().intValue());
+
+		parser = createParser("long a;\na = 3 + * 4;\n", new ReportLogImpl());
+		parser.setRecognizeOnly(true);
+		parser.setMaxErrors(1);
+		assertNull(parser.getParsedAST());
+	}
+
+	private static ParserImpl createParser(String input, ReportLogImpl reportLog) {
+		Lexer lexer = new LexerImpl();
+		lexer.setSourceStream(new ByteArrayInputStream(input.getBytes()));
+		ParserImpl parser = new ParserImpl();
+		parser.setLexer(lexer);
+		parser.setReportLog(reportLog);
+		return parser;
+	}
+}
@@ -0,0 +1,60 @@
+package swp_compiler_ss13.fuc.parser;
+
+import java.io.ByteArrayInputStream;
+
+import org.junit.Test;
+
+import swp_compiler_ss13.common.ast.AST;
+import swp_compiler_ss13.common.lexer.Lexer;
+import swp_compiler_ss13.fuc.lexer.TableDrivenLexerImpl;
+import swp_compiler_ss13.fuc.lexer.TokenBuffer;
+
+/**
+ * Checks that the parser builds the same {@link AST} from the tokens of a
+ * {@link TokenBuffer} as from the lexer itself
+ *
+ * @author Gero
+ */
+public class TokenBufferParseTest {
+	@Test
+	public void testFib() {
+		assertSameAst("long[21] numbers;\n"
+				+ "long i;\n"
+				+ "i = 0;\n"
+				+ "{\n"
+				+ "long i;\n"
+				+ "i = 2;\n"
+				+ "numbers[0] = 0;\n"
+				+ "numbers[1] = 1;\n"
+				+ "while ( i < 21 ) {\n"
+				+ "numbers[i] = numbers[i - 1] + numbers[i - 2];\n"
+				+ "i = i + 1;\n"
+				+ "}\n"
+				+ "print numbers[20];\n"
+				+ "return numbers[15];\n"
+				+ "}\n");
+	}
+
+	@Test
+	public void testLiterals() {
+		assertSameAst("# literals of all types\n"
+				+ "long l;\ndouble d;\nbool b;\nstring s;\n"
+				+ "l = 9223372036854775807;\n"
+				+ "d = -1.5e-3;\n"
+				+ "b = true && !false;\n"
+				+ "s = \"a \\\"b\\\"\\n\";\n"
+				+ "if (b) print s; else print d;\n"
+				+ "return l;\n");
+	}
+
+	private static void assertSameAst(String input) {
+		AST expected = GrammarTestHelper.parseToAst(input);
+
+		Lexer lexer = new TableDrivenLexerImpl();
+		lexer.setSourceStream(new ByteArrayInputStream(input.getBytes()));
+		TokenBuffer tokens = new TokenBuffer();
+		tokens.readAll(lexer);
+
+		ASTComparator.compareAST(expected, GrammarTestHelper.parseToAst(tokens.getLexer()));
+	}
+}
@@ -0,0 +1,94 @@
+package swp_compiler_ss13.fuc.parser.generator;
+
+import static org.junit.Assert.*;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.junit.Test;
+
+import swp_compiler_ss13.fuc.parser.generator.ClosureTemplates.Template;
+import swp_compiler_ss13.fuc.parser.generator.items.LR0Item;
+import swp_compiler_ss13.fuc.parser.generator.items.LR1Item;
+import swp_compiler_ss13.fuc.parser.generator.states.AState;
+import swp_compiler_ss13.fuc.parser.generator.states.LR1State;
+import swp_compiler_ss13.fuc.parser.generator.terminals.ITerminalSet;
+import swp_compiler_ss13.fuc.parser.grammar.Grammar;
+import swp_compiler_ss13.fuc.parser.grammar.NonTerminal;
+import swp_compiler_ss13.fuc.parser.grammar.ProjectGrammar;
+import swp_compiler_ss13.fuc.parser.grammar.Symbol;
+import swp_compiler_ss13.fuc.parser.parser.states.LRParserState;
+
+public class ClosureTemplatesTest {
+	@Test
+	public void testTemplateItems() {
+		Grammar grammar = new ProjectGrammar.Complete().getGrammar()
+				.extendByAuxStartProduction();
+		GrammarInfo grammarInfo = new GrammarInfo(grammar);
+		for (NonTerminal nonTerminal : grammar.getNonTerminals()) {
+			Template template = grammarInfo.getClosureTemplates().get(nonTerminal);
+			assertSame(template, grammarInfo.getClosureTemplates().get(nonTerminal));
+
+			// All "X → .γ" come first and propagate
+			int i = 0;
+			for (LR0Item item : grammarInfo.getStartItemsFrom(nonTerminal)) {
+				assertSame(item, template.getItem(i));
+				assertTrue(template.propagates(i));
+				i++;
+			}
+		}
+	}
+
+	/**
+	 * Compares the closure of all states of the LR(1) automaton for the
+	 * project grammar with the one computed by the plain worklist algorithm
+	 */
+	@Test
+	public void testClosureEqualsWorklistClosure() throws Exception {
+		LR1Generator generator = new LR1Generator(new ProjectGrammar.Complete().getGrammar());
+		GrammarInfo grammarInfo = generator.getGrammarInfo();
+		int count = 0;
+		for (Entry<LRParserState, AState<?>> entry : generator.getParsingTable()
+				.getGenStateEnries()) {
+			LR1State kernel = (LR1State) entry.getValue();
+			LR1State closure = kernel.closure(grammarInfo);
+			Map<LR0Item, ITerminalSet> expected = worklistClosure(kernel, grammarInfo);
+
+			assertEquals(expected.size(), closure.getItemsCount());
+			for (LR1Item item : closure.getItems()) {
+				assertEquals(expected.get(item.getLR0Kernel()), item.getLookaheads());
+			}
+			count++;
+		}
+		assertEquals(generator.getParsingTable().getStatesCount(), count);
+	}
+
+	private static Map<LR0Item, ITerminalSet> worklistClosure(LR1State state,
+			GrammarInfo grammarInfo) {
+		Map<LR0Item, ITerminalSet> items = new LinkedHashMap<>();
+		LinkedList<LR1Item> queue = new LinkedList<>();
+		for (LR1Item item : state.getItems()) {
+			items.put(item.getLR0Kernel(), item.getLookaheads());
+			queue.add(item);
+		}
+		while (!queue.isEmpty()) {
+			LR1Item item = queue.removeFirst();
+			Symbol nextSymbol = item.getNextSymbol();
+			if (nextSymbol != null && nextSymbol.isNonTerminal()) {
+				ITerminalSet firstSet = item.getNextLookaheads(grammarInfo.getFirstSets(),
+						grammarInfo.getNullableSet());
+				for (LR0Item newItem : grammarInfo.getStartItemsFrom((NonTerminal) nextSymbol)) {
+					ITerminalSet old = items.get(newItem);
+					ITerminalSet lookaheads = old == null ? firstSet : old.plusAll(firstSet);
+					if (old == null || !lookaheads.equals(old)) {
+						items.put(newItem, lookaheads);
+						queue.add(new LR1Item(newItem, lookaheads));
+					}
+				}
+			}
+		}
+		return items;
+	}
+}
@@ -0,0 +1,117 @@
+package swp_compiler_ss13.fuc.parser.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+
+import org.junit.Test;
+
+import swp_compiler_ss13.common.ast.AST;
+import swp_compiler_ss13.common.lexer.Lexer;
+import swp_compiler_ss13.common.lexer.TokenType;
+import swp_compiler_ss13.fuc.errorLog.ReportLogImpl;
+import swp_compiler_ss13.fuc.lexer.LexerImpl;
+import swp_compiler_ss13.fuc.parser.ASTComparator;
+import swp_compiler_ss13.fuc.parser.ParserImpl;
+import swp_compiler_ss13.fuc.parser.grammar.AGrammarSpec;
+import swp_compiler_ss13.fuc.parser.grammar.Grammar;
+import swp_compiler_ss13.fuc.parser.grammar.NonTerminal;
+import swp_compiler_ss13.fuc.parser.grammar.Production;
+import swp_compiler_ss13.fuc.parser.grammar.ProjectGrammar;
+import swp_compiler_ss13.fuc.parser.grammar.Terminal;
+import swp_compiler_ss13.fuc.parser.parser.IGrammarImpl;
+
+public class LALR1GeneratorTest {
+	private static final String PROGRAM = "record {\n"
+			+ "long i;\n"
+			+ "long j;\n"
+			+ "} x;\n"
+			+ "long[21] numbers;\n"
+			+ "bool b;\n"
+			+ "string s;\n"
+			+ "x.i = 3;\n"
+			+ "x.j = -5 * (x.i + 2);\n"
+			+ "b = !(x.i < x.j) && true || x.i == 2;\n"
+			+ "s = \"bla\";\n"
+			+ "if (b) {\n"
+			+ "print s;\n"
+			+ "} else {\n"
+			+ "x.j = x.i / 2;\n"
+			+ "}\n"
+			+ "while (x.i < 21) {\n"
+			+ "numbers[x.i] = x.i;\n"
+			+ "x.i = x.i + 1;\n"
+			+ "if (x.i == 10) break;\n"
+			+ "}\n"
+			+ "return numbers[20];\n";
+
+	@Test
+	public void testLessStatesThanLR1() throws Exception {
+		Grammar grammar = new ProjectGrammar.Complete().getGrammar();
+		int lr1States = new LR1Generator(grammar).getParsingTable().getStatesCount();
+		int lalr1States = new LALR1Generator(grammar).getParsingTable().getStatesCount();
+		assertTrue("LALR(1) should need less states than LR(1), but has " + lalr1States
+				+ " vs. " + lr1States, lalr1States < lr1States);
+	}
+
+	@Test
+	public void testSameASTAsLR1() {
+		AST expected = parse(new ParserImpl());
+		assertNotNull(expected);
+
+		ParserImpl parser = new ParserImpl(ELRGeneratorType.LALR1);
+		assertEquals(ELRGeneratorType.LALR1, parser.getGeneratorType());
+		ASTComparator.compareAST(expected, parse(parser));
+	}
+
+	@Test
+	public void testReduceReduceConflict() throws Exception {
+		// The grammar is LR(1), but not LALR(1)
+		Grammar grammar = new NotLALR1().getGrammar();
+		new LR1Generator(grammar);
+		try {
+			new LALR1Generator(grammar);
+			fail("Expected a ReduceReduceConflict!");
+		} catch (ReduceReduceConflict err) {
+			assertTrue(err.getTerminal() == NotLALR1.d || err.getTerminal() == NotLALR1.e);
+		}
+	}
+
+	private static AST parse(ParserImpl parser) {
+		Lexer lexer = new LexerImpl();
+		lexer.setSourceStream(new ByteArrayInputStream(PROGRAM.getBytes()));
+		parser.setLexer(lexer);
+		parser.setReportLog(new ReportLogImpl());
+		return parser.getParsedAST();
+	}
+
+	/**
+	 * S → a A d | b B d | a B e | b A e, A → c, B → c
+	 */
+	private static class NotLALR1 extends AGrammarSpec {
+		public static final Terminal a = new Terminal("a", TokenType.ID);
+		public static final Terminal b = new Terminal("b", TokenType.NUM);
+		public static final Terminal c = new Terminal("c", TokenType.REAL);
+		public static final Terminal d = new Terminal("d", TokenType.PLUS);
+		public static final Terminal e = new Terminal("e", TokenType.MINUS);
+
+		public static final NonTerminal S = new NonTerminal("S");
+		public static final NonTerminal A = new NonTerminal("A");
+		public static final NonTerminal B = new NonTerminal("B");
+
+		public static final Production s1 = new Production(1, S, a, A, d);
+		public static final Production s2 = new Production(2, S, b, B, d);
+		public static final Production s3 = new Production(3, S, a, B, e);
+		public static final Production s4 = new Production(4, S, b, A, e);
+		public static final Production a1 = new Production(5, A, c);
+		public static final Production b1 = new Production(6, B, c);
+
+		@Override
+		public IGrammarImpl getGrammarImpl() {
+			return null; // Not needed here
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package swp_compiler_ss13.fuc.parser.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import swp_compiler_ss13.fuc.parser.grammar.AGrammarSpec;
+import swp_compiler_ss13.fuc.parser.grammar.ProjectGrammar;
+import swp_compiler_ss13.fuc.parser.grammar.Terminal;
+import swp_compiler_ss13.fuc.parser.parser.IGrammarImpl;
+import swp_compiler_ss13.fuc.parser.parser.states.LRParserState;
+import swp_compiler_ss13.fuc.parser.parser.tables.actions.Accept;
+
+public class ParsingTableCacheTest {
+	@Before
+	public void setUp() {
+		ParsingTableCache.clear();
+	}
+
+	@Test
+	public void testSameEntryForSameSpec() throws Exception {
+		assertFalse(ParsingTableCache.contains(ProjectGrammar.Complete.class));
+		ParsingTableCache.Entry first = ParsingTableCache.get(new ProjectGrammar.Complete());
+		assertTrue(ParsingTableCache.contains(ProjectGrammar.Complete.class));
+
+		ParsingTableCache.Entry second = ParsingTableCache.get(new ProjectGrammar.Complete());
+		assertSame(first, second);
+		assertSame(first.getTable(), second.getTable());
+		assertSame(first.getGrammarInfo(), second.getGrammarInfo());
+		assertSame(first, ParsingTableCache.get(ProjectGrammar.Complete.class));
+	}
+
+	@Test
+	public void testTableIsFrozen() throws Exception {
+		ParsingTableCache.Entry entry = ParsingTableCache.get(new ProjectGrammar.Complete());
+		assertTrue(entry.getTable().isFrozen());
+
+		try {
+			entry.getTable().getActionTable().setHard(new Accept(),
+					new LRParserState(0), Terminal.EOF);
+			fail("Expected frozen table to reject modification!");
+		} catch (IllegalStateException err) {
+			// Success
+		}
+	}
+
+	@Test
+	public void testConcurrentGet() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<ParsingTableCache.Entry>> results = new LinkedList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(executor.submit(new Callable<ParsingTableCache.Entry>() {
+					@Override
+					public ParsingTableCache.Entry call() throws Exception {
+						return ParsingTableCache.get(new ProjectGrammar.Complete());
+					}
+				}));
+			}
+
+			ParsingTableCache.Entry expected = results.get(0).get();
+			for (Future<ParsingTableCache.Entry> result : results) {
+				assertSame(expected, result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testClear() throws Exception {
+		ParsingTableCache.Entry first = ParsingTableCache.get(new ProjectGrammar.Complete());
+		ParsingTableCache.clear();
+		assertFalse(ParsingTableCache.contains(ProjectGrammar.Complete.class));
+
+		ParsingTableCache.Entry second = ParsingTableCache.get(new ProjectGrammar.Complete());
+		assertFalse(first == second);
+	}
+
+	@Test
+	public void testSpecConstructorFails() throws Exception {
+		try {
+			ParsingTableCache.get(FailingSpec.class);
+			fail("Expected the failing constructor to be reported!");
+		} catch (GeneratorException err) {
+			assertEquals("broken", err.getCause().getCause().getMessage());
+		}
+		assertFalse(ParsingTableCache.contains(FailingSpec.class));
+	}
+
+	public static class FailingSpec extends AGrammarSpec {
+		public FailingSpec() throws Exception {
+			throw new Exception("broken");
+		}
+
+		@Override
+		public IGrammarImpl getGrammarImpl() {
+			return null;
+		}
+	}
+}
@@ -38,6 +38,32 @@ public class DfaTest {
 		assertFalse(new DfaEdge<>(null, t, dfa.getStartState(), srcItem).equals(new DfaEdge<>(dfa.getStartState(), t, dfa.getStartState(), srcItem)));
 	}
 	
+	@Test
+	public void testIndexes() {
+		Dfa<LR1Item, LR1State> dfa = new Dfa<>(LR1StateTest.state);
+		LR1State other = new LR1State(LR1StateTest.lr1Item.shift());
+		assertNull(dfa.getState(other));
+		assertTrue(dfa.getStates().add(other));
+		assertFalse(dfa.getStates().add(new LR1State(LR1StateTest.lr1Item.shift())));
+		assertSame(other, dfa.getState(new LR1State(LR1StateTest.lr1Item.shift())));
+		assertSame(dfa.getStartState(), dfa.getState(LR1StateTest.state));
+		
+		LR0Item srcItem = LR1StateTest.lr1Item.getLR0Kernel();
+		DfaEdge<LR1State> edge = new DfaEdge<>(dfa.getStartState(), t, other, srcItem);
+		assertTrue(dfa.getEdges().add(edge));
+		assertFalse(dfa.getEdges().add(edge));
+		dfa.getEdges().add(DfaEdge.createAcceptEdge(other, Terminal.EOF));
+		assertEquals(1, dfa.getEdgesFrom(dfa.getStartState()).size());
+		assertEquals(1, dfa.getEdgesTo(other).size());
+		assertEquals(1, dfa.getEdgesFrom(other).size());
+		assertEquals(0, dfa.getEdgesTo(dfa.getStartState()).size());
+		
+		dfa.getEdges().remove(edge);
+		assertEquals(1, dfa.getEdges().size());
+		assertEquals(0, dfa.getEdgesFrom(dfa.getStartState()).size());
+		assertEquals(0, dfa.getEdgesTo(other).size());
+	}
+	
 	private static void assertEdge(DfaEdge<LR1State> expected, DfaEdge<LR1State> actual) {
 		assertEquals(expected.getDst(), actual.getDst());
 		assertEquals(expected.getSrc(), actual.getSrc());
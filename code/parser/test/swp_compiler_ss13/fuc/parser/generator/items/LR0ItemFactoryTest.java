@@ -0,0 +1,80 @@
+package swp_compiler_ss13.fuc.parser.generator.items;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import swp_compiler_ss13.fuc.parser.generator.states.LR0State;
+import swp_compiler_ss13.fuc.parser.grammar.Grammar;
+import swp_compiler_ss13.fuc.parser.grammar.Production;
+import swp_compiler_ss13.fuc.parser.grammar.ProjectGrammar;
+import swp_compiler_ss13.fuc.parser.grammar.Terminal;
+
+public class LR0ItemFactoryTest {
+	private static final Grammar grammar = new ProjectGrammar.Complete()
+			.getGrammar().extendByAuxStartProduction();
+
+	@Test
+	public void testInterning() {
+		LR0ItemFactory factory = new LR0ItemFactory(grammar);
+		Set<Integer> ids = new HashSet<>();
+		for (Production production : grammar.getProductions()) {
+			LR0Item item = factory.getItem(production, 0);
+			assertSame(item, factory.getItem(production, 0));
+			assertEquals(new LR0Item(production, 0), item);
+			assertEquals(new LR0Item(production, 0).hashCode(), item.hashCode());
+
+			// Shifting stays within the interned items
+			while (item.isShiftable()) {
+				assertTrue(item.getId() >= 0 && item.getId() < factory.getIdsCount());
+				assertTrue(ids.add(item.getId()));
+				LR0Item shifted = item.shift();
+				assertSame(factory.getItem(production, item.getPosition() + 1), shifted);
+				item = shifted;
+			}
+			assertSame(item, factory.getItem(production, 0).complete());
+		}
+	}
+
+	@Test
+	public void testEpsilon() {
+		LR0ItemFactory factory = new LR0ItemFactory(grammar);
+		for (Production production : grammar.getProductions()) {
+			if (production.getRHS().get(0) == Terminal.Epsilon) {
+				LR0Item item = factory.getItem(production, 0);
+				assertSame(factory.getItem(production, 1), item);
+				assertTrue(item.isComplete());
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownProduction() {
+		Production production = grammar.getProductions().get(0);
+		new LR0ItemFactory(grammar).getItem(new Production(-1,
+				production.getLHS(), Terminal.EOF, Terminal.EOF), 0);
+	}
+
+	@Test
+	public void testStateIds() {
+		LR0ItemFactory factory = new LR0ItemFactory(grammar);
+		Production p1 = grammar.getProductions().get(1);
+		Production p2 = grammar.getProductions().get(2);
+		LR0State state1 = new LR0State(factory.getItem(p1, 0), factory.getItem(p2, 0));
+		LR0State state2 = new LR0State(factory.getItem(p2, 0), factory.getItem(p1, 0));
+		assertNotNull(state1.getIds());
+		assertArrayEquals(state1.getIds(), state2.getIds());
+		assertEquals(state1, state2);
+		assertEquals(state1.hashCode(), state2.hashCode());
+
+		// Not interned items are still comparable
+		LR0State state3 = new LR0State(new LR0Item(p1, 0), new LR0Item(p2, 0));
+		assertNull(state3.getIds());
+		assertEquals(state1, state3);
+		assertEquals(state3, state1);
+		assertFalse(state1.equals(new LR0State(factory.getItem(p1, 0))));
+	}
+}
@@ -0,0 +1,85 @@
+package swp_compiler_ss13.fuc.parser.generator.terminals;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import swp_compiler_ss13.fuc.parser.grammar.Grammar;
+import swp_compiler_ss13.fuc.parser.grammar.ProjectGrammar;
+import swp_compiler_ss13.fuc.parser.grammar.Terminal;
+
+public class MutableTerminalSetTest {
+	private static final Grammar grammar = new ProjectGrammar.Complete().getGrammar();
+	private static final EfficientTerminalSet empty = new EfficientTerminalSet(
+			grammar.getTerminals());
+
+	@Test
+	public void testAddReportsChanges() {
+		List<Terminal> terminals = grammar.getTerminals();
+		MutableTerminalSet set = empty.toMutable();
+		assertTrue(set.isEmpty());
+
+		assertTrue(set.add(terminals.get(0)));
+		assertFalse(set.add(terminals.get(0)));
+		assertTrue(set.contains(terminals.get(0)));
+		assertFalse(set.contains(terminals.get(1)));
+
+		EfficientTerminalSet other = empty.plus(terminals.get(0)).plus(
+				terminals.get(terminals.size() - 1));
+		assertTrue(set.addAll(other));
+		assertFalse(set.addAll(other));
+		assertFalse(set.addAll(set.copy()));
+		assertEquals(other.getTerminals(), set.getTerminals());
+
+		set.clear();
+		assertTrue(set.isEmpty());
+	}
+
+	@Test
+	public void testAddAllExceptEpsilon() {
+		Terminal terminal = grammar.getTerminals().get(0);
+		EfficientTerminalSet other = empty.plus(Terminal.Epsilon).plus(terminal);
+
+		MutableTerminalSet set = empty.toMutable();
+		assertTrue(set.addAllExceptEpsilon(other));
+		assertFalse(set.contains(Terminal.Epsilon));
+		assertTrue(set.contains(terminal));
+		assertFalse(set.addAllExceptEpsilon(other));
+
+		// An epsilon already contained is kept
+		set.add(Terminal.Epsilon);
+		assertFalse(set.addAllExceptEpsilon(empty));
+		assertTrue(set.contains(Terminal.Epsilon));
+	}
+
+	@Test
+	public void testFreeze() {
+		List<Terminal> terminals = grammar.getTerminals();
+		MutableTerminalSet set = empty.toMutable();
+		set.add(terminals.get(1));
+
+		EfficientTerminalSet frozen = set.freeze();
+		assertSame(frozen, set.freeze());
+		assertEquals(empty.plus(terminals.get(1)), frozen);
+		assertEquals(empty.plus(terminals.get(1)).hashCode(), frozen.hashCode());
+
+		// Changes must not affect the snapshot
+		set.add(terminals.get(2));
+		assertNotSame(frozen, set.freeze());
+		assertFalse(frozen.contains(terminals.get(2)));
+		assertTrue(set.freeze().contains(terminals.get(2)));
+
+		// ... nor the other way round
+		MutableTerminalSet copy = frozen.toMutable();
+		copy.add(terminals.get(3));
+		assertFalse(frozen.contains(terminals.get(3)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDifferentTerminals() {
+		Grammar otherGrammar = new ProjectGrammar.Complete().getGrammar();
+		empty.toMutable().addAll(new EfficientTerminalSet(otherGrammar.getTerminals()));
+	}
+}
@@ -0,0 +1,41 @@
+package swp_compiler_ss13.fuc.parser.grammar;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import swp_compiler_ss13.common.lexer.TokenType;
+
+public class GrammarTest {
+	@Test
+	public void testTerminalForMatchesSearch() {
+		Grammar grammar = new ProjectGrammar.Complete().getGrammar();
+		for (TokenType type : TokenType.values()) {
+			Terminal expected = null;
+			for (Terminal t : grammar.getTerminals()) {
+				if (t.isTerminalFor(type)) {
+					expected = t;
+					break;
+				}
+			}
+			assertSame(type.toString(), expected, grammar.getTerminalFor(type));
+		}
+		assertNotNull(grammar.getTerminalFor(TokenType.ID));
+	}
+
+	@Test
+	public void testFirstTerminalWins() {
+		Terminal first = new Terminal("first", TokenType.PLUS, TokenType.MINUS);
+		Terminal second = new Terminal("second", TokenType.MINUS, TokenType.TIMES);
+		Grammar grammar = new Grammar(Arrays.asList(first, second),
+				Collections.<NonTerminal> emptyList(), Collections.<Production> emptyList(),
+				null);
+		assertSame(first, grammar.getTerminalFor(TokenType.PLUS));
+		assertSame(first, grammar.getTerminalFor(TokenType.MINUS));
+		assertSame(second, grammar.getTerminalFor(TokenType.TIMES));
+		assertNull(grammar.getTerminalFor(TokenType.ID));
+	}
+}
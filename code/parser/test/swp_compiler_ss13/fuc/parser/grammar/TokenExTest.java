@@ -60,6 +60,20 @@ public class TokenExTest {
 		//System.out.println(test1.getLine());
 	}
 
+	@Test
+	public final void testCreateFromToken() {
+		Grammar grammar = new ProjectGrammar.Complete().getGrammar();
+		TokenEx tokenEx = TokenEx.createFromToken(new TokenEx("+", TokenType.PLUS, 1, 2, null),
+				grammar);
+		assertSame(ProjectGrammar.Complete.plus, tokenEx.getTerminal());
+		assertEquals(Integer.valueOf(2), tokenEx.getColumn());
+
+		// Tokens which already carry their terminal are not wrapped again
+		assertSame(tokenEx, TokenEx.createFromToken(tokenEx, grammar));
+		TokenEx comment = new TokenEx("# c", TokenType.COMMENT, 1, 1, null);
+		assertSame(comment, TokenEx.createFromToken(comment, grammar));
+	}
+
 	@Test
 	public final void testGetColumn() {
 		//assertNull(test1.getColumn());
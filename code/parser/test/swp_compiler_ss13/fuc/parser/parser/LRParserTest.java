@@ -1,5 +1,8 @@
 package swp_compiler_ss13.fuc.parser.parser;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static swp_compiler_ss13.fuc.parser.GrammarTestHelper.id;
 import static swp_compiler_ss13.fuc.parser.GrammarTestHelper.num;
@@ -8,10 +11,18 @@ import static swp_compiler_ss13.fuc.parser.grammar.ProjectGrammar.Complete.assig
 import static swp_compiler_ss13.fuc.parser.grammar.ProjectGrammar.Complete.returnn;
 import static swp_compiler_ss13.fuc.parser.grammar.ProjectGrammar.Complete.sem;
 
+import java.io.ByteArrayInputStream;
 import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Test;
 
+import swp_compiler_ss13.common.ast.AST;
+import swp_compiler_ss13.common.ast.nodes.StatementNode;
+import swp_compiler_ss13.common.ast.nodes.marynary.BlockNode;
+import swp_compiler_ss13.common.ast.nodes.ternary.BranchNode;
+import swp_compiler_ss13.common.ast.nodes.unary.PrintNode;
+import swp_compiler_ss13.common.ast.nodes.unary.ReturnNode;
 import swp_compiler_ss13.common.lexer.Lexer;
 import swp_compiler_ss13.common.lexer.Token;
 import swp_compiler_ss13.common.lexer.TokenType;
@@ -19,9 +30,12 @@ import swp_compiler_ss13.common.report.ReportType;
 import swp_compiler_ss13.fuc.errorLog.LogEntry;
 import swp_compiler_ss13.fuc.errorLog.LogEntry.Type;
 import swp_compiler_ss13.fuc.errorLog.ReportLogImpl;
+import swp_compiler_ss13.fuc.lexer.LexerImpl;
 import swp_compiler_ss13.fuc.lexer.token.TokenImpl;
 import swp_compiler_ss13.fuc.parser.GrammarTestHelper;
 import swp_compiler_ss13.fuc.parser.TestLexer;
+import swp_compiler_ss13.fuc.parser.generator.ParsingTableCache;
+import swp_compiler_ss13.fuc.parser.grammar.ProjectGrammar;
 import swp_compiler_ss13.fuc.parser.grammar.Terminal;
 
 public class LRParserTest {
@@ -33,16 +47,12 @@ public class LRParserTest {
 				id("l"), t(assignop), num(10), t(sem), t(returnn), id("l"),
 				t(sem), t(sem), t(Terminal.EOF));	// One semicolon too much!
 		
-		// Check output
+		// Check output: The parser skips the semicolon
 		ReportLogImpl reportLog = new ReportLogImpl();
-		try {
-			GrammarTestHelper.parseToAst(lexer, reportLog);
-			fail("Expected a Parserexception!");
-		} catch (ParserException err) {
-			Token sem = new TokenImpl(";", TokenType.SEMICOLON, -1, -1);
-			LogEntry entry = new LogEntry(Type.ERROR, ReportType.WORD_NOT_IN_GRAMMAR, Arrays.<Token>asList(sem), "");
-			GrammarTestHelper.compareReportLogEntries(Arrays.asList(entry), reportLog.getErrors());
-		}
+		assertNotNull(GrammarTestHelper.parseToAst(lexer, reportLog));
+		Token sem = new TokenImpl(";", TokenType.SEMICOLON, -1, -1);
+		LogEntry entry = new LogEntry(Type.ERROR, ReportType.WORD_NOT_IN_GRAMMAR, Arrays.<Token>asList(sem), "");
+		GrammarTestHelper.compareReportLogEntries(Arrays.asList(entry), reportLog.getErrors());
 	}
 	
 	@Test
@@ -100,12 +110,7 @@ public class LRParserTest {
 				+ "return l;\n";
 		
 		ReportLogImpl reportLog = new ReportLogImpl();
-		try {
-			GrammarTestHelper.parseToAst(input, reportLog);
-			fail("Expected ParserException!");
-		} catch (ParserException err) {
-			
-		}
+		assertNotNull(GrammarTestHelper.parseToAst(input, reportLog));
 		
 		Token l = new TokenImpl("l", TokenType.ID, 1, 6);
 		Token one = new TokenImpl("1", TokenType.NUM, 2, 5);
@@ -116,6 +121,96 @@ public class LRParserTest {
 		GrammarTestHelper.compareReportLogEntries(Arrays.asList(entry0, entry1, entry2), reportLog.getEntries());
 	}
 	
+	@Test
+	public void testErrorRecoveryPanicMode() {
+		String input = "long l;\n"
+				+ "l = 1 + * 2;\n"
+				+ "print l;\n"
+				+ "if (l == 1) {\n"
+				+ "l = ) 3;\n"
+				+ "l = 4;\n"
+				+ "}\n"
+				+ "l = 5 +\n"
+				+ "}\n"
+				+ "return l;\n";
+		
+		ReportLogImpl reportLog = new ReportLogImpl();
+		AST ast = GrammarTestHelper.parseToAst(input, reportLog);
+		
+		Token times = new TokenImpl("*", TokenType.TIMES, 2, 9);
+		Token rb = new TokenImpl(")", TokenType.RIGHT_PARAN, 5, 5);
+		Token rcb = new TokenImpl("}", TokenType.RIGHT_BRACE, 9, 1);
+		LogEntry entry0 = new LogEntry(Type.ERROR, ReportType.WORD_NOT_IN_GRAMMAR, Arrays.<Token>asList(times), "");
+		LogEntry entry1 = new LogEntry(Type.ERROR, ReportType.WORD_NOT_IN_GRAMMAR, Arrays.<Token>asList(rb), "");
+		LogEntry entry2 = new LogEntry(Type.ERROR, ReportType.WORD_NOT_IN_GRAMMAR, Arrays.<Token>asList(rcb), "");
+		GrammarTestHelper.compareReportLogEntries(Arrays.asList(entry0, entry1, entry2), reportLog.getEntries());
+		
+		// The statements with errors are left out
+		List<StatementNode> stmts = ast.getRootNode().getStatementList();
+		assertEquals(3, stmts.size());
+		assertTrue(stmts.get(0) instanceof PrintNode);
+		BlockNode block = (BlockNode) ((BranchNode) stmts.get(1)).getStatementNodeOnTrue();
+		assertEquals(1, block.getStatementList().size());
+		assertTrue(stmts.get(2) instanceof ReturnNode);
+	}
+	
+	@Test
+	public void testErrorRecoveryAtEof() {
+		String input = "long l;\n"
+				+ "l = (1 +\n";
+		
+		ReportLogImpl reportLog = new ReportLogImpl();
+		AST ast = GrammarTestHelper.parseToAst(input, reportLog);
+		assertEquals(1, reportLog.getErrors().size());
+		assertEquals(1, ast.getRootNode().getDeclarationList().size());
+		assertTrue(ast.getRootNode().getStatementList().isEmpty());
+	}
+	
+	@Test
+	public void testMaxErrors() throws Exception {
+		String input = "long l;\n"
+				+ "l = * 1;\n"
+				+ "l = * 2;\n"
+				+ "l = * 3;\n";
+		
+		ReportLogImpl reportLog = new ReportLogImpl();
+		assertNotNull(parse(input, reportLog, 4));
+		assertEquals(3, reportLog.getErrors().size());
+		
+		// The parser gives up at the third error
+		reportLog = new ReportLogImpl();
+		try {
+			parse(input, reportLog, 3);
+			fail("Expected ParserException!");
+		} catch (ParserException err) {
+			assertEquals(3, reportLog.getErrors().size());
+		}
+		
+		reportLog = new ReportLogImpl();
+		try {
+			parse(input, reportLog, 1);
+			fail("Expected ParserException!");
+		} catch (ParserException err) {
+			assertEquals(1, reportLog.getErrors().size());
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidMaxErrors() {
+		new LRParser().setMaxErrors(0);
+	}
+	
+	private static AST parse(String input, ReportLogImpl reportLog, int maxErrors)
+			throws Exception {
+		Lexer lexer = new LexerImpl();
+		lexer.setSourceStream(new ByteArrayInputStream(input.getBytes()));
+		ParsingTableCache.Entry entry = ParsingTableCache.get(ProjectGrammar.Complete.class);
+		LRParser parser = new LRParser();
+		parser.setMaxErrors(maxErrors);
+		return parser.parse(new LexerWrapper(lexer, entry.getGrammar()), reportLog,
+				entry.getTable(), entry.getSpec().getGrammarImpl(), entry.getReduceActions());
+	}
+	
 	@Test
 	public void testErrorRecoveryMissingClosingCurlyBraceIfElse() {
 		String input = "long l;\n"
@@ -0,0 +1,169 @@
+package swp_compiler_ss13.fuc.parser.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import swp_compiler_ss13.common.ast.AST;
+import swp_compiler_ss13.common.lexer.Lexer;
+import swp_compiler_ss13.common.lexer.Token;
+import swp_compiler_ss13.common.lexer.TokenType;
+import swp_compiler_ss13.fuc.errorLog.ReportLogImpl;
+import swp_compiler_ss13.fuc.lexer.LexerImpl;
+import swp_compiler_ss13.fuc.parser.ASTComparator;
+import swp_compiler_ss13.fuc.parser.GrammarTestHelper;
+import swp_compiler_ss13.fuc.parser.ParserImpl;
+import swp_compiler_ss13.fuc.parser.grammar.Grammar;
+import swp_compiler_ss13.fuc.parser.grammar.ProjectGrammar;
+import swp_compiler_ss13.fuc.parser.grammar.TokenEx;
+
+public class PipelinedLexerWrapperTest {
+	private static final String PROGRAM = "# a comment\n"
+			+ "long a;\n"
+			+ "double b;\n"
+			+ "a = 1;\n"
+			+ "b = a * 2.5;\n"
+			+ "while (a < 100) {\n"
+			+ "  a = a + 1;\n"
+			+ "  print a;\n"
+			+ "}\n"
+			+ "return a;\n";
+
+	private final Grammar grammar = new ProjectGrammar.Complete().getGrammar();
+
+	@Test(timeout = 10000)
+	public void testSameTokens() {
+		LexerWrapper expected = new LexerWrapper(lex(PROGRAM), grammar);
+		// A tiny buffer, so the lexer thread has to wait for the parser
+		LexerWrapper actual = new PipelinedLexerWrapper(lex(PROGRAM), grammar, 2);
+		TokenEx token;
+		do {
+			token = expected.getNextToken();
+			TokenEx actualToken = actual.getNextToken();
+			assertEquals(token.getValue(), actualToken.getValue());
+			assertEquals(token.getTokenType(), actualToken.getTokenType());
+			assertSame(token.getTerminal(), actualToken.getTerminal());
+			assertEquals(token.getLine(), actualToken.getLine());
+			assertEquals(token.getColumn(), actualToken.getColumn());
+		} while (token.getTokenType() != TokenType.EOF);
+
+		// EOF is returned again
+		assertSame(TokenType.EOF, actual.getNextToken().getTokenType());
+		actual.close();
+	}
+
+	@Test(timeout = 10000)
+	public void testLexerError() {
+		Lexer lexer = new Lexer() {
+			private int count = 0;
+
+			@Override
+			public void setSourceStream(InputStream stream) {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public Token getNextToken() {
+				if (count++ < 3) {
+					return GrammarTestHelper.id("a" + count);
+				}
+				throw new IllegalStateException("Broken input");
+			}
+		};
+		LexerWrapper wrapper = new PipelinedLexerWrapper(lexer, grammar);
+		for (int i = 1; i <= 3; i++) {
+			assertEquals("a" + i, wrapper.getNextToken().getValue());
+		}
+		try {
+			wrapper.getNextToken();
+			fail("Expected the exception of the lexer!");
+		} catch (IllegalStateException err) {
+			assertEquals("Broken input", err.getMessage());
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void testClose() throws Exception {
+		final List<Thread> lexerThreads = new ArrayList<>();
+		Lexer lexer = new Lexer() {
+			@Override
+			public void setSourceStream(InputStream stream) {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public Token getNextToken() {
+				synchronized (lexerThreads) {
+					if (lexerThreads.isEmpty()) {
+						lexerThreads.add(Thread.currentThread());
+						lexerThreads.notifyAll();
+					}
+				}
+				return GrammarTestHelper.id("a");	// Never ends
+			}
+		};
+		LexerWrapper wrapper = new PipelinedLexerWrapper(lexer, grammar, 4);
+		assertEquals("a", wrapper.getNextToken().getValue());
+		Thread lexerThread;
+		synchronized (lexerThreads) {
+			while (lexerThreads.isEmpty()) {
+				lexerThreads.wait();
+			}
+			lexerThread = lexerThreads.get(0);
+		}
+		assertTrue(lexerThread.isAlive());
+
+		wrapper.close();
+		lexerThread.join();
+		assertFalse(lexerThread.isAlive());
+	}
+
+	@Test(timeout = 10000)
+	public void testParserImpl() {
+		ParserImpl parser = new ParserImpl();
+		assertFalse(parser.isPipelined());
+		parser.setPipelined(true);
+		parser.setLexer(lex(PROGRAM));
+		parser.setReportLog(new ReportLogImpl());
+		AST ast = parser.getParsedAST();
+		ASTComparator.compareAST(GrammarTestHelper.parseToAst(PROGRAM), ast);
+
+		// Errors and early stops
+		String invalid = PROGRAM.replace("a = 1;", "a = * 1;");
+		ReportLogImpl expectedLog = new ReportLogImpl();
+		ParserImpl expectedParser = new ParserImpl();
+		expectedParser.setLexer(lex(invalid));
+		expectedParser.setReportLog(expectedLog);
+		ASTComparator.compareAST(expectedParser.getParsedAST(), parse(invalid,
+				new ReportLogImpl(), 100));
+		ReportLogImpl reportLog = new ReportLogImpl();
+		assertNull(parse(invalid, reportLog, 1));
+		GrammarTestHelper.compareReportLogEntries(expectedLog.getEntries(),
+				reportLog.getEntries());
+	}
+
+	private static AST parse(String program, ReportLogImpl reportLog, int maxErrors) {
+		ParserImpl parser = new ParserImpl();
+		parser.setPipelined(true);
+		parser.setMaxErrors(maxErrors);
+		parser.setLexer(lex(program));
+		parser.setReportLog(reportLog);
+		return parser.getParsedAST();
+	}
+
+	private static Lexer lex(String program) {
+		Lexer lexer = new LexerImpl();
+		lexer.setSourceStream(new ByteArrayInputStream(program.getBytes()));
+		return lexer;
+	}
+}
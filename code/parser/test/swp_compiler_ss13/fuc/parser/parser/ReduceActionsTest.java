@@ -0,0 +1,51 @@
+package swp_compiler_ss13.fuc.parser.parser;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import swp_compiler_ss13.fuc.parser.generator.ParsingTableCache;
+import swp_compiler_ss13.fuc.parser.grammar.Production;
+import swp_compiler_ss13.fuc.parser.grammar.ProjectGrammar;
+import swp_compiler_ss13.fuc.parser.parser.tables.ALRCompiledTable;
+
+public class ReduceActionsTest {
+	@Test
+	public void testActionsByOrdinal() throws Exception {
+		ParsingTableCache.Entry entry = ParsingTableCache.get(ProjectGrammar.Complete.class);
+		ALRCompiledTable table = entry.getTable().getCompiledTable();
+		IGrammarImpl grammarImpl = new ProjectGrammarImpl();
+		ReduceActions actions = entry.getReduceActions();
+		assertSame(actions, entry.getReduceActions());
+		assertEquals(table.getProductionsCount(), actions.getProductionsCount());
+
+		for (int i = 0; i < actions.getProductionsCount(); i++) {
+			Production prod = table.getReduce(i).getProduction();
+			ReduceAction expected = grammarImpl.getReduceAction(prod);
+			assertEquals(prod.toString(), expected != null, actions.hasAction(i));
+			if (expected == null) {
+				assertNull(actions.get(i));
+			} else {
+				assertSame(expected.getClass(), actions.get(i).getClass());
+			}
+		}
+	}
+
+	@Test
+	public void testNoActionFlagged() throws Exception {
+		ParsingTableCache.Entry entry = ParsingTableCache.get(ProjectGrammar.Complete.class);
+		ALRCompiledTable table = entry.getTable().getCompiledTable();
+		ReduceActions actions = entry.getReduceActions();
+		boolean foundChain = false;
+		for (int i = 0; i < actions.getProductionsCount(); i++) {
+			Production prod = table.getReduce(i).getProduction();
+			if (prod.equals(ProjectGrammar.Complete.expr3)) {
+				assertFalse(actions.hasAction(i));
+				foundChain = true;
+			} else if (prod.equals(ProjectGrammar.Complete.expr1)) {
+				assertTrue(actions.hasAction(i));
+			}
+		}
+		assertTrue(foundChain);
+	}
+}
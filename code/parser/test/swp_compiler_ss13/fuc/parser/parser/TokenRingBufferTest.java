@@ -0,0 +1,90 @@
+package swp_compiler_ss13.fuc.parser.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import swp_compiler_ss13.common.lexer.TokenType;
+import swp_compiler_ss13.fuc.parser.grammar.TokenEx;
+
+public class TokenRingBufferTest {
+	@Test
+	public void testCapacity() {
+		assertEquals(1, new TokenRingBuffer(1).getCapacity());
+		assertEquals(4, new TokenRingBuffer(3).getCapacity());
+		assertEquals(1024, new TokenRingBuffer(1024).getCapacity());
+		assertEquals(2048, new TokenRingBuffer(1025).getCapacity());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidCapacity() {
+		new TokenRingBuffer(0);
+	}
+
+	@Test
+	public void testOfferAndPoll() {
+		TokenRingBuffer buffer = new TokenRingBuffer(4);
+		assertNull(buffer.poll());
+
+		// Wrap around several times
+		TokenEx[] tokens = new TokenEx[4];
+		for (int round = 0; round < 3; round++) {
+			for (int i = 0; i < tokens.length; i++) {
+				tokens[i] = token(round * 4 + i);
+				assertTrue(buffer.offer(tokens[i]));
+			}
+			assertFalse(buffer.offer(token(-1)));
+			assertEquals(4, buffer.size());
+			for (TokenEx token : tokens) {
+				assertSame(token, buffer.poll());
+			}
+			assertNull(buffer.poll());
+			assertEquals(0, buffer.size());
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void testProducerAndConsumer() throws Exception {
+		final int count = 100000;
+		final TokenRingBuffer buffer = new TokenRingBuffer(16);
+		final TokenEx[] tokens = new TokenEx[count];
+		for (int i = 0; i < count; i++) {
+			tokens[i] = token(i);
+		}
+
+		Thread producer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					for (TokenEx token : tokens) {
+						buffer.put(token);
+					}
+				} catch (InterruptedException err) {
+					throw new RuntimeException(err);
+				}
+			}
+		});
+		producer.start();
+		for (int i = 0; i < count; i++) {
+			assertSame(tokens[i], buffer.take());
+		}
+		producer.join();
+		assertNull(buffer.poll());
+	}
+
+	@Test(timeout = 10000, expected = InterruptedException.class)
+	public void testInterrupt() throws Exception {
+		TokenRingBuffer buffer = new TokenRingBuffer(1);
+		buffer.put(token(0));
+		Thread.currentThread().interrupt();
+		buffer.put(token(1));
+	}
+
+	private static TokenEx token(int i) {
+		return new TokenEx(String.valueOf(i), TokenType.NUM, 1, i, null);
+	}
+}
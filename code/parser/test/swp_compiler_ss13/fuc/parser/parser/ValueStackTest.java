@@ -0,0 +1,64 @@
+package swp_compiler_ss13.fuc.parser.parser;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class ValueStackTest {
+	@Test
+	public void testPushPop() {
+		ValueStack stack = new ValueStack();
+		for (int i = 0; i < 100; i++) {
+			stack.push(i);
+		}
+		assertEquals(100, stack.size());
+		assertEquals(0, stack.get(0));
+		assertEquals(99, stack.get(99));
+		for (int i = 99; i >= 0; i--) {
+			assertEquals(i, stack.pop());
+		}
+		assertTrue(stack.isEmpty());
+	}
+
+	@Test
+	public void testPopSlice() {
+		ValueStack stack = new ValueStack();
+		stack.push("a");
+		stack.push("b");
+		stack.push("c");
+		stack.push("d");
+
+		Object[] slice = stack.popSlice(3);
+		assertArrayEquals(new Object[] { "b", "c", "d" }, slice);
+		assertEquals(Arrays.asList("a"), stack);
+		assertEquals(0, stack.popSlice(0).length);
+
+		// Slices of the same length share their array
+		stack.push("e");
+		stack.push("f");
+		assertSame(slice, stack.popSlice(3));
+		assertArrayEquals(new Object[] { "a", "e", "f" }, slice);
+		assertTrue(stack.isEmpty());
+	}
+
+	@Test
+	public void testDrop() {
+		ValueStack stack = new ValueStack();
+		stack.push("a");
+		stack.push("b");
+		stack.push("c");
+		stack.drop(2);
+		assertEquals(Arrays.asList("a"), stack);
+		stack.drop(0);
+		assertEquals(1, stack.size());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testPopSliceTooLarge() {
+		ValueStack stack = new ValueStack();
+		stack.push("a");
+		stack.popSlice(2);
+	}
+}
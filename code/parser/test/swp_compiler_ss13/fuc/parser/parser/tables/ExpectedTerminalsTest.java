@@ -0,0 +1,68 @@
+package swp_compiler_ss13.fuc.parser.parser.tables;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+import swp_compiler_ss13.fuc.parser.generator.LR1Generator;
+import swp_compiler_ss13.fuc.parser.grammar.Grammar;
+import swp_compiler_ss13.fuc.parser.grammar.ProjectGrammar;
+import swp_compiler_ss13.fuc.parser.grammar.Terminal;
+import swp_compiler_ss13.fuc.parser.parser.states.LRParserState;
+
+public class ExpectedTerminalsTest {
+	private final Grammar grammar = new ProjectGrammar.Complete().getGrammar()
+			.extendByAuxStartProduction();
+
+	@Test
+	public void testSameAsActionTable() throws Exception {
+		LRParsingTable generated = new LR1Generator(grammar).getParsingTable();
+		LRParsingTable frozen = new LR1Generator(grammar).getParsingTable();
+		frozen.freeze();
+		ExpectedTerminals expected = frozen.getExpectedTerminals();
+		ALRCompiledTable compiled = frozen.getCompiledTable();
+		assertEquals(compiled.getStatesCount(), expected.getStatesCount());
+
+		for (LRParserState state : generated.getGenStates()) {
+			List<Terminal> terminals = expected.get(state.getId());
+			assertEquals(new HashSet<>(generated.getActionTable().getPossibleTerminalsFor(state)),
+					new HashSet<>(terminals));
+			for (Terminal terminal : grammar.getTerminals()) {
+				int ordinal = compiled.getTerminalOrdinal(terminal);
+				boolean hasAction = generated.getActionTable().getWithNull(state, terminal) != null;
+				assertEquals(hasAction, terminals.contains(terminal));
+				assertEquals(hasAction, expected.isExpected(state.getId(), ordinal));
+			}
+			assertFalse(terminals.contains(new Terminal("unknown")));
+			assertFalse(expected.isExpected(state.getId(), -1));
+		}
+	}
+
+	@Test
+	public void testComputedOnce() throws Exception {
+		LRParsingTable table = new LR1Generator(grammar).getParsingTable();
+		table.freeze();
+		ExpectedTerminals expected = table.getExpectedTerminals();
+		assertSame(expected, table.getExpectedTerminals());
+		table.compress();
+		assertSame(expected, table.getExpectedTerminals());
+
+		LRParserState start = table.getStartState();
+		assertSame(expected.get(start.getId()),
+				table.getActionTable().getPossibleTerminalsFor(start));
+		assertTrue(expected.get(start.getId()).size() > 0);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testReadOnly() throws Exception {
+		LRParsingTable table = new LR1Generator(grammar).getParsingTable();
+		table.freeze();
+		table.getExpectedTerminals().get(table.getStartState().getId()).add(Terminal.EOF);
+	}
+}
@@ -0,0 +1,63 @@
+package swp_compiler_ss13.fuc.parser.parser.tables;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+
+import org.junit.Test;
+
+import swp_compiler_ss13.fuc.parser.generator.LR1Generator;
+import swp_compiler_ss13.fuc.parser.grammar.Grammar;
+import swp_compiler_ss13.fuc.parser.grammar.NonTerminal;
+import swp_compiler_ss13.fuc.parser.grammar.ProjectGrammar;
+import swp_compiler_ss13.fuc.parser.grammar.Terminal;
+import swp_compiler_ss13.fuc.parser.parser.states.LRParserState;
+
+public class LRCompressedTableTest {
+	private final Grammar grammar = new ProjectGrammar.Complete().getGrammar()
+			.extendByAuxStartProduction();
+
+	@Test
+	public void testSameCellsAsDense() throws Exception {
+		LRParsingTable table = new LR1Generator(grammar).getParsingTable();
+		table.freeze();
+		ALRCompiledTable dense = table.getCompiledTable();
+		LRCompressedTable compressed = new LRCompressedTable(dense);
+
+		for (int state = 0; state < dense.getStatesCount(); state++) {
+			for (int t = -1; t <= dense.getTerminalsCount(); t++) {
+				assertEquals(dense.getAction(state, t), compressed.getAction(state, t));
+			}
+			for (int nt = -1; nt <= dense.getNonTerminalsCount(); nt++) {
+				assertEquals(dense.getGoto(state, nt), compressed.getGoto(state, nt));
+			}
+		}
+		assertTrue(compressed.getCellsSize() < dense.getCellsSize());
+	}
+
+	@Test
+	public void testCompressParsingTable() throws Exception {
+		LRParsingTable generated = new LR1Generator(grammar).getParsingTable();
+		LRParsingTable compressed = new LR1Generator(grammar).getParsingTable();
+		assertFalse(compressed.isCompressed());
+		compressed.compress();
+		assertTrue(compressed.isFrozen());
+		assertTrue(compressed.isCompressed());
+		assertTrue(compressed.getCompiledTable() instanceof LRCompressedTable);
+
+		for (LRParserState state : generated.getGenStates()) {
+			for (Terminal terminal : grammar.getTerminals()) {
+				assertEquals(generated.getActionTable().getWithNull(state, terminal),
+						compressed.getActionTable().getWithNull(state, terminal));
+			}
+			for (NonTerminal nonTerminal : grammar.getNonTerminals()) {
+				assertEquals(generated.getGotoTable().getWithNull(state, nonTerminal),
+						compressed.getGotoTable().getWithNull(state, nonTerminal));
+			}
+			assertEquals(new HashSet<>(generated.getActionTable().getPossibleTerminalsFor(state)),
+					new HashSet<>(compressed.getActionTable().getPossibleTerminalsFor(state)));
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package swp_compiler_ss13.fuc.parser.parser.tables;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import swp_compiler_ss13.common.lexer.TokenType;
+import swp_compiler_ss13.fuc.parser.generator.LR1Generator;
+import swp_compiler_ss13.fuc.parser.grammar.Grammar;
+import swp_compiler_ss13.fuc.parser.grammar.NonTerminal;
+import swp_compiler_ss13.fuc.parser.grammar.ProjectGrammar;
+import swp_compiler_ss13.fuc.parser.grammar.Terminal;
+import swp_compiler_ss13.fuc.parser.grammar.TokenEx;
+import swp_compiler_ss13.fuc.parser.parser.states.LRParserState;
+import swp_compiler_ss13.fuc.parser.parser.tables.actions.ALRAction;
+import swp_compiler_ss13.fuc.parser.parser.tables.actions.ALRAction.ELRActionType;
+
+public class LRDenseTableTest {
+	private final Grammar grammar = new ProjectGrammar.Complete().getGrammar()
+			.extendByAuxStartProduction();
+
+	@Test
+	public void testDenseMatchesGenerated() throws Exception {
+		LRParsingTable generated = new LR1Generator(grammar).getParsingTable();
+		LRDenseTable dense = (LRDenseTable) generated.getCompiledTable();
+		assertFalse(generated.isFrozen());
+		assertEquals(generated.getStartState().getId(), dense.getStartState());
+
+		for (LRParserState state : generated.getGenStates()) {
+			for (Terminal terminal : grammar.getTerminals()) {
+				ALRAction expected = generated.getActionTable().getWithNull(state, terminal);
+				int action = dense.getAction(state.getId(), dense.getTerminalOrdinal(terminal));
+				assertEquals(expected, dense.decode(action));
+				if (expected == null) {
+					assertEquals(LRDenseTable.ERROR, action);
+				}
+			}
+			for (NonTerminal nonTerminal : grammar.getNonTerminals()) {
+				LRParserState expected = generated.getGotoTable().getWithNull(state, nonTerminal);
+				int newState = dense.getGoto(state.getId(),
+						dense.getNonTerminalOrdinal(nonTerminal));
+				if (expected == null) {
+					assertEquals(LRDenseTable.NO_STATE, newState);
+				} else {
+					assertEquals(expected, dense.getState(newState));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testFrozenView() throws Exception {
+		LRParsingTable generated = new LR1Generator(grammar).getParsingTable();
+		LRParsingTable frozen = new LR1Generator(grammar).getParsingTable();
+		frozen.freeze();
+		assertTrue(frozen.isFrozen());
+		assertTrue(frozen.getCompiledTable() == frozen.getCompiledTable());
+
+		for (LRParserState state : generated.getGenStates()) {
+			assertEquals(generated.getActionTable().getPossibleTerminalsFor(state).size(),
+					frozen.getActionTable().getPossibleTerminalsFor(state).size());
+			assertTrue(generated.getActionTable().getPossibleTerminalsFor(state).containsAll(
+					frozen.getActionTable().getPossibleTerminalsFor(state)));
+			for (Terminal terminal : grammar.getTerminals()) {
+				ALRAction expected = generated.getActionTable().get(state, terminal);
+				ALRAction actual = frozen.getActionTable().get(state, terminal);
+				if (expected.getType() == ELRActionType.ERROR) {
+					// Error does not implement equals()
+					assertEquals(ELRActionType.ERROR, actual.getType());
+				} else {
+					assertEquals(expected, actual);
+				}
+			}
+			for (NonTerminal nonTerminal : grammar.getNonTerminals()) {
+				assertEquals(generated.getGotoTable().get(state, nonTerminal),
+						frozen.getGotoTable().get(state, nonTerminal));
+			}
+		}
+	}
+
+	@Test
+	public void testTokenOrdinals() throws Exception {
+		LRDenseTable dense = (LRDenseTable) new LR1Generator(grammar).getParsingTable()
+				.getCompiledTable();
+		for (Terminal terminal : grammar.getTerminals()) {
+			for (TokenType tokenType : terminal.getTokenTypes()) {
+				TokenEx token = new TokenEx("", tokenType, 1, 1, terminal);
+				assertEquals(dense.getTerminalOrdinal(terminal), dense.getTerminalOrdinal(token));
+			}
+		}
+		TokenEx eof = new TokenEx(null, TokenType.EOF, 1, 1, Terminal.EOF);
+		assertEquals(dense.getTerminalOrdinal(Terminal.EOF), dense.getTerminalOrdinal(eof));
+
+		// A token whose terminal is not the one of its type, like the ones
+		// inserted by the error recovery
+		TokenEx inserted = new TokenEx("", TokenType.NOT_A_TOKEN, 1, 1, ProjectGrammar.Complete.sem);
+		assertEquals(dense.getTerminalOrdinal(ProjectGrammar.Complete.sem),
+				dense.getTerminalOrdinal(inserted));
+		TokenEx unknown = new TokenEx("", TokenType.NUM, 1, 1, new Terminal("unknown"));
+		assertEquals(-1, dense.getTerminalOrdinal(unknown));
+	}
+}
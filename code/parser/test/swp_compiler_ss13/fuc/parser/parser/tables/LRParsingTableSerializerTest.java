@@ -0,0 +1,86 @@
+package swp_compiler_ss13.fuc.parser.parser.tables;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Test;
+
+import swp_compiler_ss13.fuc.parser.generator.LR1Generator;
+import swp_compiler_ss13.fuc.parser.grammar.Grammar;
+import swp_compiler_ss13.fuc.parser.grammar.NonTerminal;
+import swp_compiler_ss13.fuc.parser.grammar.Production;
+import swp_compiler_ss13.fuc.parser.grammar.ProjectGrammar;
+import swp_compiler_ss13.fuc.parser.grammar.Terminal;
+import swp_compiler_ss13.fuc.parser.parser.states.LRParserState;
+
+public class LRParsingTableSerializerTest {
+	private final Grammar grammar = new ProjectGrammar.Complete().getGrammar();
+
+	@Test
+	public void testWriteRead() throws Exception {
+		LRParsingTable generated = new LR1Generator(grammar).getParsingTable();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		LRParsingTableSerializer.write(generated, grammar, out);
+
+		LRParsingTable loaded = LRParsingTableSerializer.read(grammar,
+				new ByteArrayInputStream(out.toByteArray()));
+		assertNotNull(loaded);
+		assertTrue(loaded.isFrozen());
+		assertEquals(generated.getStatesCount(), loaded.getStatesCount());
+		assertEquals(generated.getStartState(), loaded.getStartState());
+
+		Grammar extended = grammar.extendByAuxStartProduction();
+		for (LRParserState state : generated.getGenStates()) {
+			for (Terminal terminal : extended.getTerminals()) {
+				assertEquals(generated.getActionTable().getWithNull(state, terminal),
+						loaded.getActionTable().getWithNull(state, terminal));
+			}
+			for (NonTerminal nonTerminal : extended.getNonTerminals()) {
+				assertEquals(generated.getGotoTable().getWithNull(state, nonTerminal),
+						loaded.getGotoTable().getWithNull(state, nonTerminal));
+			}
+		}
+	}
+
+	@Test
+	public void testFingerprintMismatch() throws Exception {
+		LRParsingTable generated = new LR1Generator(grammar).getParsingTable();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		LRParsingTableSerializer.write(generated, grammar, out);
+
+		// Same grammar without its last production
+		List<Production> productions = new LinkedList<>(grammar.getProductions());
+		productions.remove(productions.size() - 1);
+		Grammar other = new Grammar(grammar.getTerminals(), grammar.getNonTerminals(),
+				productions, grammar.getAssociativities());
+
+		assertNull(LRParsingTableSerializer.read(other,
+				new ByteArrayInputStream(out.toByteArray())));
+	}
+
+	@Test
+	public void testInvalidInput() {
+		try {
+			LRParsingTableSerializer.read(grammar,
+					new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 }));
+			fail("Expected an IOException!");
+		} catch (IOException err) {
+			// Success
+		}
+	}
+
+	@Test
+	public void testResourceName() {
+		assertEquals("ProjectGrammar$Complete.lrtable",
+				LRParsingTableSerializer.getResourceName(ProjectGrammar.Complete.class));
+	}
+}
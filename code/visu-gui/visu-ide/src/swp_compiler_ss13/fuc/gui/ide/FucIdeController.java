@@ -8,9 +8,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringWriter;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -27,7 +27,6 @@ import swp_compiler_ss13.common.backend.Quadruple;
 import swp_compiler_ss13.common.ir.IntermediateCodeGenerator;
 import swp_compiler_ss13.common.lexer.Lexer;
 import swp_compiler_ss13.common.lexer.Token;
-import swp_compiler_ss13.common.lexer.TokenType;
 import swp_compiler_ss13.common.parser.Parser;
 import swp_compiler_ss13.common.semanticAnalysis.SemanticAnalyser;
 import swp_compiler_ss13.fuc.backend.LLVMExecutor;
@@ -40,6 +39,7 @@ import swp_compiler_ss13.fuc.gui.ide.data.FucIdeTab;
 import swp_compiler_ss13.fuc.gui.ide.java.JavaExecuter;
 import swp_compiler_ss13.fuc.gui.ide.mvc.Controller;
 import swp_compiler_ss13.fuc.gui.ide.mvc.Position;
+import swp_compiler_ss13.fuc.lexer.TokenBuffer;
 
 /**
  * The FUC IDE Controllre
@@ -378,6 +378,21 @@ public class FucIdeController {
 	public void onParserSelected(Parser parser) {
 		logger.info("Parser component active: " + parser.getClass().getName());
 		this.model.setActiveParser(parser);
+		this.setIncremental(parser);
+	}
+
+	// the same source is parsed again after every edit, so let parsers with a
+	// method setIncremental(boolean) (like the FUC parser) reuse their last
+	// result. Only the parser of the IDE is changed, not all parsers of the JVM.
+	private void setIncremental(Parser parser) {
+		try {
+			Method setIncremental = parser.getClass().getMethod("setIncremental", boolean.class);
+			setIncremental.invoke(parser, true);
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			// the parser always parses the whole program
+		} catch (InvocationTargetException e) {
+			throw new RuntimeException(e.getCause());
+		}
 	}
 
 	public void onAnalyzerSelected(SemanticAnalyser analyzer) {
@@ -571,14 +586,8 @@ public class FucIdeController {
 
 		try {
 			lexer.setSourceStream(stream);
-			List<Token> tokenList = new LinkedList<>();
-			while (true) {
-				Token token = lexer.getNextToken();
-				tokenList.add(token);
-				if (token.getTokenType() == TokenType.EOF) {
-					break;
-				}
-			}
+			TokenBuffer tokenList = new TokenBuffer();
+			tokenList.readAll(lexer);
 			return tokenList;
 		} catch (Throwable th) {
 			if (!silent) {
@@ -591,7 +600,11 @@ public class FucIdeController {
 	public AST runParser(List<Token> tokens, boolean silent, ReportLogImpl log) {
 		Parser parser = this.model.getActiveParser();
 		parser.setReportLog(log);
-		parser.setLexer(new MockLexer(tokens));
+		if (tokens instanceof TokenBuffer) {
+			parser.setLexer(((TokenBuffer) tokens).getLexer());
+		} else {
+			parser.setLexer(new MockLexer(tokens));
+		}
 
 		try {
 			AST ast = parser.getParsedAST();